@@ -41,7 +41,8 @@ public interface GroupRpcDispatcher extends GroupCommunicationService {
      * Register an object upon which RPCs associated with the given serviceName will be invoked. The partition receives RPC
      * calls from other nodes in the cluster and demultiplexes them, according to a service name, to a particular service.
      * Consequently, each service must first subscribe with a particular service name in the partition. The subscriber does not
-     * need to implement any specific interface: the call is handled dynamically through reflection.
+     * need to implement any specific interface: the call is handled dynamically through reflection. A subscriber that
+     * implements {@link GroupRpcHandler} is instead invoked through the methods it declares, which it resolves once.
      *
      * @param serviceName Name of the subscribing service (demultiplexing key)
      * @param handler object to be called when receiving a RPC for its key.
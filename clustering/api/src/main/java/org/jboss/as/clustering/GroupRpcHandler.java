@@ -0,0 +1,37 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering;
+
+/**
+ * An RPC handler that declares up front the methods it can be invoked on. When such a handler is registered via
+ * {@link GroupRpcDispatcher#registerRPCHandler(String, Object)}, RPCs matching a declared method are sent using an
+ * identifier derived from its name and parameter types, rather than the name and parameter types themselves, and are
+ * dispatched by the receiver without reflective lookup. The compact form is only used for peers that are known to
+ * support it; other peers are sent the name-based form.
+ */
+public interface GroupRpcHandler {
+    /**
+     * Returns the methods of this handler that can be invoked remotely. The order of the methods is not significant.
+     * @return an array of methods
+     */
+    RpcMethod[] getRpcMethods();
+}
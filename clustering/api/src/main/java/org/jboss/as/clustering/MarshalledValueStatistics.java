@@ -0,0 +1,75 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.clustering;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-wide statistics for the serialization of {@link SimpleMarshalledValue}s.
+ */
+public class MarshalledValueStatistics {
+    public static final MarshalledValueStatistics INSTANCE = new MarshalledValueStatistics();
+
+    private final AtomicLong marshalCount = new AtomicLong();
+    private final AtomicLong marshalTime = new AtomicLong();
+    private final AtomicLong bytesSaved = new AtomicLong();
+
+    private MarshalledValueStatistics() {
+        // Singleton
+    }
+
+    void marshalled(long nanos) {
+        this.marshalCount.incrementAndGet();
+        this.marshalTime.addAndGet(nanos);
+    }
+
+    void saved(int bytes) {
+        this.bytesSaved.addAndGet(bytes);
+    }
+
+    /**
+     * Returns the number of times a value was marshalled.
+     * @return a marshal count
+     */
+    public long getMarshalCount() {
+        return this.marshalCount.get();
+    }
+
+    /**
+     * Returns the total time spent marshalling values, in milliseconds.
+     * @return a duration in milliseconds
+     */
+    public long getMarshalTime() {
+        return TimeUnit.NANOSECONDS.toMillis(this.marshalTime.get());
+    }
+
+    /**
+     * Returns the number of bytes that did not need to be marshalled or written, either because previously marshalled bytes
+     * were reused, or because of compression.
+     * @return a number of bytes
+     */
+    public long getBytesSaved() {
+        return this.bytesSaved.get();
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering;
+
+import java.util.Arrays;
+
+/**
+ * Describes a method of a {@link GroupRpcHandler} that can be invoked via a {@link GroupRpcDispatcher}.
+ */
+public final class RpcMethod {
+    private final String name;
+    private final Class<?>[] types;
+
+    public RpcMethod(String name, Class<?>... types) {
+        this.name = name;
+        this.types = types;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public Class<?>[] getTypes() {
+        return this.types.clone();
+    }
+
+    /**
+     * Indicates whether this method matches the specified method name and parameter types.
+     */
+    public boolean matches(String name, Class<?>[] types) {
+        return this.name.equals(name) && Arrays.equals(this.types, (types != null) ? types : new Class<?>[0]);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.name.hashCode() ^ Arrays.hashCode(this.types);
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if ((object == null) || !(object instanceof RpcMethod)) return false;
+        RpcMethod method = (RpcMethod) object;
+        return this.name.equals(method.name) && Arrays.equals(this.types, method.types);
+    }
+
+    @Override
+    public String toString() {
+        return this.name + Arrays.toString(this.types);
+    }
+}
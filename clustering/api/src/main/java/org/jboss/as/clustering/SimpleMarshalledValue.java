@@ -31,6 +31,9 @@ import java.io.ObjectOutput;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
 import org.jboss.marshalling.Marshaller;
 import org.jboss.marshalling.Marshalling;
@@ -40,14 +43,27 @@ import org.jboss.marshalling.Unmarshaller;
 
 /**
  * A non-hashable marshalled value, that is lazily serialized, but only deserialized on demand.
+ * The serialized form is computed at most once, and reused for equality checks and subsequent writes,
+ * so callers are expected to create a new marshalled value whenever the underlying object is mutated.
+ * If the {@value #COMPRESSION_THRESHOLD_PROPERTY} system property is set, serialized forms of at least that many bytes
+ * are compressed when written.
  * @author Paul Ferraro
  */
 public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingContext>, Externalizable {
     private static final long serialVersionUID = -8852566958387608376L;
 
+    public static final String COMPRESSION_THRESHOLD_PROPERTY = "jboss.clustering.marshalled-value.compression-threshold";
+
+    private static final int COMPRESSION_THRESHOLD = getCompressionThreshold();
+    private static final int MAX_POOLED_BUFFER_SIZE = 64 * 1024;
+    private static final byte[] INCOMPRESSIBLE = new byte[0];
+    // Marshalling buffer reused by successive marshalling operations on the same thread
+    private static final ThreadLocal<Buffer> BUFFER = new ThreadLocal<Buffer>();
+
     private transient volatile MarshallingContext context;
     private transient volatile T object;
     private transient volatile byte[] bytes;
+    private transient volatile byte[] compressedBytes;
 
     public SimpleMarshalledValue(T object, MarshallingContext context) {
         this.context = context;
@@ -65,33 +81,111 @@ public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingC
     byte[] getBytes() throws IOException {
         byte[] bytes = this.bytes;
         if (bytes != null) return bytes;
+        synchronized (this) {
+            if (this.bytes == null) {
+                this.bytes = this.marshal();
+            }
+            return this.bytes;
+        }
+    }
+
+    private byte[] marshal() throws IOException {
         if (this.object == null) return null;
+        long start = System.nanoTime();
         int version = this.context.getCurrentVersion();
-        ByteArrayOutputStream output = new ByteArrayOutputStream();
-        SimpleDataOutput data = new SimpleDataOutput(Marshalling.createByteOutput(output));
-        data.writeInt(version);
-        Marshaller marshaller = this.context.createMarshaller(version);
+        // Nested marshalling, e.g. of marshalled values referenced by this object, will not find a pooled buffer
+        Buffer output = BUFFER.get();
+        if (output != null) {
+            BUFFER.remove();
+        } else {
+            output = new Buffer();
+        }
         try {
-            marshaller.start(data);
-
-            // Workaround for AS7-2496
-            ClassLoader currentLoader = null;
-            ClassLoader contextLoader = context.getContextClassLoader(version);
-            if (contextLoader != null) {
-                currentLoader = getCurrentThreadContextClassLoader();
-                setCurrentThreadContextClassLoader(contextLoader);
-            }
+            SimpleDataOutput data = new SimpleDataOutput(Marshalling.createByteOutput(output));
+            data.writeInt(version);
+            Marshaller marshaller = this.context.createMarshaller(version);
             try {
-                marshaller.writeObject(this.object);
-            } finally {
+                marshaller.start(data);
+
+                // Workaround for AS7-2496
+                ClassLoader currentLoader = null;
+                ClassLoader contextLoader = context.getContextClassLoader(version);
                 if (contextLoader != null) {
-                    setCurrentThreadContextClassLoader(currentLoader);
+                    currentLoader = getCurrentThreadContextClassLoader();
+                    setCurrentThreadContextClassLoader(contextLoader);
+                }
+                try {
+                    marshaller.writeObject(this.object);
+                } finally {
+                    if (contextLoader != null) {
+                        setCurrentThreadContextClassLoader(currentLoader);
+                    }
                 }
+                marshaller.finish();
+                return output.toByteArray();
+            } finally {
+                marshaller.close();
+            }
+        } finally {
+            // Don't let a single large value pin a large buffer to this thread
+            if (output.capacity() <= MAX_POOLED_BUFFER_SIZE) {
+                output.reset();
+                BUFFER.set(output);
+            }
+            MarshalledValueStatistics.INSTANCE.marshalled(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Returns the compressed form of the specified serialized form, or null if it should not be compressed.
+     */
+    private byte[] getCompressedBytes(byte[] bytes) {
+        if ((COMPRESSION_THRESHOLD < 0) || (bytes.length < COMPRESSION_THRESHOLD)) return null;
+        byte[] compressed = this.compressedBytes;
+        if (compressed == null) {
+            compressed = compress(bytes);
+            this.compressedBytes = compressed;
+        }
+        return (compressed != INCOMPRESSIBLE) ? compressed : null;
+    }
+
+    private static byte[] compress(byte[] bytes) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            ByteArrayOutputStream output = new ByteArrayOutputStream(bytes.length / 2);
+            byte[] buffer = new byte[Math.min(bytes.length, 8192)];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(buffer);
+                output.write(buffer, 0, count);
+                // Abort if compression is not worth it
+                if (output.size() >= bytes.length) return INCOMPRESSIBLE;
             }
-            marshaller.finish();
             return output.toByteArray();
         } finally {
-            marshaller.close();
+            deflater.end();
+        }
+    }
+
+    private static byte[] decompress(byte[] compressed, int length) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] bytes = new byte[length];
+            int offset = 0;
+            while (offset < length) {
+                int count = inflater.inflate(bytes, offset, length - offset);
+                if ((count == 0) && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException(new DataFormatException());
+                }
+                offset += count;
+            }
+            return bytes;
+        } catch (DataFormatException e) {
+            throw new IOException(e);
+        } finally {
+            inflater.end();
         }
     }
 
@@ -126,7 +220,9 @@ public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingC
                         }
                     }
                     unmarshaller.finish();
-                    this.bytes = null; // Free up memory
+                    // Free up memory
+                    this.bytes = null;
+                    this.compressedBytes = null;
                 } finally {
                     unmarshaller.close();
                 }
@@ -172,10 +268,23 @@ public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingC
 
     @Override
     public void writeExternal(ObjectOutput out) throws IOException {
+        boolean marshalled = (this.bytes != null) && (this.object != null);
         byte[] bytes = this.getBytes();
         if (bytes != null) {
-            out.writeInt(bytes.length);
-            out.write(bytes);
+            if (marshalled) {
+                MarshalledValueStatistics.INSTANCE.saved(bytes.length);
+            }
+            byte[] compressed = this.getCompressedBytes(bytes);
+            if (compressed != null) {
+                // A negative size indicates a compressed form, followed by the uncompressed size
+                out.writeInt(-compressed.length);
+                out.writeInt(bytes.length);
+                out.write(compressed);
+                MarshalledValueStatistics.INSTANCE.saved(bytes.length - compressed.length);
+            } else {
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
         } else {
             out.writeInt(0);
         }
@@ -187,11 +296,26 @@ public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingC
         byte[] bytes = null;
         if (size > 0) {
             bytes = new byte[size];
-            in.read(bytes);
+            in.readFully(bytes);
+        } else if (size < 0) {
+            int length = in.readInt();
+            byte[] compressed = new byte[-size];
+            in.readFully(compressed);
+            bytes = decompress(compressed, length);
         }
         this.bytes = bytes;
     }
 
+    private static int getCompressionThreshold() {
+        PrivilegedAction<Integer> action = new PrivilegedAction<Integer>() {
+            @Override
+            public Integer run() {
+                return Integer.getInteger(COMPRESSION_THRESHOLD_PROPERTY, -1);
+            }
+        };
+        return (System.getSecurityManager() == null) ? action.run() : AccessController.doPrivileged(action);
+    }
+
     static ClassLoader getCurrentThreadContextClassLoader() {
         if(System.getSecurityManager() == null) {
             return Thread.currentThread().getContextClassLoader();
@@ -220,4 +344,17 @@ public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingC
             AccessController.doPrivileged(action);
         }
     }
+
+    /**
+     * Marshalling buffer that exposes its capacity.
+     */
+    private static class Buffer extends ByteArrayOutputStream {
+        Buffer() {
+            super(512);
+        }
+
+        int capacity() {
+            return this.buf.length;
+        }
+    }
 }
@@ -35,6 +35,8 @@ import org.jboss.as.clustering.ClusterNode;
 import org.jboss.as.clustering.GroupMembershipListener;
 import org.jboss.as.clustering.GroupMembershipNotifier;
 import org.jboss.as.clustering.GroupRpcDispatcher;
+import org.jboss.as.clustering.GroupRpcHandler;
+import org.jboss.as.clustering.RpcMethod;
 import org.jboss.as.clustering.lock.ClusterLockState.State;
 
 import static org.jboss.as.clustering.ClusteringApiLogger.ROOT_LOGGER;
@@ -54,13 +56,23 @@ public abstract class AbstractClusterLockSupport implements GroupMembershipListe
     /**
      * Object the HAPartition can invoke on. This class is static as an aid in unit testing.
      */
-    public static class RpcTarget {
+    public static class RpcTarget implements GroupRpcHandler {
+        private static final RpcMethod[] RPC_METHODS = new RpcMethod[] {
+            new RpcMethod("remoteLock", REMOTE_LOCK_TYPES),
+            new RpcMethod("releaseRemoteLock", RELEASE_REMOTE_LOCK_TYPES),
+        };
+
         private final AbstractClusterLockSupport mgr;
 
         RpcTarget(AbstractClusterLockSupport mgr) {
             this.mgr = mgr;
         }
 
+        @Override
+        public RpcMethod[] getRpcMethods() {
+            return RPC_METHODS;
+        }
+
         public RemoteLockResponse remoteLock(Serializable categoryName, ClusterNode caller, long timeout) {
             return mgr.remoteLock(categoryName, caller, timeout);
         }
@@ -148,8 +160,7 @@ public abstract class AbstractClusterLockSupport implements GroupMembershipListe
                 try {
                     // Get the lock on all other nodes in the cluster
 
-                    List<RemoteLockResponse> rsps = rpcDispatcher.callMethodOnCluster(getServiceHAName(), "remoteLock",
-                            new Object[] { lockId, me, new Long(left) }, REMOTE_LOCK_TYPES, true, null, rpcDispatcher.getMethodCallTimeout(), false);
+                    List<RemoteLockResponse> rsps = requestRemoteLock(lockId, left);
 
                     boolean remoteLocked = true;
                     if (rsps != null) {
@@ -246,7 +257,7 @@ public abstract class AbstractClusterLockSupport implements GroupMembershipListe
         this.me = this.rpcDispatcher.getClusterNode();
         this.localHandler.setLocalNode(this.me);
 
-        this.rpcTarget = new RpcTarget(this);
+        this.rpcTarget = this.createRpcTarget();
         this.rpcDispatcher.registerRPCHandler(this.serviceHAName, this.rpcTarget);
         this.membershipNotifier.registerGroupMembershipListener(this);
 
@@ -313,6 +324,33 @@ public abstract class AbstractClusterLockSupport implements GroupMembershipListe
     protected abstract RemoteLockResponse getRemoteLockResponseForUnknownLock(Serializable lockName, ClusterNode caller,
             long timeout);
 
+    /**
+     * Creates the object that other nodes invoke via the {@link GroupRpcDispatcher}.
+     */
+    protected RpcTarget createRpcTarget() {
+        return new RpcTarget(this);
+    }
+
+    /**
+     * Asks the other nodes in the cluster for the lock on behalf of the local node.
+     * @param lockId the identifier of the lock
+     * @param timeout max ms the other nodes may wait before granting the lock
+     * @return the responses of the other nodes, or <code>null</code> if there are none
+     */
+    protected List<RemoteLockResponse> requestRemoteLock(Serializable lockId, long timeout) throws Exception {
+        return rpcDispatcher.callMethodOnCluster(getServiceHAName(), "remoteLock",
+                new Object[] { lockId, me, new Long(timeout) }, REMOTE_LOCK_TYPES, true, null, rpcDispatcher.getMethodCallTimeout(), false);
+    }
+
+    /**
+     * Tells the other nodes in the cluster to back out of a failed attempt by the local node to lock.
+     * @param lockId the identifier of the lock
+     */
+    protected void cancelRemoteLock(Serializable lockId) throws Exception {
+        rpcDispatcher.callMethodOnCluster(getServiceHAName(), "releaseRemoteLock", new Object[] { lockId, me },
+                RELEASE_REMOTE_LOCK_TYPES, true);
+    }
+
     protected void recordLockHolder(ClusterLockState lockState, ClusterNode caller) {
         if (lockState.holder != null) {
             Set<ClusterLockState> memberLocks = getLocksHeldByMember(lockState.holder);
@@ -469,8 +507,7 @@ public abstract class AbstractClusterLockSupport implements GroupMembershipListe
     /** Back out of a failed attempt by the local node to lock */
     private void cleanup(Serializable categoryName, ClusterLockState category) {
         try {
-            rpcDispatcher.callMethodOnCluster(getServiceHAName(), "releaseRemoteLock", new Object[] { categoryName, me },
-                    RELEASE_REMOTE_LOCK_TYPES, true);
+            cancelRemoteLock(categoryName);
         } catch (RuntimeException e) {
             throw e;
         } catch (Exception e) {
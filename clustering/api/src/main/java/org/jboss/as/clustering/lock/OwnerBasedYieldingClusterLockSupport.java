@@ -0,0 +1,337 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering.lock;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jboss.as.clustering.ClusterNode;
+import org.jboss.as.clustering.GroupMembershipNotifier;
+import org.jboss.as.clustering.GroupRpcDispatcher;
+import org.jboss.as.clustering.RpcMethod;
+
+import static org.jboss.as.clustering.ClusteringApiLogger.ROOT_LOGGER;
+
+/**
+ * Variant of {@link YieldingGloballyExclusiveClusterLockSupport} where each lock is assigned, via rendezvous hashing of the
+ * current view, to an owner node that tracks which node holds the lock. A node acquires a lock with a single request to the
+ * owner, which revokes the lock from its current holder, if any, using the usual yielding semantics. Since a node continues to
+ * hold a lock until the owner revokes it, a node reacquiring a lock it last held needs no cluster-wide call at all.
+ * <p>
+ * An owner only knows the holder of the locks it granted in the current view. For any other lock, e.g. following a view
+ * change or a lock created via {@link SharedLocalYieldingClusterLockManager.LockResult#NEW_LOCK}, the owner falls back to asking
+ * every member of the cluster, as {@link YieldingGloballyExclusiveClusterLockSupport} does, and tracks the lock thereafter.
+ * </p>
+ * <p>
+ * The owner of a lock is determined from the {@link Object#toString()} of its identifier, so lock identifiers, typically
+ * strings such as session identifiers, must have a string form that is the same on every node.
+ * </p>
+ */
+public class OwnerBasedYieldingClusterLockSupport extends YieldingGloballyExclusiveClusterLockSupport {
+    public static final Class<?>[] ACQUIRE_OWNED_LOCK_TYPES = REMOTE_LOCK_TYPES;
+    public static final Class<?>[] FORGET_OWNED_LOCK_TYPES = RELEASE_REMOTE_LOCK_TYPES;
+
+    /**
+     * Object the HAPartition can invoke on, which additionally accepts lock requests for the locks owned by this node.
+     */
+    public static class OwnerRpcTarget extends RpcTarget {
+        private static final RpcMethod[] RPC_METHODS = new RpcMethod[] {
+            new RpcMethod("remoteLock", REMOTE_LOCK_TYPES),
+            new RpcMethod("releaseRemoteLock", RELEASE_REMOTE_LOCK_TYPES),
+            new RpcMethod("acquireOwnedLock", ACQUIRE_OWNED_LOCK_TYPES),
+            new RpcMethod("forgetOwnedLock", FORGET_OWNED_LOCK_TYPES),
+        };
+
+        private final OwnerBasedYieldingClusterLockSupport mgr;
+
+        OwnerRpcTarget(OwnerBasedYieldingClusterLockSupport mgr) {
+            super(mgr);
+            this.mgr = mgr;
+        }
+
+        @Override
+        public RpcMethod[] getRpcMethods() {
+            return RPC_METHODS;
+        }
+
+        public RemoteLockResponse acquireOwnedLock(Serializable lockId, ClusterNode caller, long timeout) {
+            return mgr.acquireOwnedLock(lockId, caller, timeout);
+        }
+
+        public void forgetOwnedLock(Serializable lockId, ClusterNode caller) {
+            mgr.forgetOwnedLock(lockId, caller);
+        }
+    }
+
+    /**
+     * Holder of a lock owned by this node. Always access with a lock on the OwnedLock.
+     */
+    private static class OwnedLock {
+        /** The node holding the lock, or null if not yet known */
+        ClusterNode holder;
+        /** The node whose request for the lock is in progress, or null if there is none */
+        ClusterNode pending;
+    }
+
+    private final ConcurrentMap<Serializable, OwnedLock> ownedLocks = new ConcurrentHashMap<Serializable, OwnedLock>();
+
+    public OwnerBasedYieldingClusterLockSupport(String serviceHAName, GroupRpcDispatcher rpcDispatcher,
+            GroupMembershipNotifier membershipNotifier, LocalLockHandler handler) {
+        super(serviceHAName, rpcDispatcher, membershipNotifier, handler);
+    }
+
+    // ---------------------------------------------------- GroupMembershipListener
+
+    @Override
+    public synchronized void membershipChanged(List<ClusterNode> deadMembers, List<ClusterNode> newMembers,
+            List<ClusterNode> allMembers) {
+        super.membershipChanged(deadMembers, newMembers, allMembers);
+        // Ownership of most locks has potentially moved, so forget what we knew
+        this.ownedLocks.clear();
+    }
+
+    // ------------------------------------------------------ ClusterLockManager
+
+    /**
+     * Tells the owner of the given lock that it no longer needs to track it. The local node must not hold the lock.
+     * @param lockId the identifier of the lock
+     */
+    @Override
+    public void forget(Serializable lockId) {
+        ClusterNode me = getLocalClusterNode();
+        ClusterNode owner = getOwner(lockId);
+        if ((me == null) || (owner == null)) return;
+        if (me.equals(owner)) {
+            forgetOwnedLock(lockId, me);
+        } else {
+            try {
+                getGroupRpcDispatcher().callAsyncMethodOnNode(getServiceHAName(), "forgetOwnedLock", new Object[] { lockId, me }, FORGET_OWNED_LOCK_TYPES, owner, true);
+            } catch (Exception e) {
+                // The owner will simply continue to track the lock until the next view change
+                ROOT_LOGGER.debugf(e, "Failed to notify %s that lock %s is no longer used", owner, lockId);
+            }
+        }
+    }
+
+    // --------------------------------------------------------------- Protected
+
+    @Override
+    protected RpcTarget createRpcTarget() {
+        return new OwnerRpcTarget(this);
+    }
+
+    @Override
+    protected List<RemoteLockResponse> requestRemoteLock(Serializable lockId, long timeout) throws Exception {
+        ClusterNode me = getLocalClusterNode();
+        ClusterNode owner = getOwner(lockId);
+        if (owner == null) {
+            // no members
+            return null;
+        }
+        if (me.equals(owner)) {
+            return Collections.singletonList(acquireOwnedLock(lockId, me, timeout));
+        }
+        GroupRpcDispatcher dispatcher = getGroupRpcDispatcher();
+        RemoteLockResponse response = dispatcher.callMethodOnNode(getServiceHAName(), "acquireOwnedLock", new Object[] { lockId, me, new Long(timeout) },
+                ACQUIRE_OWNED_LOCK_TYPES, dispatcher.getMethodCallTimeout(), owner, true);
+        return Collections.singletonList(response);
+    }
+
+    @Override
+    protected void cancelRemoteLock(Serializable lockId) {
+        // The owner may still record us as holder of the lock, which is harmless, since we will simply yield the lock the
+        // next time it is requested.
+    }
+
+    // ----------------------------------------------------------------- Private
+
+    /**
+     * Called by a remote node via OwnerRpcTarget, or directly if this node is the owner of the lock. Requests for the same
+     * lock are handled one at a time, but without holding the monitor of the lock while its holder is asked to yield: a
+     * request that arrives in the meantime is rejected, and its caller backs off and retries, as it would on losing a race
+     * for the lock in {@link YieldingGloballyExclusiveClusterLockSupport}.
+     */
+    RemoteLockResponse acquireOwnedLock(Serializable lockId, ClusterNode caller, long timeout) {
+        ClusterNode me = getLocalClusterNode();
+        if (!me.equals(getOwner(lockId))) {
+            // The caller's view differs from ours; let the caller back off and retry once the views converge
+            return new RemoteLockResponse(me, RemoteLockResponse.Flag.REJECT);
+        }
+        OwnedLock lock = getOwnedLock(lockId);
+        ClusterNode holder;
+        synchronized (lock) {
+            if (lock.pending != null) {
+                return new RemoteLockResponse(me, RemoteLockResponse.Flag.REJECT, lock.pending);
+            }
+            holder = lock.holder;
+            if ((holder != null) && (caller.equals(holder) || !getCurrentView().contains(holder))) {
+                lock.holder = caller;
+                return new RemoteLockResponse(me, RemoteLockResponse.Flag.OK);
+            }
+            lock.pending = caller;
+        }
+        RemoteLockResponse response = null;
+        try {
+            if (holder == null) {
+                response = discoverLock(lockId, caller, timeout);
+            } else if (me.equals(holder)) {
+                response = remoteLock(lockId, caller, timeout);
+            } else {
+                response = revokeLock(lockId, holder, caller, timeout);
+            }
+            return response;
+        } finally {
+            synchronized (lock) {
+                lock.pending = null;
+                if ((response != null) && (response.flag == RemoteLockResponse.Flag.OK)) {
+                    lock.holder = caller;
+                }
+            }
+        }
+    }
+
+    /**
+     * Called by a remote node via OwnerRpcTarget, or directly if this node is the owner of the lock.
+     */
+    void forgetOwnedLock(Serializable lockId, ClusterNode caller) {
+        OwnedLock lock = this.ownedLocks.get(lockId);
+        if (lock != null) {
+            synchronized (lock) {
+                if (caller.equals(lock.holder)) {
+                    this.ownedLocks.remove(lockId, lock);
+                }
+            }
+        }
+    }
+
+    /**
+     * Called by a remote node via OwnerRpcTarget. This node receives its own request when the owner of the lock asks every
+     * member on its behalf.
+     */
+    @Override
+    RemoteLockResponse remoteLock(Serializable lockName, ClusterNode caller, long timeout) {
+        ClusterNode me = getLocalClusterNode();
+        if (me.equals(caller)) {
+            return new RemoteLockResponse(me, RemoteLockResponse.Flag.OK);
+        }
+        return super.remoteLock(lockName, caller, timeout);
+    }
+
+    /**
+     * Asks every member of the cluster for the lock on behalf of the caller, since we do not know its current holder.
+     */
+    private RemoteLockResponse discoverLock(Serializable lockId, ClusterNode caller, long timeout) {
+        ClusterNode me = getLocalClusterNode();
+        GroupRpcDispatcher dispatcher = getGroupRpcDispatcher();
+        try {
+            List<RemoteLockResponse> responses = dispatcher.callMethodOnCluster(getServiceHAName(), "remoteLock", new Object[] { lockId, caller, new Long(timeout) },
+                    REMOTE_LOCK_TYPES, false, null, dispatcher.getMethodCallTimeout(), true);
+            if (responses != null) {
+                for (RemoteLockResponse response : responses) {
+                    if (response.flag != RemoteLockResponse.Flag.OK) {
+                        return response;
+                    }
+                }
+            }
+            return new RemoteLockResponse(me, RemoteLockResponse.Flag.OK);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ROOT_LOGGER.caughtInterruptedException(caller, lockId);
+            return new RemoteLockResponse(me, RemoteLockResponse.Flag.FAIL);
+        }
+    }
+
+    /**
+     * Asks the current holder of the lock to yield it to the caller.
+     */
+    private RemoteLockResponse revokeLock(Serializable lockId, ClusterNode holder, ClusterNode caller, long timeout) {
+        GroupRpcDispatcher dispatcher = getGroupRpcDispatcher();
+        try {
+            RemoteLockResponse response = dispatcher.callMethodOnNode(getServiceHAName(), "remoteLock", new Object[] { lockId, caller, new Long(timeout) },
+                    REMOTE_LOCK_TYPES, dispatcher.getMethodCallTimeout(), holder, true);
+            if (response != null) {
+                return response;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ROOT_LOGGER.caughtInterruptedException(caller, lockId);
+        } catch (Exception e) {
+            ROOT_LOGGER.debugf(e, "Failed to revoke lock %s from %s on behalf of %s", lockId, holder, caller);
+        }
+        return new RemoteLockResponse(getLocalClusterNode(), RemoteLockResponse.Flag.FAIL, holder);
+    }
+
+    /**
+     * Returns the tracking state of the given lock, creating it if necessary. A lock forgotten concurrently, whether
+     * explicitly or due to a view change, is treated as unknown at the time of the next request.
+     */
+    private OwnedLock getOwnedLock(Serializable lockId) {
+        OwnedLock lock = this.ownedLocks.get(lockId);
+        if (lock == null) {
+            lock = new OwnedLock();
+            OwnedLock existing = this.ownedLocks.putIfAbsent(lockId, lock);
+            if (existing != null) {
+                lock = existing;
+            }
+        }
+        return lock;
+    }
+
+    /**
+     * Determines the owner of a lock using rendezvous hashing, so that a view change only moves the locks of the nodes that
+     * left, and a proportional share of the locks to the nodes that joined.
+     * @return the owner of the lock, or <code>null</code> if there are no members
+     */
+    ClusterNode getOwner(Serializable lockId) {
+        int hash = hash(lockId);
+        ClusterNode owner = null;
+        int maxWeight = Integer.MIN_VALUE;
+        for (ClusterNode member : getCurrentView()) {
+            int weight = mix(hash * 31 + member.getName().hashCode());
+            if ((owner == null) || (weight > maxWeight) || ((weight == maxWeight) && (member.getName().compareTo(owner.getName()) < 0))) {
+                owner = member;
+                maxWeight = weight;
+            }
+        }
+        return owner;
+    }
+
+    /**
+     * Returns the hash of the string form of a lock identifier, which, unlike its {@link Object#hashCode()}, is the same on
+     * every node.
+     */
+    static int hash(Serializable lockId) {
+        return lockId.toString().hashCode();
+    }
+
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
@@ -368,8 +368,18 @@ public class SharedLocalYieldingClusterLockManager {
     private final YieldingGloballyExclusiveClusterLockSupport clusterSupport;
 
     public SharedLocalYieldingClusterLockManager(String serviceHAName, GroupRpcDispatcher rpcDispatcher, GroupMembershipNotifier membershipNotifier) {
+        this(serviceHAName, rpcDispatcher, membershipNotifier, false);
+    }
+
+    /**
+     * Creates a new lock manager.
+     * @param ownerBased <code>true</code> if lock requests should be sent only to the owner of each lock, as determined by
+     *        {@link OwnerBasedYieldingClusterLockSupport}, rather than to every member of the cluster
+     */
+    public SharedLocalYieldingClusterLockManager(String serviceHAName, GroupRpcDispatcher rpcDispatcher, GroupMembershipNotifier membershipNotifier, boolean ownerBased) {
         ClusterHandler handler = new ClusterHandler();
-        clusterSupport = new YieldingGloballyExclusiveClusterLockSupport(serviceHAName, rpcDispatcher, membershipNotifier,
+        clusterSupport = ownerBased ? new OwnerBasedYieldingClusterLockSupport(serviceHAName, rpcDispatcher, membershipNotifier,
+                handler) : new YieldingGloballyExclusiveClusterLockSupport(serviceHAName, rpcDispatcher, membershipNotifier,
                 handler);
     }
 
@@ -504,7 +514,9 @@ public class SharedLocalYieldingClusterLockManager {
         // See if it our responsibility to do a removal
         LocalLock lock = getLocalLock(lockName, false);
         if (lock != null && lock.removable && lock.lockState.get().lockHolder == null) {
-            localLocks.remove(lockName, lock);
+            if (localLocks.remove(lockName, lock)) {
+                this.clusterSupport.forget(lockName);
+            }
         }
     }
 
@@ -68,6 +68,14 @@ public class YieldingGloballyExclusiveClusterLockSupport extends AbstractCluster
         }
     }
 
+    /**
+     * Indicates that the local node no longer uses the given lock, and does not hold it.
+     * @param lockId the identifier of the lock
+     */
+    public void forget(Serializable lockId) {
+        // Nothing to do; other nodes only track the locks they hold
+    }
+
     // --------------------------------------------------------------- Protected
 
     @Override
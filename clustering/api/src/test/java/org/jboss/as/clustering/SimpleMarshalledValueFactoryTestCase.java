@@ -94,6 +94,24 @@ public class SimpleMarshalledValueFactoryTestCase {
         assertNull(mv.get(this.context));
     }
 
+    /**
+     * Test method for {@link org.jboss.as.clustering.SimpleMarshalledValue#getBytes()}.
+     */
+    @Test
+    public void getBytes() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        SimpleMarshalledValue<UUID> mv = this.factory.createMarshalledValue(uuid);
+
+        long count = MarshalledValueStatistics.INSTANCE.getMarshalCount();
+        byte[] bytes = mv.getBytes();
+        assertNotNull(bytes);
+        assertSame(bytes, mv.getBytes());
+
+        SimpleMarshalledValue<UUID> copy = replicate(mv);
+        assertEquals(count + 1, MarshalledValueStatistics.INSTANCE.getMarshalCount());
+        assertArrayEquals(bytes, copy.getBytes());
+    }
+
     /**
      * Test method for {@link org.jboss.ha.framework.server.SimpleMarshalledValue#equals(java.lang.Object)}.
      */
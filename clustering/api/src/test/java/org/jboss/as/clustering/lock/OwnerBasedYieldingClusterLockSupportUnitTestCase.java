@@ -0,0 +1,243 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering.lock;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.clustering.ClusterNode;
+import org.jboss.as.clustering.GroupMembershipNotifier;
+import org.jboss.as.clustering.GroupRpcDispatcher;
+import org.jboss.as.clustering.MockClusterNode;
+import org.jboss.as.clustering.ResponseFilter;
+import org.jboss.as.clustering.lock.OwnerBasedYieldingClusterLockSupport.OwnerRpcTarget;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.AdditionalMatchers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+/**
+ * Unit test of OwnerBasedYieldingClusterLockSupport
+ */
+public class OwnerBasedYieldingClusterLockSupportUnitTestCase {
+    private final ClusterNode node1 = new MockClusterNode(1);
+    private final ClusterNode node2 = new MockClusterNode(2);
+    private final ClusterNode node3 = new MockClusterNode(3);
+    private final List<ClusterNode> view = Arrays.asList(node1, node2, node3);
+
+    private GroupRpcDispatcher dispatcher;
+    private LocalLockHandler handler;
+    private OwnerBasedYieldingClusterLockSupport testee;
+    private OwnerRpcTarget target;
+
+    @Before
+    public void setUp() throws Exception {
+        this.dispatcher = mock(GroupRpcDispatcher.class);
+        GroupMembershipNotifier notifier = mock(GroupMembershipNotifier.class);
+        this.handler = mock(LocalLockHandler.class);
+        when(this.dispatcher.isConsistentWith(notifier)).thenReturn(true);
+        when(this.dispatcher.getClusterNode()).thenReturn(node1);
+        when(this.dispatcher.getClusterNodes()).thenReturn(this.view);
+        when(this.dispatcher.getMethodCallTimeout()).thenReturn(60000L);
+
+        this.testee = new OwnerBasedYieldingClusterLockSupport("test", this.dispatcher, notifier, this.handler);
+        this.testee.start();
+
+        ArgumentCaptor<OwnerRpcTarget> captor = ArgumentCaptor.forClass(OwnerRpcTarget.class);
+        verify(this.dispatcher).registerRPCHandler(eq("test"), captor.capture());
+        this.target = captor.getValue();
+    }
+
+    @Test
+    public void ownerIsConsistent() {
+        for (int i = 0; i < 100; ++i) {
+            String lockId = "lock" + i;
+            ClusterNode owner = this.testee.getOwner(lockId);
+            assertTrue(this.view.contains(owner));
+            assertSame(owner, this.testee.getOwner(lockId));
+        }
+    }
+
+    @Test
+    public void lockRequestsOwnerOnly() throws Exception {
+        Serializable lockId = this.findLockOwnedBy(node2);
+
+        when(this.dispatcher.<RemoteLockResponse>callMethodOnNode(eq("test"), eq("acquireOwnedLock"), AdditionalMatchers.aryEq(new Object[] { lockId, node1, 1000L }),
+                AdditionalMatchers.aryEq(OwnerBasedYieldingClusterLockSupport.ACQUIRE_OWNED_LOCK_TYPES), anyLong(), same(node2), eq(true))).thenReturn(new RemoteLockResponse(node2, RemoteLockResponse.Flag.OK));
+
+        assertTrue(this.testee.lock(lockId, 1000));
+
+        verify(this.handler).lockFromCluster(eq(lockId), eq(node1), anyLong());
+        verify(this.dispatcher, never()).callMethodOnCluster(anyString(), anyString(), any(Object[].class), any(Class[].class), anyBoolean(), any(ResponseFilter.class), anyLong(), anyBoolean());
+    }
+
+    @Test
+    public void ownerRevokesFromKnownHolder() throws Exception {
+        Serializable lockId = this.findLockOwnedBy(node1);
+
+        when(this.dispatcher.<RemoteLockResponse>callMethodOnCluster(eq("test"), eq("remoteLock"), AdditionalMatchers.aryEq(new Object[] { lockId, node2, 1000L }),
+                AdditionalMatchers.aryEq(AbstractClusterLockSupport.REMOTE_LOCK_TYPES), eq(false), any(ResponseFilter.class), anyLong(), eq(true))).thenReturn(responses(node1, node2, node3));
+
+        // Unknown lock, so the owner must ask everyone
+        assertEquals(RemoteLockResponse.Flag.OK, this.target.acquireOwnedLock(lockId, node2, 1000).flag);
+
+        when(this.dispatcher.<RemoteLockResponse>callMethodOnNode(eq("test"), eq("remoteLock"), AdditionalMatchers.aryEq(new Object[] { lockId, node3, 1000L }),
+                AdditionalMatchers.aryEq(AbstractClusterLockSupport.REMOTE_LOCK_TYPES), anyLong(), same(node2), eq(true))).thenReturn(new RemoteLockResponse(node2, RemoteLockResponse.Flag.OK));
+
+        // Known lock, so the owner need only ask the holder
+        assertEquals(RemoteLockResponse.Flag.OK, this.target.acquireOwnedLock(lockId, node3, 1000).flag);
+
+        verify(this.dispatcher, times(1)).callMethodOnCluster(anyString(), anyString(), any(Object[].class), any(Class[].class), anyBoolean(), any(ResponseFilter.class), anyLong(), anyBoolean());
+
+        // Reacquisition by the holder needs no calls at all
+        assertEquals(RemoteLockResponse.Flag.OK, this.target.acquireOwnedLock(lockId, node3, 1000).flag);
+
+        verify(this.dispatcher, times(1)).callMethodOnNode(anyString(), anyString(), any(Object[].class), any(Class[].class), anyLong(), any(ClusterNode.class), anyBoolean());
+    }
+
+    @Test
+    public void ownerForgetsHoldersOnViewChange() throws Exception {
+        Serializable lockId = this.findLockOwnedBy(node1);
+
+        when(this.dispatcher.<RemoteLockResponse>callMethodOnCluster(eq("test"), eq("remoteLock"), any(Object[].class),
+                AdditionalMatchers.aryEq(AbstractClusterLockSupport.REMOTE_LOCK_TYPES), eq(false), any(ResponseFilter.class), anyLong(), eq(true))).thenReturn(responses(node1, node2, node3));
+
+        assertEquals(RemoteLockResponse.Flag.OK, this.target.acquireOwnedLock(lockId, node2, 1000).flag);
+
+        this.testee.membershipChanged(new ArrayList<ClusterNode>(), new ArrayList<ClusterNode>(), this.view);
+
+        assertEquals(RemoteLockResponse.Flag.OK, this.target.acquireOwnedLock(lockId, node3, 1000).flag);
+
+        verify(this.dispatcher, times(2)).callMethodOnCluster(anyString(), anyString(), any(Object[].class), any(Class[].class), anyBoolean(), any(ResponseFilter.class), anyLong(), anyBoolean());
+    }
+
+    @Test
+    public void ownerIsIndependentOfHashCode() {
+        for (int i = 0; i < 100; ++i) {
+            // Distinct instances with the same string form, but different identity hash codes
+            assertSame(this.testee.getOwner(new LockId("lock" + i)), this.testee.getOwner(new LockId("lock" + i)));
+            assertSame(this.testee.getOwner("lock" + i), this.testee.getOwner(new LockId("lock" + i)));
+        }
+    }
+
+    @Test
+    public void ownerRejectsConcurrentRequestWhileRevoking() throws Exception {
+        final Serializable lockId = this.findLockOwnedBy(node1);
+
+        when(this.dispatcher.<RemoteLockResponse>callMethodOnCluster(eq("test"), eq("remoteLock"), any(Object[].class),
+                AdditionalMatchers.aryEq(AbstractClusterLockSupport.REMOTE_LOCK_TYPES), eq(false), any(ResponseFilter.class), anyLong(), eq(true))).thenReturn(responses(node1, node2, node3));
+
+        assertEquals(RemoteLockResponse.Flag.OK, this.target.acquireOwnedLock(lockId, node2, 1000).flag);
+
+        final CountDownLatch revoking = new CountDownLatch(1);
+        final CountDownLatch revoked = new CountDownLatch(1);
+        when(this.dispatcher.<RemoteLockResponse>callMethodOnNode(eq("test"), eq("remoteLock"), AdditionalMatchers.aryEq(new Object[] { lockId, node3, 1000L }),
+                AdditionalMatchers.aryEq(AbstractClusterLockSupport.REMOTE_LOCK_TYPES), anyLong(), same(node2), eq(true))).thenAnswer(new Answer<RemoteLockResponse>() {
+                    @Override
+                    public RemoteLockResponse answer(InvocationOnMock invocation) throws Throwable {
+                        revoking.countDown();
+                        revoked.await();
+                        return new RemoteLockResponse(node2, RemoteLockResponse.Flag.OK);
+                    }
+                });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<RemoteLockResponse> future = executor.submit(new Callable<RemoteLockResponse>() {
+                @Override
+                public RemoteLockResponse call() {
+                    return OwnerBasedYieldingClusterLockSupportUnitTestCase.this.target.acquireOwnedLock(lockId, node3, 1000);
+                }
+            });
+            assertTrue(revoking.await(10, TimeUnit.SECONDS));
+
+            // A competing request does not wait for the revocation in progress
+            RemoteLockResponse response = this.target.acquireOwnedLock(lockId, node1, 1000);
+            assertEquals(RemoteLockResponse.Flag.REJECT, response.flag);
+            assertSame(node3, response.holder);
+
+            revoked.countDown();
+            assertEquals(RemoteLockResponse.Flag.OK, future.get(10, TimeUnit.SECONDS).flag);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // node3 is now the known holder
+        assertEquals(RemoteLockResponse.Flag.OK, this.target.acquireOwnedLock(lockId, node3, 1000).flag);
+        verify(this.dispatcher, times(1)).callMethodOnNode(anyString(), anyString(), any(Object[].class), any(Class[].class), anyLong(), any(ClusterNode.class), anyBoolean());
+    }
+
+    @Test
+    public void nonOwnerRejects() throws Exception {
+        Serializable lockId = this.findLockOwnedBy(node2);
+
+        RemoteLockResponse response = this.target.acquireOwnedLock(lockId, node3, 1000);
+
+        assertEquals(RemoteLockResponse.Flag.REJECT, response.flag);
+        verify(this.handler, never()).lockFromCluster(any(Serializable.class), any(ClusterNode.class), anyLong());
+    }
+
+    private Serializable findLockOwnedBy(ClusterNode owner) {
+        for (int i = 0; ; ++i) {
+            String lockId = "lock" + i;
+            if (owner.equals(this.testee.getOwner(lockId))) {
+                return lockId;
+            }
+        }
+    }
+
+    static class LockId implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private final String name;
+
+        LockId(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return this.name;
+        }
+    }
+
+    private static List<RemoteLockResponse> responses(ClusterNode... nodes) {
+        List<RemoteLockResponse> responses = new ArrayList<RemoteLockResponse>(nodes.length);
+        for (ClusterNode node : nodes) {
+            responses.add(new RemoteLockResponse(node, RemoteLockResponse.Flag.OK));
+        }
+        return Collections.unmodifiableList(responses);
+    }
+}
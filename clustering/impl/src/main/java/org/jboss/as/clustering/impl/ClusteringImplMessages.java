@@ -26,6 +26,7 @@ import java.util.Collection;
 
 import org.jboss.as.clustering.ClusterNode;
 import org.jboss.as.clustering.ClusteringApiMessages;
+import org.jboss.as.clustering.RpcMethod;
 import org.jboss.logging.annotations.Message;
 import org.jboss.logging.annotations.MessageBundle;
 import org.jboss.logging.Messages;
@@ -127,4 +128,38 @@ public interface ClusteringImplMessages extends ClusteringApiMessages {
      */
     @Message(id = 10248, value = "New view: %s with viewId: %d (old view: %s)")
     String viewCreated(Collection<ClusterNode> allMembers, long id, CoreGroupCommunicationService.GroupView oldView);
+
+    /**
+     * Creates an exception indicating an RPC handler declares a method it does not implement.
+     *
+     * @param serviceName the name of the service registering the handler.
+     * @param method      the declared method.
+     *
+     * @return an {@link IllegalArgumentException} for the error.
+     */
+    @Message(id = 10249, value = "RPC handler for service %s does not implement declared method %s")
+    IllegalArgumentException rpcMethodNotFound(String serviceName, RpcMethod method);
+
+    /**
+     * Creates an exception indicating two methods declared by an RPC handler have the same identifier.
+     *
+     * @param serviceName the name of the service registering the handler.
+     * @param method      the declared method.
+     * @param other       the previously declared method with the same identifier.
+     *
+     * @return an {@link IllegalArgumentException} for the error.
+     */
+    @Message(id = 10250, value = "RPC handler for service %s declares methods %s and %s with the same identifier")
+    IllegalArgumentException duplicateRpcMethodId(String serviceName, RpcMethod method, RpcMethod other);
+
+    /**
+     * Creates an exception indicating an RPC identified a method that the local RPC handler does not declare.
+     *
+     * @param serviceName the name of the service.
+     * @param id          the method identifier.
+     *
+     * @return a {@link NoSuchMethodException} for the error.
+     */
+    @Message(id = 10251, value = "RPC handler for service %s does not declare a method with identifier %x")
+    NoSuchMethodException rpcMethodIdNotFound(String serviceName, long id);
 }
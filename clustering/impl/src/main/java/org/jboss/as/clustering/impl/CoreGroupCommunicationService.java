@@ -31,10 +31,14 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Serializable;
 import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -44,6 +48,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
@@ -56,8 +61,10 @@ import org.jboss.as.clustering.GroupCommunicationService;
 import org.jboss.as.clustering.GroupMembershipListener;
 import org.jboss.as.clustering.GroupMembershipNotifier;
 import org.jboss.as.clustering.GroupRpcDispatcher;
+import org.jboss.as.clustering.GroupRpcHandler;
 import org.jboss.as.clustering.GroupStateTransferService;
 import org.jboss.as.clustering.ResponseFilter;
+import org.jboss.as.clustering.RpcMethod;
 import org.jboss.as.clustering.SerializableStateTransferResult;
 import org.jboss.as.clustering.StateTransferProvider;
 import org.jboss.as.clustering.StateTransferResult;
@@ -120,6 +127,10 @@ import static org.jboss.as.clustering.impl.ClusteringImplMessages.MESSAGES;
 public class CoreGroupCommunicationService implements Service<CoreGroupCommunicationService>, GroupRpcDispatcher, GroupMembershipNotifier, GroupStateTransferService {
     private static final byte NULL_VALUE = 0;
     private static final byte SERIALIZABLE_VALUE = 1;
+    /** The service name under which each node reports the RPC protocol it accepts */
+    static final String RPC_PROTOCOL_SERVICE = CoreGroupCommunicationService.class.getName() + ".rpcProtocol";
+    /** The protocol version that first accepted method calls identified by {@link GroupRpcHandler} method identifiers */
+    static final int INDEXED_RPC_PROTOCOL_VERSION = 1;
 
     public static ServiceName getServiceName(String name) {
         return ServiceName.JBOSS.append("cluster").append(name);
@@ -186,7 +197,9 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
     private long method_call_timeout = 60000;
     final short scopeId;
     private volatile RpcDispatcher dispatcher = null;
-    final Map<String, Object> rpcHandlers = new ConcurrentHashMap<String, Object>();
+    final Map<String, RpcHandlerRegistration> rpcHandlers = new ConcurrentHashMap<String, RpcHandlerRegistration>();
+    /** Whether or not each known member accepts indexed method calls */
+    final ConcurrentMap<Address, Boolean> indexedRpcPeers = new ConcurrentHashMap<Address, Boolean>();
     private boolean directlyInvokeLocal;
 
     /** Do we send any membership change notifications synchronously? */
@@ -278,7 +291,7 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
      */
     @Override
     public void registerRPCHandler(String objName, Object subscriber) {
-        this.rpcHandlers.put(objName, subscriber);
+        this.rpcHandlers.put(objName, new RpcHandlerRegistration(objName, subscriber));
     }
 
     /**
@@ -310,7 +323,10 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
      */
     @Override
     public <T> List<T> callMethodOnCluster(String serviceName, String methodName, Object[] args, Class<?>[] types, boolean excludeSelf, ResponseFilter filter, long methodTimeout, boolean unordered) throws InterruptedException {
-        MethodCall m = new MethodCall(serviceName + "." + methodName, args, types);
+        List<Address> members = this.groupView.jgmembers;
+        MethodCall m = this.createMethodCall(serviceName, methodName, args, types, members);
+        // An indexed call must not reach a member that joined after its format was chosen
+        Collection<Address> destinations = (m instanceof ServiceMethodCall) ? members : null;
         RequestOptions options = new RequestOptions(ResponseMode.GET_ALL, methodTimeout, false, new NoHandlerForRPCRspFilter(filter));
         if (excludeSelf) {
             options.setExclusionList(this.channel.getAddress());
@@ -325,7 +341,7 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
             ClusteringImplLogger.ROOT_LOGGER.tracef("calling synchronous method on cluster, serviceName=%s, methodName=%s, members=%s, excludeSelf=%s", serviceName, methodName, this.groupView, excludeSelf);
         }
         try {
-            RspList<T> rsp = this.dispatcher.callRemoteMethods(null, m, options);
+            RspList<T> rsp = this.dispatcher.callRemoteMethods(destinations, m, options);
             List<T> result = this.processResponseList(rsp, serviceName, methodName, args, trace);
 
             if (!excludeSelf && this.directlyInvokeLocal && (filter == null || filter.needMoreResponses())) {
@@ -350,14 +366,110 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
         }
     }
 
+    /**
+     * Creates the method call for an RPC to the specified members. If the target service was registered locally with a
+     * {@link GroupRpcHandler} that declares the method, and every member accepts indexed method calls, the call
+     * identifies the method by its identifier, otherwise by its name and parameter types.
+     */
+    MethodCall createMethodCall(String serviceName, String methodName, Object[] args, Class<?>[] types, Collection<Address> targets) {
+        RpcHandlerRegistration registration = this.rpcHandlers.get(serviceName);
+        int index = (registration != null) ? registration.indexOf(methodName, types) : -1;
+        if ((index >= 0) && this.acceptIndexedRpcs(targets)) {
+            return new ServiceMethodCall(serviceName, registration.getId(index), methodName, args, types);
+        }
+        return new MethodCall(serviceName + "." + methodName, args, types);
+    }
+
+    /**
+     * Indicates whether all of the specified members are known to accept indexed method calls. Members whose RPC protocol
+     * has not been determined yet are sent name-based calls until they answer the probe issued on view change.
+     */
+    boolean acceptIndexedRpcs(Collection<Address> targets) {
+        for (Address target : targets) {
+            if ((target == null) || !Boolean.TRUE.equals(this.indexedRpcPeers.get(target))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Asynchronously asks the members of the specified view whose RPC protocol is not yet known which protocol they
+     * accept. A member address identifies a single incarnation of a node, so the answer never changes.
+     */
+    private void probeRpcProtocol(GroupView view) {
+        final List<Address> unknown = new ArrayList<Address>(view.jgmembers.size());
+        for (Address member : view.jgmembers) {
+            if (!this.indexedRpcPeers.containsKey(member)) {
+                unknown.add(member);
+            }
+        }
+        if (unknown.isEmpty()) return;
+
+        Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                CoreGroupCommunicationService.this.requestRpcProtocol(unknown);
+            }
+        };
+        Executor executor = this.getThreadPool();
+        if (executor != null) {
+            executor.execute(task);
+        } else {
+            ExecutorService e = Executors.newSingleThreadExecutor();
+            e.execute(task);
+            e.shutdown();
+        }
+    }
+
+    /**
+     * Asks the specified members for the RPC protocol they accept, using a name-based method call that every node
+     * understands. Nodes that predate indexed method calls reply that they have no handler for the request.
+     */
+    void requestRpcProtocol(List<Address> targets) {
+        RpcDispatcher dispatcher = this.dispatcher;
+        if (dispatcher == null) return;
+        MethodCall call = new MethodCall(RPC_PROTOCOL_SERVICE + ".getRpcProtocolVersion", new Object[0], new Class<?>[0]);
+        RequestOptions options = new RequestOptions(ResponseMode.GET_ALL, this.getMethodCallTimeout(), false);
+        options.setFlags(Message.OOB);
+        try {
+            RspList<Object> responses = dispatcher.callRemoteMethods(targets, call, options);
+            for (Rsp<Object> response : responses.values()) {
+                // Members that did not respond are asked again on the next view change
+                if (response.wasReceived()) {
+                    Object version = response.getValue();
+                    boolean accepts = !response.hasException() && (version instanceof Integer) && (((Integer) version).intValue() >= INDEXED_RPC_PROTOCOL_VERSION);
+                    this.recordRpcProtocol(response.getSender(), accepts);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            ClusteringImplLogger.ROOT_LOGGER.debugf(e, "Failed to determine the RPC protocol of %s", targets);
+        }
+    }
+
+    /**
+     * Records whether the specified member accepts indexed method calls. Answers from members that have left the current
+     * view are discarded, including those that race with the view change that removes them.
+     */
+    void recordRpcProtocol(Address member, boolean accepts) {
+        if (!this.groupView.jgmembers.contains(member)) return;
+        this.indexedRpcPeers.put(member, Boolean.valueOf(accepts));
+        if (!this.groupView.jgmembers.contains(member)) {
+            this.indexedRpcPeers.remove(member);
+        }
+    }
+
     @SuppressWarnings("unchecked")
     <T> T invokeDirectly(String serviceName, String methodName, Object[] args, Class<?>[] types, List<T> remoteResponses, ResponseFilter filter) throws Exception {
         T retVal = null;
-        Object handler = this.rpcHandlers.get(serviceName);
-        if (handler != null) {
-            MethodCall call = new MethodCall(methodName, args, types);
+        RpcHandlerRegistration registration = this.rpcHandlers.get(serviceName);
+        if (registration != null) {
+            int index = registration.indexOf(methodName, types);
+            MethodCall call = (index >= 0) ? new MethodCall(registration.getMethod(index), args) : new MethodCall(methodName, args, types);
             try {
-                Object result = call.invoke(handler);
+                Object result = call.invoke(registration.getHandler());
                 retVal = (T) result;
                 if (remoteResponses != null && (filter == null || filter.isAcceptable(retVal, me))) {
                     remoteResponses.add(retVal);
@@ -389,7 +501,8 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
     public <T> T callMethodOnCoordinatorNode(String serviceName, String methodName, Object[] args, Class<?>[] types, boolean excludeSelf, long methodTimeout, boolean unordered) throws Exception {
         boolean trace = ClusteringImplLogger.ROOT_LOGGER.isTraceEnabled();
 
-        MethodCall m = new MethodCall(serviceName + "." + methodName, args, types);
+        Address coord = this.groupView.coordinator;
+        MethodCall m = this.createMethodCall(serviceName, methodName, args, types, Collections.singletonList(coord));
 
         if (trace) {
             ClusteringImplLogger.ROOT_LOGGER.tracef("callMethodOnCoordinatorNode(false), objName=%s, methodName=%s", serviceName, methodName);
@@ -405,7 +518,6 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
             }
         }
 
-        Address coord = this.groupView.coordinator;
         RequestOptions opt = new RequestOptions(ResponseMode.GET_ALL, methodTimeout, false, new NoHandlerForRPCRspFilter());
         if (unordered) {
             opt.setFlags(Message.OOB);
@@ -448,7 +560,8 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
         }
         boolean trace = ClusteringImplLogger.ROOT_LOGGER.isTraceEnabled();
 
-        MethodCall m = new MethodCall(serviceName + "." + methodName, args, types);
+        Address target = ((ClusterNodeImpl) targetNode).getOriginalJGAddress();
+        MethodCall m = this.createMethodCall(serviceName, methodName, args, types, Collections.singletonList(target));
 
         if (trace) {
             ClusteringImplLogger.ROOT_LOGGER.tracef("callMethodOnNode( objName=%s, methodName=%s )", serviceName, methodName);
@@ -462,7 +575,7 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
             opt.setFlags(Message.OOB);
         }
         try {
-            return this.dispatcher.<T>callRemoteMethod(((ClusterNodeImpl) targetNode).getOriginalJGAddress(), m, opt);
+            return this.dispatcher.<T>callRemoteMethod(target, m, opt);
         } catch (Exception e) {
             throw e;
         } catch (Error e) {
@@ -492,7 +605,8 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
         }
         boolean trace = ClusteringImplLogger.ROOT_LOGGER.isTraceEnabled();
 
-        MethodCall m = new MethodCall(serviceName + "." + methodName, args, types);
+        Address target = ((ClusterNodeImpl) targetNode).getOriginalJGAddress();
+        MethodCall m = this.createMethodCall(serviceName, methodName, args, types, Collections.singletonList(target));
 
         if (trace) {
             ClusteringImplLogger.ROOT_LOGGER.tracef("callAsyncMethodOnNode( objName=%s, methodName=%s )" + methodName, serviceName, methodName);
@@ -508,7 +622,7 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
             opt.setFlags(Message.OOB);
         }
         try {
-            this.dispatcher.callRemoteMethod(((ClusterNodeImpl) targetNode).getOriginalJGAddress(), m, opt);
+            this.dispatcher.callRemoteMethod(target, m, opt);
         } catch (Exception e) {
             throw e;
         } catch (Error e) {
@@ -531,7 +645,10 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
      */
     @Override
     public void callAsynchMethodOnCluster(final String serviceName, final String methodName, final Object[] args, final Class<?>[] types, boolean excludeSelf, boolean unordered) throws InterruptedException {
-        MethodCall m = new MethodCall(serviceName + "." + methodName, args, types);
+        List<Address> members = this.groupView.jgmembers;
+        MethodCall m = this.createMethodCall(serviceName, methodName, args, types, members);
+        // An indexed call must not reach a member that joined after its format was chosen
+        Collection<Address> destinations = (m instanceof ServiceMethodCall) ? members : null;
         RequestOptions options = new RequestOptions(ResponseMode.GET_NONE, this.getMethodCallTimeout(), false, new NoHandlerForRPCRspFilter());
         if (excludeSelf) {
             options.setExclusionList(this.channel.getAddress());
@@ -545,7 +662,7 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
                     serviceName, methodName, this.groupView, excludeSelf);
         }
         try {
-            this.dispatcher.callRemoteMethods(null, m, options);
+            this.dispatcher.callRemoteMethods(destinations, m, options);
         } catch (RuntimeException e) {
             throw e;
         } catch (Error e) {
@@ -572,7 +689,8 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
 
         boolean trace = ClusteringImplLogger.ROOT_LOGGER.isTraceEnabled();
 
-        MethodCall m = new MethodCall(serviceName + "." + methodName, args, types);
+        Address coord = this.groupView.coordinator;
+        MethodCall m = this.createMethodCall(serviceName, methodName, args, types, Collections.singletonList(coord));
 
         if (trace) {
             ClusteringImplLogger.ROOT_LOGGER.tracef("callMethodOnCoordinatorNode(false), objName=%s, methodName=%s", serviceName, methodName);
@@ -592,7 +710,6 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
             }
         }
 
-        Address coord = this.groupView.coordinator;
         RequestOptions opt = new RequestOptions(ResponseMode.GET_ALL, this.getMethodCallTimeout(), false, new NoHandlerForRPCRspFilter());
         if (unordered) {
             opt.setFlags(Message.OOB);
@@ -788,6 +905,8 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
         // Subscribe to events generated by the channel
         MembershipListener meml = new MembershipListenerImpl();
         MessageListener msgl = this.stateIdPrefix == null ? null : new MessageListenerImpl();
+        this.registerRPCHandler(RPC_PROTOCOL_SERVICE, new RpcProtocolHandler());
+        this.indexedRpcPeers.put(this.channel.getAddress(), Boolean.TRUE);
         this.dispatcher = new RpcHandler(this.scopeId, this.channel, msgl, meml, new RequestMarshallerImpl(), new ResponseMarshallerImpl());
 
         meml.viewAccepted(this.channel.getView());
@@ -811,6 +930,8 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
         if (this.dispatcher != null) {
             this.dispatcher.stop();
         }
+        this.unregisterRPCHandler(RPC_PROTOCOL_SERVICE, null);
+        this.indexedRpcPeers.clear();
     }
 
     protected void registerGroupMembershipListener(GroupMembershipListener listener, boolean sync) {
@@ -946,6 +1067,8 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
         this.logHistory(MESSAGES.viewCreated(newGroupView.allMembers, newGroupView.viewId, oldMembers));
 
         this.groupView = newGroupView;
+        this.indexedRpcPeers.keySet().retainAll(newGroupView.jgmembers);
+        this.probeRpcProtocol(newGroupView);
 
         if (oldMembers.viewId == -1) {
             // Initial viewAccepted
@@ -1121,6 +1244,11 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
 
         @Override
         public Buffer objectToBuffer(Object obj) throws Exception {
+            // wrap indexed method calls in Object[service_name, method_id, byte[]], where byte[] contains only the arguments
+            if (obj instanceof ServiceMethodCall) {
+                ServiceMethodCall call = (ServiceMethodCall) obj;
+                return new Buffer(CoreGroupCommunicationService.this.objectToByteBufferInternal(new Object[] { call.getServiceName(), Long.valueOf(call.getMethodId()), CoreGroupCommunicationService.this.objectToByteBufferInternal(call.getArgs()) }));
+            }
             // wrap MethodCall in Object[service_name, byte[]] so that service name is available during demarshalling
             if (obj instanceof MethodCall) {
                 String name = ((MethodCall) obj).getName();
@@ -1181,60 +1309,90 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
          */
         @Override
         public Object handle(Message req) {
-            Object body = null;
-            Object retval = null;
-            Object handler = null;
-            boolean trace = ClusteringImplLogger.ROOT_LOGGER.isTraceEnabled();
-            String service = null;
-            byte[] request_bytes = null;
+            return CoreGroupCommunicationService.this.handleRequest(req);
+        }
+    }
 
-            if (trace) {
-                ClusteringImplLogger.ROOT_LOGGER.tracef("Partition %s received msg", CoreGroupCommunicationService.this.getGroupName());
-            }
-            if (req == null || req.getRawBuffer() == null) {
-                ClusteringImplLogger.ROOT_LOGGER.nullPartitionMessage(CoreGroupCommunicationService.this.getGroupName());
+    /**
+     * Dispatches a request received by the {@link RpcHandler}, which is either a name-based method call, wrapped as
+     * Object[]{service_name, byte[]}, or an indexed method call, wrapped as Object[]{service_name, method_id, byte[]}.
+     */
+    Object handleRequest(Message req) {
+        Object body = null;
+        Object retval = null;
+        RpcHandlerRegistration handler = null;
+        Method method = null;
+        boolean trace = ClusteringImplLogger.ROOT_LOGGER.isTraceEnabled();
+        String service = null;
+        byte[] request_bytes = null;
+
+        if (trace) {
+            ClusteringImplLogger.ROOT_LOGGER.tracef("Partition %s received msg", this.getGroupName());
+        }
+        if (req == null || req.getRawBuffer() == null) {
+            ClusteringImplLogger.ROOT_LOGGER.nullPartitionMessage(this.getGroupName());
+            return null;
+        }
+
+        try {
+            Object wrapper = this.objectFromByteBufferInternal(req.getRawBuffer(), req.getOffset(), req.getLength());
+            if (wrapper == null || !(wrapper instanceof Object[])) {
+                ClusteringImplLogger.ROOT_LOGGER.invalidPartitionMessageWrapper(this.getGroupName());
                 return null;
             }
 
-            try {
-                Object wrapper = CoreGroupCommunicationService.this.objectFromByteBufferInternal(req.getRawBuffer(), req.getOffset(), req.getLength());
-                if (wrapper == null || !(wrapper instanceof Object[])) {
-                    ClusteringImplLogger.ROOT_LOGGER.invalidPartitionMessageWrapper(CoreGroupCommunicationService.this.getGroupName());
-                    return null;
-                }
-
-                // wrapper should be Object[]{service_name, byte[]}
-                Object[] temp = (Object[]) wrapper;
-                service = (String) temp[0];
-                request_bytes = (byte[]) temp[1];
+            // wrapper should be Object[]{service_name, byte[]} or Object[]{service_name, method_id, byte[]}
+            Object[] temp = (Object[]) wrapper;
+            service = (String) temp[0];
+            request_bytes = (byte[]) temp[temp.length - 1];
 
-                // see if this node has registered to handle this service
-                handler = CoreGroupCommunicationService.this.rpcHandlers.get(service);
-                if (handler == null) {
-                    if (trace) {
-                        ClusteringImplLogger.ROOT_LOGGER.tracef("Partition %s no rpc handler registered under service %s", CoreGroupCommunicationService.this.getGroupName(), service);
-                    }
-                    return new NoHandlerForRPC();
+            // see if this node has registered to handle this service
+            handler = this.rpcHandlers.get(service);
+            if (handler == null) {
+                if (trace) {
+                    ClusteringImplLogger.ROOT_LOGGER.tracef("Partition %s no rpc handler registered under service %s", this.getGroupName(), service);
                 }
-            } catch (Exception e) {
-                ClusteringImplLogger.ROOT_LOGGER.partitionFailedDeserializing(e, CoreGroupCommunicationService.this.getGroupName(), req);
-                return null;
+                return new NoHandlerForRPC();
             }
+            if (temp.length == 3) {
+                long id = ((Long) temp[1]).longValue();
+                method = handler.findMethod(id);
+                if (method == null) {
+                    // The sender declares a method that this node does not, return the failure like a name-based lookup would
+                    return MESSAGES.rpcMethodIdNotFound(service, id);
+                }
+            }
+        } catch (Exception e) {
+            ClusteringImplLogger.ROOT_LOGGER.partitionFailedDeserializing(e, this.getGroupName(), req);
+            return null;
+        }
 
-            try {
-                body = CoreGroupCommunicationService.this.objectFromByteBufferInternal(request_bytes, 0, request_bytes.length);
-            } catch (Exception e) {
-                ClusteringImplLogger.ROOT_LOGGER.partitionFailedExtractingMessageBody(e, CoreGroupCommunicationService.this.getGroupName());
+        try {
+            body = this.objectFromByteBufferInternal(request_bytes, 0, request_bytes.length);
+        } catch (Exception e) {
+            ClusteringImplLogger.ROOT_LOGGER.partitionFailedExtractingMessageBody(e, this.getGroupName());
+            return null;
+        }
+
+        MethodCall method_call = null;
+        if (method != null) {
+            // indexed method call, the body contains only the arguments
+            if (body != null && !(body instanceof Object[])) {
+                ClusteringImplLogger.ROOT_LOGGER.invalidPartitionMessage(this.getGroupName());
                 return null;
             }
-
+            if (trace) {
+                ClusteringImplLogger.ROOT_LOGGER.tracef("handlerName: %s method: %s", service, method);
+            }
+            method_call = new MethodCall(method, (Object[]) body);
+        } else {
             if (body == null || !(body instanceof MethodCall)) {
-                ClusteringImplLogger.ROOT_LOGGER.invalidPartitionMessage(CoreGroupCommunicationService.this.getGroupName());
+                ClusteringImplLogger.ROOT_LOGGER.invalidPartitionMessage(this.getGroupName());
                 return null;
             }
 
             // get method call information
-            MethodCall method_call = (MethodCall) body;
+            method_call = (MethodCall) body;
             String methodName = method_call.getName();
 
             if (trace) {
@@ -1251,25 +1409,25 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
 
             // prepare method call
             method_call.setName(newMethodName);
+        }
 
-            /*
-             * Invoke it and just return any exception with trace level logging of the exception. The exception semantics of a
-             * group rpc call are weak as the return value may be a normal return value or the exception thrown.
-             */
-            try {
-                retval = method_call.invoke(handler);
-                if (trace) {
-                    ClusteringImplLogger.ROOT_LOGGER.tracef("rpc call return value: %s", retval);
-                }
-            } catch (Throwable t) {
-                if (trace) {
-                    ClusteringImplLogger.ROOT_LOGGER.tracef(t, "Partition %s rpc call threw exception", CoreGroupCommunicationService.this.getGroupName());
-                }
-                retval = t;
+        /*
+         * Invoke it and just return any exception with trace level logging of the exception. The exception semantics of a
+         * group rpc call are weak as the return value may be a normal return value or the exception thrown.
+         */
+        try {
+            retval = method_call.invoke(handler.getHandler());
+            if (trace) {
+                ClusteringImplLogger.ROOT_LOGGER.tracef("rpc call return value: %s", retval);
             }
-
-            return retval;
+        } catch (Throwable t) {
+            if (trace) {
+                ClusteringImplLogger.ROOT_LOGGER.tracef(t, "Partition %s rpc call threw exception", this.getGroupName());
+            }
+            retval = t;
         }
+
+        return retval;
     }
 
     /**
@@ -1672,6 +1830,142 @@ public class CoreGroupCommunicationService implements Service<CoreGroupCommunica
         }
     }
 
+    /**
+     * A registered RPC handler, along with the pre-resolved methods it declares, if it is a {@link GroupRpcHandler}.
+     */
+    static class RpcHandlerRegistration {
+        private final Object handler;
+        private final RpcMethod[] rpcMethods;
+        private final long[] ids;
+        private final Method[] methods;
+        private final Map<Long, Method> methodsById = new HashMap<Long, Method>();
+
+        RpcHandlerRegistration(String serviceName, Object handler) {
+            this.handler = handler;
+            this.rpcMethods = (handler instanceof GroupRpcHandler) ? ((GroupRpcHandler) handler).getRpcMethods() : new RpcMethod[0];
+            this.ids = new long[this.rpcMethods.length];
+            this.methods = new Method[this.rpcMethods.length];
+            for (int i = 0; i < this.rpcMethods.length; ++i) {
+                this.methods[i] = findMethod(handler.getClass(), this.rpcMethods[i]);
+                if (this.methods[i] == null) {
+                    throw MESSAGES.rpcMethodNotFound(serviceName, this.rpcMethods[i]);
+                }
+                this.ids[i] = createId(this.rpcMethods[i]);
+                if (this.methodsById.put(Long.valueOf(this.ids[i]), this.methods[i]) != null) {
+                    for (int j = 0; j < i; ++j) {
+                        if (this.ids[j] == this.ids[i]) {
+                            throw MESSAGES.duplicateRpcMethodId(serviceName, this.rpcMethods[i], this.rpcMethods[j]);
+                        }
+                    }
+                }
+            }
+        }
+
+        Object getHandler() {
+            return this.handler;
+        }
+
+        /**
+         * Returns the local index of the declared method with the specified name and parameter types, or -1 if no such method was declared.
+         */
+        int indexOf(String name, Class<?>[] types) {
+            for (int i = 0; i < this.rpcMethods.length; ++i) {
+                if (this.rpcMethods[i].matches(name, types)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Returns the identifier of the declared method with the specified local index.
+         */
+        long getId(int index) {
+            return this.ids[index];
+        }
+
+        /**
+         * Returns the declared method with the specified local index.
+         */
+        Method getMethod(int index) {
+            return this.methods[index];
+        }
+
+        /**
+         * Returns the declared method with the specified identifier, or null if no such method was declared.
+         */
+        Method findMethod(long id) {
+            return this.methodsById.get(Long.valueOf(id));
+        }
+
+        /**
+         * Creates the identifier of a method, i.e. a 64-bit FNV-1a hash of its signature. Unlike the position of the method
+         * within {@link GroupRpcHandler#getRpcMethods()}, this is stable across nodes that declare different sets of methods.
+         */
+        static long createId(RpcMethod method) {
+            StringBuilder signature = new StringBuilder(method.getName()).append('(');
+            Class<?>[] types = method.getTypes();
+            for (int i = 0; i < types.length; ++i) {
+                if (i > 0) {
+                    signature.append(',');
+                }
+                signature.append(types[i].getName());
+            }
+            signature.append(')');
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < signature.length(); ++i) {
+                hash ^= signature.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+
+        private static Method findMethod(Class<?> targetClass, RpcMethod rpcMethod) {
+            Class<?>[] types = rpcMethod.getTypes();
+            for (Class<?> targetType = targetClass; targetType != null; targetType = targetType.getSuperclass()) {
+                try {
+                    Method method = targetType.getDeclaredMethod(rpcMethod.getName(), types);
+                    method.setAccessible(true);
+                    return method;
+                } catch (NoSuchMethodException e) {
+                    // Try superclass
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A method call that identifies its target by service name and method identifier.
+     */
+    static class ServiceMethodCall extends MethodCall {
+        private final String serviceName;
+        private final long methodId;
+
+        ServiceMethodCall(String serviceName, long methodId, String methodName, Object[] args, Class<?>[] types) {
+            super(methodName, args, types);
+            this.serviceName = serviceName;
+            this.methodId = methodId;
+        }
+
+        String getServiceName() {
+            return this.serviceName;
+        }
+
+        long getMethodId() {
+            return this.methodId;
+        }
+    }
+
+    /**
+     * Reports the RPC protocol accepted by this node. Nodes that predate indexed method calls do not register this handler.
+     */
+    public static class RpcProtocolHandler {
+        public Integer getRpcProtocolVersion() {
+            return Integer.valueOf(INDEXED_RPC_PROTOCOL_VERSION);
+        }
+    }
+
     private class NoHandlerForRPCRspFilter implements RspFilter {
         private final RspFilter filter;
 
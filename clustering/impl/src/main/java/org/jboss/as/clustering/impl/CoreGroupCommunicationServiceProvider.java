@@ -47,7 +47,7 @@ public class CoreGroupCommunicationServiceProvider implements ChannelDependentSe
     }
 
     @Override
-    public ServiceController<?> install(ServiceTarget target, String cluster) {
+    public ServiceController<?> install(ServiceTarget target, String cluster, Configuration configuration) {
         final InjectedValue<Channel> channel = new InjectedValue<Channel>();
         final InjectedValue<ModuleLoader> loader = new InjectedValue<ModuleLoader>();
         final Service<CoreGroupCommunicationService> service = new CoreGroupCommunicationService(GROUP_COMMUNICATION_SERVICE_SCOPE, channel, loader);
@@ -43,11 +43,21 @@ public class SharedLocalYieldingClusterLockManagerService implements Service<Sha
 
     private final String name;
     private final Value<CoreGroupCommunicationService> service;
+    private final boolean ownerBased;
     private volatile SharedLocalYieldingClusterLockManager lockManager;
 
     public SharedLocalYieldingClusterLockManagerService(String name, Value<CoreGroupCommunicationService> service) {
+        this(name, service, false);
+    }
+
+    /**
+     * @param ownerBased <code>true</code> if lock requests should be sent only to the owner of each lock, rather than to every
+     *        member of the cluster
+     */
+    public SharedLocalYieldingClusterLockManagerService(String name, Value<CoreGroupCommunicationService> service, boolean ownerBased) {
         this.name = name;
         this.service = service;
+        this.ownerBased = ownerBased;
     }
 
     /**
@@ -62,7 +72,7 @@ public class SharedLocalYieldingClusterLockManagerService implements Service<Sha
     @Override
     public void start(StartContext context) throws StartException {
         CoreGroupCommunicationService service = this.service.getValue();
-        this.lockManager = new SharedLocalYieldingClusterLockManager(this.name, service, service);
+        this.lockManager = new SharedLocalYieldingClusterLockManager(this.name, service, service, this.ownerBased);
         try {
             this.lockManager.start();
         } catch (Exception e) {
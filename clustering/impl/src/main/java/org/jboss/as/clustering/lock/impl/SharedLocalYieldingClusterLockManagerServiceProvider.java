@@ -40,9 +40,9 @@ public class SharedLocalYieldingClusterLockManagerServiceProvider implements Cha
     }
 
     @Override
-    public ServiceController<?> install(ServiceTarget target, String cluster) {
+    public ServiceController<?> install(ServiceTarget target, String cluster, Configuration configuration) {
         final InjectedValue<CoreGroupCommunicationService> groupService = new InjectedValue<CoreGroupCommunicationService>();
-        return target.addService(this.getServiceName(cluster), new SharedLocalYieldingClusterLockManagerService(cluster, groupService))
+        return target.addService(this.getServiceName(cluster), new SharedLocalYieldingClusterLockManagerService(cluster, groupService, configuration.isOwnerBasedLocking()))
                 .addDependency(CoreGroupCommunicationService.getServiceName(cluster), CoreGroupCommunicationService.class, groupService)
                 .setInitialMode(ServiceController.Mode.ON_DEMAND)
                 .install()
@@ -0,0 +1,179 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering.impl;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.jboss.as.clustering.GroupRpcHandler;
+import org.jboss.as.clustering.RpcMethod;
+import org.jboss.as.clustering.impl.CoreGroupCommunicationService.NoHandlerForRPC;
+import org.jboss.as.clustering.impl.CoreGroupCommunicationService.RpcHandlerRegistration;
+import org.jboss.as.clustering.impl.CoreGroupCommunicationService.ServiceMethodCall;
+import org.jgroups.Address;
+import org.jgroups.Message;
+import org.jgroups.blocks.MethodCall;
+import org.jgroups.util.Buffer;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the encoding and decoding of name-based and indexed RPCs by {@link CoreGroupCommunicationService}.
+ */
+public class CoreGroupCommunicationServiceTestCase {
+    private static final String SERVICE = "service";
+    private static final Class<?>[] CONCAT_TYPES = new Class<?>[] { String.class, Integer.class };
+
+    private final Address peer = mock(Address.class);
+    private final List<Address> targets = Collections.singletonList(this.peer);
+    private CoreGroupCommunicationService service;
+
+    @Before
+    public void setUp() {
+        this.service = new CoreGroupCommunicationService((short) 1, null, null);
+        this.service.registerRPCHandler(SERVICE, new Handler());
+    }
+
+    @Test
+    public void indexedCall() throws Exception {
+        this.service.indexedRpcPeers.put(this.peer, Boolean.TRUE);
+
+        MethodCall call = this.service.createMethodCall(SERVICE, "concat", new Object[] { "a", 1 }, CONCAT_TYPES, this.targets);
+
+        assertTrue(call instanceof ServiceMethodCall);
+        assertEquals("a1", this.roundTrip(call));
+    }
+
+    @Test
+    public void nameBasedCallToPeerWithoutIndexedRpcs() throws Exception {
+        this.service.indexedRpcPeers.put(this.peer, Boolean.FALSE);
+
+        MethodCall call = this.service.createMethodCall(SERVICE, "concat", new Object[] { "a", 1 }, CONCAT_TYPES, this.targets);
+
+        assertFalse(call instanceof ServiceMethodCall);
+        assertEquals("a1", this.roundTrip(call));
+    }
+
+    @Test
+    public void nameBasedCallToUnknownPeer() throws Exception {
+        // Until the peer answers the probe issued on view change, calls to it are name-based
+        MethodCall call = this.service.createMethodCall(SERVICE, "concat", new Object[] { "a", 1 }, CONCAT_TYPES, this.targets);
+
+        assertFalse(call instanceof ServiceMethodCall);
+        assertNull(this.service.indexedRpcPeers.get(this.peer));
+    }
+
+    @Test
+    public void discardRpcProtocolOfDepartedMember() throws Exception {
+        // The peer is not a member of the current view
+        this.service.recordRpcProtocol(this.peer, true);
+
+        assertNull(this.service.indexedRpcPeers.get(this.peer));
+        assertFalse(this.service.createMethodCall(SERVICE, "concat", new Object[] { "a", 1 }, CONCAT_TYPES, this.targets) instanceof ServiceMethodCall);
+    }
+
+    @Test
+    public void nameBasedCallToMixedMembers() throws Exception {
+        Address other = mock(Address.class);
+        this.service.indexedRpcPeers.put(this.peer, Boolean.TRUE);
+        this.service.indexedRpcPeers.put(other, Boolean.FALSE);
+
+        MethodCall call = this.service.createMethodCall(SERVICE, "concat", new Object[] { "a", 1 }, CONCAT_TYPES, Arrays.asList(this.peer, other));
+
+        assertFalse(call instanceof ServiceMethodCall);
+    }
+
+    @Test
+    public void nameBasedCallForUndeclaredMethod() throws Exception {
+        this.service.indexedRpcPeers.put(this.peer, Boolean.TRUE);
+
+        MethodCall call = this.service.createMethodCall(SERVICE, "undeclared", new Object[0], new Class<?>[0], this.targets);
+
+        assertFalse(call instanceof ServiceMethodCall);
+        assertEquals("undeclared", this.roundTrip(call));
+    }
+
+    @Test
+    public void unknownMethodId() throws Exception {
+        Object result = this.roundTrip(new ServiceMethodCall(SERVICE, 0L, "missing", new Object[0], new Class<?>[0]));
+
+        assertTrue(result instanceof NoSuchMethodException);
+    }
+
+    @Test
+    public void unknownService() throws Exception {
+        this.service.indexedRpcPeers.put(this.peer, Boolean.TRUE);
+        MethodCall call = this.service.createMethodCall(SERVICE, "concat", new Object[] { "a", 1 }, CONCAT_TYPES, this.targets);
+        this.service.unregisterRPCHandler(SERVICE, null);
+
+        assertTrue(this.roundTrip(call) instanceof NoHandlerForRPC);
+    }
+
+    @Test
+    public void idsDoNotDependOnDeclarationOrder() {
+        RpcHandlerRegistration registration = new RpcHandlerRegistration(SERVICE, new Handler());
+        RpcHandlerRegistration reordered = new RpcHandlerRegistration(SERVICE, new ReorderedHandler());
+
+        int concat = registration.indexOf("concat", CONCAT_TYPES);
+        int reorderedConcat = reordered.indexOf("concat", CONCAT_TYPES);
+
+        assertFalse(concat == reorderedConcat);
+        assertEquals(registration.getId(concat), reordered.getId(reorderedConcat));
+        assertEquals(registration.getMethod(concat), reordered.findMethod(registration.getId(concat)));
+        assertFalse(registration.getId(concat) == RpcHandlerRegistration.createId(new RpcMethod("concat", String.class, String.class)));
+    }
+
+    private Object roundTrip(MethodCall call) throws Exception {
+        Buffer buffer = this.service.new RequestMarshallerImpl().objectToBuffer(call);
+        return this.service.handleRequest(new Message(null, null, buffer.getBuf(), buffer.getOffset(), buffer.getLength()));
+    }
+
+    public static class Handler implements GroupRpcHandler {
+        @Override
+        public RpcMethod[] getRpcMethods() {
+            return new RpcMethod[] { new RpcMethod("concat", CONCAT_TYPES), new RpcMethod("echo", String.class) };
+        }
+
+        public String concat(String value, Integer suffix) {
+            return value + suffix;
+        }
+
+        public String echo(String value) {
+            return value;
+        }
+
+        public String undeclared() {
+            return "undeclared";
+        }
+    }
+
+    public static class ReorderedHandler extends Handler {
+        @Override
+        public RpcMethod[] getRpcMethods() {
+            return new RpcMethod[] { new RpcMethod("echo", String.class), new RpcMethod("concat", CONCAT_TYPES) };
+        }
+    }
+}
@@ -77,6 +77,7 @@ public enum Attribute {
     NAME(ModelKeys.NAME),
     NAMESPACE(XMLConstants.XMLNS_ATTRIBUTE),
     OUTBOUND_SOCKET_BINDING(ModelKeys.OUTBOUND_SOCKET_BINDING),
+    OWNER_BASED_LOCKING(ModelKeys.OWNER_BASED_LOCKING),
     OWNERS(ModelKeys.OWNERS),
     PASSIVATION(ModelKeys.PASSIVATION),
     PATH(ModelKeys.PATH),
@@ -155,15 +155,17 @@ public class CacheContainerAdd extends AbstractAddStepHandler {
             // if cluster is not defined, use the cache container name as the default
             final String cluster = (resolvedValue = TransportResource.CLUSTER.resolveModelAttribute(context, transport)).isDefined() ? resolvedValue.asString() : name ;
             long lockTimeout = TransportResource.LOCK_TIMEOUT.resolveModelAttribute(context, transport).asLong();
+            boolean ownerBasedLocking = TransportResource.OWNER_BASED_LOCKING.resolveModelAttribute(context, transport).asBoolean();
             transportExecutor = (resolvedValue = TransportResource.EXECUTOR.resolveModelAttribute(context, transport)).isDefined() ? resolvedValue.asString() : null ;
 
             // initialise the Transport
             transportConfig.setLockTimeout(lockTimeout);
+            transportConfig.setOwnerBasedLocking(ownerBasedLocking);
 
             controllers.add(this.installChannelService(target, name, cluster, stack, verificationHandler));
 
             for (ChannelDependentServiceProvider provider: ServiceLoader.load(ChannelDependentServiceProvider.class, ChannelDependentServiceProvider.class.getClassLoader())) {
-                controllers.add(provider.install(target, name));
+                controllers.add(provider.install(target, name, transportConfig));
             }
         }
 
@@ -369,16 +371,21 @@ public class CacheContainerAdd extends AbstractAddStepHandler {
         }
     }
 
-    static class Transport implements EmbeddedCacheManagerConfigurationService.TransportConfiguration {
+    static class Transport implements EmbeddedCacheManagerConfigurationService.TransportConfiguration, ChannelDependentServiceProvider.Configuration {
         private final InjectedValue<ChannelFactory> channelFactory = new InjectedValue<ChannelFactory>();
         private final InjectedValue<Executor> executor = new InjectedValue<Executor>();
 
         private Long lockTimeout;
+        private boolean ownerBasedLocking;
 
         void setLockTimeout(long lockTimeout) {
             this.lockTimeout = lockTimeout;
         }
 
+        void setOwnerBasedLocking(boolean ownerBasedLocking) {
+            this.ownerBasedLocking = ownerBasedLocking;
+        }
+
         Injector<ChannelFactory> getChannelFactoryInjector() {
             return this.channelFactory;
         }
@@ -401,5 +408,10 @@ public class CacheContainerAdd extends AbstractAddStepHandler {
         public Long getLockTimeout() {
             return this.lockTimeout;
         }
+
+        @Override
+        public boolean isOwnerBasedLocking() {
+            return this.ownerBasedLocking;
+        }
     }
 }
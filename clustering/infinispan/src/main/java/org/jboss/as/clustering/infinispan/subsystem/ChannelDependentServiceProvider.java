@@ -33,5 +33,16 @@ import org.jboss.msc.service.ServiceTarget;
 public interface ChannelDependentServiceProvider {
     ServiceName getServiceName(String cluster);
 
-    ServiceController<?> install(ServiceTarget target, String cluster);
+    ServiceController<?> install(ServiceTarget target, String cluster, Configuration configuration);
+
+    /**
+     * The configuration of the per-channel services, as defined by the transport of the cache container.
+     */
+    interface Configuration {
+        /**
+         * Indicates whether cluster-wide locks are requested from the member that owns each lock, rather than from every
+         * member of the cluster.
+         */
+        boolean isOwnerBasedLocking();
+    }
 }
@@ -24,12 +24,16 @@ package org.jboss.as.clustering.infinispan.subsystem;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
 
+import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ReloadRequiredRemoveStepHandler;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.operations.common.GenericSubsystemDescribeHandler;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.services.path.ResolvePathHandler;
+import org.jboss.dmr.ModelType;
 
 /**
  * The root resource of the Infinispan subsystem.
@@ -38,13 +42,35 @@ import org.jboss.as.controller.services.path.ResolvePathHandler;
  */
 public class InfinispanSubsystemRootResource extends SimpleResourceDefinition {
 
+    // metrics
+    static final AttributeDefinition MARSHALLED_VALUE_MARSHAL_COUNT =
+            new SimpleAttributeDefinitionBuilder(ModelKeys.MARSHALLED_VALUE_MARSHAL_COUNT, ModelType.LONG, true)
+                    .setStorageRuntime()
+                    .build();
+
+    static final AttributeDefinition MARSHALLED_VALUE_MARSHAL_TIME =
+            new SimpleAttributeDefinitionBuilder(ModelKeys.MARSHALLED_VALUE_MARSHAL_TIME, ModelType.LONG, true)
+                    .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                    .setStorageRuntime()
+                    .build();
+
+    static final AttributeDefinition MARSHALLED_VALUE_BYTES_SAVED =
+            new SimpleAttributeDefinitionBuilder(ModelKeys.MARSHALLED_VALUE_BYTES_SAVED, ModelType.LONG, true)
+                    .setMeasurementUnit(MeasurementUnit.BYTES)
+                    .setStorageRuntime()
+                    .build();
+
+    static final AttributeDefinition[] SUBSYSTEM_METRICS = {MARSHALLED_VALUE_MARSHAL_COUNT, MARSHALLED_VALUE_MARSHAL_TIME, MARSHALLED_VALUE_BYTES_SAVED};
+
     private final ResolvePathHandler resolvePathHandler;
-    public InfinispanSubsystemRootResource(final ResolvePathHandler resolvePathHandler) {
+    private final boolean runtimeRegistration;
+    public InfinispanSubsystemRootResource(final ResolvePathHandler resolvePathHandler, final boolean runtimeRegistration) {
         super(PathElement.pathElement(SUBSYSTEM, InfinispanExtension.SUBSYSTEM_NAME),
                 InfinispanExtension.getResourceDescriptionResolver(),
                 InfinispanSubsystemAdd.INSTANCE,
                 ReloadRequiredRemoveStepHandler.INSTANCE);
         this.resolvePathHandler = resolvePathHandler;
+        this.runtimeRegistration = runtimeRegistration;
     }
 
     @Override
@@ -57,6 +83,13 @@ public class InfinispanSubsystemRootResource extends SimpleResourceDefinition {
     public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
         super.registerAttributes(resourceRegistration);
         // resourceRegistration.registerReadWriteAttribute(DEFAULT_STACK, null, SubsystemWriteAttributeHandler.INSTANCE);
+
+        // Marshalled values are not bound to a cache container, so their metrics are exposed once, by the subsystem
+        if (this.runtimeRegistration) {
+            for (AttributeDefinition metric : SUBSYSTEM_METRICS) {
+                resourceRegistration.registerMetric(metric, MarshalledValueMetricsHandler.INSTANCE);
+            }
+        }
     }
 
     @Override
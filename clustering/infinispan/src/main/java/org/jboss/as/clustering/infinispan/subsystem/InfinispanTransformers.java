@@ -46,6 +46,7 @@ public class InfinispanTransformers {
      * Register the transformers for transforming from 1.4.0 to 1.3.0 management api versions, in which:
      * - attributes INDEXING_PROPERTIES, SEGMENTS were added in 1.4
      * - attribute VIRTUAL_NODES was deprecated in 1.4
+     * - attribute OWNER_BASED_LOCKING of the transport was added in 1.4
      * - expression support was added to most attributes in 1.4, except for CLUSTER, DEFAULT_CACHE and MODE
      * for which it was already enabled in 1.3
      *
@@ -66,6 +67,9 @@ public class InfinispanTransformers {
         cacheContainerBuilder.addChildResource(TransportResource.TRANSPORT_PATH)
             .getAttributeBuilder()
             .addRejectCheck(RejectAttributeChecker.SIMPLE_EXPRESSIONS, InfinispanRejectedExpressions_1_3.REJECT_TRANSPORT_ATTRIBUTES)
+            //discard owner-based-locking if undefined or false, and reject it otherwise
+            .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), TransportResource.OWNER_BASED_LOCKING)
+            .addRejectCheck(RejectAttributeChecker.DEFINED, TransportResource.OWNER_BASED_LOCKING)
             .end();
 
         final ResourceTransformationDescriptionBuilder distributedCacheBuilder = cacheContainerBuilder.addChildResource(DistributedCacheResource.DISTRIBUTED_CACHE_PATH)
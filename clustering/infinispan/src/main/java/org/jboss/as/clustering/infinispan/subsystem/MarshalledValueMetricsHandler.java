@@ -0,0 +1,56 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.clustering.infinispan.subsystem;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+
+import org.jboss.as.clustering.MarshalledValueStatistics;
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Handler for the marshalled value metrics of the subsystem, which reflect all marshalled values of the server.
+ */
+public class MarshalledValueMetricsHandler extends AbstractRuntimeOnlyHandler {
+
+    public static final MarshalledValueMetricsHandler INSTANCE = new MarshalledValueMetricsHandler();
+
+    private MarshalledValueMetricsHandler() {
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final String name = operation.require(NAME).asString();
+        final MarshalledValueStatistics statistics = MarshalledValueStatistics.INSTANCE;
+        if (ModelKeys.MARSHALLED_VALUE_MARSHAL_COUNT.equals(name)) {
+            context.getResult().set(statistics.getMarshalCount());
+        } else if (ModelKeys.MARSHALLED_VALUE_MARSHAL_TIME.equals(name)) {
+            context.getResult().set(statistics.getMarshalTime());
+        } else if (ModelKeys.MARSHALLED_VALUE_BYTES_SAVED.equals(name)) {
+            context.getResult().set(statistics.getBytesSaved());
+        }
+        context.stepCompleted();
+    }
+}
@@ -86,6 +86,9 @@ public class ModelKeys {
     static final String LOCKING = "locking";
     static final String LOCKING_NAME = "LOCKING";
     static final String MACHINE = "machine";
+    static final String MARSHALLED_VALUE_BYTES_SAVED = "marshalled-value-bytes-saved";
+    static final String MARSHALLED_VALUE_MARSHAL_COUNT = "marshalled-value-marshal-count";
+    static final String MARSHALLED_VALUE_MARSHAL_TIME = "marshalled-value-marshal-time";
     static final String MAX_ENTRIES = "max-entries";
     static final String MAX_IDLE = "max-idle";
     static final String MODE = "mode";
@@ -93,6 +96,7 @@ public class ModelKeys {
     static final String MODULE = "module";
     static final String NAME = "name";
     static final String OUTBOUND_SOCKET_BINDING = "outbound-socket-binding";
+    static final String OWNER_BASED_LOCKING = "owner-based-locking";
     static final String OWNERS = "owners";
     static final String PASSIVATION = "passivation";
     static final String PATH = "path";
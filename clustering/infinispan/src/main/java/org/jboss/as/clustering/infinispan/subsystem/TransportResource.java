@@ -69,6 +69,14 @@ public class TransportResource extends SimpleResourceDefinition {
                     .setDefaultValue(new ModelNode().set(240000))
                     .build();
 
+    static final SimpleAttributeDefinition OWNER_BASED_LOCKING =
+            new SimpleAttributeDefinitionBuilder(ModelKeys.OWNER_BASED_LOCKING, ModelType.BOOLEAN, true)
+                    .setXmlName(Attribute.OWNER_BASED_LOCKING.getLocalName())
+                    .setAllowExpression(true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setDefaultValue(new ModelNode().set(false))
+                    .build();
+
     // if stack is null, use default stack
     static final SimpleAttributeDefinition STACK =
             new SimpleAttributeDefinitionBuilder(ModelKeys.STACK, ModelType.STRING, true)
@@ -77,7 +85,7 @@ public class TransportResource extends SimpleResourceDefinition {
                     .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
                     .build();
 
-    static final AttributeDefinition[] TRANSPORT_ATTRIBUTES = {STACK, CLUSTER, EXECUTOR, LOCK_TIMEOUT};
+    static final AttributeDefinition[] TRANSPORT_ATTRIBUTES = {STACK, CLUSTER, EXECUTOR, LOCK_TIMEOUT, OWNER_BASED_LOCKING};
 
     public TransportResource() {
         super(TRANSPORT_PATH,
@@ -26,7 +26,9 @@ package org.jboss.as.clustering.jgroups.subsystem;
  * @author Paul Ferraro
  */
 class ModelKeys {
+    static final String ACTIVE_COUNT = "active-count";
     static final String ADD_PROTOCOL = "add-protocol";
+    static final String CURRENT_THREAD_COUNT = "current-thread-count";
     static final String DEFAULT_EXECUTOR = "default-executor";
     static final String DEFAULT_STACK = "default-stack";
     static final String DIAGNOSTICS_SOCKET_BINDING = "diagnostics-socket-binding";
@@ -38,7 +40,9 @@ class ModelKeys {
     static final String PROPERTIES = "properties";
     static final String PROTOCOL = "protocol";
     static final String PROTOCOLS = "protocols";
+    static final String QUEUE_SIZE = "queue-size";
     static final String RACK = "rack";
+    static final String REJECTED_COUNT = "rejected-count";
     static final String REMOVE_PROTOCOL = "remove-protocol";
     static final String SHARED = "shared";
     static final String SITE = "site";
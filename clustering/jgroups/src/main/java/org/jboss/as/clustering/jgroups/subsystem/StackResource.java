@@ -96,7 +96,7 @@ public class StackResource extends SimpleResourceDefinition {
     public void registerChildren(ManagementResourceRegistration resourceRegistration) {
         super.registerChildren(resourceRegistration);
         // child resources
-        resourceRegistration.registerSubModel(TransportResource.INSTANCE);
+        resourceRegistration.registerSubModel(new TransportResource(this.runtimeRegistration));
         resourceRegistration.registerSubModel(ProtocolResource.INSTANCE);
     }
 }
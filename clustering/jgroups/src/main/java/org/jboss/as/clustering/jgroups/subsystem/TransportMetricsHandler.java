@@ -0,0 +1,102 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.clustering.jgroups.subsystem;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.threads.ManagedJBossThreadPoolExecutorService;
+import org.jboss.as.threads.ManagedQueueExecutorService;
+import org.jboss.as.threads.ManagedQueuelessExecutorService;
+import org.jboss.as.threads.ThreadsServices;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Handler for the metrics of the executors used by a transport, i.e. /subsystem=jgroups/stack=X/transport=TRANSPORT.
+ * Metrics are undefined if the transport does not reference a managed executor of the threads subsystem,
+ * or if that executor does not track the requested metric.
+ */
+public class TransportMetricsHandler extends AbstractRuntimeOnlyHandler {
+
+    public static final TransportMetricsHandler INSTANCE = new TransportMetricsHandler();
+
+    private TransportMetricsHandler() {
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final String name = operation.require(NAME).asString();
+        final ModelNode transport = context.readResource(PathAddress.EMPTY_ADDRESS).getModel();
+        for (AttributeDefinition attribute: new AttributeDefinition[] { TransportResource.DEFAULT_EXECUTOR, TransportResource.OOB_EXECUTOR }) {
+            String prefix = attribute.getName() + "-";
+            if (name.startsWith(prefix)) {
+                ModelNode executor = attribute.resolveModelAttribute(context, transport);
+                if (executor.isDefined()) {
+                    ServiceController<?> controller = context.getServiceRegistry(false).getService(ThreadsServices.executorName(executor.asString()));
+                    if ((controller != null) && (controller.getState() == ServiceController.State.UP)) {
+                        setResult(context, name.substring(prefix.length()), controller.getValue());
+                    }
+                }
+            }
+        }
+        context.stepCompleted();
+    }
+
+    private static void setResult(OperationContext context, String metric, Object executor) {
+        if (executor instanceof ManagedJBossThreadPoolExecutorService) {
+            ManagedJBossThreadPoolExecutorService pool = (ManagedJBossThreadPoolExecutorService) executor;
+            if (ModelKeys.ACTIVE_COUNT.equals(metric)) {
+                context.getResult().set(pool.getActiveCount());
+            } else if (ModelKeys.CURRENT_THREAD_COUNT.equals(metric)) {
+                context.getResult().set(pool.getCurrentThreadCount());
+            } else if (ModelKeys.QUEUE_SIZE.equals(metric)) {
+                context.getResult().set(pool.getQueueSize());
+            } else if (ModelKeys.REJECTED_COUNT.equals(metric)) {
+                context.getResult().set(pool.getRejectedCount());
+            }
+        } else if (executor instanceof ManagedQueueExecutorService) {
+            ManagedQueueExecutorService pool = (ManagedQueueExecutorService) executor;
+            if (ModelKeys.CURRENT_THREAD_COUNT.equals(metric)) {
+                context.getResult().set(pool.getCurrentThreadCount());
+            } else if (ModelKeys.QUEUE_SIZE.equals(metric)) {
+                context.getResult().set(pool.getQueueSize());
+            } else if (ModelKeys.REJECTED_COUNT.equals(metric)) {
+                context.getResult().set(pool.getRejectedCount());
+            }
+        } else if (executor instanceof ManagedQueuelessExecutorService) {
+            ManagedQueuelessExecutorService pool = (ManagedQueuelessExecutorService) executor;
+            if (ModelKeys.CURRENT_THREAD_COUNT.equals(metric)) {
+                context.getResult().set(pool.getCurrentThreadCount());
+            } else if (ModelKeys.QUEUE_SIZE.equals(metric)) {
+                context.getResult().set(pool.getQueueSize());
+            } else if (ModelKeys.REJECTED_COUNT.equals(metric)) {
+                context.getResult().set(pool.getRejectedCount());
+            }
+        }
+    }
+}
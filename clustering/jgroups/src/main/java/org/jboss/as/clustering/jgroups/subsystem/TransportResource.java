@@ -160,14 +160,33 @@ public class TransportResource extends SimpleResourceDefinition {
 
     static final OperationStepHandler TRANSPORT_ADD = new TransportLayerAdd(TRANSPORT_PARAMETERS);
     static final OperationStepHandler TRANSPORT_REMOVE = new TransportLayerRemove();
-    static final TransportResource INSTANCE = new TransportResource();
+
+    // metrics of the executors referenced by the default-executor and oob-executor attributes
+    static final String[] EXECUTOR_METRICS = new String[] { ModelKeys.ACTIVE_COUNT, ModelKeys.CURRENT_THREAD_COUNT, ModelKeys.QUEUE_SIZE, ModelKeys.REJECTED_COUNT };
+    static final AttributeDefinition[] TRANSPORT_METRICS = createExecutorMetrics(DEFAULT_EXECUTOR, OOB_EXECUTOR);
+
+    private static AttributeDefinition[] createExecutorMetrics(AttributeDefinition... executors) {
+        AttributeDefinition[] metrics = new AttributeDefinition[executors.length * EXECUTOR_METRICS.length];
+        int index = 0;
+        for (AttributeDefinition executor: executors) {
+            for (String metric: EXECUTOR_METRICS) {
+                metrics[index++] = new SimpleAttributeDefinitionBuilder(executor.getName() + "-" + metric, ModelType.INT, true)
+                        .setStorageRuntime()
+                        .build();
+            }
+        }
+        return metrics;
+    }
+
+    private final boolean runtimeRegistration;
 
     // registration
-    TransportResource() {
+    TransportResource(boolean runtimeRegistration) {
         super(TRANSPORT_PATH,
                 JGroupsExtension.getResourceDescriptionResolver(ModelKeys.TRANSPORT),
                 null,  //we register it manualy in #  registerOperations
                 TRANSPORT_REMOVE);
+        this.runtimeRegistration = runtimeRegistration;
     }
 
     @Override
@@ -184,6 +203,12 @@ public class TransportResource extends SimpleResourceDefinition {
         for (AttributeDefinition attr : TRANSPORT_ATTRIBUTES) {
             resourceRegistration.registerReadWriteAttribute(attr, null, writeHandler);
         }
+
+        if (this.runtimeRegistration) {
+            for (AttributeDefinition metric : TRANSPORT_METRICS) {
+                resourceRegistration.registerMetric(metric, TransportMetricsHandler.INSTANCE);
+            }
+        }
     }
 
     @Override
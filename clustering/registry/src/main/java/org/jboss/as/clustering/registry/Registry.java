@@ -44,14 +44,34 @@ public interface Registry<K, V> {
         V getValue();
     }
 
+    /**
+     * An immutable view of the registry entries, tagged with a version which increases whenever the entries change.
+     */
+    interface Snapshot<K, V> {
+        Map<K, V> getEntries();
+
+        long getVersion();
+    }
+
     String getName();
 
     void addListener(Listener<K, V> listener);
 
     void removeListener(Listener<K, V> listener);
 
+    /**
+     * Returns an immutable snapshot of the entries of this registry.
+     * Equivalent to {@code getSnapshot().getEntries()}.
+     * @return a map of registry entries
+     */
     Map<K, V> getEntries();
 
+    /**
+     * Returns the current snapshot of this registry, whose entries and version always belong together.
+     * @return a registry snapshot
+     */
+    Snapshot<K, V> getSnapshot();
+
     Map.Entry<K, V> getLocalEntry();
 
     Map.Entry<K, V> getRemoteEntry(Object address);
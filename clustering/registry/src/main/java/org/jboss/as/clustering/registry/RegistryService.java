@@ -64,6 +64,7 @@ public class RegistryService<K, V> implements Service<Registry<K, V>>, Registry<
     private final Value<Cache<Address, Map.Entry<K, V>>> cache;
     private final Value<RegistryEntryProvider<K, V>> provider;
     private final Set<Listener<K, V>> listeners = new CopyOnWriteArraySet<Listener<K, V>>();
+    private volatile RegistrySnapshot<K, V> snapshot = new RegistrySnapshot<K, V>(Collections.<K, V>emptyMap(), 0);
 
     public RegistryService(Value<Cache<Address, Map.Entry<K, V>>> cache, Value<RegistryEntryProvider<K, V>> provider) {
         this.cache = cache;
@@ -100,11 +101,16 @@ public class RegistryService<K, V> implements Service<Registry<K, V>>, Registry<
      */
     @Override
     public Map<K, V> getEntries() {
-        Map<K, V> map = new HashMap<K, V>();
-        for (Map.Entry<K, V> entry: this.cache.getValue().values()) {
-            map.put(entry.getKey(), entry.getValue());
-        }
-        return Collections.unmodifiableMap(map);
+        return this.snapshot.entries;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @see org.jboss.as.clustering.registry.Registry#getSnapshot()
+     */
+    @Override
+    public Snapshot<K, V> getSnapshot() {
+        return this.snapshot;
     }
 
     @Override
@@ -124,6 +130,7 @@ public class RegistryService<K, V> implements Service<Registry<K, V>>, Registry<
         Cache<Address, Map.Entry<K, V>> cache = this.cache.getValue();
         cache.getCacheManager().addListener(this);
         cache.addListener(this);
+        this.rebuildSnapshot(cache);
     }
 
     @Override
@@ -145,6 +152,7 @@ public class RegistryService<K, V> implements Service<Registry<K, V>>, Registry<
     void addLocalCacheEntry(Cache<Address, Map.Entry<K, V>> cache, Map.Entry<K, V> entry) {
         if (entry != null) {
             cache.getAdvancedCache().withFlags(Flag.SKIP_REMOTE_LOOKUP).put(getLocalAddress(cache), entry);
+            this.putSnapshotEntry(entry);
         }
     }
 
@@ -168,6 +176,9 @@ public class RegistryService<K, V> implements Service<Registry<K, V>>, Registry<
         };
         // Add SKIP_LOCKING flag to so that we aren't blocked by state transfer lock
         this.invoker.invoke(this.cache.getValue(), operation, Flag.SKIP_REMOTE_LOOKUP, Flag.SKIP_LOCKING);
+        synchronized (this) {
+            this.snapshot = new RegistrySnapshot<K, V>(Collections.<K, V>emptyMap(), this.snapshot.version + 1);
+        }
     }
 
     static Address getLocalAddress(Cache<?, ?> cache) {
@@ -200,7 +211,10 @@ public class RegistryService<K, V> implements Service<Registry<K, V>>, Registry<
             }
         };
 
-        Set<K> removed = this.invoker.invoke(this.cache.getValue(), operation);
+        Cache<Address, Map.Entry<K, V>> cache = this.cache.getValue();
+        Set<K> removed = this.invoker.invoke(cache, operation);
+        // Entries received via state transfer do not raise notifications, so resynchronize the snapshot with the cache
+        this.rebuildSnapshot(cache);
         if (!removed.isEmpty()) {
             for (Listener<K, V> listener: this.listeners) {
                 listener.removedEntries(removed);
@@ -219,9 +233,10 @@ public class RegistryService<K, V> implements Service<Registry<K, V>>, Registry<
         } else {
             Map.Entry<K, V> old = this.entry.get();
             this.entry.remove();
-            if (!this.listeners.isEmpty()) {
-                Map.Entry<K, V> entry = event.getValue();
-                if (entry != null) {
+            Map.Entry<K, V> entry = event.getValue();
+            // Skip notification of updates that do not change the snapshot
+            if ((entry != null) && (this.putSnapshotEntry(entry) || (old == null))) {
+                if (!this.listeners.isEmpty()) {
                     Map<K, V> entries = Collections.singletonMap(entry.getKey(), entry.getValue());
                     for (Listener<K, V> listener: this.listeners) {
                         if (old == null) {
@@ -244,6 +259,7 @@ public class RegistryService<K, V> implements Service<Registry<K, V>>, Registry<
             Map.Entry<K, V> entry = this.entry.get();
             this.entry.remove();
             if (entry != null) {
+                this.removeSnapshotEntry(entry.getKey());
                 Set<K> keys = Collections.singleton(entry.getKey());
                 for (Listener<K, V> listener: this.listeners) {
                     listener.removedEntries(keys);
@@ -252,6 +268,76 @@ public class RegistryService<K, V> implements Service<Registry<K, V>>, Registry<
         }
     }
 
+    /**
+     * Adds or replaces the specified entry in the current snapshot.
+     * @return true, if the snapshot changed, false otherwise
+     */
+    synchronized boolean putSnapshotEntry(Map.Entry<K, V> entry) {
+        RegistrySnapshot<K, V> current = this.snapshot;
+        K key = entry.getKey();
+        V value = entry.getValue();
+        if (current.entries.containsKey(key) && equals(current.entries.get(key), value)) {
+            return false;
+        }
+        Map<K, V> entries = new HashMap<K, V>(current.entries);
+        entries.put(key, value);
+        this.snapshot = new RegistrySnapshot<K, V>(entries, current.version + 1);
+        return true;
+    }
+
+    /**
+     * Removes the entry with the specified key from the current snapshot.
+     * @return true, if the snapshot changed, false otherwise
+     */
+    synchronized boolean removeSnapshotEntry(K key) {
+        RegistrySnapshot<K, V> current = this.snapshot;
+        if (!current.entries.containsKey(key)) {
+            return false;
+        }
+        Map<K, V> entries = new HashMap<K, V>(current.entries);
+        entries.remove(key);
+        this.snapshot = new RegistrySnapshot<K, V>(entries, current.version + 1);
+        return true;
+    }
+
+    synchronized void rebuildSnapshot(Cache<Address, Map.Entry<K, V>> cache) {
+        Map<K, V> entries = new HashMap<K, V>();
+        for (Map.Entry<K, V> entry: cache.values()) {
+            entries.put(entry.getKey(), entry.getValue());
+        }
+        RegistrySnapshot<K, V> current = this.snapshot;
+        if (!entries.equals(current.entries)) {
+            this.snapshot = new RegistrySnapshot<K, V>(entries, current.version + 1);
+        }
+    }
+
+    private static boolean equals(Object value1, Object value2) {
+        return (value1 != null) ? value1.equals(value2) : (value2 == null);
+    }
+
+    /**
+     * Immutable view of the registry entries, tagged with a version that is incremented on every change.
+     */
+    private static class RegistrySnapshot<K, V> implements Snapshot<K, V> {
+        final Map<K, V> entries;
+        final long version;
+
+        RegistrySnapshot(Map<K, V> entries, long version) {
+            this.entries = Collections.unmodifiableMap(entries);
+            this.version = version;
+        }
+
+        @Override
+        public Map<K, V> getEntries() {
+            return this.entries;
+        }
+
+        @Override
+        public long getVersion() {
+            return this.version;
+        }
+    }
+
     abstract class Operation<R> implements CacheInvoker.Operation<Address, Map.Entry<K, V>, R> {
     }
 }
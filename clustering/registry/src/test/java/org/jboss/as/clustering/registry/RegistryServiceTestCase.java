@@ -0,0 +1,252 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering.registry;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.Cache;
+import org.infinispan.context.Flag;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.notifications.cachelistener.event.CacheEntryModifiedEvent;
+import org.infinispan.notifications.cachelistener.event.CacheEntryRemovedEvent;
+import org.infinispan.notifications.cachemanagerlistener.event.ViewChangedEvent;
+import org.infinispan.remoting.transport.Address;
+import org.jboss.as.clustering.registry.Registry.RegistryEntryProvider;
+import org.jboss.msc.value.ImmediateValue;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+
+/**
+ * Unit test of the versioned snapshot maintained by {@link RegistryService}.
+ */
+public class RegistryServiceTestCase {
+    private final Address localAddress = mock(Address.class);
+    private final Address remoteAddress = mock(Address.class);
+    private final Map.Entry<String, String> localEntry = entry("local", "a");
+    private final Map.Entry<String, String> remoteEntry = entry("remote", "b");
+
+    private Cache<Address, Map.Entry<String, String>> cache;
+    private AdvancedCache<Address, Map.Entry<String, String>> advancedCache;
+    private Registry.Listener<String, String> listener;
+    private RegistryService<String, String> registry;
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() {
+        this.cache = mock(Cache.class);
+        this.advancedCache = mock(AdvancedCache.class);
+        EmbeddedCacheManager manager = mock(EmbeddedCacheManager.class);
+        RegistryEntryProvider<String, String> provider = mock(RegistryEntryProvider.class);
+        this.listener = mock(Registry.Listener.class);
+
+        when(this.cache.getAdvancedCache()).thenReturn(this.advancedCache);
+        when(this.cache.getCacheManager()).thenReturn(manager);
+        when(this.advancedCache.getAdvancedCache()).thenReturn(this.advancedCache);
+        when(this.advancedCache.getCacheManager()).thenReturn(manager);
+        when(this.advancedCache.withFlags(Matchers.<Flag>anyVararg())).thenReturn(this.advancedCache);
+        when(manager.getAddress()).thenReturn(this.localAddress);
+        when(provider.getKey()).thenReturn(this.localEntry.getKey());
+        when(provider.getValue()).thenReturn(this.localEntry.getValue());
+        this.cacheContains(this.localEntry, this.remoteEntry);
+
+        this.registry = new RegistryService<String, String>(new ImmediateValue<Cache<Address, Map.Entry<String, String>>>(this.cache), new ImmediateValue<RegistryEntryProvider<String, String>>(provider));
+        this.registry.start(null);
+        this.registry.addListener(this.listener);
+    }
+
+    @Test
+    public void startBuildsSnapshotFromCache() {
+        Map<String, String> expected = new HashMap<String, String>();
+        expected.put("local", "a");
+        expected.put("remote", "b");
+        assertEquals(expected, this.registry.getEntries());
+        // One version for the local entry, one for the entries found in the cache
+        assertEquals(2, this.registry.getSnapshot().getVersion());
+    }
+
+    @Test
+    public void addedEntryIncrementsVersion() {
+        long version = this.registry.getSnapshot().getVersion();
+
+        this.modified(null, entry("added", "c"));
+
+        assertEquals("c", this.registry.getEntries().get("added"));
+        assertEquals(version + 1, this.registry.getSnapshot().getVersion());
+        verify(this.listener).addedEntries(Collections.singletonMap("added", "c"));
+    }
+
+    @Test
+    public void updatedEntryIncrementsVersion() {
+        long version = this.registry.getSnapshot().getVersion();
+
+        this.modified(this.remoteEntry, entry("remote", "c"));
+
+        assertEquals("c", this.registry.getEntries().get("remote"));
+        assertEquals(version + 1, this.registry.getSnapshot().getVersion());
+        verify(this.listener).updatedEntries(Collections.singletonMap("remote", "c"));
+    }
+
+    @Test
+    public void snapshotKeepsEntriesWithTheirVersion() {
+        Registry.Snapshot<String, String> before = this.registry.getSnapshot();
+        long version = before.getVersion();
+
+        this.modified(null, entry("added", "c"));
+
+        // A snapshot taken before the change still pairs the old entries with the old version
+        assertEquals(version, before.getVersion());
+        assertFalse(before.getEntries().containsKey("added"));
+        Registry.Snapshot<String, String> after = this.registry.getSnapshot();
+        assertEquals(version + 1, after.getVersion());
+        assertEquals("c", after.getEntries().get("added"));
+    }
+
+    @Test
+    public void unchangedEntrySkipsNotification() {
+        long version = this.registry.getSnapshot().getVersion();
+
+        this.modified(this.remoteEntry, entry("remote", "b"));
+
+        assertEquals(version, this.registry.getSnapshot().getVersion());
+        verifyZeroInteractions(this.listener);
+    }
+
+    @Test
+    public void localModificationIsIgnored() {
+        long version = this.registry.getSnapshot().getVersion();
+
+        @SuppressWarnings("unchecked")
+        CacheEntryModifiedEvent<Address, Map.Entry<String, String>> event = mock(CacheEntryModifiedEvent.class);
+        when(event.isOriginLocal()).thenReturn(true);
+        this.registry.modified(event);
+
+        assertEquals(version, this.registry.getSnapshot().getVersion());
+        verifyZeroInteractions(this.listener);
+    }
+
+    @Test
+    public void removedEntryIncrementsVersion() {
+        long version = this.registry.getSnapshot().getVersion();
+
+        this.removed(this.remoteEntry);
+
+        assertFalse(this.registry.getEntries().containsKey("remote"));
+        assertEquals(version + 1, this.registry.getSnapshot().getVersion());
+        verify(this.listener).removedEntries(Collections.singleton("remote"));
+    }
+
+    @Test
+    public void viewChangeResynchronizesSnapshot() {
+        long version = this.registry.getSnapshot().getVersion();
+        Address joiner = mock(Address.class);
+        Map.Entry<String, String> transferred = entry("joiner", "d");
+
+        when(this.advancedCache.remove(this.remoteAddress)).thenReturn(this.remoteEntry);
+        // The entry of the joining member arrived via state transfer, which raises no notification
+        this.cacheContains(this.localEntry, transferred);
+
+        this.viewChanged(Arrays.asList(this.localAddress, this.remoteAddress), Arrays.asList(this.localAddress, joiner));
+
+        Map<String, String> expected = new HashMap<String, String>();
+        expected.put("local", "a");
+        expected.put("joiner", "d");
+        assertEquals(expected, this.registry.getEntries());
+        assertEquals(version + 1, this.registry.getSnapshot().getVersion());
+        verify(this.listener).removedEntries(Collections.singleton("remote"));
+    }
+
+    @Test
+    public void unchangedViewKeepsVersion() {
+        long version = this.registry.getSnapshot().getVersion();
+
+        this.viewChanged(Arrays.asList(this.localAddress, this.remoteAddress), Arrays.asList(this.localAddress, this.remoteAddress));
+
+        assertEquals(version, this.registry.getSnapshot().getVersion());
+        verifyZeroInteractions(this.listener);
+    }
+
+    @Test
+    public void snapshotIsImmutable() {
+        Map<String, String> entries = this.registry.getEntries();
+
+        this.modified(null, entry("added", "c"));
+
+        assertFalse(entries.containsKey("added"));
+        try {
+            entries.put("added", "c");
+            fail("Snapshot entries should not be modifiable");
+        } catch (UnsupportedOperationException e) {
+            // Expected
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void cacheContains(Map.Entry<String, String>... entries) {
+        when(this.cache.values()).thenReturn(Arrays.asList(entries));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void modified(Map.Entry<String, String> previous, Map.Entry<String, String> current) {
+        CacheEntryModifiedEvent<Address, Map.Entry<String, String>> pre = mock(CacheEntryModifiedEvent.class);
+        when(pre.isPre()).thenReturn(true);
+        when(pre.getValue()).thenReturn(previous);
+        this.registry.modified(pre);
+
+        CacheEntryModifiedEvent<Address, Map.Entry<String, String>> post = mock(CacheEntryModifiedEvent.class);
+        when(post.isPre()).thenReturn(false);
+        when(post.getValue()).thenReturn(current);
+        this.registry.modified(post);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void removed(Map.Entry<String, String> previous) {
+        CacheEntryRemovedEvent<Address, Map.Entry<String, String>> pre = mock(CacheEntryRemovedEvent.class);
+        when(pre.isPre()).thenReturn(true);
+        when(pre.getValue()).thenReturn(previous);
+        this.registry.removed(pre);
+
+        CacheEntryRemovedEvent<Address, Map.Entry<String, String>> post = mock(CacheEntryRemovedEvent.class);
+        when(post.isPre()).thenReturn(false);
+        this.registry.removed(post);
+    }
+
+    private void viewChanged(List<Address> oldMembers, List<Address> newMembers) {
+        ViewChangedEvent event = mock(ViewChangedEvent.class);
+        when(event.getOldMembers()).thenReturn(oldMembers);
+        when(event.getNewMembers()).thenReturn(newMembers);
+        this.registry.viewChanged(event);
+    }
+
+    private static Map.Entry<String, String> entry(String key, String value) {
+        return new AbstractMap.SimpleImmutableEntry<String, String>(key, value);
+    }
+}
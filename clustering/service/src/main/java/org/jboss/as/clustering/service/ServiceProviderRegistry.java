@@ -21,6 +21,7 @@
  */
 package org.jboss.as.clustering.service;
 
+import java.util.Map;
 import java.util.Set;
 
 import org.jboss.as.clustering.ClusterNode;
@@ -47,6 +48,22 @@ public interface ServiceProviderRegistry {
      */
     void register(String service, Listener listener);
 
+    /**
+     * Registers the current node as a provider for the specified service, publishing its initial load.
+     * @param service the name of the provided service.
+     * @param listener the object to notify in the event the set of nodes providing the specified service changes.
+     * @param load the load score of the current node, or null if no load is published
+     */
+    void register(String service, Listener listener, Integer load);
+
+    /**
+     * Publishes the load score of the current node for the specified service.
+     * Load updates do not notify the listeners of the service.
+     * @param service a service name
+     * @param load the load score of the current node
+     */
+    void setLoad(String service, int load);
+
     /**
      * Unregisters the current node as a provider for the specified service.
      * @param service a service name.
@@ -59,4 +76,11 @@ public interface ServiceProviderRegistry {
      * @return a set of nodes.
      */
     Set<ClusterNode> getServiceProviders(String service);
+
+    /**
+     * Returns the most recently published load score of each node that provides the specified service.
+     * @param service a service name
+     * @return a map of node to load score, whose values are null for nodes that did not publish a load
+     */
+    Map<ClusterNode, Integer> getServiceProviderLoads(String service);
 }
@@ -24,11 +24,14 @@ package org.jboss.as.clustering.service;
 import java.util.List;
 
 import org.jboss.as.clustering.ClusterNode;
+import org.jboss.as.clustering.RpcMethod;
 
 /**
  * RPC interface for ServiceProviderRegistry
  * @author Paul Ferraro
  */
 public interface ServiceProviderRegistryRpcHandler {
+    RpcMethod[] RPC_METHODS = new RpcMethod[] { new RpcMethod("getServices", ClusterNode.class) };
+
     List<String> getServices(ClusterNode node);
 }
\ No newline at end of file
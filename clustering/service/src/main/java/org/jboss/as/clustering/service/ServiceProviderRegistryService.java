@@ -25,6 +25,7 @@ package org.jboss.as.clustering.service;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -38,6 +39,8 @@ import org.jboss.as.clustering.ClusterNode;
 import org.jboss.as.clustering.GroupMembershipListener;
 import org.jboss.as.clustering.GroupMembershipNotifier;
 import org.jboss.as.clustering.GroupRpcDispatcher;
+import org.jboss.as.clustering.GroupRpcHandler;
+import org.jboss.as.clustering.RpcMethod;
 import org.jboss.as.clustering.impl.CoreGroupCommunicationService;
 import org.jboss.as.clustering.infinispan.atomic.AtomicMapCache;
 import org.jboss.as.clustering.infinispan.invoker.BatchCacheInvoker;
@@ -53,7 +56,7 @@ import org.jboss.msc.value.Value;
  * @author Paul Ferraro
  */
 @org.infinispan.notifications.Listener(sync = false)
-public class ServiceProviderRegistryService implements ServiceProviderRegistry, ServiceProviderRegistryRpcHandler, GroupMembershipListener, Service<ServiceProviderRegistry> {
+public class ServiceProviderRegistryService implements ServiceProviderRegistry, ServiceProviderRegistryRpcHandler, GroupRpcHandler, GroupMembershipListener, Service<ServiceProviderRegistry> {
 
     public static ServiceName getServiceName(String name) {
         return CoreGroupCommunicationService.getServiceName(name).append("registry");
@@ -66,11 +69,12 @@ public class ServiceProviderRegistryService implements ServiceProviderRegistry,
     private final Value<GroupMembershipNotifier> notifierRef;
     private final Value<GroupRpcDispatcher> dispatcherRef;
     private final Map<String, Listener> listeners = new ConcurrentHashMap<String, Listener>();
+    private final Map<String, Set<ClusterNode>> providers = new ConcurrentHashMap<String, Set<ClusterNode>>();
     private final CacheInvoker invoker = new BatchCacheInvoker();
 
     volatile GroupRpcDispatcher dispatcher;
     private volatile GroupMembershipNotifier notifier;
-    private volatile Cache<String, Map<ClusterNode, Void>> cache;
+    private volatile Cache<String, Map<ClusterNode, Integer>> cache;
 
     public ServiceProviderRegistryService(ServiceName name, @SuppressWarnings("rawtypes") Value<Cache> cacheRef, Value<GroupRpcDispatcher> dispatcherRef, Value<GroupMembershipNotifier> notifierRef) {
         this.name = name;
@@ -80,20 +84,26 @@ public class ServiceProviderRegistryService implements ServiceProviderRegistry,
     }
 
     @Override
-    public void register(final String service, Listener listener) {
+    public void register(String service, Listener listener) {
+        this.register(service, listener, null);
+    }
+
+    @Override
+    public void register(final String service, Listener listener, final Integer load) {
         this.listeners.put(service, listener);
         final ClusterNode node = this.notifier.getClusterNode();
         Operation<Set<ClusterNode>> operation = new Operation<Set<ClusterNode>>() {
             @Override
-            public Set<ClusterNode> invoke(Cache<String, Map<ClusterNode, Void>> cache) {
-                Map<ClusterNode, Void> map = cache.putIfAbsent(service, null);
-                if (!map.containsKey(node)) {
-                    map.put(node, null);
+            public Set<ClusterNode> invoke(Cache<String, Map<ClusterNode, Integer>> cache) {
+                Map<ClusterNode, Integer> map = cache.putIfAbsent(service, null);
+                if (!map.containsKey(node) || (load != null)) {
+                    map.put(node, load);
                 }
                 return map.keySet();
             }
         };
         Set<ClusterNode> nodes = this.invoker.invoke(this.cache, operation);
+        this.providersChanged(service, nodes);
         listener.serviceProvidersChanged(nodes, false);
     }
 
@@ -102,13 +112,14 @@ public class ServiceProviderRegistryService implements ServiceProviderRegistry,
         final ClusterNode node = this.notifier.getClusterNode();
         Operation<Void> operation = new Operation<Void>() {
             @Override
-            public Void invoke(Cache<String, Map<ClusterNode, Void>> cache) {
+            public Void invoke(Cache<String, Map<ClusterNode, Integer>> cache) {
                 cache.get(service).remove(node);
                 return null;
             }
         };
         this.invoker.invoke(this.cache, operation);
         this.listeners.remove(service);
+        this.providers.remove(service);
     }
 
     @Override
@@ -116,11 +127,39 @@ public class ServiceProviderRegistryService implements ServiceProviderRegistry,
         return Collections.unmodifiableSet(this.cache.get(service).keySet());
     }
 
+    @Override
+    public void setLoad(final String service, final int load) {
+        final ClusterNode node = this.notifier.getClusterNode();
+        Operation<Void> operation = new Operation<Void>() {
+            @Override
+            public Void invoke(Cache<String, Map<ClusterNode, Integer>> cache) {
+                Map<ClusterNode, Integer> map = cache.get(service);
+                // Only publish the load of a registered provider
+                if ((map != null) && map.containsKey(node)) {
+                    map.put(node, Integer.valueOf(load));
+                }
+                return null;
+            }
+        };
+        this.invoker.invoke(this.cache, operation);
+    }
+
+    @Override
+    public Map<ClusterNode, Integer> getServiceProviderLoads(String service) {
+        Map<ClusterNode, Integer> map = this.cache.get(service);
+        return (map != null) ? Collections.unmodifiableMap(new HashMap<ClusterNode, Integer>(map)) : Collections.<ClusterNode, Integer>emptyMap();
+    }
+
+    @Override
+    public RpcMethod[] getRpcMethods() {
+        return RPC_METHODS;
+    }
+
     @Override
     public List<String> getServices(final ClusterNode node) {
         Operation<List<String>> operation = new Operation<List<String>>() {
             @Override
-            public List<String> invoke(Cache<String, Map<ClusterNode, Void>> cache) {
+            public List<String> invoke(Cache<String, Map<ClusterNode, Integer>> cache) {
                 Set<String> services = cache.keySet();
                 List<String> result = new ArrayList<String>(services.size());
                 for (String service: services) {
@@ -146,8 +185,8 @@ public class ServiceProviderRegistryService implements ServiceProviderRegistry,
         this.notifier = this.notifierRef.getValue();
         this.notifier.registerGroupMembershipListener(this);
         @SuppressWarnings("unchecked")
-        Cache<String, Map<ClusterNode, Void>> cache = this.cacheRef.getValue();
-        this.cache = new AtomicMapCache<String, ClusterNode, Void>(cache.getAdvancedCache());
+        Cache<String, Map<ClusterNode, Integer>> cache = this.cacheRef.getValue();
+        this.cache = new AtomicMapCache<String, ClusterNode, Integer>(cache.getAdvancedCache());
         this.cache.addListener(this);
     }
 
@@ -162,7 +201,7 @@ public class ServiceProviderRegistryService implements ServiceProviderRegistry,
     public void membershipChanged(final List<ClusterNode> deadMembers, List<ClusterNode> newMembers, List<ClusterNode> allMembers) {
         Operation<Map<String, Set<ClusterNode>>> operation = new Operation<Map<String, Set<ClusterNode>>>() {
             @Override
-            public Map<String, Set<ClusterNode>> invoke(Cache<String, Map<ClusterNode, Void>> cache) {
+            public Map<String, Set<ClusterNode>> invoke(Cache<String, Map<ClusterNode, Integer>> cache) {
                 // Collect service provider updates
                 Map<String, Set<ClusterNode>> updates = new HashMap<String, Set<ClusterNode>>();
                 ServiceProviderRegistryService.this.purgeDeadMembers(deadMembers, updates);
@@ -176,7 +215,7 @@ public class ServiceProviderRegistryService implements ServiceProviderRegistry,
     public void membershipChangedDuringMerge(final List<ClusterNode> deadMembers, final List<ClusterNode> newMembers, List<ClusterNode> allMembers, final List<List<ClusterNode>> originatingGroups) {
         Operation<Map<String, Set<ClusterNode>>> operation = new Operation<Map<String, Set<ClusterNode>>>() {
             @Override
-            public Map<String, Set<ClusterNode>> invoke(Cache<String, Map<ClusterNode, Void>> cache) {
+            public Map<String, Set<ClusterNode>> invoke(Cache<String, Map<ClusterNode, Integer>> cache) {
                 // Collect service provider updates
                 Map<String, Set<ClusterNode>> updates = new HashMap<String, Set<ClusterNode>>();
                 if (newMembers.isEmpty()) {
@@ -188,8 +227,10 @@ public class ServiceProviderRegistryService implements ServiceProviderRegistry,
                         // Re-assert services for new members following merge since these may have been lost following split
                         List<String> services = ServiceProviderRegistryService.this.handler.getServices(node);
                         for (String service: services) {
-                            Map<ClusterNode, Void> nodes = cache.getAdvancedCache().withFlags(Flag.CACHE_MODE_LOCAL).putIfAbsent(service, null);
-                            nodes.put(node, null);
+                            Map<ClusterNode, Integer> nodes = cache.getAdvancedCache().withFlags(Flag.CACHE_MODE_LOCAL).putIfAbsent(service, null);
+                            if (!nodes.containsKey(node)) {
+                                nodes.put(node, null);
+                            }
                             updates.put(service, Collections.unmodifiableSet(nodes.keySet()));
                         }
                     }
@@ -204,7 +245,7 @@ public class ServiceProviderRegistryService implements ServiceProviderRegistry,
     void purgeDeadMembers(List<ClusterNode> deadNodes, Map<String, Set<ClusterNode>> updates) {
         // Remove dead nodes for each service
         for (String key: cache.keySet()) {
-            Map<ClusterNode, Void> map = cache.getAdvancedCache().withFlags(Flag.CACHE_MODE_LOCAL).get(key);
+            Map<ClusterNode, Integer> map = cache.getAdvancedCache().withFlags(Flag.CACHE_MODE_LOCAL).get(key);
             if (map != null) {
                 Set<ClusterNode> nodes = map.keySet();
                 if (nodes.removeAll(deadNodes)) {
@@ -216,21 +257,29 @@ public class ServiceProviderRegistryService implements ServiceProviderRegistry,
 
     private void notifyListeners(Map<String, Set<ClusterNode>> updates, boolean merge) {
         for (Map.Entry<String, Set<ClusterNode>> entry: updates.entrySet()) {
-            Listener listener = this.listeners.get(entry.getKey());
-            if (listener != null) {
+            String service = entry.getKey();
+            // Modifications that only update the load of a provider do not change the set of providers
+            boolean changed = this.providersChanged(service, entry.getValue());
+            Listener listener = this.listeners.get(service);
+            if ((listener != null) && (changed || merge)) {
                 listener.serviceProvidersChanged(entry.getValue(), merge);
             }
         }
     }
 
+    private boolean providersChanged(String service, Set<ClusterNode> nodes) {
+        Set<ClusterNode> providers = new HashSet<ClusterNode>(nodes);
+        return !providers.equals(this.providers.put(service, providers));
+    }
+
     @CacheEntryModified
-    public void modified(CacheEntryModifiedEvent<String, Map<ClusterNode, Void>> event) {
+    public void modified(CacheEntryModifiedEvent<String, Map<ClusterNode, Integer>> event) {
         // Only respond to remote post-modify events
         if (event.isPre() || event.isOriginLocal()) return;
         this.notifyListeners(Collections.singletonMap(event.getKey(), event.getValue().keySet()), false);
     }
 
-    interface Operation<R> extends CacheInvoker.Operation<String, Map<ClusterNode, Void>, R> {
+    interface Operation<R> extends CacheInvoker.Operation<String, Map<ClusterNode, Integer>, R> {
     }
 
     class RpcDispatcher implements ServiceProviderRegistryRpcHandler {
@@ -0,0 +1,49 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.clustering.singleton;
+
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.as.clustering.ClusterNode;
+
+/**
+ * A {@link SingletonElectionPolicy} that elects a singleton master node using the load scores
+ * published by each node providing that service.
+ */
+public interface LoadAwareSingletonElectionPolicy extends SingletonElectionPolicy {
+    /**
+     * Returns the current load score of this node, to be published to the other nodes providing the service.
+     * Lower scores indicate less loaded nodes.
+     * @return a load score
+     */
+    int getLoad();
+
+    /**
+     * Elect a single node from the specified list of candidate nodes using their published load scores.
+     * @param nodes a list of candidate nodes.
+     * @param loads the published load score of each candidate node, whose values are null if a node did not publish a load
+     * @return the elected node
+     */
+    ClusterNode elect(List<ClusterNode> nodes, Map<ClusterNode, Integer> loads);
+}
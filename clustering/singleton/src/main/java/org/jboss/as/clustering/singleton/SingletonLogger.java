@@ -24,6 +24,7 @@ package org.jboss.as.clustering.singleton;
 import static org.jboss.logging.Logger.Level.DEBUG;
 import static org.jboss.logging.Logger.Level.ERROR;
 import static org.jboss.logging.Logger.Level.INFO;
+import static org.jboss.logging.Logger.Level.WARN;
 
 import org.jboss.logging.Logger;
 import org.jboss.logging.annotations.Cause;
@@ -67,4 +68,16 @@ public interface SingletonLogger {
     @LogMessage(level = ERROR)
     @Message(id = 10344, value = "Failed to start %s service")
     void serviceStartFailed(@Cause StartException e, String service);
+
+    @LogMessage(level = DEBUG)
+    @Message(id = 10345, value = "This node will now operate as the hot standby of the %s service")
+    void electedStandby(String service);
+
+    @LogMessage(level = DEBUG)
+    @Message(id = 10346, value = "Election of the singleton provider of the %s service completed in %d ms")
+    void electionCompleted(String service, long time);
+
+    @LogMessage(level = WARN)
+    @Message(id = 10347, value = "Failed to update the management interface of the %s service")
+    void managementInterfaceUpdateFailed(@Cause Throwable cause, String service);
 }
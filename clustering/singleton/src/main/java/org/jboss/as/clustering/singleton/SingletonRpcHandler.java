@@ -24,11 +24,31 @@ package org.jboss.as.clustering.singleton;
 
 import java.util.concurrent.atomic.AtomicReference;
 
+import org.jboss.as.clustering.ClusterNode;
+import org.jboss.as.clustering.RpcMethod;
+
 /**
  * @author Paul Ferraro
  */
 public interface SingletonRpcHandler<T> {
+    RpcMethod[] RPC_METHODS = new RpcMethod[] { new RpcMethod("stopOldMaster"), new RpcMethod("getValueRef"), new RpcMethod("demote", ClusterNode.class, ClusterNode.class), new RpcMethod("promote", ClusterNode.class, boolean.class) };
+
     void stopOldMaster();
 
     AtomicReference<T> getValueRef();
+
+    /**
+     * Applies the outcome of an election published by the electing node: stops the singleton service, unless this node is the
+     * elected master, and starts or stops the hot standby.
+     * @param master the elected master node
+     * @param standby the elected hot standby node, or null if no standby was elected
+     */
+    void demote(ClusterNode master, ClusterNode standby);
+
+    /**
+     * Starts the singleton service, if this node is the elected master.
+     * @param master the elected master node
+     * @param merge indicates whether or not the election was the result of a network partition merge
+     */
+    void promote(ClusterNode master, boolean merge);
 }
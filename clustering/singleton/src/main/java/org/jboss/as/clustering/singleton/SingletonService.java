@@ -23,16 +23,26 @@
 package org.jboss.as.clustering.singleton;
 
 import java.io.Serializable;
+import java.lang.management.ManagementFactory;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
 import org.jboss.as.clustering.ClusterNode;
 import org.jboss.as.clustering.GroupRpcDispatcher;
+import org.jboss.as.clustering.GroupRpcHandler;
 import org.jboss.as.clustering.ResponseFilter;
+import org.jboss.as.clustering.RpcMethod;
 import org.jboss.as.clustering.impl.CoreGroupCommunicationService;
 import org.jboss.as.clustering.msc.AsynchronousService;
 import org.jboss.as.clustering.msc.DelegatingServiceBuilder;
@@ -40,6 +50,7 @@ import org.jboss.as.clustering.msc.ServiceContainerHelper;
 import org.jboss.as.clustering.msc.ServiceControllerFactory;
 import org.jboss.as.clustering.service.ServiceProviderRegistry;
 import org.jboss.as.clustering.service.ServiceProviderRegistryService;
+import org.jboss.msc.inject.Injector;
 import org.jboss.msc.service.AbstractServiceListener;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceBuilder;
@@ -57,16 +68,20 @@ import org.jboss.msc.value.InjectedValue;
  * Decorates an MSC service ensuring that it is only started on one node in the cluster at any given time.
  * @author Paul Ferraro
  */
-public class SingletonService<T extends Serializable> implements Service<T>, ServiceProviderRegistry.Listener, SingletonRpcHandler<T>, Singleton {
+public class SingletonService<T extends Serializable> implements Service<T>, ServiceProviderRegistry.Listener, SingletonRpcHandler<T>, GroupRpcHandler, Singleton, SingletonServiceMBean {
 
     public static final String DEFAULT_CONTAINER = "singleton";
+    static final String OBJECT_NAME_DOMAIN = "jboss.as.clustering";
 
-    private final InjectedValue<ServiceProviderRegistry> registryRef = new InjectedValue<ServiceProviderRegistry>();
-    private final InjectedValue<GroupRpcDispatcher> dispatcherRef = new InjectedValue<GroupRpcDispatcher>();
+    final InjectedValue<ServiceProviderRegistry> registryRef = new InjectedValue<ServiceProviderRegistry>();
+    final InjectedValue<GroupRpcDispatcher> dispatcherRef = new InjectedValue<GroupRpcDispatcher>();
     private final Service<T> service;
     private final ServiceName targetServiceName;
     private final ServiceName singletonServiceName;
+    private final ServiceName standbyServiceName;
     private final AtomicBoolean master = new AtomicBoolean(false);
+    private final AtomicBoolean standby = new AtomicBoolean(false);
+    private final AtomicLong electionCount = new AtomicLong();
 
     volatile ServiceProviderRegistry registry;
     volatile GroupRpcDispatcher dispatcher;
@@ -75,10 +90,17 @@ public class SingletonService<T extends Serializable> implements Service<T>, Ser
     private volatile SingletonRpcHandler<T> handler;
     private volatile ServiceRegistry container;
     private volatile boolean restartOnMerge = true;
+    private volatile boolean hotStandby = false;
+    private volatile long electionTime = 0;
+    // Outcome of the most recent load-based election
+    private volatile ClusterNode electedMaster;
+    private volatile ClusterNode electedStandby;
+    private volatile ObjectName objectName;
 
     public SingletonService(Service<T> service, ServiceName serviceName) {
         this.service = service;
         this.targetServiceName = serviceName.append("service");
+        this.standbyServiceName = serviceName.append("standby");
         this.singletonServiceName = serviceName;
     }
 
@@ -92,9 +114,11 @@ public class SingletonService<T extends Serializable> implements Service<T>, Ser
         final ServiceListener<T> listener = new AbstractServiceListener<T>() {
             @Override
             public void serviceRemoveRequested(ServiceController<? extends T> controller) {
-                ServiceController<?> service = controller.getServiceContainer().getService(SingletonService.this.targetServiceName);
-                if (service != null) {
-                    service.setMode(ServiceController.Mode.REMOVE);
+                for (ServiceName name: new ServiceName[] { SingletonService.this.targetServiceName, SingletonService.this.standbyServiceName }) {
+                    ServiceController<?> service = controller.getServiceContainer().getService(name);
+                    if (service != null) {
+                        service.setMode(ServiceController.Mode.REMOVE);
+                    }
                 }
             }
         };
@@ -104,8 +128,70 @@ public class SingletonService<T extends Serializable> implements Service<T>, Ser
                 .addDependency(CoreGroupCommunicationService.getServiceName(container), GroupRpcDispatcher.class, this.dispatcherRef)
                 .addListener(listener)
         ;
+        // The standby service shares the dependencies of the target service, but has no value of its own
+        final ServiceBuilder<Void> standbyBuilder = target.addService(this.standbyServiceName, Service.NULL).setInitialMode(ServiceController.Mode.NEVER);
         // Add dependencies to the target service builder, but install should return the installed singleton controller
         return new DelegatingServiceBuilder<T>(serviceBuilder, ServiceControllerFactory.SIMPLE) {
+            @Override
+            public ServiceBuilder<T> addDependencies(ServiceName... dependencies) {
+                standbyBuilder.addDependencies(dependencies);
+                return super.addDependencies(dependencies);
+            }
+
+            @Override
+            public ServiceBuilder<T> addDependencies(DependencyType dependencyType, ServiceName... dependencies) {
+                standbyBuilder.addDependencies(dependencyType, dependencies);
+                return super.addDependencies(dependencyType, dependencies);
+            }
+
+            @Override
+            public ServiceBuilder<T> addDependencies(Iterable<ServiceName> dependencies) {
+                standbyBuilder.addDependencies(dependencies);
+                return super.addDependencies(dependencies);
+            }
+
+            @Override
+            public ServiceBuilder<T> addDependencies(DependencyType dependencyType, Iterable<ServiceName> dependencies) {
+                standbyBuilder.addDependencies(dependencyType, dependencies);
+                return super.addDependencies(dependencyType, dependencies);
+            }
+
+            @Override
+            public ServiceBuilder<T> addDependency(ServiceName dependency) {
+                standbyBuilder.addDependency(dependency);
+                return super.addDependency(dependency);
+            }
+
+            @Override
+            public ServiceBuilder<T> addDependency(DependencyType dependencyType, ServiceName dependency) {
+                standbyBuilder.addDependency(dependencyType, dependency);
+                return super.addDependency(dependencyType, dependency);
+            }
+
+            @Override
+            public ServiceBuilder<T> addDependency(ServiceName dependency, Injector<Object> target) {
+                standbyBuilder.addDependency(dependency);
+                return super.addDependency(dependency, target);
+            }
+
+            @Override
+            public ServiceBuilder<T> addDependency(DependencyType dependencyType, ServiceName dependency, Injector<Object> target) {
+                standbyBuilder.addDependency(dependencyType, dependency);
+                return super.addDependency(dependencyType, dependency, target);
+            }
+
+            @Override
+            public <I> ServiceBuilder<T> addDependency(ServiceName dependency, Class<I> type, Injector<I> target) {
+                standbyBuilder.addDependency(dependency);
+                return super.addDependency(dependency, type, target);
+            }
+
+            @Override
+            public <I> ServiceBuilder<T> addDependency(DependencyType dependencyType, ServiceName dependency, Class<I> type, Injector<I> target) {
+                standbyBuilder.addDependency(dependencyType, dependency);
+                return super.addDependency(dependencyType, dependency, type, target);
+            }
+
             @Override
             public ServiceBuilder<T> addAliases(ServiceName... aliases) {
                 singletonBuilder.addAliases(aliases);
@@ -121,6 +207,7 @@ public class SingletonService<T extends Serializable> implements Service<T>, Ser
             @Override
             public ServiceController<T> install() {
                 super.install();
+                standbyBuilder.install();
                 return singletonBuilder.install();
             }
         };
@@ -134,13 +221,18 @@ public class SingletonService<T extends Serializable> implements Service<T>, Ser
         final String name = this.singletonServiceName.getCanonicalName();
         this.handler = new RpcHandler(this.dispatcher, name);
         this.dispatcher.registerRPCHandler(name, this);
-        this.registry.register(name, this);
+        SingletonElectionPolicy policy = this.electionPolicy;
+        Integer load = (policy instanceof LoadAwareSingletonElectionPolicy) ? Integer.valueOf(((LoadAwareSingletonElectionPolicy) policy).getLoad()) : null;
+        this.registry.register(name, this, load);
         this.started = true;
+        this.registerMBean();
     }
 
     @Override
     public void stop(StopContext context) {
+        this.unregisterMBean();
         this.started = false;
+        this.stopStandby();
         String name = this.singletonServiceName.getCanonicalName();
         this.registry.unregister(name);
         this.dispatcher.unregisterRPCHandler(name, this);
@@ -159,9 +251,54 @@ public class SingletonService<T extends Serializable> implements Service<T>, Ser
         this.restartOnMerge = restart;
     }
 
+    /**
+     * Indicates whether or not to pre-elect a hot standby, i.e. the node that would be elected if the current master
+     * were to leave the cluster.  The dependencies of the singleton service are started on the standby node,
+     * so that failover only needs to start the singleton service itself.
+     * @param hotStandby true, if a hot standby should be elected, false otherwise
+     */
+    public void setHotStandby(boolean hotStandby) {
+        this.hotStandby = hotStandby;
+    }
+
+    @Override
+    public boolean isHotStandby() {
+        return this.hotStandby;
+    }
+
+    /**
+     * Returns the duration of the most recent election, including the stopping of the old master and the starting of the new master.
+     * @return a duration in milliseconds
+     */
+    @Override
+    public long getElectionTime() {
+        return this.electionTime;
+    }
+
+    /**
+     * Returns the number of elections performed by this node.
+     * @return an election count
+     */
+    @Override
+    public long getElectionCount() {
+        return this.electionCount.get();
+    }
+
     @Override
     public void serviceProvidersChanged(Set<ClusterNode> nodes, boolean merge) {
-        if (this.elected(nodes)) {
+        SingletonElectionPolicy policy = this.electionPolicy;
+        if (policy instanceof LoadAwareSingletonElectionPolicy) {
+            this.coordinateElection(nodes, merge);
+            if (this.started) {
+                // Refresh our published load, so that the next election uses a recent load score
+                this.registry.setLoad(this.singletonServiceName.getCanonicalName(), ((LoadAwareSingletonElectionPolicy) policy).getLoad());
+            }
+            return;
+        }
+        long start = System.nanoTime();
+        List<ClusterNode> candidates = this.candidates(nodes);
+        ClusterNode elected = this.election(candidates);
+        if (this.elected(elected)) {
             if (this.master.get()) {
                 // If already master, don't bother re-electing, just restart if necessary
                 if (this.restartOnMerge && merge) {
@@ -177,24 +314,166 @@ public class SingletonService<T extends Serializable> implements Service<T>, Ser
             SingletonLogger.ROOT_LOGGER.electedSlave(this.singletonServiceName.getCanonicalName());
             this.stopOldMaster();
         }
+        if (this.hotStandby && (elected != null)) {
+            candidates.remove(elected);
+            ClusterNode standby = this.election(candidates);
+            if ((standby != null) && standby.equals(this.dispatcher.getClusterNode())) {
+                this.startStandby();
+            } else {
+                this.stopStandby();
+            }
+        }
+        this.electionCompleted(start);
     }
 
-    private boolean elected(Set<ClusterNode> candidates) {
-        ClusterNode elected = this.election(candidates);
+    /**
+     * Performs a load-based election.
+     * Loads are replicated asynchronously, so nodes may observe different loads at any given time.
+     * To ensure that all nodes agree on the outcome, only the oldest candidate elects the master and hot standby,
+     * and publishes its decision to the other nodes.
+     * If the master left the cluster, the hot standby takes over, since its dependencies are already started.
+     */
+    private void coordinateElection(Set<ClusterNode> nodes, boolean merge) {
+        List<ClusterNode> candidates = this.candidates(nodes);
+        ClusterNode localNode = this.dispatcher.getClusterNode();
+        if (candidates.isEmpty() || !candidates.get(0).equals(localNode)) return;
+
+        long start = System.nanoTime();
+        ClusterNode master = this.failover(candidates);
+        if (master == null) {
+            master = this.election(candidates);
+        }
+        SingletonLogger.ROOT_LOGGER.elected(master.getName(), this.singletonServiceName.getCanonicalName());
+        ClusterNode standby = null;
+        if (this.hotStandby) {
+            candidates.remove(master);
+            standby = this.election(candidates);
+        }
+        // Stop the old master before starting the new one
+        this.demote(master, standby);
+        this.handler.demote(master, standby);
+        if (master.equals(localNode)) {
+            this.promote(master, merge);
+        } else {
+            this.handler.promote(master, merge);
+        }
+        this.electionCompleted(start);
+    }
+
+    /**
+     * Returns the hot standby of the previous election, if the previous master is no longer a candidate.
+     */
+    private ClusterNode failover(List<ClusterNode> candidates) {
+        ClusterNode master = this.electedMaster;
+        ClusterNode standby = this.electedStandby;
+        return (this.hotStandby && (master != null) && (standby != null) && !candidates.contains(master) && candidates.contains(standby)) ? standby : null;
+    }
+
+    private void electionCompleted(long start) {
+        long time = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        this.electionTime = time;
+        this.electionCount.incrementAndGet();
+        SingletonLogger.ROOT_LOGGER.electionCompleted(this.singletonServiceName.getCanonicalName(), time);
+    }
+
+    @Override
+    public void demote(ClusterNode master, ClusterNode standby) {
+        // Remember the outcome, in case this node performs the next election
+        this.electedMaster = master;
+        this.electedStandby = standby;
+        ClusterNode localNode = this.dispatcher.getClusterNode();
+        if (!master.equals(localNode) && this.master.get()) {
+            SingletonLogger.ROOT_LOGGER.electedSlave(this.singletonServiceName.getCanonicalName());
+            this.stopOldMaster();
+        }
+        if (localNode.equals(standby)) {
+            this.startStandby();
+        } else {
+            this.stopStandby();
+        }
+    }
+
+    @Override
+    public void promote(ClusterNode master, boolean merge) {
+        if (!master.equals(this.dispatcher.getClusterNode())) return;
+        if (this.master.get()) {
+            // If already master, just restart if necessary
+            if (this.restartOnMerge && merge) {
+                this.stopOldMaster();
+                this.startNewMaster();
+            }
+        } else {
+            SingletonLogger.ROOT_LOGGER.electedMaster(this.singletonServiceName.getCanonicalName());
+            this.startNewMaster();
+        }
+    }
+
+    private void registerMBean() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME_DOMAIN, "singleton", ObjectName.quote(this.singletonServiceName.getCanonicalName()));
+            server.registerMBean(this, name);
+            this.objectName = name;
+        } catch (JMException e) {
+            SingletonLogger.ROOT_LOGGER.managementInterfaceUpdateFailed(e, this.singletonServiceName.getCanonicalName());
+        }
+    }
+
+    private void unregisterMBean() {
+        ObjectName name = this.objectName;
+        if (name != null) {
+            this.objectName = null;
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+            } catch (JMException e) {
+                SingletonLogger.ROOT_LOGGER.managementInterfaceUpdateFailed(e, this.singletonServiceName.getCanonicalName());
+            }
+        }
+    }
+
+    private boolean elected(ClusterNode elected) {
         if (elected != null) {
             SingletonLogger.ROOT_LOGGER.elected(elected.getName(), this.singletonServiceName.getCanonicalName());
         }
         return (elected != null) ? elected.equals(this.dispatcher.getClusterNode()) : false;
     }
 
-    private ClusterNode election(Set<ClusterNode> candidates) {
+    private List<ClusterNode> candidates(Set<ClusterNode> providers) {
         List<ClusterNode> nodes = this.dispatcher.getClusterNodes();
 
-        nodes.retainAll(candidates);
+        nodes.retainAll(providers);
+
+        return nodes;
+    }
 
+    private ClusterNode election(List<ClusterNode> nodes) {
         if (nodes.isEmpty()) return null;
 
-        return (this.electionPolicy == null) ? nodes.get(0) : this.electionPolicy.elect(nodes);
+        SingletonElectionPolicy policy = this.electionPolicy;
+        if (policy == null) return nodes.get(0);
+
+        if (policy instanceof LoadAwareSingletonElectionPolicy) {
+            Map<ClusterNode, Integer> loads = this.registry.getServiceProviderLoads(this.singletonServiceName.getCanonicalName());
+            return ((LoadAwareSingletonElectionPolicy) policy).elect(nodes, loads);
+        }
+        return policy.elect(nodes);
+    }
+
+    private void startStandby() {
+        if (this.standby.compareAndSet(false, true)) {
+            SingletonLogger.ROOT_LOGGER.electedStandby(this.singletonServiceName.getCanonicalName());
+            // Start dependencies asynchronously, so as not to delay the election
+            this.container.getRequiredService(this.standbyServiceName).setMode(ServiceController.Mode.ACTIVE);
+        }
+    }
+
+    private void stopStandby() {
+        if (this.standby.compareAndSet(true, false)) {
+            ServiceController<?> service = this.container.getService(this.standbyServiceName);
+            if (service != null) {
+                service.setMode(ServiceController.Mode.NEVER);
+            }
+        }
     }
 
     private void startNewMaster() {
@@ -202,6 +481,8 @@ public class SingletonService<T extends Serializable> implements Service<T>, Ser
         ServiceController<?> service = this.container.getRequiredService(this.targetServiceName);
         try {
             ServiceContainerHelper.start(service);
+            // Dependencies are now retained by the target service
+            this.stopStandby();
         } catch (StartException e) {
             SingletonLogger.ROOT_LOGGER.serviceStartFailed(e, this.targetServiceName.getCanonicalName());
             ServiceContainerHelper.stop(service);
@@ -217,6 +498,11 @@ public class SingletonService<T extends Serializable> implements Service<T>, Ser
         return ref.get();
     }
 
+    @Override
+    public RpcMethod[] getRpcMethods() {
+        return RPC_METHODS;
+    }
+
     @Override
     public AtomicReference<T> getValueRef() {
         return this.master.get() ? new AtomicReference<T>(this.service.getValue()) : null;
@@ -247,6 +533,24 @@ public class SingletonService<T extends Serializable> implements Service<T>, Ser
             }
         }
 
+        @Override
+        public void demote(ClusterNode master, ClusterNode standby) {
+            try {
+                this.dispatcher.callMethodOnCluster(this.name, "demote", new Object[] { master, standby }, new Class<?>[] { ClusterNode.class, ClusterNode.class }, true);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void promote(ClusterNode master, boolean merge) {
+            try {
+                this.dispatcher.callMethodOnNode(this.name, "promote", new Object[] { master, Boolean.valueOf(merge) }, new Class<?>[] { ClusterNode.class, boolean.class }, master);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
         @Override
         public AtomicReference<T> getValueRef() {
             try {
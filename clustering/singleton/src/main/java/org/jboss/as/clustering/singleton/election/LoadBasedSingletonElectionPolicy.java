@@ -0,0 +1,71 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.clustering.singleton.election;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.as.clustering.ClusterNode;
+import org.jboss.as.clustering.singleton.LoadAwareSingletonElectionPolicy;
+
+/**
+ * Elects the least loaded of the candidate nodes, based on the load scores they published.
+ * Nodes that did not publish a load are only elected if no candidate published a load.
+ * Ties are resolved in favor of the oldest node, so that all nodes reach the same decision.
+ *
+ * By default, the load score of a node is its system load average per available processor, as a percentage.
+ */
+public class LoadBasedSingletonElectionPolicy implements LoadAwareSingletonElectionPolicy {
+
+    private final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+
+    @Override
+    public int getLoad() {
+        double load = this.os.getSystemLoadAverage();
+        // Load average is not available on all platforms
+        return (load < 0) ? 0 : (int) Math.round(load * 100 / this.os.getAvailableProcessors());
+    }
+
+    @Override
+    public ClusterNode elect(List<ClusterNode> nodes) {
+        return this.elect(nodes, Collections.<ClusterNode, Integer>emptyMap());
+    }
+
+    @Override
+    public ClusterNode elect(List<ClusterNode> nodes, Map<ClusterNode, Integer> loads) {
+        if (nodes.isEmpty()) return null;
+        ClusterNode elected = nodes.get(0);
+        Integer minLoad = loads.get(elected);
+        for (ClusterNode node: nodes) {
+            Integer load = loads.get(node);
+            if ((load != null) && ((minLoad == null) || (load.intValue() < minLoad.intValue()))) {
+                elected = node;
+                minLoad = load;
+            }
+        }
+        return elected;
+    }
+}
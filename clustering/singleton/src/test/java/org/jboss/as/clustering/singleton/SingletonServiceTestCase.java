@@ -0,0 +1,161 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering.singleton;
+
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.as.clustering.ClusterNode;
+import org.jboss.as.clustering.GroupRpcDispatcher;
+import org.jboss.as.clustering.service.ServiceProviderRegistry;
+import org.jboss.as.clustering.singleton.election.LoadBasedSingletonElectionPolicy;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StopContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+/**
+ * Unit tests for the load-based election of the master and hot standby of a {@link SingletonService}.
+ */
+public class SingletonServiceTestCase {
+    private static final ServiceName NAME = ServiceName.JBOSS.append("test", "singleton");
+    private static final Class<?>[] DEMOTE_TYPES = new Class<?>[] { ClusterNode.class, ClusterNode.class };
+    private static final Class<?>[] PROMOTE_TYPES = new Class<?>[] { ClusterNode.class, boolean.class };
+
+    private final ServiceProviderRegistry registry = mock(ServiceProviderRegistry.class);
+    private final GroupRpcDispatcher dispatcher = mock(GroupRpcDispatcher.class);
+    private final ServiceContainer container = mock(ServiceContainer.class);
+    private final ClusterNode node1 = mock(ClusterNode.class);
+    private final ClusterNode node2 = mock(ClusterNode.class);
+    private final ClusterNode node3 = mock(ClusterNode.class);
+    private final Map<ClusterNode, Integer> loads = new HashMap<ClusterNode, Integer>();
+    private volatile List<ClusterNode> members = Arrays.asList(this.node1, this.node2, this.node3);
+    private final String name = NAME.getCanonicalName();
+
+    @SuppressWarnings("unchecked")
+    private final SingletonService<String> service = new SingletonService<String>(mock(Service.class), NAME);
+
+    @Before
+    public void setUp() {
+        this.service.registryRef.inject(this.registry);
+        this.service.dispatcherRef.inject(this.dispatcher);
+        this.service.setElectionPolicy(new LoadBasedSingletonElectionPolicy());
+
+        when(this.dispatcher.getClusterNodes()).thenAnswer(new Answer<List<ClusterNode>>() {
+            @Override
+            public List<ClusterNode> answer(InvocationOnMock invocation) {
+                return new ArrayList<ClusterNode>(SingletonServiceTestCase.this.members);
+            }
+        });
+        when(this.registry.getServiceProviderLoads(this.name)).thenReturn(this.loads);
+    }
+
+    @After
+    public void tearDown() {
+        this.service.stop(mock(StopContext.class));
+    }
+
+    @Test
+    public void election() throws Exception {
+        this.service.setHotStandby(true);
+        this.start(this.node1);
+        this.loads.put(this.node1, 50);
+        this.loads.put(this.node2, 10);
+        this.loads.put(this.node3, 20);
+
+        this.service.serviceProvidersChanged(new HashSet<ClusterNode>(this.members), false);
+
+        // The least loaded node is elected master, the next least loaded node is elected standby
+        verify(this.dispatcher).callMethodOnCluster(eq(this.name), eq("demote"), aryEq(new Object[] { this.node2, this.node3 }), aryEq(DEMOTE_TYPES), eq(true));
+        verify(this.dispatcher).callMethodOnNode(eq(this.name), eq("promote"), aryEq(new Object[] { this.node2, false }), aryEq(PROMOTE_TYPES), same(this.node2));
+    }
+
+    @Test
+    public void electionWithoutStandby() throws Exception {
+        this.start(this.node1);
+        this.loads.put(this.node1, 50);
+        this.loads.put(this.node2, 10);
+        this.loads.put(this.node3, 20);
+
+        this.service.serviceProvidersChanged(new HashSet<ClusterNode>(this.members), false);
+
+        verify(this.dispatcher).callMethodOnCluster(eq(this.name), eq("demote"), aryEq(new Object[] { this.node2, null }), aryEq(DEMOTE_TYPES), eq(true));
+        verify(this.dispatcher).callMethodOnNode(eq(this.name), eq("promote"), aryEq(new Object[] { this.node2, false }), aryEq(PROMOTE_TYPES), same(this.node2));
+    }
+
+    @Test
+    public void onlyOldestCandidateElects() throws Exception {
+        this.service.setHotStandby(true);
+        this.start(this.node2);
+
+        this.service.serviceProvidersChanged(new HashSet<ClusterNode>(this.members), false);
+
+        verify(this.dispatcher, never()).callMethodOnCluster(anyString(), eq("demote"), any(Object[].class), any(Class[].class), anyBoolean());
+        verify(this.dispatcher, never()).callMethodOnNode(anyString(), eq("promote"), any(Object[].class), any(Class[].class), any(ClusterNode.class));
+    }
+
+    @Test
+    public void standbyTakesOver() throws Exception {
+        this.service.setHotStandby(true);
+        this.start(this.node1);
+        ServiceController<?> standby = mock(ServiceController.class);
+        doReturn(standby).when(this.container).getRequiredService(NAME.append("standby"));
+        this.loads.put(this.node1, 50);
+        this.loads.put(this.node2, 10);
+        this.loads.put(this.node3, 20);
+        this.service.serviceProvidersChanged(new HashSet<ClusterNode>(this.members), false);
+
+        // The master leaves, and this node became the least loaded candidate
+        this.members = Arrays.asList(this.node1, this.node3);
+        this.loads.remove(this.node2);
+        this.loads.put(this.node1, 0);
+        this.service.serviceProvidersChanged(new HashSet<ClusterNode>(this.members), false);
+
+        // The standby is preferred over the least loaded candidate, which becomes the new standby
+        verify(this.dispatcher).callMethodOnCluster(eq(this.name), eq("demote"), aryEq(new Object[] { this.node3, this.node1 }), aryEq(DEMOTE_TYPES), eq(true));
+        verify(this.dispatcher).callMethodOnNode(eq(this.name), eq("promote"), aryEq(new Object[] { this.node3, false }), aryEq(PROMOTE_TYPES), same(this.node3));
+        verify(standby).setMode(ServiceController.Mode.ACTIVE);
+    }
+
+    private void start(ClusterNode localNode) {
+        StartContext context = mock(StartContext.class);
+        ServiceController<?> controller = mock(ServiceController.class);
+        doReturn(controller).when(context).getController();
+        when(controller.getServiceContainer()).thenReturn(this.container);
+        when(this.dispatcher.getClusterNode()).thenReturn(localNode);
+        this.service.start(context);
+    }
+}
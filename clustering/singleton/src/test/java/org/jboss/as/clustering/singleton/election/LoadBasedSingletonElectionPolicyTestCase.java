@@ -0,0 +1,63 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.clustering.singleton.election;
+
+import static org.mockito.Mockito.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.as.clustering.ClusterNode;
+import org.junit.Test;
+
+public class LoadBasedSingletonElectionPolicyTestCase {
+    @Test
+    public void elect() {
+        ClusterNode node1 = mock(ClusterNode.class);
+        ClusterNode node2 = mock(ClusterNode.class);
+        ClusterNode node3 = mock(ClusterNode.class);
+        List<ClusterNode> nodes = Arrays.asList(node1, node2, node3);
+        LoadBasedSingletonElectionPolicy policy = new LoadBasedSingletonElectionPolicy();
+
+        Map<ClusterNode, Integer> loads = new HashMap<ClusterNode, Integer>();
+        assertSame(node1, policy.elect(nodes, loads));
+        assertSame(node1, policy.elect(nodes));
+
+        loads.put(node3, 50);
+        assertSame(node3, policy.elect(nodes, loads));
+
+        loads.put(node2, 10);
+        assertSame(node2, policy.elect(nodes, loads));
+
+        loads.put(node1, 10);
+        assertSame(node1, policy.elect(nodes, loads));
+
+        assertNull(policy.elect(Collections.<ClusterNode>emptyList(), loads));
+
+        assertTrue(policy.getLoad() >= 0);
+    }
+}
@@ -29,6 +29,12 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeoutException;
 
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.Transaction;
+import javax.transaction.TransactionManager;
+
+import org.infinispan.AdvancedCache;
 import org.infinispan.Cache;
 import org.infinispan.affinity.KeyAffinityService;
 import org.infinispan.affinity.KeyGenerator;
@@ -37,11 +43,15 @@ import org.infinispan.context.Flag;
 import org.infinispan.distribution.DistributionManager;
 import org.infinispan.notifications.Listener;
 import org.infinispan.notifications.cachelistener.annotation.CacheEntryActivated;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryInvalidated;
 import org.infinispan.notifications.cachelistener.annotation.CacheEntryModified;
 import org.infinispan.notifications.cachelistener.annotation.CacheEntryRemoved;
+import org.infinispan.notifications.cachelistener.annotation.TopologyChanged;
 import org.infinispan.notifications.cachelistener.event.CacheEntryActivatedEvent;
+import org.infinispan.notifications.cachelistener.event.CacheEntryInvalidatedEvent;
 import org.infinispan.notifications.cachelistener.event.CacheEntryModifiedEvent;
 import org.infinispan.notifications.cachelistener.event.CacheEntryRemovedEvent;
+import org.infinispan.notifications.cachelistener.event.TopologyChangedEvent;
 import org.infinispan.remoting.transport.Address;
 import org.jboss.as.clustering.infinispan.affinity.KeyAffinityServiceFactory;
 import org.jboss.as.clustering.infinispan.invoker.CacheInvoker;
@@ -66,6 +76,11 @@ import static org.jboss.as.clustering.web.infinispan.InfinispanWebMessages.MESSA
 @Listener
 public class DistributedCacheManager<T extends OutgoingDistributableSessionData> implements org.jboss.as.clustering.web.DistributedCacheManager<T>, SessionOwnershipSupport, KeyGenerator<String> {
 
+    // Maximum number of attempts to generate a session id whose primary owner is the local node
+    static final int MAX_SESSION_ID_ATTEMPTS = 8;
+    // Maximum number of session versions retained by the near-cache
+    static final int MAX_KNOWN_SESSION_VERSIONS = 10000;
+
     private static Map<SharedLocalYieldingClusterLockManager.LockResult, LockResult> results = lockResultMap();
 
     private static Map<SharedLocalYieldingClusterLockManager.LockResult, LockResult> lockResultMap() {
@@ -87,6 +102,8 @@ public class DistributedCacheManager<T extends OutgoingDistributableSessionData>
     private final Registry<String, Void> registry;
     private final long lockTimeout;
     private final KeyAffinityService<String> affinity;
+    private final SessionVersionCache versionCache;
+    private final boolean l1Enabled;
 
     public DistributedCacheManager(LocalDistributableSessionManager manager,
             Cache<String, Map<Object, Object>> cache, Registry<String, Void> registry,
@@ -103,8 +120,10 @@ public class DistributedCacheManager<T extends OutgoingDistributableSessionData>
         Configuration configuration = this.cache.getCacheConfiguration();
         this.passivationEnabled = configuration.loaders().passivation() && !configuration.loaders().shared() && !configuration.loaders().cacheLoaders().isEmpty();
         this.persistenceEnabled = !configuration.loaders().passivation() && !configuration.loaders().cacheLoaders().isEmpty();
+        this.l1Enabled = configuration.clustering().l1().enabled();
         this.registry = registry;
         this.affinity = affinityFactory.createService(cache, this);
+        this.versionCache = new SessionVersionCache(MAX_KNOWN_SESSION_VERSIONS);
     }
 
     /**
@@ -179,7 +198,15 @@ public class DistributedCacheManager<T extends OutgoingDistributableSessionData>
             }
         };
 
-        this.invoker.invoke(this.cache, operation);
+        SessionVersionCache.Stamp stamp = this.versionCache.getStamp(sessionId);
+        try {
+            this.invoker.invoke(this.cache, operation);
+        } catch (RuntimeException e) {
+            this.invalidateKnownSessionVersion(sessionId);
+            throw e;
+        }
+
+        this.rememberSessionVersion(sessionId, sessionData.getVersion(), stamp, false);
     }
 
     /**
@@ -232,8 +259,10 @@ public class DistributedCacheManager<T extends OutgoingDistributableSessionData>
             }
         };
 
+        SessionVersionCache.Stamp stamp = this.versionCache.getStamp(sessionId);
+        IncomingDistributableSessionData result = null;
         try {
-            return this.invoker.invoke(this.cache, operation);
+            result = this.invoker.invoke(this.cache, operation);
         } catch (Exception e) {
             ROOT_LOGGER.sessionLoadFailed(e, sessionId);
 
@@ -242,6 +271,11 @@ public class DistributedCacheManager<T extends OutgoingDistributableSessionData>
 
             return null;
         }
+
+        if (result != null) {
+            this.rememberSessionVersion(sessionId, result.getVersion(), stamp, true);
+        }
+        return result;
     }
 
     /**
@@ -269,6 +303,7 @@ public class DistributedCacheManager<T extends OutgoingDistributableSessionData>
     }
 
     private void removeSession(final String sessionId, final boolean local) {
+        this.invalidateKnownSessionVersion(sessionId);
         Operation<Void> operation = new Operation<Void>() {
             @Override
             public Void invoke(Cache<String, Map<Object, Object>> cache) {
@@ -325,6 +360,75 @@ public class DistributedCacheManager<T extends OutgoingDistributableSessionData>
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.jboss.as.clustering.web.DistributedCacheManager#getKnownSessionVersion(String)
+     */
+    @Override
+    public Integer getKnownSessionVersion(String sessionId) {
+        return this.versionCache.get(sessionId);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.jboss.as.clustering.web.DistributedCacheManager#getKnownSessionVersionHitRatio()
+     */
+    @Override
+    public double getKnownSessionVersionHitRatio() {
+        return this.versionCache.getHitRatio();
+    }
+
+    private void invalidateKnownSessionVersion(String sessionId) {
+        this.versionCache.invalidate(sessionId);
+    }
+
+    /**
+     * Records the version of a session once the current batch, if any, commits,
+     * unless the session was invalidated since the specified stamp was obtained.
+     * In DIST mode, only the owners of a session are notified of its modification by other nodes.
+     * An owner passes this on, as an L1 invalidation, to the other nodes that read the session from it,
+     * so other nodes only cache the versions they read, and only if L1 is enabled.
+     */
+    private void rememberSessionVersion(final String sessionId, final int version, final SessionVersionCache.Stamp stamp, final boolean read) {
+        AdvancedCache<String, Map<Object, Object>> cache = this.cache.getAdvancedCache();
+        DistributionManager dist = cache.getDistributionManager();
+        if ((dist != null) && !(read && this.l1Enabled) && !dist.getLocality(sessionId).isLocal()) {
+            // The owner no longer notifies this node of changes made by other nodes
+            this.invalidateKnownSessionVersion(sessionId);
+            return;
+        }
+
+        TransactionManager tm = cache.getTransactionManager();
+        try {
+            Transaction tx = (tm != null) ? tm.getTransaction() : null;
+            if (tx == null) {
+                this.versionCache.put(sessionId, version, stamp);
+                return;
+            }
+            // Until the batch commits, the distributed cache may not contain this version
+            final SessionVersionCache.Stamp pendingStamp = this.versionCache.put(sessionId, null, stamp);
+            // Was the session invalidated by another node since this version was observed?
+            if (pendingStamp == null) return;
+            tx.registerSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == Status.STATUS_COMMITTED) {
+                        DistributedCacheManager.this.versionCache.put(sessionId, version, pendingStamp);
+                    }
+                }
+            });
+        } catch (Exception e) {
+            // Batch is no longer active, so its version is not known
+            this.invalidateKnownSessionVersion(sessionId);
+        }
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -450,7 +554,18 @@ public class DistributedCacheManager<T extends OutgoingDistributableSessionData>
 
     @Override
     public String createSessionId() {
-        return this.affinity.getKeyForAddress(this.cache.getCacheManager().getAddress());
+        Address localAddress = this.cache.getCacheManager().getAddress();
+        String sessionId = this.affinity.getKeyForAddress(localAddress);
+        if (this.cache.getAdvancedCache().getDistributionManager() != null) {
+            // Keys generated prior to a topology change may no longer be owned by the local node.
+            // Since this session id was not yet handed to a client, it is safe to replace it.
+            // Once the id is in use, the jvm route is instead realigned with its owner via locate(String).
+            for (int attempt = 1; (attempt < MAX_SESSION_ID_ATTEMPTS) && !localAddress.equals(this.locatePrimaryOwner(sessionId)); ++attempt) {
+                this.trace("Session id %s is no longer owned by %s, generating another", sessionId, localAddress);
+                sessionId = this.affinity.getKeyForAddress(localAddress);
+            }
+        }
+        return sessionId;
     }
 
     @Override
@@ -462,6 +577,8 @@ public class DistributedCacheManager<T extends OutgoingDistributableSessionData>
     public void removed(CacheEntryRemovedEvent<String, Map<Object, Object>> event) {
         if (event.isPre() || event.isOriginLocal()) return;
 
+        this.invalidateKnownSessionVersion(event.getKey());
+
         try {
             this.manager.notifyRemoteInvalidation(event.getKey());
         } catch (Throwable e) {
@@ -475,6 +592,8 @@ public class DistributedCacheManager<T extends OutgoingDistributableSessionData>
 
         String sessionId = event.getKey();
 
+        this.invalidateKnownSessionVersion(sessionId);
+
         try {
             Map<Object, Object> map = event.getValue();
             if (!map.isEmpty()) {
@@ -495,6 +614,21 @@ public class DistributedCacheManager<T extends OutgoingDistributableSessionData>
         }
     }
 
+    @CacheEntryInvalidated
+    public void invalidated(CacheEntryInvalidatedEvent<String, Map<Object, Object>> event) {
+        if (event.isPre()) return;
+
+        this.invalidateKnownSessionVersion(event.getKey());
+    }
+
+    @TopologyChanged
+    public void topologyChanged(TopologyChangedEvent<String, Map<Object, Object>> event) {
+        if (event.isPre()) return;
+
+        // Ownership changed, so we may have missed invalidations
+        this.versionCache.clear();
+    }
+
     @CacheEntryActivated
     public void activated(CacheEntryActivatedEvent<String, Map<Object, Object>> event) {
         if (event.isPre()) return;
@@ -0,0 +1,106 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.clustering.web.infinispan;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.infinispan.util.concurrent.BoundedConcurrentHashMap;
+import org.infinispan.util.concurrent.BoundedConcurrentHashMap.Eviction;
+
+/**
+ * Bounded, least-recently-used near-cache of the session versions last written or observed by this node.
+ * Entries must be invalidated whenever this node is notified of a change to a session made by another node.
+ * Since a version may be observed before such a change is reported, but recorded after, callers obtain the stamp of a
+ * session prior to observing its version, and the version is only recorded if the session was not invalidated in the
+ * meantime.
+ */
+public class SessionVersionCache {
+    private final ConcurrentMap<String, Stamp> stamps;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public SessionVersionCache(final int maxSize) {
+        this.stamps = new BoundedConcurrentHashMap<String, Stamp>(maxSize, 16, Eviction.LRU);
+    }
+
+    public Integer get(String sessionId) {
+        Stamp stamp = this.stamps.get(sessionId);
+        Integer version = (stamp != null) ? stamp.version : null;
+        ((version != null) ? this.hits : this.misses).incrementAndGet();
+        return version;
+    }
+
+    /**
+     * Returns the current stamp of the specified session, which changes whenever the session is invalidated.
+     */
+    public Stamp getStamp(String sessionId) {
+        Stamp stamp = this.stamps.get(sessionId);
+        if (stamp == null) {
+            Stamp newStamp = new Stamp(null);
+            stamp = this.stamps.putIfAbsent(sessionId, newStamp);
+            if (stamp == null) {
+                stamp = newStamp;
+            }
+        }
+        return stamp;
+    }
+
+    /**
+     * Records the version of the specified session, unless the session was invalidated since the specified stamp was obtained.
+     * @param version a version, or null if the version is not known yet
+     * @return the new stamp of the session, or null if the session was invalidated
+     */
+    public Stamp put(String sessionId, Integer version, Stamp stamp) {
+        Stamp newStamp = new Stamp(version);
+        return this.stamps.replace(sessionId, stamp, newStamp) ? newStamp : null;
+    }
+
+    /**
+     * Invalidates the version of the specified session.
+     */
+    public void invalidate(String sessionId) {
+        this.stamps.remove(sessionId);
+    }
+
+    public void clear() {
+        this.stamps.clear();
+    }
+
+    public double getHitRatio() {
+        long hits = this.hits.get();
+        long total = hits + this.misses.get();
+        return (total > 0) ? (double) hits / total : 0;
+    }
+
+    /**
+     * The version of a session recorded by this cache.  Stamps are compared by identity.
+     */
+    public static final class Stamp {
+        final Integer version;
+
+        Stamp(Integer version) {
+            this.version = version;
+        }
+    }
+}
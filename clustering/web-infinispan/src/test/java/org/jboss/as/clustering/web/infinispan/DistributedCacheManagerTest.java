@@ -31,6 +31,7 @@ import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.same;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.verifyZeroInteractions;
@@ -42,6 +43,11 @@ import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
 
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.Transaction;
+import javax.transaction.TransactionManager;
+
 import org.infinispan.AdvancedCache;
 import org.infinispan.Cache;
 import org.infinispan.affinity.KeyAffinityService;
@@ -49,12 +55,15 @@ import org.infinispan.affinity.KeyGenerator;
 import org.infinispan.configuration.cache.CacheMode;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
 import org.infinispan.context.Flag;
+import org.infinispan.distribution.DataLocality;
 import org.infinispan.distribution.DistributionManager;
 import org.infinispan.lifecycle.ComponentStatus;
 import org.infinispan.manager.EmbeddedCacheManager;
 import org.infinispan.notifications.cachelistener.event.CacheEntryActivatedEvent;
+import org.infinispan.notifications.cachelistener.event.CacheEntryInvalidatedEvent;
 import org.infinispan.notifications.cachelistener.event.CacheEntryModifiedEvent;
 import org.infinispan.notifications.cachelistener.event.CacheEntryRemovedEvent;
+import org.infinispan.notifications.cachelistener.event.TopologyChangedEvent;
 import org.infinispan.remoting.transport.Address;
 import org.jboss.as.clustering.infinispan.affinity.KeyAffinityServiceFactory;
 import org.jboss.as.clustering.infinispan.invoker.CacheInvoker;
@@ -95,7 +104,7 @@ public class DistributedCacheManagerTest {
     @Before
     public void before() {
         ConfigurationBuilder builder = new ConfigurationBuilder();
-        builder.clustering().cacheMode(CacheMode.DIST_SYNC);
+        builder.clustering().cacheMode(CacheMode.DIST_SYNC).l1().enable();
         KeyAffinityServiceFactory affinityFactory = mock(KeyAffinityServiceFactory.class);
         @SuppressWarnings("rawtypes")
         ArgumentCaptor<KeyGenerator> capturedKeyGenerator = ArgumentCaptor.forClass(KeyGenerator.class);
@@ -177,6 +186,7 @@ public class DistributedCacheManagerTest {
 
         when(data.getRealId()).thenReturn(sessionId);
 //        when(this.sessionCache.startBatch()).thenReturn(true);
+        when(this.cache.getAdvancedCache()).thenReturn(this.cache);
         when(this.invoker.invoke(same(this.cache), capturedOperation.capture())).thenReturn(null);
 
         this.manager.storeSessionData(data);
@@ -205,6 +215,142 @@ public class DistributedCacheManagerTest {
 //        verify(this.sessionCache).endBatch(true);
     }
 
+    @Test
+    public void knownSessionVersionDist() {
+        DistributionManager dist = mock(DistributionManager.class);
+        OutgoingDistributableSessionData owned = mock(OutgoingDistributableSessionData.class);
+        OutgoingDistributableSessionData notOwned = mock(OutgoingDistributableSessionData.class);
+
+        when(this.cache.getAdvancedCache()).thenReturn(this.cache);
+        when(this.cache.getDistributionManager()).thenReturn(dist);
+        when(dist.getLocality("abc")).thenReturn(DataLocality.LOCAL);
+        when(dist.getLocality("def")).thenReturn(DataLocality.NOT_LOCAL);
+        when(owned.getRealId()).thenReturn("abc");
+        when(owned.getVersion()).thenReturn(10);
+        when(notOwned.getRealId()).thenReturn("def");
+        when(notOwned.getVersion()).thenReturn(10);
+
+        this.manager.storeSessionData(owned);
+        this.manager.storeSessionData(notOwned);
+
+        assertEquals(Integer.valueOf(10), this.manager.getKnownSessionVersion("abc"));
+        // Modifications of sessions owned by other nodes are not reported to this node
+        assertNull(this.manager.getKnownSessionVersion("def"));
+
+        // ...unless this node read the session from its owner, which then invalidates it through L1
+        IncomingDistributableSessionData read = mock(IncomingDistributableSessionData.class);
+        when(read.getVersion()).thenReturn(11);
+        when(this.invoker.invoke(same(this.cache), Mockito.<CacheInvoker.Operation<String, Map<Object, Object>, IncomingDistributableSessionData>>any())).thenReturn(read);
+
+        this.manager.getSessionData("def", null, false);
+
+        assertEquals(Integer.valueOf(11), this.manager.getKnownSessionVersion("def"));
+
+        @SuppressWarnings("unchecked")
+        CacheEntryInvalidatedEvent<String, Map<Object, Object>> invalidation = mock(CacheEntryInvalidatedEvent.class);
+        when(invalidation.isPre()).thenReturn(false);
+        when(invalidation.getKey()).thenReturn("def");
+
+        this.manager.invalidated(invalidation);
+
+        assertNull(this.manager.getKnownSessionVersion("def"));
+
+        // Writing the session means this node is no longer notified of its changes
+        this.manager.getSessionData("def", null, false);
+        assertEquals(Integer.valueOf(11), this.manager.getKnownSessionVersion("def"));
+        this.manager.storeSessionData(notOwned);
+        assertNull(this.manager.getKnownSessionVersion("def"));
+
+        @SuppressWarnings("unchecked")
+        CacheEntryModifiedEvent<String, Map<Object, Object>> event = mock(CacheEntryModifiedEvent.class);
+
+        when(event.isPre()).thenReturn(false);
+        when(event.isOriginLocal()).thenReturn(false);
+        when(event.getCache()).thenReturn(this.cache);
+        when(this.cache.getClassLoader()).thenReturn(Thread.currentThread().getContextClassLoader());
+        when(event.getKey()).thenReturn("abc");
+        when(event.getValue()).thenReturn(Collections.emptyMap());
+
+        this.manager.modified(event);
+
+        assertNull(this.manager.getKnownSessionVersion("abc"));
+
+        // A topology change may reassign ownership
+        this.manager.storeSessionData(owned);
+        assertEquals(Integer.valueOf(10), this.manager.getKnownSessionVersion("abc"));
+
+        @SuppressWarnings("unchecked")
+        TopologyChangedEvent<String, Map<Object, Object>> topologyEvent = mock(TopologyChangedEvent.class);
+        when(topologyEvent.isPre()).thenReturn(false);
+
+        this.manager.topologyChanged(topologyEvent);
+
+        assertNull(this.manager.getKnownSessionVersion("abc"));
+    }
+
+    @Test
+    public void knownSessionVersionBatch() throws Exception {
+        TransactionManager tm = mock(TransactionManager.class);
+        Transaction tx = mock(Transaction.class);
+        OutgoingDistributableSessionData data = mock(OutgoingDistributableSessionData.class);
+        ArgumentCaptor<Synchronization> capturedSynchronization = ArgumentCaptor.forClass(Synchronization.class);
+
+        when(this.cache.getAdvancedCache()).thenReturn(this.cache);
+        when(this.cache.getTransactionManager()).thenReturn(tm);
+        when(tm.getTransaction()).thenReturn(tx);
+        when(data.getRealId()).thenReturn("abc");
+        when(data.getVersion()).thenReturn(10);
+
+        this.manager.storeSessionData(data);
+
+        verify(tx).registerSynchronization(capturedSynchronization.capture());
+
+        // Version is not known until the batch commits
+        assertNull(this.manager.getKnownSessionVersion("abc"));
+
+        capturedSynchronization.getValue().afterCompletion(Status.STATUS_ROLLEDBACK);
+
+        assertNull(this.manager.getKnownSessionVersion("abc"));
+
+        reset(tx);
+
+        this.manager.storeSessionData(data);
+
+        verify(tx).registerSynchronization(capturedSynchronization.capture());
+
+        capturedSynchronization.getValue().afterCompletion(Status.STATUS_COMMITTED);
+
+        assertEquals(Integer.valueOf(10), this.manager.getKnownSessionVersion("abc"));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void knownSessionVersionStoreFailure() {
+        OutgoingDistributableSessionData data = mock(OutgoingDistributableSessionData.class);
+        RuntimeException exception = new RuntimeException();
+
+        when(this.cache.getAdvancedCache()).thenReturn(this.cache);
+        when(data.getRealId()).thenReturn("abc");
+        when(data.getVersion()).thenReturn(10);
+
+        this.manager.storeSessionData(data);
+
+        assertEquals(Integer.valueOf(10), this.manager.getKnownSessionVersion("abc"));
+
+        when(data.getVersion()).thenReturn(11);
+        when(this.invoker.invoke(same(this.cache), Mockito.<CacheInvoker.Operation<String, Map<Object, Object>, Void>>any())).thenThrow(exception);
+
+        RuntimeException result = null;
+        try {
+            this.manager.storeSessionData(data);
+        } catch (RuntimeException e) {
+            result = e;
+        }
+
+        assertSame(exception, result);
+        assertNull(this.manager.getKnownSessionVersion("abc"));
+    }
+
     @Test
     public void getSessionDataNoOwner() throws Exception {
         this.getSessionDataNoOwner(true);
@@ -220,6 +366,7 @@ public class DistributedCacheManagerTest {
         @SuppressWarnings("rawtypes")
         ArgumentCaptor<CacheInvoker.Operation> capturedOperation = ArgumentCaptor.forClass(CacheInvoker.Operation.class);
 
+        when(this.cache.getAdvancedCache()).thenReturn(this.cache);
         when(this.invoker.invoke(same(this.cache), capturedOperation.capture())).thenReturn(data);
 
         IncomingDistributableSessionData result = this.manager.getSessionData(sessionId, null, includeAttributes);
@@ -280,6 +427,7 @@ public class DistributedCacheManagerTest {
         ArgumentCaptor<CacheInvoker.Operation> capturedOperation = ArgumentCaptor.forClass(CacheInvoker.Operation.class);
         String sessionId = "abc";
 
+        when(this.cache.getAdvancedCache()).thenReturn(this.cache);
         when(this.invoker.invoke(same(this.cache), capturedOperation.capture())).thenReturn(expected);
 
         IncomingDistributableSessionData result = this.manager.getSessionData(sessionId, null, includeAttributes);
@@ -646,4 +794,39 @@ public class DistributedCacheManagerTest {
         assertSame(localJvmRoute, this.manager.locate(remoteSessionId));
         assertSame(localJvmRoute, this.manager.locate(remoteUnknownSessionId));
     }
+
+    @Test
+    public void createSessionId() {
+        EmbeddedCacheManager container = mock(EmbeddedCacheManager.class);
+        DistributionManager distManager = mock(DistributionManager.class);
+        Address localAddress = mock(Address.class);
+        Address remoteAddress = mock(Address.class);
+        String staleSessionId = "ABC123";
+        String localSessionId = "CBA321";
+
+        when(this.cache.getAdvancedCache()).thenReturn(this.cache);
+        when(this.cache.getDistributionManager()).thenReturn(distManager);
+        when(this.cache.getCacheManager()).thenReturn(container);
+        when(container.getAddress()).thenReturn(localAddress);
+        when(this.affinity.getKeyForAddress(localAddress)).thenReturn(staleSessionId, localSessionId);
+        when(distManager.getPrimaryLocation(staleSessionId)).thenReturn(remoteAddress);
+        when(distManager.getPrimaryLocation(localSessionId)).thenReturn(localAddress);
+
+        assertSame(localSessionId, this.manager.createSessionId());
+
+        // Give up after a bounded number of attempts
+        reset(this.affinity);
+        when(this.affinity.getKeyForAddress(localAddress)).thenReturn(staleSessionId);
+
+        assertSame(staleSessionId, this.manager.createSessionId());
+        verify(this.affinity, times(DistributedCacheManager.MAX_SESSION_ID_ATTEMPTS)).getKeyForAddress(localAddress);
+
+        // Test non-DIST
+        reset(this.affinity);
+        when(this.cache.getDistributionManager()).thenReturn(null);
+        when(this.affinity.getKeyForAddress(localAddress)).thenReturn(staleSessionId);
+
+        assertSame(staleSessionId, this.manager.createSessionId());
+        verify(this.affinity).getKeyForAddress(localAddress);
+    }
 }
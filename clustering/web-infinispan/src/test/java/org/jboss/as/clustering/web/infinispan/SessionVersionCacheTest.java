@@ -0,0 +1,110 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.clustering.web.infinispan;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class SessionVersionCacheTest {
+
+    @Test
+    public void test() {
+        SessionVersionCache cache = new SessionVersionCache(2);
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.getHitRatio(), 0);
+
+        assertNotNull(cache.put("a", 1, cache.getStamp("a")));
+        assertNotNull(cache.put("b", 1, cache.getStamp("b")));
+        assertEquals(Integer.valueOf(1), cache.get("a"));
+        assertEquals(0.5, cache.getHitRatio(), 0);
+
+        assertNotNull(cache.put("a", 2, cache.getStamp("a")));
+        assertEquals(Integer.valueOf(2), cache.get("a"));
+
+        cache.invalidate("a");
+        assertNull(cache.get("a"));
+        assertEquals(Integer.valueOf(1), cache.get("b"));
+
+        cache.clear();
+        assertNull(cache.get("b"));
+    }
+
+    @Test
+    public void bounded() {
+        SessionVersionCache cache = new SessionVersionCache(2);
+
+        for (int i = 0; i < 100; ++i) {
+            String id = Integer.toString(i);
+            cache.put(id, 1, cache.getStamp(id));
+        }
+        int known = 0;
+        for (int i = 0; i < 100; ++i) {
+            if (cache.get(Integer.toString(i)) != null) {
+                known += 1;
+            }
+        }
+        assertTrue(known < 100);
+    }
+
+    @Test
+    public void stamp() {
+        SessionVersionCache cache = new SessionVersionCache(2);
+
+        SessionVersionCache.Stamp stamp = cache.getStamp("a");
+        assertSame(stamp, cache.getStamp("a"));
+        SessionVersionCache.Stamp newStamp = cache.put("a", 1, stamp);
+        assertNotNull(newStamp);
+        assertEquals(Integer.valueOf(1), cache.get("a"));
+
+        // A version observed before the session was invalidated is not recorded
+        stamp = cache.getStamp("a");
+        cache.invalidate("a");
+        assertNull(cache.put("a", 2, stamp));
+        assertNull(cache.get("a"));
+
+        // ...but invalidating another session has no effect
+        stamp = cache.getStamp("a");
+        cache.invalidate("b");
+        assertNotNull(cache.put("a", 2, stamp));
+        assertEquals(Integer.valueOf(2), cache.get("a"));
+
+        stamp = cache.getStamp("a");
+        cache.clear();
+        assertNull(cache.put("a", 3, stamp));
+        assertNull(cache.get("a"));
+
+        // A pending version hides the previous one until it is recorded
+        assertNotNull(cache.put("a", 3, cache.getStamp("a")));
+        SessionVersionCache.Stamp pending = cache.put("a", null, cache.getStamp("a"));
+        assertNotNull(pending);
+        assertNull(cache.get("a"));
+        assertNotNull(cache.put("a", 4, pending));
+        assertEquals(Integer.valueOf(4), cache.get("a"));
+    }
+}
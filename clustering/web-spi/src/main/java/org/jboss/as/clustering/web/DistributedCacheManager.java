@@ -108,6 +108,20 @@ public interface DistributedCacheManager<T extends OutgoingDistributableSessionD
      */
     IncomingDistributableSessionData getSessionData(String realId, String dataOwner, boolean includeAttributes);
 
+    /**
+     * Returns the version of the given session, if this node knows it to be current without consulting the distributed cache.
+     * @param realId the session's id, excluding any jvmRoute
+     * @return the current session version, or <code>null</code> if unknown
+     */
+    Integer getKnownSessionVersion(String realId);
+
+    /**
+     * Returns the ratio of {@link #getKnownSessionVersion(String)} calls that could be answered without consulting the
+     * distributed cache.
+     * @return a ratio between 0 and 1
+     */
+    double getKnownSessionVersionHitRatio();
+
     /**
      * Gets the ids of all sessions in the underlying cache.
      * @return Map<String, String> containing all of the session ids of sessions in the cache (with any jvmRoute removed) as
@@ -290,14 +290,38 @@ public class TransactionEntityMap implements Service<TransactionEntityMap> {
                     context.getTxAssociation().invokeEjbStore(currentThread, context);
                 }
 
+                // consecutive instances of the same component are handed to the store manager
+                // together so that it can flush them in a batch; instances are never reordered,
+                // as the order in which they were touched may follow foreign key constraints
+                final List<CmpEntityBeanContext> scheduled = new ArrayList<CmpEntityBeanContext>();
                 for (CmpEntityBeanContext instance : instances) {
                     // any one can mark the tx rollback at any time so check
                     // before continuing to the next store
                     if (TxUtils.isRollback(tx)) {
                         return;
                     }
+                    if (!scheduled.isEmpty() && (instance.getTxAssociation() != SYNC_SCHEDULED
+                            || instance.getComponent() != scheduled.get(0).getComponent())) {
+                        context = scheduled.get(0);
+                        storeScheduled(scheduled);
+                        if (TxUtils.isRollback(tx)) {
+                            return;
+                        }
+                    }
                     context = instance;
-                    context.getTxAssociation().synchronize(currentThread, tx, context);
+                    if (context.getTxAssociation() == SYNC_SCHEDULED) {
+                        // only synchronize if the id is not null.  A null id means
+                        // that the entity has been removed.
+                        if (!context.isRemoved() && context.getPrimaryKeyUnchecked() != null) {
+                            scheduled.add(context);
+                        }
+                    } else {
+                        context.getTxAssociation().synchronize(currentThread, tx, context);
+                    }
+                }
+                if (!scheduled.isEmpty()) {
+                    context = scheduled.get(0);
+                    storeScheduled(scheduled);
                 }
             } catch (Exception causeByException) {
                 // EJB 1.1 section 12.3.2 and EJB 2 section 18.3.3
@@ -324,5 +348,13 @@ public class TransactionEntityMap implements Service<TransactionEntityMap> {
                 synchronizing = false;
             }
         }
+
+        private static void storeScheduled(List<CmpEntityBeanContext> scheduled) throws Exception {
+            scheduled.get(0).getComponent().storeEntities(scheduled);
+            for (CmpEntityBeanContext instance : scheduled) {
+                instance.setTxAssociation(SYNCHRONIZED);
+            }
+            scheduled.clear();
+        }
     }
 }
@@ -162,6 +162,25 @@ public class CmpEntityBeanComponent extends EntityBeanComponent {
         }
     }
 
+    /**
+     * Stores the instances of this component that require it. The store manager is given the
+     * chance to write them in a single round trip.
+     *
+     * @param contexts the instances to store
+     * @throws Exception
+     */
+    public void storeEntities(List<CmpEntityBeanContext> contexts) throws Exception {
+        final List<CmpEntityBeanContext> storeRequired = new ArrayList<CmpEntityBeanContext>(contexts.size());
+        for (CmpEntityBeanContext ctx : contexts) {
+            if (ctx.getPrimaryKeyUnchecked() != null && getStoreManager().isStoreRequired(ctx)) {
+                storeRequired.add(ctx);
+            }
+        }
+        if (!storeRequired.isEmpty()) {
+            getStoreManager().storeEntities(storeRequired);
+        }
+    }
+
     private void throwRemoteException(Exception e)
             throws RemoteException {
         if (e instanceof RemoteException) {
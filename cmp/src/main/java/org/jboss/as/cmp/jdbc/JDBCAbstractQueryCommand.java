@@ -47,6 +47,7 @@ import org.jboss.as.cmp.jdbc.bridge.JDBCEntityBridge;
 import org.jboss.as.cmp.jdbc.bridge.JDBCFieldBridge;
 import org.jboss.as.cmp.jdbc.metadata.JDBCLeftJoinMetaData;
 import org.jboss.as.cmp.jdbc.metadata.JDBCQueryMetaData;
+import org.jboss.as.cmp.jdbc.metadata.JDBCReadAheadMetaData;
 import org.jboss.as.cmp.jdbc.metadata.JDBCRelationMetaData;
 import org.jboss.logging.Logger;
 
@@ -63,6 +64,12 @@ import org.jboss.logging.Logger;
  * @version $Revision: 81030 $
  */
 public abstract class JDBCAbstractQueryCommand implements JDBCQueryCommand {
+    /**
+     * The fetch size hint and read-ahead page size used by lazily loaded results
+     * when the entity does not configure a fetch size.
+     */
+    private static final int DEFAULT_LAZY_PAGE_SIZE = 100;
+
     private JDBCQueryMetaData queryMetaData;
     protected Logger log;
 
@@ -202,6 +209,9 @@ public abstract class JDBCAbstractQueryCommand implements JDBCQueryCommand {
             // Set the fetch size of the statement
             if (entityBridge.getFetchSize() > 0) {
                 ps.setFetchSize(entityBridge.getFetchSize());
+            } else if (queryMetaData.isLazyResultSetLoading()) {
+                // lazily loaded results are read in pages, so let the driver stream them
+                ps.setFetchSize(DEFAULT_LAZY_PAGE_SIZE);
             }
 
             // set the parameters
@@ -729,6 +739,8 @@ public abstract class JDBCAbstractQueryCommand implements JDBCQueryCommand {
             private int size;
             private boolean resourcesClosed;
 
+            private final ReadAheadPager pager;
+
             public LazyCollection(final Connection con,
                                   final PreparedStatement ps,
                                   final ResultSet rs,
@@ -752,6 +764,17 @@ public abstract class JDBCAbstractQueryCommand implements JDBCQueryCommand {
                 this.eagerLoadMask = eagerLoadMask;
                 this.factory = factory;
                 loadOnFindCmr = !onFindCMRList.isEmpty();
+                if (selectEntity != null) {
+                    final ReadAheadCache readAheadCache = selectManager.getReadAheadCache();
+                    final JDBCReadAheadMetaData readAhead = queryMetaData.getReadAhead();
+                    pager = new ReadAheadPager(selectEntity.getFetchSize() > 0 ? selectEntity.getFetchSize() : DEFAULT_LAZY_PAGE_SIZE) {
+                        protected void replacePage(List previous, List page) {
+                            readAheadCache.replaceFinderResults(previous, page, readAhead);
+                        }
+                    };
+                } else {
+                    pager = null;
+                }
 
                 firstIterator = getFirstIterator();
                 if (firstIterator.hasNext()) {
@@ -829,6 +852,9 @@ public abstract class JDBCAbstractQueryCommand implements JDBCQueryCommand {
                         }
                         firstIterator = null;
                         closeResources();
+                        if (pager != null) {
+                            pager.flush();
+                        }
                     }
                     return has;
                 } catch (Exception e) {
@@ -852,6 +878,7 @@ public abstract class JDBCAbstractQueryCommand implements JDBCQueryCommand {
                         if (addPk) {
                             prevPk = curPk;
                             currentResult = curPk != null ? factory.getEntityObject(curPk) : null;
+                            pager.add(curPk);
                         }
 
                         // read the preload fields
@@ -23,7 +23,10 @@ package org.jboss.as.cmp.jdbc;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import javax.ejb.EJBException;
 import javax.sql.DataSource;
 import org.jboss.as.cmp.CmpMessages;
@@ -40,8 +43,8 @@ import org.jboss.logging.Logger;
  */
 public final class JDBCDeleteRelationsCommand {
     private final Logger log;
-    private int maxKeysInDelete;
-    private String maxKeysStatement;
+    private final int maxKeysInDelete;
+    private final ConcurrentMap<JDBCCMRFieldBridge, String> maxKeysStatements = new ConcurrentHashMap<JDBCCMRFieldBridge, String>();
 
     public JDBCDeleteRelationsCommand(JDBCStoreManager manager) {
         // Create the Log
@@ -53,59 +56,88 @@ public final class JDBCDeleteRelationsCommand {
         maxKeysInDelete = manager.getJDBCTypeFactory().getTypeMapping().getMaxKeysInDelete();
     }
 
-    //
-    // This command needs to be changed to chunk delete commands, because
-    // some database have a limit on the number of parameters in a statement.
-    //
+    /**
+     * Deletes the removed relations. If the type mapping limits the number of keys in a delete
+     * statement the relations are deleted in chunks; all the full chunks share one cached statement
+     * and are sent to the database as a JDBC batch.
+     */
     public void execute(RelationData relationData) {
-        if (relationData.removedRelations.size() == 0) {
+        final int size = relationData.removedRelations.size();
+        if (size == 0) {
             return;
         }
 
+        final int chunkSize = maxKeysInDelete > 0 ? maxKeysInDelete : size;
+        final int fullChunks = size / chunkSize;
+        final int remainder = size % chunkSize;
+
         Iterator pairs = relationData.removedRelations.iterator();
-        int i = 0;
-        while (i < relationData.removedRelations.size()) {
-            String sql = getSQL(relationData, relationData.removedRelations.size() - i);
-
-            Connection con = null;
-            PreparedStatement ps = null;
-            JDBCCMRFieldBridge cmrField = relationData.getLeftCMRField();
-            try {
-                // create the statement
+        Connection con = null;
+        PreparedStatement ps = null;
+        JDBCCMRFieldBridge cmrField = relationData.getLeftCMRField();
+        try {
+            // get the connection
+            DataSource dataSource = cmrField.getDataSource();
+            con = dataSource.getConnection();
+
+            if (fullChunks > 0) {
+                String sql = getSQL(relationData, chunkSize);
                 if (log.isDebugEnabled()) {
-                    log.debug("Executing SQL: " + sql);
+                    log.debug("Executing SQL " + fullChunks + " time(s): " + sql);
                 }
-
-                // get the connection
-                DataSource dataSource = cmrField.getDataSource();
-                con = dataSource.getConnection();
                 ps = con.prepareStatement(sql);
+                if (fullChunks > 1 && con.getMetaData().supportsBatchUpdates()) {
+                    for (int i = 0; i < fullChunks; ++i) {
+                        setParameters(ps, relationData, pairs);
+                        ps.addBatch();
+                    }
+                    int[] rowsAffected = ps.executeBatch();
+                    if (log.isDebugEnabled()) {
+                        log.debug("Rows affected = " + Arrays.toString(rowsAffected));
+                    }
+                } else {
+                    for (int i = 0; i < fullChunks; ++i) {
+                        setParameters(ps, relationData, pairs);
+                        int rowsAffected = ps.executeUpdate();
+                        if (log.isDebugEnabled()) {
+                            log.debug("Rows affected = " + rowsAffected);
+                        }
+                    }
+                }
+                JDBCUtil.safeClose(ps);
+                ps = null;
+            }
 
-                // set the parameters
+            if (remainder > 0) {
+                String sql = createSQL(relationData, remainder);
+                if (log.isDebugEnabled()) {
+                    log.debug("Executing SQL: " + sql);
+                }
+                ps = con.prepareStatement(sql);
                 setParameters(ps, relationData, pairs);
-
-                // execute statement
                 int rowsAffected = ps.executeUpdate();
                 if (log.isDebugEnabled()) {
                     log.debug("Rows affected = " + rowsAffected);
                 }
-
-                i += (maxKeysInDelete > 0 ? maxKeysInDelete : relationData.removedRelations.size());
-            } catch (Exception e) {
-                throw CmpMessages.MESSAGES.couldNotDeleteRelations(cmrField.getQualifiedTableName(), e);
-            } finally {
-                JDBCUtil.safeClose(ps);
-                JDBCUtil.safeClose(con);
             }
+        } catch (Exception e) {
+            throw CmpMessages.MESSAGES.couldNotDeleteRelations(cmrField.getQualifiedTableName(), e);
+        } finally {
+            JDBCUtil.safeClose(ps);
+            JDBCUtil.safeClose(con);
         }
     }
 
     private String getSQL(RelationData relationData, int keys) {
-        if (maxKeysInDelete > 0 && keys >= maxKeysInDelete) {
-            if (maxKeysStatement == null) {
-                maxKeysStatement = createSQL(relationData, maxKeysInDelete);
+        if (keys == maxKeysInDelete) {
+            // the statement depends on the relation table, so it is cached per relation
+            final JDBCCMRFieldBridge cmrField = relationData.getLeftCMRField();
+            String sql = maxKeysStatements.get(cmrField);
+            if (sql == null) {
+                sql = createSQL(relationData, maxKeysInDelete);
+                maxKeysStatements.putIfAbsent(cmrField, sql);
             }
-            return maxKeysStatement;
+            return sql;
         }
         return createSQL(relationData, keys);
     }
@@ -22,9 +22,12 @@
 package org.jboss.as.cmp.jdbc;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import javax.ejb.FinderException;
 import org.jboss.as.cmp.CmpMessages;
 import org.jboss.as.cmp.component.CmpEntityBeanComponent;
@@ -39,15 +42,28 @@ import org.jboss.as.cmp.jdbc.metadata.JDBCQueryMetaData;
 import org.jboss.as.cmp.jdbc.metadata.JDBCReadAheadMetaData;
 
 /**
- * This class generates a query from JBoss-QL.
+ * This class generates a query from JBoss-QL. Compiled queries are kept in a bounded
+ * LRU cache keyed by the query text and the parameter types.
  *
  * @author <a href="mailto:dain@daingroup.com">Dain Sundstrom</a>
  * @author <a href="mailto:alex@jboss.org">Alex Loubyansky</a>
  * @version $Revision: 81030 $
  */
 public final class JDBCDynamicQLQuery extends JDBCAbstractQueryCommand {
+    /**
+     * The maximum number of compiled queries kept per finder.
+     */
+    private static final int MAX_COMPILED_QUERIES = 128;
+
     private final Catalog catalog;
     private final JDBCDynamicQLQueryMetaData metadata;
+    private final Map<QueryKey, CompiledQuery> compiledQueries = new LinkedHashMap<QueryKey, CompiledQuery>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        protected boolean removeEldestEntry(Map.Entry<QueryKey, CompiledQuery> eldest) {
+            return size() > MAX_COMPILED_QUERIES;
+        }
+    };
 
     public JDBCDynamicQLQuery(JDBCStoreManager manager, JDBCQueryMetaData q) {
         super(manager, q);
@@ -61,13 +77,6 @@ public final class JDBCDynamicQLQuery extends JDBCAbstractQueryCommand {
             getLog().debug("DYNAMIC-QL: " + dynamicQL);
         }
 
-        QLCompiler compiler = null;
-        try {
-            compiler = JDBCQueryManager.getInstance(metadata.getQLCompilerClass(), catalog);
-        } catch (Throwable e) {
-            throw CmpMessages.MESSAGES.failedToGetQueryCompiler(metadata.getQLCompilerClass(), e);
-        }
-
         // get the parameters
         Object[] parameters = (Object[]) args[1];
         // parameter types
@@ -85,20 +94,71 @@ public final class JDBCDynamicQLQuery extends JDBCAbstractQueryCommand {
             }
         }
 
+        final QueryKey key = new QueryKey(dynamicQL, finderMethod.getReturnType(), parameterTypes);
+        CompiledQuery query;
+        synchronized (compiledQueries) {
+            query = compiledQueries.get(key);
+        }
+        if (query == null) {
+            query = compile(key);
+            synchronized (compiledQueries) {
+                compiledQueries.put(key, query);
+            }
+        } else if (getLog().isTraceEnabled()) {
+            getLog().trace("Using compiled DYNAMIC-QL: " + query.sql);
+        }
+
+        int offset = toInt(parameters, query.offsetParam, query.offsetValue);
+        int limit = toInt(parameters, query.limitParam, query.limitValue);
+
+        // get the parameter order
+        setParameterList(query.inputParameters);
+
+        final CmpEntityBeanComponent component = query.storeManager.getComponent();
+        EntityProxyFactory factoryToUse = new EntityProxyFactory() {
+            public Object getEntityObject(Object primaryKey) {
+                return metadata.isResultTypeMappingLocal() && component.getLocalHomeClass() != null ?
+                        component.getEJBLocalObject(primaryKey) : component.getEJBObject(primaryKey);
+            }
+        };
+
+        return execute(
+                query.sql,
+                parameters,
+                offset,
+                limit,
+                query.selectEntity,
+                query.selectField,
+                query.selectFunction,
+                query.storeManager,
+                query.mask,
+                query.inputParameters,
+                query.leftJoinCMRList,
+                metadata,
+                factoryToUse,
+                log
+        );
+    }
+
+    private CompiledQuery compile(QueryKey key) {
+        QLCompiler compiler = null;
+        try {
+            compiler = JDBCQueryManager.getInstance(metadata.getQLCompilerClass(), catalog);
+        } catch (Throwable e) {
+            throw CmpMessages.MESSAGES.failedToGetQueryCompiler(metadata.getQLCompilerClass(), e);
+        }
+
         // compile the dynamic-ql
         try {
             compiler.compileJBossQL(
-                    dynamicQL,
-                    finderMethod.getReturnType(),
-                    parameterTypes,
+                    key.ql,
+                    key.returnType,
+                    key.parameterTypes,
                     metadata);
         } catch (Throwable t) {
             throw CmpMessages.MESSAGES.errorCompilingEjbQl(t);
         }
 
-        int offset = toInt(parameters, compiler.getOffsetParam(), compiler.getOffsetValue());
-        int limit = toInt(parameters, compiler.getLimitParam(), compiler.getLimitValue());
-
         JDBCEntityBridge selectEntity = null;
         JDBCCMPFieldBridge selectField = null;
         SelectFunction selectFunction = null;
@@ -138,32 +198,76 @@ public final class JDBCDynamicQLQuery extends JDBCAbstractQueryCommand {
             leftJoinCMRList = Collections.EMPTY_LIST;
         }
 
-        // get the parameter order
-        setParameterList(compiler.getInputParameters());
+        return new CompiledQuery(compiler, selectEntity, selectField, selectFunction, mask, leftJoinCMRList);
+    }
 
-        final CmpEntityBeanComponent component = ((JDBCStoreManager) compiler.getStoreManager()).getComponent();
-        EntityProxyFactory factoryToUse = new EntityProxyFactory() {
-            public Object getEntityObject(Object primaryKey) {
-                return metadata.isResultTypeMappingLocal() && component.getLocalHomeClass() != null ?
-                        component.getEJBLocalObject(primaryKey) : component.getEJBObject(primaryKey);
+    /**
+     * Identifies a compiled query: the query text, the finder return type and the runtime parameter types.
+     */
+    private static final class QueryKey {
+        private final String ql;
+        private final Class returnType;
+        private final Class[] parameterTypes;
+        private final int hashCode;
+
+        private QueryKey(String ql, Class returnType, Class[] parameterTypes) {
+            this.ql = ql;
+            this.returnType = returnType;
+            this.parameterTypes = parameterTypes;
+            this.hashCode = 31 * (31 * ql.hashCode() + returnType.hashCode()) + Arrays.hashCode(parameterTypes);
+        }
+
+        public int hashCode() {
+            return hashCode;
+        }
+
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
             }
-        };
+            if (!(o instanceof QueryKey)) {
+                return false;
+            }
+            final QueryKey other = (QueryKey) o;
+            return ql.equals(other.ql) && returnType == other.returnType && Arrays.equals(parameterTypes, other.parameterTypes);
+        }
+    }
 
-        return execute(
-                compiler.getSQL(),
-                parameters,
-                offset,
-                limit,
-                selectEntity,
-                selectField,
-                selectFunction,
-                (JDBCStoreManager) compiler.getStoreManager(),
-                mask,
-                compiler.getInputParameters(),
-                leftJoinCMRList,
-                metadata,
-                factoryToUse,
-                log
-        );
+    /**
+     * The outcome of a dynamic-ql compilation that is needed to execute the query.
+     */
+    private static final class CompiledQuery {
+        private final String sql;
+        private final int offsetParam;
+        private final int offsetValue;
+        private final int limitParam;
+        private final int limitValue;
+        private final JDBCEntityBridge selectEntity;
+        private final JDBCCMPFieldBridge selectField;
+        private final SelectFunction selectFunction;
+        private final JDBCStoreManager storeManager;
+        private final List inputParameters;
+        private final boolean[] mask;
+        private final List leftJoinCMRList;
+
+        private CompiledQuery(QLCompiler compiler,
+                              JDBCEntityBridge selectEntity,
+                              JDBCCMPFieldBridge selectField,
+                              SelectFunction selectFunction,
+                              boolean[] mask,
+                              List leftJoinCMRList) {
+            this.sql = compiler.getSQL();
+            this.offsetParam = compiler.getOffsetParam();
+            this.offsetValue = compiler.getOffsetValue();
+            this.limitParam = compiler.getLimitParam();
+            this.limitValue = compiler.getLimitValue();
+            this.selectEntity = selectEntity;
+            this.selectField = selectField;
+            this.selectFunction = selectFunction;
+            this.storeManager = (JDBCStoreManager) compiler.getStoreManager();
+            this.inputParameters = compiler.getInputParameters();
+            this.mask = mask;
+            this.leftJoinCMRList = leftJoinCMRList;
+        }
     }
 }
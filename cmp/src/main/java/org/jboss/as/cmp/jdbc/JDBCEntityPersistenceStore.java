@@ -25,6 +25,7 @@ package org.jboss.as.cmp.jdbc;
 import java.lang.reflect.Method;
 import java.rmi.RemoteException;
 import java.util.Collection;
+import java.util.List;
 import javax.ejb.RemoveException;
 import javax.sql.DataSource;
 import org.jboss.as.cmp.CmpConfig;
@@ -179,6 +180,17 @@ public interface JDBCEntityPersistenceStore {
     void storeEntity(CmpEntityBeanContext instance)
             throws RemoteException;
 
+    /**
+     * This method is called when several instances of the entity shall be stored
+     * to the underlying storage at once, e.g. when the transaction is synchronized.
+     * The persistence manager may group the updates and send them as a batch.
+     *
+     * @param instances the instances to synchronize
+     * @throws RemoteException thrown if some system exception occurs
+     */
+    void storeEntities(List<CmpEntityBeanContext> instances)
+            throws RemoteException;
+
     /**
      * This method is called when an entity shall be passivate. The persistence
      * manager must call the ejbPassivate method on the instance.
@@ -24,6 +24,8 @@ package org.jboss.as.cmp.jdbc;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import javax.ejb.EJBException;
 import javax.sql.DataSource;
 import org.jboss.as.cmp.CmpMessages;
@@ -32,14 +34,21 @@ import org.jboss.as.cmp.jdbc.bridge.JDBCCMRFieldBridge;
 import org.jboss.logging.Logger;
 
 /**
- * Inserts relations into a relation table.
+ * Inserts relations into a relation table. The insert statement is built once per relation
+ * and the added relations are sent to the database as a JDBC batch.
  *
  * @author <a href="mailto:dain@daingroup.com">Dain Sundstrom</a>
  * @author <a href="mailto:alex@jboss.org">Alexey Loubyansky</a>
  * @version $Revision: 81030 $
  */
 public final class JDBCInsertRelationsCommand {
+    /**
+     * The maximum number of inserts sent to the database in a single batch.
+     */
+    private static final int MAX_BATCH_SIZE = 500;
+
     private final Logger log;
+    private final ConcurrentMap<JDBCCMRFieldBridge, String> sqlCache = new ConcurrentHashMap<JDBCCMRFieldBridge, String>();
 
     public JDBCInsertRelationsCommand(JDBCStoreManager manager) {
         this.log = Logger.getLogger(
@@ -59,7 +68,11 @@ public final class JDBCInsertRelationsCommand {
         JDBCCMRFieldBridge cmrField = relationData.getLeftCMRField();
         try {
             // get the sql
-            String sql = getSQL(relationData);
+            String sql = sqlCache.get(cmrField);
+            if (sql == null) {
+                sql = getSQL(relationData);
+                sqlCache.putIfAbsent(cmrField, sql);
+            }
             boolean debug = log.isDebugEnabled();
             if (debug)
                 log.debug("Executing SQL: " + sql);
@@ -71,14 +84,34 @@ public final class JDBCInsertRelationsCommand {
             // get a prepared statement
             ps = con.prepareStatement(sql);
 
-            Iterator pairs = relationData.addedRelations.iterator();
-            while (pairs.hasNext()) {
-                RelationPair pair = (RelationPair) pairs.next();
-
-                // set the parameters
-                setParameters(ps, relationData, pair);
-
-                int rowsAffected = ps.executeUpdate();
+            if (relationData.addedRelations.size() > 1 && con.getMetaData().supportsBatchUpdates()) {
+                int batched = 0;
+                Iterator pairs = relationData.addedRelations.iterator();
+                while (pairs.hasNext()) {
+                    RelationPair pair = (RelationPair) pairs.next();
+
+                    // set the parameters
+                    setParameters(ps, relationData, pair);
+                    ps.addBatch();
+
+                    if (++batched == MAX_BATCH_SIZE) {
+                        ps.executeBatch();
+                        batched = 0;
+                    }
+                }
+                if (batched > 0) {
+                    ps.executeBatch();
+                }
+            } else {
+                Iterator pairs = relationData.addedRelations.iterator();
+                while (pairs.hasNext()) {
+                    RelationPair pair = (RelationPair) pairs.next();
+
+                    // set the parameters
+                    setParameters(ps, relationData, pair);
+
+                    ps.executeUpdate();
+                }
             }
         } catch (Exception e) {
             throw CmpMessages.MESSAGES.couldNotInsertRelations(cmrField.getQualifiedTableName(), e);
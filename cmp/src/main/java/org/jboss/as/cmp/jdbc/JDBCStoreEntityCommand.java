@@ -23,6 +23,15 @@ package org.jboss.as.cmp.jdbc;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import javax.ejb.EJBException;
 import org.jboss.as.cmp.CmpMessages;
 import org.jboss.as.cmp.context.CmpEntityBeanContext;
@@ -35,6 +44,9 @@ import org.jboss.logging.Logger;
  * JDBCStoreEntityCommand updates the row with the new state.
  * In the event that no field is dirty the command just returns.
  * Note: read-only fields are never considered dirty.
+ * <p/>
+ * Update statements are cached by the set of dirty and locked fields, so that
+ * instances with the same dirty state share one statement and can be batched.
  *
  * @author <a href="mailto:dain@daingroup.com">Dain Sundstrom</a>
  * @author <a href="mailto:rickard.oberg@telkel.com">Rickard Oberg</a>
@@ -46,9 +58,24 @@ import org.jboss.logging.Logger;
  * @version $Revision: 81030 $
  */
 public final class JDBCStoreEntityCommand {
+    /**
+     * The maximum number of updates sent to the database in a single batch.
+     */
+    private static final int MAX_BATCH_SIZE = 500;
+
+    /**
+     * The maximum number of distinct update statements that are cached.
+     */
+    private static final int MAX_CACHED_STATEMENTS = 256;
+
+    private static final int DIRTY = 0;
+    private static final int LOCKED = 1;
+    private static final int LOCKED_NULL = 2;
+
     private final JDBCEntityBridge entity;
     private final JDBCFieldBridge[] primaryKeyFields;
     private final Logger log;
+    private final ConcurrentMap<BitSet, String> sqlCache = new ConcurrentHashMap<BitSet, String>();
 
     public JDBCStoreEntityCommand(JDBCStoreManager manager) {
         entity = (JDBCEntityBridge) manager.getEntityBridge();
@@ -62,6 +89,133 @@ public final class JDBCStoreEntityCommand {
     }
 
     public void execute(CmpEntityBeanContext ctx) {
+        final PendingStore store = prepare(ctx);
+        if (store == null) {
+            return;
+        }
+
+        Connection con = null;
+        PreparedStatement ps = null;
+        int rowsAffected = 0;
+        try {
+            // create the statement
+            if (log.isDebugEnabled()) {
+                log.debug("Executing SQL: " + store.sql);
+            }
+
+            // get the connection
+            con = entity.getDataSource().getConnection();
+            ps = con.prepareStatement(store.sql);
+            store.setParameters(ps);
+
+            // execute statement
+            rowsAffected = ps.executeUpdate();
+        } catch (EJBException e) {
+            throw e;
+        } catch (Exception e) {
+            throw CmpMessages.MESSAGES.storeFailed(e);
+        } finally {
+            JDBCUtil.safeClose(ps);
+            JDBCUtil.safeClose(con);
+        }
+
+        // check results
+        store.checkRowsAffected(rowsAffected);
+        store.setClean();
+    }
+
+    /**
+     * Stores all the passed in instances using a single connection. Instances are grouped by the shape of their
+     * update statement (the set of dirty and optimistically locked fields) and each group is sent to the database
+     * as a JDBC batch. Groups that carry optimistic lock conditions are executed row by row on the shared prepared
+     * statement, since drivers are not required to report per-row update counts for batches.
+     *
+     * @param contexts the instances to store
+     */
+    public void execute(List<CmpEntityBeanContext> contexts) {
+        final Map<BitSet, List<PendingStore>> groups = new LinkedHashMap<BitSet, List<PendingStore>>();
+        for (CmpEntityBeanContext ctx : contexts) {
+            final PendingStore store = prepare(ctx);
+            if (store != null) {
+                List<PendingStore> group = groups.get(store.shape);
+                if (group == null) {
+                    group = new ArrayList<PendingStore>();
+                    groups.put(store.shape, group);
+                }
+                group.add(store);
+            }
+        }
+        if (groups.isEmpty()) {
+            return;
+        }
+
+        Connection con = null;
+        PreparedStatement ps = null;
+        try {
+            // get the connection
+            con = entity.getDataSource().getConnection();
+            final boolean batchSupported = con.getMetaData().supportsBatchUpdates();
+            for (List<PendingStore> group : groups.values()) {
+                final PendingStore first = group.get(0);
+                if (log.isDebugEnabled()) {
+                    log.debug("Executing SQL for " + group.size() + " instance(s): " + first.sql);
+                }
+
+                ps = con.prepareStatement(first.sql);
+                if (batchSupported && !first.locked && group.size() > 1) {
+                    executeBatch(ps, group);
+                } else {
+                    for (PendingStore store : group) {
+                        store.setParameters(ps);
+                        store.checkRowsAffected(ps.executeUpdate());
+                    }
+                }
+                JDBCUtil.safeClose(ps);
+                ps = null;
+            }
+        } catch (EJBException e) {
+            throw e;
+        } catch (Exception e) {
+            throw CmpMessages.MESSAGES.storeFailed(e);
+        } finally {
+            JDBCUtil.safeClose(ps);
+            JDBCUtil.safeClose(con);
+        }
+
+        // Mark the updated fields as clean.
+        for (List<PendingStore> group : groups.values()) {
+            for (PendingStore store : group) {
+                store.setClean();
+            }
+        }
+    }
+
+    private void executeBatch(PreparedStatement ps, List<PendingStore> group) throws SQLException {
+        int start = 0;
+        while (start < group.size()) {
+            final int end = Math.min(start + MAX_BATCH_SIZE, group.size());
+            for (int i = start; i < end; ++i) {
+                group.get(i).setParameters(ps);
+                ps.addBatch();
+            }
+
+            final int[] results = ps.executeBatch();
+            for (int i = 0; i < results.length; ++i) {
+                if (results[i] != Statement.SUCCESS_NO_INFO) {
+                    group.get(start + i).checkRowsAffected(results[i]);
+                }
+            }
+            start = end;
+        }
+    }
+
+    /**
+     * Determines the dirty and locked fields of the instance and resolves the update statement for them.
+     *
+     * @param ctx the instance to store
+     * @return the pending store or null if the instance does not need to be updated
+     */
+    private PendingStore prepare(CmpEntityBeanContext ctx) {
         // scheduled for batch cascade-delete instance should not be updated
         // because foreign key fields could be updated to null and cascade-delete will fail.
         JDBCEntityBridge.FieldIterator dirtyIterator = entity.getDirtyIterator(ctx);
@@ -70,47 +224,98 @@ public final class JDBCStoreEntityCommand {
                 log.trace("Store command NOT executed. Entity is not dirty "
                         + ", is being removed or scheduled for *batch* cascade delete: pk=" + ctx.getPrimaryKeyUnchecked());
             }
-            return;
+            return null;
         }
 
-        // generate sql
-        StringBuffer sql = new StringBuffer(200);
-        sql.append(SQLUtil.UPDATE)
-                .append(entity.getQualifiedTableName())
-                .append(SQLUtil.SET);
-        SQLUtil.getSetClause(dirtyIterator, sql)
-                .append(SQLUtil.WHERE);
-        SQLUtil.getWhereClause(primaryKeyFields, sql);
+        // the shape of the statement: dirty fields, locked fields and locked fields compared to null
+        final BitSet shape = new BitSet();
+        while (dirtyIterator.hasNext()) {
+            shape.set(bit(dirtyIterator.next(), DIRTY));
+        }
 
         boolean hasLockedFields = entity.hasLockedFields(ctx);
         JDBCEntityBridge.FieldIterator lockedIterator = null;
         if (hasLockedFields) {
             lockedIterator = entity.getLockedIterator(ctx);
             while (lockedIterator.hasNext()) {
-                sql.append(SQLUtil.AND);
                 JDBCCMPFieldBridge field = lockedIterator.next();
                 if (field.getLockedValue(ctx) == null) {
-                    SQLUtil.getIsNullClause(false, field, "", sql);
+                    shape.set(bit(field, LOCKED_NULL));
                     lockedIterator.remove();
                 } else {
-                    SQLUtil.getWhereClause(field, sql);
+                    shape.set(bit(field, LOCKED));
                 }
             }
         }
 
-        Connection con = null;
-        PreparedStatement ps = null;
-        int rowsAffected = 0;
-        try {
-            // create the statement
-            if (log.isDebugEnabled()) {
-                log.debug("Executing SQL: " + sql);
+        String sql = sqlCache.get(shape);
+        if (sql == null) {
+            sql = createSQL(shape);
+            if (sqlCache.size() < MAX_CACHED_STATEMENTS) {
+                sqlCache.putIfAbsent(shape, sql);
             }
+        }
+        return new PendingStore(ctx, shape, sql, dirtyIterator, lockedIterator);
+    }
 
-            // get the connection
-            con = entity.getDataSource().getConnection();
-            ps = con.prepareStatement(sql.toString());
+    private String createSQL(BitSet shape) {
+        final JDBCFieldBridge[] tableFields = entity.getTableFields();
+
+        StringBuffer sql = new StringBuffer(200);
+        sql.append(SQLUtil.UPDATE)
+                .append(entity.getQualifiedTableName())
+                .append(SQLUtil.SET);
+        boolean comma = false;
+        for (int i = 0; i < tableFields.length; ++i) {
+            if (shape.get(i * 3 + DIRTY)) {
+                if (comma) {
+                    sql.append(SQLUtil.COMMA);
+                }
+                SQLUtil.getSetClause(tableFields[i], sql);
+                comma = true;
+            }
+        }
+        sql.append(SQLUtil.WHERE);
+        SQLUtil.getWhereClause(primaryKeyFields, sql);
+
+        for (int i = 0; i < tableFields.length; ++i) {
+            if (shape.get(i * 3 + LOCKED_NULL)) {
+                sql.append(SQLUtil.AND);
+                SQLUtil.getIsNullClause(false, tableFields[i], "", sql);
+            } else if (shape.get(i * 3 + LOCKED)) {
+                sql.append(SQLUtil.AND);
+                SQLUtil.getWhereClause(tableFields[i], sql);
+            }
+        }
+        return sql.toString();
+    }
+
+    private static int bit(JDBCCMPFieldBridge field, int kind) {
+        return field.getTableIndex() * 3 + kind;
+    }
+
+    /**
+     * The state of a single instance between the computation of its update statement and the execution.
+     */
+    private final class PendingStore {
+        private final CmpEntityBeanContext ctx;
+        private final BitSet shape;
+        private final String sql;
+        private final boolean locked;
+        private final JDBCEntityBridge.FieldIterator dirtyIterator;
+        private final JDBCEntityBridge.FieldIterator lockedIterator;
 
+        private PendingStore(CmpEntityBeanContext ctx, BitSet shape, String sql,
+                             JDBCEntityBridge.FieldIterator dirtyIterator, JDBCEntityBridge.FieldIterator lockedIterator) {
+            this.ctx = ctx;
+            this.shape = shape;
+            this.sql = sql;
+            this.locked = lockedIterator != null;
+            this.dirtyIterator = dirtyIterator;
+            this.lockedIterator = lockedIterator;
+        }
+
+        private void setParameters(PreparedStatement ps) {
             // SET: set the dirty fields parameters
             int index = 1;
             dirtyIterator.reset();
@@ -122,7 +327,7 @@ public final class JDBCStoreEntityCommand {
             index = entity.setPrimaryKeyParameters(ps, index, ctx.getPrimaryKeyUnchecked());
 
             // WHERE: set optimistically locked field values
-            if (hasLockedFields) {
+            if (locked) {
                 lockedIterator.reset();
                 while (lockedIterator.hasNext()) {
                     JDBCCMPFieldBridge field = lockedIterator.next();
@@ -130,27 +335,19 @@ public final class JDBCStoreEntityCommand {
                     index = field.setArgumentParameters(ps, index, value);
                 }
             }
-
-            // execute statement
-            rowsAffected = ps.executeUpdate();
-        } catch (EJBException e) {
-            throw e;
-        } catch (Exception e) {
-            throw CmpMessages.MESSAGES.storeFailed(e);
-        } finally {
-            JDBCUtil.safeClose(ps);
-            JDBCUtil.safeClose(con);
         }
 
-        // check results
-        if (rowsAffected != 1) {
-            throw CmpMessages.MESSAGES.updateFailedTooManyRowsAffected(rowsAffected, ctx.getPrimaryKeyUnchecked());
+        private void checkRowsAffected(int rowsAffected) {
+            if (rowsAffected != 1) {
+                throw CmpMessages.MESSAGES.updateFailedTooManyRowsAffected(rowsAffected, ctx.getPrimaryKeyUnchecked());
+            }
         }
 
-        // Mark the updated fields as clean.
-        dirtyIterator.reset();
-        while (dirtyIterator.hasNext()) {
-            dirtyIterator.next().setClean(ctx);
+        private void setClean() {
+            dirtyIterator.reset();
+            while (dirtyIterator.hasNext()) {
+                dirtyIterator.next().setClean(ctx);
+            }
         }
     }
 }
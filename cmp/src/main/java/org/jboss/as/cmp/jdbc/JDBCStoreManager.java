@@ -470,6 +470,15 @@ public final class JDBCStoreManager implements JDBCEntityPersistenceStore {
         synchronizeRelationData();
     }
 
+    public void storeEntities(List<CmpEntityBeanContext> contexts) {
+        if (contexts.size() == 1) {
+            storeEntityCommand.execute(contexts.get(0));
+        } else {
+            storeEntityCommand.execute(contexts);
+        }
+        synchronizeRelationData();
+    }
+
     private void synchronizeRelationData() {
         final JDBCCMRFieldBridge[] cmrFields = (JDBCCMRFieldBridge[]) entityBridge.getCMRFields();
         for (int i = 0; i < cmrFields.length; ++i) {
@@ -213,6 +213,21 @@ public final class ReadAheadCache {
         }
     }
 
+    /**
+     * Replaces finder results added earlier with the next page of the same finder, so that a lazily loaded
+     * result takes a single entry of the list cache however many pages it spans.
+     *
+     * @param previous  the page added earlier, or <code>null</code>
+     * @param results   the next page
+     * @param readahead the read-ahead settings of the finder
+     */
+    public void replaceFinderResults(List previous, List results, JDBCReadAheadMetaData readahead) {
+        if (previous != null) {
+            removeFinderResult(previous);
+        }
+        addFinderResults(results, readahead);
+    }
+
     private void removeFinderResult(List results) {
         Map listMap = getListMap();
         if (listMap == null) {
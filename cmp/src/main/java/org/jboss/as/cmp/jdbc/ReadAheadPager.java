@@ -0,0 +1,73 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.cmp.jdbc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the primary keys read by a lazily loaded finder result and hands them on one page at a time.
+ * Each page replaces the page handed on before it, so the read-ahead cache only ever holds one page
+ * of a result, however large the result is.
+ */
+abstract class ReadAheadPager {
+    private final int pageSize;
+    private List previous;
+    private List page;
+
+    ReadAheadPager(int pageSize) {
+        this.pageSize = pageSize;
+        page = new ArrayList(pageSize);
+    }
+
+    /**
+     * Adds a primary key, handing the page on if it is full.
+     *
+     * @param pk the primary key
+     */
+    void add(Object pk) {
+        page.add(pk);
+        if (page.size() >= pageSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Hands the primary keys read since the last page on, if there are any.
+     */
+    void flush() {
+        if (!page.isEmpty()) {
+            replacePage(previous, page);
+            previous = page;
+            page = new ArrayList(pageSize);
+        }
+    }
+
+    /**
+     * Replaces the page handed on before with the next page.
+     *
+     * @param previous the page handed on before, or <code>null</code> for the first page
+     * @param page     the next page
+     */
+    protected abstract void replacePage(List previous, List page);
+}
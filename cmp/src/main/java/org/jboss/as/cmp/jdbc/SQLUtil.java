@@ -452,6 +452,13 @@ public final class SQLUtil {
         return buf;
     }
 
+    /**
+     * Returns columnName0=? [, columnName1=? [, columnName2=? [...]]]
+     */
+    public static StringBuffer getSetClause(JDBCFieldBridge field, StringBuffer buf) {
+        return getSetClause(getJDBCType(field), buf);
+    }
+
     /**
      * Returns columnName0=? [, columnName1=? [, columnName2=? [...]]]
      */
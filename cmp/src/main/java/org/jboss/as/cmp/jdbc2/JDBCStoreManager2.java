@@ -273,6 +273,12 @@ public class JDBCStoreManager2 implements JDBCEntityPersistenceStore {
         // scary?
     }
 
+    public void storeEntities(List<CmpEntityBeanContext> instances) {
+        for (CmpEntityBeanContext instance : instances) {
+            storeEntity(instance);
+        }
+    }
+
     public void passivateEntity(CmpEntityBeanContext ctx) {
         JDBCEntityBridge2.destroyPersistenceContext(ctx);
     }
@@ -0,0 +1,155 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.cmp;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.transaction.Status;
+import javax.transaction.Transaction;
+
+import org.jboss.as.cmp.component.CmpEntityBeanComponent;
+import org.jboss.as.cmp.context.CmpEntityBeanContext;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+/**
+ * Tests the order in which {@link TransactionEntityMap.GlobalTxSynchronization} stores the instances of a transaction.
+ */
+public class TransactionEntityMapTestCase {
+
+    private final List<List<Object>> stores = new ArrayList<List<Object>>();
+    private Transaction tx;
+    private CmpEntityBeanComponent parent;
+    private CmpEntityBeanComponent child;
+
+    @Before
+    public void setUp() throws Exception {
+        tx = Mockito.mock(Transaction.class);
+        Mockito.when(tx.getStatus()).thenReturn(Status.STATUS_ACTIVE);
+        parent = mockComponent();
+        child = mockComponent();
+    }
+
+    @Test
+    public void testConsecutiveInstancesOfComponentAreStoredTogether() {
+        final TransactionEntityMap.GlobalTxSynchronization sync = new TransactionEntityMap.GlobalTxSynchronization(tx);
+        sync.associate(mockContext(parent, "p1"));
+        sync.associate(mockContext(parent, "p2"));
+        sync.associate(mockContext(child, "c1"));
+        sync.associate(mockContext(child, "c2"));
+        sync.synchronize();
+
+        assertEquals(Arrays.asList(Arrays.<Object>asList("p1", "p2"), Arrays.<Object>asList("c1", "c2")), stores);
+    }
+
+    @Test
+    public void testInstancesAreStoredInTheOrderTheyWereTouched() {
+        final TransactionEntityMap.GlobalTxSynchronization sync = new TransactionEntityMap.GlobalTxSynchronization(tx);
+        // the second parent may reference the first child, so it must not be stored before it
+        sync.associate(mockContext(parent, "p1"));
+        sync.associate(mockContext(child, "c1"));
+        sync.associate(mockContext(parent, "p2"));
+        sync.synchronize();
+
+        assertEquals(Arrays.asList(Arrays.<Object>asList("p1"), Arrays.<Object>asList("c1"), Arrays.<Object>asList("p2")), stores);
+    }
+
+    @Test
+    public void testSynchronizedInstanceSplitsBatch() throws Exception {
+        final TransactionEntityMap.GlobalTxSynchronization sync = new TransactionEntityMap.GlobalTxSynchronization(tx);
+        final CmpEntityBeanContext synchronizedContext = mockContext(parent, "p2");
+        Mockito.when(synchronizedContext.getTxAssociation()).thenReturn(TransactionEntityMap.SYNCHRONIZED);
+        sync.associate(mockContext(parent, "p1"));
+        sync.associate(synchronizedContext);
+        sync.associate(mockContext(parent, "p3"));
+        sync.synchronize();
+
+        assertEquals(Arrays.asList(Arrays.<Object>asList("p1"), Arrays.<Object>asList("p3")), stores);
+        Mockito.verify(parent, Mockito.never()).storeEntity(synchronizedContext);
+    }
+
+    @Test
+    public void testRemovedInstancesAreNotStored() {
+        final TransactionEntityMap.GlobalTxSynchronization sync = new TransactionEntityMap.GlobalTxSynchronization(tx);
+        final CmpEntityBeanContext removed = mockContext(parent, "p2");
+        Mockito.when(removed.isRemoved()).thenReturn(true);
+        sync.associate(mockContext(parent, "p1"));
+        sync.associate(removed);
+        sync.associate(mockContext(parent, "p3"));
+        sync.synchronize();
+
+        assertEquals(Arrays.asList(Arrays.<Object>asList("p1", "p3")), stores);
+    }
+
+    @Test
+    public void testRollbackStopsStores() throws Exception {
+        final TransactionEntityMap.GlobalTxSynchronization sync = new TransactionEntityMap.GlobalTxSynchronization(tx);
+        Mockito.doAnswer(new Answer<Object>() {
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                record(invocation);
+                Mockito.when(tx.getStatus()).thenReturn(Status.STATUS_MARKED_ROLLBACK);
+                return null;
+            }
+        }).when(parent).storeEntities(Mockito.anyListOf(CmpEntityBeanContext.class));
+        sync.associate(mockContext(parent, "p1"));
+        sync.associate(mockContext(child, "c1"));
+        sync.synchronize();
+
+        assertEquals(Arrays.asList(Arrays.<Object>asList("p1")), stores);
+    }
+
+    private CmpEntityBeanComponent mockComponent() throws Exception {
+        final CmpEntityBeanComponent component = Mockito.mock(CmpEntityBeanComponent.class);
+        Mockito.doAnswer(new Answer<Object>() {
+            public Object answer(InvocationOnMock invocation) {
+                record(invocation);
+                return null;
+            }
+        }).when(component).storeEntities(Mockito.anyListOf(CmpEntityBeanContext.class));
+        return component;
+    }
+
+    private void record(InvocationOnMock invocation) {
+        // the list is reused once the call returns, so copy the keys
+        final List<Object> keys = new ArrayList<Object>();
+        for (Object context : (List<?>) invocation.getArguments()[0]) {
+            keys.add(((CmpEntityBeanContext) context).getPrimaryKeyUnchecked());
+        }
+        stores.add(keys);
+    }
+
+    private static CmpEntityBeanContext mockContext(CmpEntityBeanComponent component, Object primaryKey) {
+        final CmpEntityBeanContext context = Mockito.mock(CmpEntityBeanContext.class);
+        Mockito.when(context.getComponent()).thenReturn(component);
+        Mockito.when(context.getPrimaryKeyUnchecked()).thenReturn(primaryKey);
+        Mockito.when(context.getTxAssociation()).thenReturn(TransactionEntityMap.SYNC_SCHEDULED);
+        return context;
+    }
+}
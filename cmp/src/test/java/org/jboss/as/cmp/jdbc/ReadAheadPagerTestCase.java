@@ -0,0 +1,89 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.cmp.jdbc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link ReadAheadPager}.
+ */
+public class ReadAheadPagerTestCase {
+
+    private final List<List> previousPages = new ArrayList<List>();
+    private final List<List> pages = new ArrayList<List>();
+
+    private final ReadAheadPager pager = new ReadAheadPager(3) {
+        protected void replacePage(List previous, List page) {
+            previousPages.add(previous);
+            pages.add(page);
+        }
+    };
+
+    @Test
+    public void testFullPagesAreHandedOn() {
+        for (int i = 1; i <= 6; i++) {
+            pager.add(i);
+        }
+        assertEquals(Arrays.asList(Arrays.asList(1, 2, 3), Arrays.asList(4, 5, 6)), pages);
+    }
+
+    @Test
+    public void testEachPageReplacesThePreviousPage() {
+        for (int i = 1; i <= 9; i++) {
+            pager.add(i);
+        }
+        assertEquals(3, pages.size());
+        assertNull(previousPages.get(0));
+        assertSame(pages.get(0), previousPages.get(1));
+        assertSame(pages.get(1), previousPages.get(2));
+    }
+
+    @Test
+    public void testFlushHandsOnPartialPage() {
+        for (int i = 1; i <= 4; i++) {
+            pager.add(i);
+        }
+        pager.flush();
+        assertEquals(Arrays.asList(Arrays.asList(1, 2, 3), Arrays.asList(4)), pages);
+        assertSame(pages.get(0), previousPages.get(1));
+    }
+
+    @Test
+    public void testFlushWithoutKeysDoesNothing() {
+        pager.flush();
+        for (int i = 1; i <= 3; i++) {
+            pager.add(i);
+        }
+        pager.flush();
+        assertEquals(Arrays.asList(Arrays.asList(1, 2, 3)), pages);
+        assertNull(previousPages.get(0));
+    }
+}
@@ -26,6 +26,7 @@ import static org.jboss.logging.Logger.Level.ERROR;
 import static org.jboss.logging.Logger.Level.WARN;
 
 import java.io.Closeable;
+import java.io.File;
 import java.net.InetAddress;
 import java.util.Set;
 
@@ -444,4 +445,24 @@ public interface ControllerLogger extends BasicLogger {
     @Message(id = 13404, value = "Extension '%s' is deprecated and may not be supported in future versions")
     @LogMessage(level = WARN)
     void extensionDeprecated(String extensionName);
+
+    /**
+     * Logs a debug message indicating that the boot operations were loaded from the boot operation cache.
+     *
+     * @param count the number of boot operations
+     * @param file  the boot operation cache file
+     */
+    @LogMessage(level = Level.DEBUG)
+    @Message(id = 13405, value = "Loaded %d boot operations from cache %s")
+    void loadedCachedBootOperations(int count, File file);
+
+    /**
+     * Logs a warning message indicating that the boot operation cache could not be read or written.
+     *
+     * @param cause the cause of the error.
+     * @param file  the boot operation cache file
+     */
+    @LogMessage(level = WARN)
+    @Message(id = 13406, value = "Failed to access boot operation cache %s")
+    void bootOperationCacheFailed(@Cause Throwable cause, File file);
 }
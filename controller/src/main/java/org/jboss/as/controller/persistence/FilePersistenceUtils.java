@@ -24,6 +24,7 @@ package org.jboss.as.controller.persistence;
 import static org.jboss.as.controller.ControllerMessages.MESSAGES;
 
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -78,6 +79,18 @@ class FilePersistenceUtils {
         }
     }
 
+    static byte[] readFully(final File file) throws IOException {
+        final FileInputStream fis = new FileInputStream(file);
+        try {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream((int) file.length());
+            StreamUtils.copyStream(fis, bytes);
+            fis.close();
+            return bytes.toByteArray();
+        } finally {
+            StreamUtils.safeClose(fis);
+        }
+    }
+
     static void rename(File file, File to) throws IOException {
         if (!file.renameTo(to) && file.exists()) {
             copyFile(file, to);
@@ -24,13 +24,25 @@ package org.jboss.as.controller.persistence;
 
 import static org.jboss.as.controller.ControllerLogger.ROOT_LOGGER;
 import static org.jboss.as.controller.ControllerMessages.MESSAGES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXTENSION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -42,7 +54,10 @@ import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamReader;
 
 import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
 import org.jboss.dmr.ModelNode;
+import org.jboss.modules.Module;
+import org.jboss.modules.ModuleIdentifier;
 import org.jboss.staxmapper.XMLElementReader;
 import org.jboss.staxmapper.XMLElementWriter;
 import org.jboss.staxmapper.XMLMapper;
@@ -58,6 +73,7 @@ public class XmlConfigurationPersister extends AbstractConfigurationPersister {
     private final QName rootElement;
     private final XMLElementReader<List<ModelNode>> rootParser;
     private final Map<QName, XMLElementReader<List<ModelNode>>> additionalParsers;
+    private volatile File bootOperationCache;
 
     /**
      * Construct a new instance.
@@ -81,6 +97,17 @@ public class XmlConfigurationPersister extends AbstractConfigurationPersister {
         }
     }
 
+    /**
+     * Sets the file in which the boot operations parsed from the configuration file are cached in binary form.
+     * The cache is used instead of parsing the configuration file if neither the configuration file,
+     * the root parser, nor any of the referenced extension modules changed since the cache was written.
+     *
+     * @param file the boot operation cache file, or {@code null} to always parse the configuration file
+     */
+    public void setBootOperationCache(final File file) {
+        this.bootOperationCache = file;
+    }
+
     /** {@inheritDoc} */
     @Override
     public PersistenceResource store(final ModelNode model, Set<PathAddress> affectedAddresses) throws ConfigurationPersistenceException {
@@ -124,8 +151,21 @@ public class XmlConfigurationPersister extends AbstractConfigurationPersister {
                 mapper.registerRootElement(entry.getKey(), entry.getValue());
             }
         }
+        final File cache = this.bootOperationCache;
         final List<ModelNode> updates = new ArrayList<ModelNode>();
         try {
+            if (cache != null) {
+                final byte[] content = FilePersistenceUtils.readFully(fileName);
+                final List<ModelNode> cached = loadCachedBootOperations(cache, content);
+                if (cached != null) {
+                    return cached;
+                }
+                XMLStreamReader streamReader = XMLInputFactory.newInstance().createXMLStreamReader(new ByteArrayInputStream(content));
+                mapper.parseDocument(updates, streamReader);
+                streamReader.close();
+                storeCachedBootOperations(cache, content, updates);
+                return updates;
+            }
             final FileInputStream fis = new FileInputStream(fileName);
             try {
                 BufferedInputStream input = new BufferedInputStream(fis);
@@ -143,6 +183,115 @@ public class XmlConfigurationPersister extends AbstractConfigurationPersister {
         return updates;
     }
 
+    private List<ModelNode> loadCachedBootOperations(final File cache, final byte[] content) {
+        if (!cache.exists()) return null;
+        try {
+            final DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(cache)));
+            try {
+                final String key = input.readUTF();
+                final ModelNode operations = new ModelNode();
+                operations.readExternal(input);
+                // Validate against the current configuration file and the extension modules referenced by the cached operations
+                final List<ModelNode> updates = operations.asList();
+                if (key.equals(getBootOperationCacheKey(content, updates))) {
+                    ROOT_LOGGER.loadedCachedBootOperations(updates.size(), cache);
+                    return new ArrayList<ModelNode>(updates);
+                }
+            } finally {
+                safeClose(input);
+            }
+        } catch (Exception e) {
+            ROOT_LOGGER.bootOperationCacheFailed(e, cache);
+        }
+        return null;
+    }
+
+    private void storeCachedBootOperations(final File cache, final byte[] content, final List<ModelNode> updates) {
+        final File temp = FilePersistenceUtils.createTempFile(cache);
+        try {
+            final String key = getBootOperationCacheKey(content, updates);
+            final ModelNode operations = new ModelNode().setEmptyList();
+            for (ModelNode update : updates) {
+                operations.add(update);
+            }
+            cache.getParentFile().mkdirs();
+            final FileOutputStream fos = new FileOutputStream(temp);
+            try {
+                final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(fos));
+                output.writeUTF(key);
+                operations.writeExternal(output);
+                output.flush();
+                fos.getFD().sync();
+                output.close();
+            } finally {
+                safeClose(fos);
+            }
+            FilePersistenceUtils.rename(temp, cache);
+        } catch (Exception e) {
+            ROOT_LOGGER.bootOperationCacheFailed(e, cache);
+        } finally {
+            temp.delete();
+        }
+    }
+
+    private String getBootOperationCacheKey(final byte[] content, final List<ModelNode> updates) throws Exception {
+        final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+        digest.update(content);
+        // Changes to the root parser or to an extension's parsers invalidate the cache
+        final Class<?> parserClass = rootParser.getClass();
+        updateDigest(digest, parserClass.getResource(parserClass.getSimpleName() + ".class"));
+        for (ModelNode update : updates) {
+            if (ADD.equals(update.get(OP).asString())) {
+                final PathAddress address = PathAddress.pathAddress(update.get(OP_ADDR));
+                if (address.size() == 1) {
+                    final PathElement element = address.getElement(0);
+                    if (EXTENSION.equals(element.getKey())) {
+                        final Module module = Module.getBootModuleLoader().loadModule(ModuleIdentifier.fromString(element.getValue()));
+                        digest.update(element.getValue().getBytes("UTF-8"));
+                        updateDigest(digest, module.getClassLoader().getResource(EXTENSION_SERVICE));
+                    }
+                }
+            }
+        }
+        final StringBuilder key = new StringBuilder();
+        for (byte b : digest.digest()) {
+            key.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return key.toString();
+    }
+
+    private static void updateDigest(final MessageDigest digest, final URL url) throws IOException {
+        if (url != null) {
+            digest.update(url.toExternalForm().getBytes("UTF-8"));
+            final long lastModified = getLastModified(url);
+            for (int i = 0; i < 8; ++i) {
+                digest.update((byte) (lastModified >>> (i * 8)));
+            }
+        }
+    }
+
+    private static long getLastModified(final URL url) throws IOException {
+        // Stat module content directly, since opening a connection would keep the file or jar open
+        URL file = url;
+        if ("jar".equals(url.getProtocol())) {
+            final String path = url.getPath();
+            final int separator = path.indexOf("!/");
+            file = new URL((separator < 0) ? path : path.substring(0, separator));
+        }
+        if ("file".equals(file.getProtocol())) {
+            try {
+                return new File(file.toURI()).lastModified();
+            } catch (URISyntaxException e) {
+                return new File(file.getPath()).lastModified();
+            }
+        }
+        final URLConnection connection = url.openConnection();
+        connection.setUseCaches(false);
+        return connection.getLastModified();
+    }
+
+    private static final String EXTENSION_SERVICE = "META-INF/services/org.jboss.as.controller.Extension";
+
     private static void safeClose(final Closeable closeable) {
         if (closeable != null) try {
             closeable.close();
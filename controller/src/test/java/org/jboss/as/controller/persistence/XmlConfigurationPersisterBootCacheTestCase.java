@@ -0,0 +1,132 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.staxmapper.XMLElementReader;
+import org.jboss.staxmapper.XMLExtendedStreamReader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the boot operation cache of {@link XmlConfigurationPersister}.
+ */
+public class XmlConfigurationPersisterBootCacheTestCase {
+
+    private static final QName ROOT = new QName("urn:test", "test");
+
+    private final AtomicInteger parseCount = new AtomicInteger();
+    private final XMLElementReader<List<ModelNode>> parser = new XMLElementReader<List<ModelNode>>() {
+        @Override
+        public void readElement(XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
+            XmlConfigurationPersisterBootCacheTestCase.this.parseCount.incrementAndGet();
+            ModelNode operation = new ModelNode();
+            operation.get("operation").set("test");
+            operation.get("value").set(reader.getAttributeValue(null, "value"));
+            operations.add(operation);
+            while (reader.nextTag() != XMLStreamConstants.END_ELEMENT) {
+                // Skip content
+            }
+        }
+    };
+
+    private File dir;
+    private File file;
+    private File cache;
+
+    @Before
+    public void createFiles() throws Exception {
+        this.dir = new File("target", "boot-cache-test");
+        this.dir.mkdirs();
+        this.file = new File(this.dir, "test.xml");
+        this.cache = new File(new File(this.dir, "cache"), "test.xml.dmr");
+        this.write("a");
+    }
+
+    @After
+    public void deleteFiles() {
+        this.cache.delete();
+        this.cache.getParentFile().delete();
+        this.file.delete();
+        this.dir.delete();
+    }
+
+    @Test
+    public void load() throws Exception {
+        XmlConfigurationPersister persister = new XmlConfigurationPersister(this.file, ROOT, this.parser, null);
+        persister.setBootOperationCache(this.cache);
+
+        List<ModelNode> operations = persister.load();
+        assertEquals(1, this.parseCount.get());
+        assertEquals(1, operations.size());
+        assertEquals("a", operations.get(0).get("value").asString());
+        assertTrue(this.cache.exists());
+
+        // Unchanged configuration is loaded from cache
+        operations = persister.load();
+        assertEquals(1, this.parseCount.get());
+        assertEquals(1, operations.size());
+        assertEquals("a", operations.get(0).get("value").asString());
+
+        // Changed configuration is parsed again
+        this.write("b");
+        operations = persister.load();
+        assertEquals(2, this.parseCount.get());
+        assertEquals("b", operations.get(0).get("value").asString());
+    }
+
+    @Test
+    public void disabled() throws Exception {
+        XmlConfigurationPersister persister = new XmlConfigurationPersister(this.file, ROOT, this.parser, null);
+        persister.setBootOperationCache(null);
+
+        persister.load();
+        persister.load();
+        assertEquals(2, this.parseCount.get());
+        assertFalse(this.cache.exists());
+    }
+
+    private void write(String value) throws Exception {
+        Writer writer = new FileWriter(this.file);
+        try {
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?><test xmlns=\"urn:test\" value=\"" + value + "\"/>");
+        } finally {
+            writer.close();
+        }
+    }
+}
@@ -23,7 +23,6 @@
 package org.jboss.as.ee.component;
 
 import java.lang.reflect.Method;
-import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -155,7 +154,7 @@ public class BasicComponent implements Component {
             interceptorContext.putPrivateData(Component.class, this);
             interceptorContext.putPrivateData(ComponentInstance.class, basicComponentInstance);
             interceptorContext.putPrivateData(InvocationType.class, InvocationType.POST_CONSTRUCT);
-            interceptorContext.setContextData(new HashMap<String, Object>());
+            interceptorContext.setContextData(new ContextDataMap());
 
             try {
                 componentInstancePostConstructInterceptor.processInvocation(interceptorContext);
@@ -25,7 +25,6 @@ package org.jboss.as.ee.component;
 import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicReference;
@@ -137,7 +136,7 @@ public class BasicComponentInstance implements ComponentInstance {
         final InterceptorContext interceptorContext = new InterceptorContext();
         interceptorContext.putPrivateData(Component.class, component);
         interceptorContext.putPrivateData(ComponentInstance.class, this);
-        interceptorContext.setContextData(new HashMap<String, Object>());
+        interceptorContext.setContextData(new ContextDataMap());
         return interceptorContext;
     }
 
@@ -0,0 +1,113 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ee.component;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The public context data map of a component invocation. Most invocations never touch their
+ * context data, so the backing {@link HashMap} is only created on the first write.
+ */
+public final class ContextDataMap extends AbstractMap<String, Object> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Map<String, Object> delegate;
+
+    private Map<String, Object> delegate() {
+        Map<String, Object> delegate = this.delegate;
+        if (delegate == null) {
+            this.delegate = delegate = new HashMap<String, Object>();
+        }
+        return delegate;
+    }
+
+    @Override
+    public int size() {
+        return delegate == null ? 0 : delegate.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return delegate == null || delegate.isEmpty();
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return delegate != null && delegate.containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(final Object value) {
+        return delegate != null && delegate.containsValue(value);
+    }
+
+    @Override
+    public Object get(final Object key) {
+        return delegate == null ? null : delegate.get(key);
+    }
+
+    @Override
+    public Object put(final String key, final Object value) {
+        return delegate().put(key, value);
+    }
+
+    @Override
+    public Object remove(final Object key) {
+        return delegate == null ? null : delegate.remove(key);
+    }
+
+    @Override
+    public void putAll(final Map<? extends String, ?> m) {
+        if (!m.isEmpty()) {
+            delegate().putAll(m);
+        }
+    }
+
+    @Override
+    public void clear() {
+        if (delegate != null) {
+            delegate.clear();
+        }
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return delegate == null ? Collections.<String>emptySet() : delegate.keySet();
+    }
+
+    @Override
+    public Collection<Object> values() {
+        return delegate == null ? Collections.emptyList() : delegate.values();
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return delegate == null ? Collections.<Entry<String, Object>>emptySet() : delegate.entrySet();
+    }
+}
@@ -276,7 +276,7 @@ public final class ViewService implements Service<ComponentView> {
             InterceptorContext context = new InterceptorContext();
             context.putPrivateData(ComponentView.class, componentView);
             context.putPrivateData(Component.class, component);
-            context.setContextData(new HashMap<String, Object>());
+            context.setContextData(new ContextDataMap());
             clientPostConstructInterceptor.processInvocation(context);
 
             return new ManagedReference() {
@@ -29,6 +29,8 @@ import org.jboss.logging.Logger;
 import javax.ejb.LockType;
 import javax.interceptor.InvocationContext;
 import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -51,6 +53,11 @@ public class ContainerManagedConcurrencyInterceptor implements Interceptor {
 
     private final LockableComponent lockableComponent;
 
+    /**
+     * The lock and access timeout of each invoked method, resolved on its first invocation
+     */
+    private final ConcurrentMap<Method, MethodLockDetails> methodLockDetails = new ConcurrentHashMap<Method, MethodLockDetails>();
+
     public ContainerManagedConcurrencyInterceptor(LockableComponent component) {
         if (component == null) {
             throw MESSAGES.componentIsNull(LockableComponent.class.getName());
@@ -65,34 +72,26 @@ public class ContainerManagedConcurrencyInterceptor implements Interceptor {
     @Override
     public Object processInvocation(final InterceptorContext context) throws Exception {
         final InvocationContext invocationContext = context.getInvocationContext();
-        LockableComponent lockableComponent = this.getLockableComponent();
         // get the invoked method
         Method invokedMethod = invocationContext.getMethod();
         if (invokedMethod == null) {
             throw MESSAGES.invocationNotApplicableForMethodInvocation(invocationContext);
         }
+        final MethodLockDetails details = getMethodLockDetails(invokedMethod);
         // get the Lock applicable for this method
-        Lock lock = getLock(lockableComponent, invokedMethod);
-        // the default access timeout (will be used in the absence of any explicit access timeout value for the invoked method)
-        AccessTimeoutDetails defaultAccessTimeout = lockableComponent.getDefaultAccessTimeout();
-        // set to the default values
-        long time = defaultAccessTimeout.getValue();
-        TimeUnit unit = defaultAccessTimeout.getTimeUnit();
-
-        AccessTimeoutDetails accessTimeoutOnMethod = lockableComponent.getAccessTimeout(invokedMethod);
+        final Lock lock = details.lock;
+        long time;
+        TimeUnit unit;
+        final AccessTimeoutDetails accessTimeoutOnMethod = details.accessTimeout;
         if (accessTimeoutOnMethod != null) {
-            if (accessTimeoutOnMethod.getValue() < 0) {
-                // for any negative value of timeout, we just default to max timeout val and max timeout unit.
-                // violation of spec! But we don't want to wait indefinitely.
-
-                ROOT_LOGGER.debug("Ignoring a negative @AccessTimeout value: " + accessTimeoutOnMethod.getValue() + " and timeout unit: "
-                        + accessTimeoutOnMethod.getTimeUnit().name() + ". Will default to timeout value: " + defaultAccessTimeout.getValue()
-                        + " and timeout unit: " + defaultAccessTimeout.getTimeUnit().name());
-            } else {
-                // use the explicit access timeout values specified on the method
-                time = accessTimeoutOnMethod.getValue();
-                unit = accessTimeoutOnMethod.getTimeUnit();
-            }
+            // use the explicit access timeout values specified on the method
+            time = accessTimeoutOnMethod.getValue();
+            unit = accessTimeoutOnMethod.getTimeUnit();
+        } else {
+            // the default access timeout can be changed at runtime, so it is read on each invocation
+            final AccessTimeoutDetails defaultAccessTimeout = this.getLockableComponent().getDefaultAccessTimeout();
+            time = defaultAccessTimeout.getValue();
+            unit = defaultAccessTimeout.getTimeUnit();
         }
         // try getting the lock
         boolean success = lock.tryLock(time, unit);
@@ -107,6 +106,38 @@ public class ContainerManagedConcurrencyInterceptor implements Interceptor {
         }
     }
 
+    /**
+     * Returns the lock and access timeout applicable to the passed <code>method</code>, resolving and caching them on
+     * the first invocation of the method.
+     */
+    private MethodLockDetails getMethodLockDetails(final Method method) {
+        MethodLockDetails details = methodLockDetails.get(method);
+        if (details == null) {
+            final LockableComponent lockableComponent = this.getLockableComponent();
+            final Lock lock = getLock(lockableComponent, method);
+            // the component falls back to the default access timeout, which we must not cache
+            final AccessTimeoutDetails defaultAccessTimeout = lockableComponent.getDefaultAccessTimeout();
+            AccessTimeoutDetails accessTimeout = lockableComponent.getAccessTimeout(method);
+            if (accessTimeout == defaultAccessTimeout || accessTimeout == lockableComponent.getDefaultAccessTimeout()) {
+                accessTimeout = null;
+            } else if (accessTimeout != null && accessTimeout.getValue() < 0) {
+                // for any negative value of timeout, we just default to max timeout val and max timeout unit.
+                // violation of spec! But we don't want to wait indefinitely.
+
+                ROOT_LOGGER.debug("Ignoring a negative @AccessTimeout value: " + accessTimeout.getValue() + " and timeout unit: "
+                        + accessTimeout.getTimeUnit().name() + ". Will default to timeout value: " + defaultAccessTimeout.getValue()
+                        + " and timeout unit: " + defaultAccessTimeout.getTimeUnit().name());
+                accessTimeout = null;
+            }
+            details = new MethodLockDetails(lock, accessTimeout);
+            final MethodLockDetails existing = methodLockDetails.putIfAbsent(method, details);
+            if (existing != null) {
+                details = existing;
+            }
+        }
+        return details;
+    }
+
     private Lock getLock(LockableComponent lockableComponent, Method method) {
         LockType lockType = lockableComponent.getLockType(method);
         switch (lockType) {
@@ -118,4 +149,17 @@ public class ContainerManagedConcurrencyInterceptor implements Interceptor {
         throw MESSAGES.failToObtainLockIllegalType(lockType,method,lockableComponent);
     }
 
+    /**
+     * The lock and the explicit access timeout, if any, of an invoked method
+     */
+    private static final class MethodLockDetails {
+        final Lock lock;
+        final AccessTimeoutDetails accessTimeout;
+
+        MethodLockDetails(final Lock lock, final AccessTimeoutDetails accessTimeout) {
+            this.lock = lock;
+            this.accessTimeout = accessTimeout;
+        }
+    }
+
 }
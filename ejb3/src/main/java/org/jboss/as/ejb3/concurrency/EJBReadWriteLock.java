@@ -23,14 +23,21 @@ package org.jboss.as.ejb3.concurrency;
 
 import java.io.Serializable;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import static org.jboss.as.ejb3.EjbMessages.MESSAGES;
 /**
  * An implementation of {@link java.util.concurrent.locks.ReadWriteLock} which throws an {@link javax.ejb.IllegalLoopbackException}
  * when a thread holding a read lock tries to obtain a write lock.
+ * <p/>
+ * The lock is biased towards readers. While no writer is pending, a reader only increments a counter in a per-thread
+ * stripe of {@link #readerStripes}, so concurrent readers on different cores never write to the same cache line.
+ * A writer first acquires the write lock of the {@link #delegate}, then raises {@link #writerPending} (which diverts
+ * new readers to the read lock of the {@link #delegate}) and finally waits for the reader stripes to drain.
  *
  * @author <a href="mailto:cdewolf@redhat.com">Carlo de Wolf</a>
  * @version $Revision: $
@@ -39,15 +46,53 @@ public class EJBReadWriteLock implements ReadWriteLock, Serializable {
     private static final long serialVersionUID = 1L;
 
     /**
-     * Keep track of the number of read locks held by this thread
+     * Number of <code>int</code> slots between two reader stripes, so that each stripe sits on its own cache line
      */
-    private final ThreadLocal<Integer> readLockCount = new ThreadLocal<Integer>();
+    private static final int STRIPE_PADDING = 16;
 
     /**
-     * We delegate all locking semantics to this {@link java.util.concurrent.locks.ReentrantReadWriteLock}
+     * Upper bound on the number of reader stripes
+     */
+    private static final int MAX_STRIPES = 64;
+
+    /**
+     * Number of spins a writer performs while waiting for the readers to drain, before it starts parking
+     */
+    private static final int WRITER_SPINS = 64;
+
+    /**
+     * Upper bound, in nanoseconds, on a single park of a writer waiting for the readers to drain
+     */
+    private static final long MAX_WRITER_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final int STRIPE_MASK = stripeCount() - 1;
+
+    /**
+     * Keep track of the read locks held by this thread
+     */
+    private final ThreadLocal<ReaderState> readerState = new ThreadLocal<ReaderState>() {
+        @Override
+        protected ReaderState initialValue() {
+            return new ReaderState();
+        }
+    };
+
+    /**
+     * Writers, and readers arriving while a writer is pending, delegate the locking semantics to this
+     * {@link java.util.concurrent.locks.ReentrantReadWriteLock}
      */
     private final ReentrantReadWriteLock delegate = new ReentrantReadWriteLock();
 
+    /**
+     * Count of read locks taken on the fast path, one padded slot per stripe
+     */
+    private final AtomicIntegerArray readerStripes = new AtomicIntegerArray((STRIPE_MASK + 1) * STRIPE_PADDING);
+
+    /**
+     * Set by the thread holding the write lock of the {@link #delegate} for as long as it holds it
+     */
+    private volatile boolean writerPending;
+
     /**
      * Read lock instance which will be handed out to clients
      * on a call to {@link #readLock()}
@@ -62,8 +107,11 @@ public class EJBReadWriteLock implements ReadWriteLock, Serializable {
 
     /**
      * A read lock which increments/decrements the count of
-     * read locks held by the thread and delegates the locking
-     * calls to the {@link #delegate}
+     * read locks held by the thread. The first read lock of a thread is taken
+     * on the reader stripes unless a writer is pending, in which case the locking
+     * calls are delegated to the {@link #delegate}. Reentrant read locks always
+     * use the reader stripes, since a writer cannot be active while the thread
+     * holds a read lock.
      *
      * @author Jaikiran Pai
      * @version $Revision: $
@@ -72,23 +120,31 @@ public class EJBReadWriteLock implements ReadWriteLock, Serializable {
         private static final long serialVersionUID = 1L;
 
         /**
-         * Delegate the call to the internal {@link java.util.concurrent.locks.ReentrantReadWriteLock} instance
-         * and then increment the read lock count held by the thread
+         * Take the read lock on the fast path if possible, otherwise delegate the call to the internal
+         * {@link java.util.concurrent.locks.ReentrantReadWriteLock} instance, and then increment the read lock count
+         * held by the thread
          */
         @Override
         public void lock() {
-            delegate.readLock().lock();
-            incReadLockCount();
+            final ReaderState state = readerState.get();
+            if (!tryFastReadLock(state)) {
+                delegate.readLock().lock();
+                state.acquiredSlow();
+            }
         }
 
         /**
-         * Delegate the call to the internal {@link java.util.concurrent.locks.ReentrantReadWriteLock} instance
-         * and then increment the read lock count held by the thread
+         * Take the read lock on the fast path if possible, otherwise delegate the call to the internal
+         * {@link java.util.concurrent.locks.ReentrantReadWriteLock} instance, and then increment the read lock count
+         * held by the thread
          */
         @Override
         public void lockInterruptibly() throws InterruptedException {
-            delegate.readLock().lockInterruptibly();
-            incReadLockCount();
+            final ReaderState state = readerState.get();
+            if (!tryFastReadLock(state)) {
+                delegate.readLock().lockInterruptibly();
+                state.acquiredSlow();
+            }
         }
 
         /**
@@ -102,39 +158,56 @@ public class EJBReadWriteLock implements ReadWriteLock, Serializable {
         }
 
         /**
-         * Delegate the call to the internal {@link java.util.concurrent.locks.ReentrantReadWriteLock} instance
-         * and then on successful acquisition of lock, increment the read lock count held by the thread
+         * Take the read lock on the fast path if possible, otherwise delegate the call to the internal
+         * {@link java.util.concurrent.locks.ReentrantReadWriteLock} instance, and then on successful acquisition of
+         * lock, increment the read lock count held by the thread
          */
         @Override
         public boolean tryLock() {
+            final ReaderState state = readerState.get();
+            if (tryFastReadLock(state)) {
+                return true;
+            }
             if (delegate.readLock().tryLock()) {
-                incReadLockCount();
+                state.acquiredSlow();
                 return true;
             }
             return false;
         }
 
         /**
-         * Delegate the call to the internal {@link java.util.concurrent.locks.ReentrantReadWriteLock} instance
-         * and then on successful acquisition of lock, increment the read lock count held by the thread
+         * Take the read lock on the fast path if possible, otherwise delegate the call to the internal
+         * {@link java.util.concurrent.locks.ReentrantReadWriteLock} instance, and then on successful acquisition of
+         * lock, increment the read lock count held by the thread
          */
         @Override
         public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            final ReaderState state = readerState.get();
+            if (tryFastReadLock(state)) {
+                return true;
+            }
             if (delegate.readLock().tryLock(time, unit)) {
-                incReadLockCount();
+                state.acquiredSlow();
                 return true;
             }
             return false;
         }
 
         /**
-         * Delegate the call to the internal {@link java.util.concurrent.locks.ReentrantReadWriteLock} instance
-         * and then decrement the read lock count held by the thread
+         * Release the read lock from wherever it was taken and then decrement the read lock count held by the thread
          */
         @Override
         public void unlock() {
-            delegate.readLock().unlock();
-            decReadLockCount();
+            final ReaderState state = readerState.get();
+            if (state.holds == 0) {
+                throw new IllegalMonitorStateException();
+            }
+            if (state.holds == 1 && state.slow) {
+                delegate.readLock().unlock();
+            } else {
+                readerStripes.decrementAndGet(state.stripe);
+            }
+            state.holds--;
         }
 
     }
@@ -156,11 +229,26 @@ public class EJBReadWriteLock implements ReadWriteLock, Serializable {
          * the thread holds any read locks, this method throws a {@link javax.ejb.IllegalLoopbackException}.
          * If no read locks are held, then this method delegates the call to the
          * internal delegate {@link java.util.concurrent.locks.ReentrantReadWriteLock}
+         * and waits for the readers to drain
          */
         @Override
         public void lock() {
             checkLoopback();
             delegate.writeLock().lock();
+            if (delegate.getWriteHoldCount() == 1) {
+                writerPending = true;
+                boolean interrupted = false;
+                int spins = 0;
+                while (hasReaders()) {
+                    if (++spins > WRITER_SPINS) {
+                        LockSupport.parkNanos(this, MAX_WRITER_PARK_NANOS);
+                        interrupted |= Thread.interrupted();
+                    }
+                }
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
         }
 
         /**
@@ -168,11 +256,13 @@ public class EJBReadWriteLock implements ReadWriteLock, Serializable {
          * the thread holds any read locks, this method throws a {@link javax.ejb.IllegalLoopbackException}.
          * If no read locks are held, then this method delegates the call to the
          * internal delegate {@link java.util.concurrent.locks.ReentrantReadWriteLock}
+         * and waits for the readers to drain
          */
         @Override
         public void lockInterruptibly() throws InterruptedException {
             checkLoopback();
             delegate.writeLock().lockInterruptibly();
+            awaitReaders(Long.MAX_VALUE);
         }
 
         /**
@@ -190,11 +280,22 @@ public class EJBReadWriteLock implements ReadWriteLock, Serializable {
          * the thread holds any read locks, this method throws a {@link javax.ejb.IllegalLoopbackException}.
          * If no read locks are held, then this method delegates the call to the
          * internal delegate {@link java.util.concurrent.locks.ReentrantReadWriteLock}
+         * and fails if readers are still active
          */
         @Override
         public boolean tryLock() {
             checkLoopback();
-            return delegate.writeLock().tryLock();
+            if (!delegate.writeLock().tryLock()) {
+                return false;
+            }
+            if (delegate.getWriteHoldCount() == 1) {
+                writerPending = true;
+                if (hasReaders()) {
+                    unlock();
+                    return false;
+                }
+            }
+            return true;
         }
 
         /**
@@ -202,21 +303,103 @@ public class EJBReadWriteLock implements ReadWriteLock, Serializable {
          * the thread holds any read locks, this method throws a {@link javax.ejb.IllegalLoopbackException}.
          * If no read locks are held, then this method delegates the call to the
          * internal delegate {@link java.util.concurrent.locks.ReentrantReadWriteLock}
+         * and waits for the readers to drain within the remaining time
          */
         @Override
         public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
             checkLoopback();
-            return delegate.writeLock().tryLock(time, unit);
+            final long deadline = System.nanoTime() + unit.toNanos(time);
+            if (!delegate.writeLock().tryLock(time, unit)) {
+                return false;
+            }
+            return awaitReaders(deadline);
         }
 
         /**
-         * This method delegates the call to the
+         * This method lowers the pending writer flag on the last release and delegates the call to the
          * internal delegate {@link java.util.concurrent.locks.ReentrantReadWriteLock}
          */
         @Override
         public void unlock() {
+            if (delegate.getWriteHoldCount() == 1) {
+                writerPending = false;
+            }
             delegate.writeLock().unlock();
         }
+
+        /**
+         * Called with the write lock of the {@link #delegate} held. Raises the pending writer flag and waits for the
+         * fast path readers to drain. If the deadline passes or the thread is interrupted, the write lock is released.
+         *
+         * @param deadline the {@link System#nanoTime()} by which the readers must have drained, or {@link Long#MAX_VALUE}
+         * @return true if the readers drained in time
+         */
+        private boolean awaitReaders(final long deadline) throws InterruptedException {
+            if (delegate.getWriteHoldCount() > 1) {
+                // reentrant acquisition, the readers have already drained
+                return true;
+            }
+            writerPending = true;
+            int spins = 0;
+            while (hasReaders()) {
+                if (Thread.interrupted()) {
+                    unlock();
+                    throw new InterruptedException();
+                }
+                if (++spins > WRITER_SPINS) {
+                    long park = MAX_WRITER_PARK_NANOS;
+                    if (deadline != Long.MAX_VALUE) {
+                        final long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            unlock();
+                            return false;
+                        }
+                        park = Math.min(park, remaining);
+                    }
+                    LockSupport.parkNanos(this, park);
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Takes a read lock on the reader stripes, unless this is the first read lock of the thread and a writer is
+     * pending.
+     *
+     * @return true if the read lock was taken
+     */
+    private boolean tryFastReadLock(final ReaderState state) {
+        if (state.holds > 0) {
+            // a writer cannot become active while we hold a read lock, so this can never deadlock with it
+            readerStripes.incrementAndGet(state.stripe);
+            state.holds++;
+            return true;
+        }
+        if (writerPending) {
+            return false;
+        }
+        readerStripes.incrementAndGet(state.stripe);
+        // re-check after publishing ourselves, a writer raising the flag concurrently will see our count
+        if (writerPending) {
+            readerStripes.decrementAndGet(state.stripe);
+            return false;
+        }
+        state.holds = 1;
+        state.slow = false;
+        return true;
+    }
+
+    /**
+     * @return true if any read lock is currently held on the reader stripes
+     */
+    private boolean hasReaders() {
+        for (int i = 0; i <= STRIPE_MASK; i++) {
+            if (readerStripes.get(i * STRIPE_PADDING) != 0) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -224,38 +407,39 @@ public class EJBReadWriteLock implements ReadWriteLock, Serializable {
      * the thread holds any read locks, this method throws a {@link javax.ejb.IllegalLoopbackException}.
      */
     private void checkLoopback() {
-        Integer current = readLockCount.get();
-        if (current != null) {
-            assert current.intValue() > 0 : "readLockCount is set, but to 0";
+        if (readerState.get().holds > 0) {
             throw MESSAGES.failToUpgradeToWriteLock();
         }
     }
 
-    /**
-     * Decrements the read lock count held by the thread
-     */
-    private void decReadLockCount() {
-        Integer current = readLockCount.get();
-        int next;
-        assert current != null : "can't decrease, readLockCount is not set";
-        next = current.intValue() - 1;
-        if (next == 0)
-            readLockCount.remove();
-        else
-            readLockCount.set(new Integer(next));
+    private static int stripeCount() {
+        final int processors = Math.min(Runtime.getRuntime().availableProcessors(), MAX_STRIPES);
+        int count = 1;
+        while (count < processors) {
+            count <<= 1;
+        }
+        return count;
     }
 
     /**
-     * Increments the read lock count held by the thread
+     * The read locks held by a thread. Only the first read lock of a thread can be taken on the {@link #delegate};
+     * all reentrant read locks are counted on the reader stripe of the thread.
      */
-    private void incReadLockCount() {
-        Integer current = readLockCount.get();
-        int next;
-        if (current == null)
-            next = 1;
-        else
-            next = current.intValue() + 1;
-        readLockCount.set(new Integer(next));
+    private static final class ReaderState {
+        final int stripe = (hash(Thread.currentThread().getId()) & STRIPE_MASK) * STRIPE_PADDING;
+        int holds;
+        boolean slow;
+
+        void acquiredSlow() {
+            holds = 1;
+            slow = true;
+        }
+
+        private static int hash(final long id) {
+            int h = (int) (id ^ (id >>> 32));
+            h ^= (h >>> 20) ^ (h >>> 12);
+            return h ^ (h >>> 7) ^ (h >>> 4);
+        }
     }
 
     /**
@@ -50,31 +50,25 @@ class ClusterTopologyWriter {
     private static final byte HEADER_NODES_REMOVED = 0x18;
 
     /**
-     * Writes out a EJB remoting protocol message containing the cluster topology information for the passed <code>clusters</code>
+     * Writes out a EJB remoting protocol message containing the topology of a single cluster, as captured by a registry snapshot
      *
-     * @param output                   The {@link DataOutput} into which the message will be written
-     * @param clientMappingsRegistries
+     * @param output       The {@link DataOutput} into which the message will be written
+     * @param clusterName  The name of the cluster
+     * @param clusterNodes The client mappings of each node of the cluster
      * @throws IOException
      */
-    void writeCompleteClusterTopology(final DataOutput output, final Collection<Registry<String, List<ClientMapping>>> clientMappingsRegistries) throws IOException {
+    void writeCompleteClusterTopology(final DataOutput output, final String clusterName, final Map<String, List<ClientMapping>> clusterNodes) throws IOException {
         if (output == null) {
             throw EjbMessages.MESSAGES.cannotWriteToNullDataOutput();
         }
-        if (clientMappingsRegistries == null || clientMappingsRegistries.isEmpty()) {
-            return;
-        }
         // write the header
         output.write(HEADER_COMPLETE_CLUSTER_TOPOLOGY);
         // write the cluster count
-        PackedInteger.writePackedInteger(output, clientMappingsRegistries.size());
-        // write out each of the cluster's topology
-        for (final Registry<String, List<ClientMapping>> registry : clientMappingsRegistries) {
-            // write the cluster name
-            output.writeUTF(registry.getName());
-            // write out the information of each cluster node
-            this.writeClusterNodes(output, registry.getName(), registry.getEntries());
-        }
-
+        PackedInteger.writePackedInteger(output, 1);
+        // write the cluster name
+        output.writeUTF(clusterName);
+        // write out the information of each cluster node
+        this.writeClusterNodes(output, clusterName, clusterNodes);
     }
 
     /**
@@ -44,6 +44,7 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -95,16 +96,10 @@ public class VersionOneProtocolChannelReceiver implements Channel.Receiver, Depl
         this.deploymentRepository.addListener(this);
         // listen to new clusters (a.k.a groups) being started/stopped
         this.clientMappingRegistryCollector.addListener(this);
-        // Send the cluster topology for existing clusters in the registry
-        // and for each of these clusters added ourselves as a listener for cluster
-        // topology changes (members added/removed events in the cluster)
+        // For each of the existing clusters in the registry add ourselves as a listener for cluster
+        // topology changes (members added/removed events in the cluster) and send the current cluster topology.
+        // The listener is registered before the topology is sent, so that no change is missed in between
         final Collection<Registry<String, List<ClientMapping>>> clusters = this.clientMappingRegistryCollector.getRegistries();
-        try {
-            this.sendNewClusterFormedMessage(clusters);
-        } catch (IOException ioe) {
-            // just log and don't throw an error
-            EjbLogger.EJB3_LOGGER.failedToSendClusterFormationMessageToClient(ioe, channel);
-        }
         for (final Registry<String, List<ClientMapping>> cluster : clusters) {
             // add the topology update listener
             final ClusterTopologyUpdateListener clusterTopologyUpdateListener = new ClusterTopologyUpdateListener(cluster, this);
@@ -113,6 +108,12 @@ public class VersionOneProtocolChannelReceiver implements Channel.Receiver, Depl
             // keep track of this topology update listener so that we can unregister it when the channel is closed and
             // we no longer are interested in the topology updates
             this.clusterTopologyUpdateListeners.add(clusterTopologyUpdateListener);
+            try {
+                clusterTopologyUpdateListener.sendClusterFormed();
+            } catch (IOException ioe) {
+                // just log and don't throw an error
+                EjbLogger.EJB3_LOGGER.failedToSendClusterFormationMessageToClient(ioe, channel);
+            }
         }
     }
 
@@ -261,17 +262,16 @@ public class VersionOneProtocolChannelReceiver implements Channel.Receiver, Depl
 
     @Override
     public void registryAdded(Registry<String, List<ClientMapping>> cluster) {
+        // add a listener for receiving node(s) addition/removal from the cluster
+        final ClusterTopologyUpdateListener clusterTopologyUpdateListener = new ClusterTopologyUpdateListener(cluster, this);
+        cluster.addListener(clusterTopologyUpdateListener);
+        // keep track of this update listener so that we cleanup properly
+        this.clusterTopologyUpdateListeners.add(clusterTopologyUpdateListener);
         try {
             EjbLogger.ROOT_LOGGER.debug("Received new cluster formation notification for cluster " + cluster.getName());
-            this.sendNewClusterFormedMessage(Collections.singleton(cluster));
+            clusterTopologyUpdateListener.sendClusterFormed();
         } catch (IOException ioe) {
             EjbLogger.EJB3_LOGGER.failedToSendClusterFormationMessageToClient(ioe, cluster.getName(), channelAssociation.getChannel());
-        } finally {
-            // add a listener for receiving node(s) addition/removal from the cluster
-            final ClusterTopologyUpdateListener clusterTopologyUpdateListener = new ClusterTopologyUpdateListener(cluster, this);
-            cluster.addListener(clusterTopologyUpdateListener);
-            // keep track of this update listener so that we cleanup properly
-            this.clusterTopologyUpdateListeners.add(clusterTopologyUpdateListener);
         }
     }
 
@@ -291,12 +291,14 @@ public class VersionOneProtocolChannelReceiver implements Channel.Receiver, Depl
     }
 
     /**
-     * Sends a cluster formation message for the passed clusters, over the remoting channel
+     * Sends a cluster formation message for the passed cluster topology snapshot, over the remoting channel
      *
-     * @param clientMappingRegistries The new clusters
+     * @param clusterName The name of the new cluster
+     * @param clusterNodes The nodes of the new cluster
+     * @param version The version of the cluster topology snapshot
      * @throws IOException If any exception occurs while sending the message over the channel
      */
-    private void sendNewClusterFormedMessage(final Collection<Registry<String, List<ClientMapping>>> clientMappingRegistries) throws IOException {
+    private void sendNewClusterFormedMessage(final String clusterName, final Map<String, List<ClientMapping>> clusterNodes, final long version) throws IOException {
         final DataOutputStream outputStream;
         final MessageOutputStream messageOutputStream;
         try {
@@ -307,8 +309,8 @@ public class VersionOneProtocolChannelReceiver implements Channel.Receiver, Depl
         outputStream = new DataOutputStream(messageOutputStream);
         final ClusterTopologyWriter clusterTopologyWriter = new ClusterTopologyWriter();
         try {
-            EjbLogger.ROOT_LOGGER.debug("Writing out cluster formation message for " + clientMappingRegistries.size() + " clusters, to channel " + this.channelAssociation.getChannel());
-            clusterTopologyWriter.writeCompleteClusterTopology(outputStream, clientMappingRegistries);
+            EjbLogger.ROOT_LOGGER.debug("Writing out cluster formation message for cluster " + clusterName + " (topology version " + version + "), to channel " + this.channelAssociation.getChannel());
+            clusterTopologyWriter.writeCompleteClusterTopology(outputStream, clusterName, clusterNodes);
         } finally {
             channelAssociation.releaseChannelMessageOutputStream(messageOutputStream);
             outputStream.close();
@@ -363,12 +365,15 @@ public class VersionOneProtocolChannelReceiver implements Channel.Receiver, Depl
 
     /**
      * A {@link org.jboss.as.clustering.GroupMembershipListener} which writes out messages to the client, over a {@link Channel remoting channel}
-     * upon cluster topology updates
+     * upon cluster topology updates.  Only the nodes that were added or removed relative to the topology already known to the
+     * client are written out.
      */
     private class ClusterTopologyUpdateListener implements Registry.Listener<String, List<ClientMapping>> {
         private final String clusterName;
         private final VersionOneProtocolChannelReceiver channelReceiver;
         private final Registry<String, List<ClientMapping>> cluster;
+        // the nodes known to the client, guarded by this listener
+        private final Set<String> knownNodes = new HashSet<String>();
 
         ClusterTopologyUpdateListener(Registry<String, List<ClientMapping>> cluster, final VersionOneProtocolChannelReceiver channelReceiver) {
             this.channelReceiver = channelReceiver;
@@ -376,10 +381,32 @@ public class VersionOneProtocolChannelReceiver implements Channel.Receiver, Depl
             this.cluster = cluster;
         }
 
+        /**
+         * Sends the current topology snapshot of the cluster to the client.  Holding the monitor of this listener
+         * guarantees that any concurrent delta is written after, and relative to, this snapshot.
+         */
+        synchronized void sendClusterFormed() throws IOException {
+            final Registry.Snapshot<String, List<ClientMapping>> snapshot = this.cluster.getSnapshot();
+            final Map<String, List<ClientMapping>> nodes = snapshot.getEntries();
+            final long version = snapshot.getVersion();
+            this.knownNodes.clear();
+            this.knownNodes.addAll(nodes.keySet());
+            this.channelReceiver.sendNewClusterFormedMessage(this.clusterName, nodes, version);
+        }
+
         @Override
-        public void addedEntries(Map<String, List<ClientMapping>> added) {
+        public synchronized void addedEntries(Map<String, List<ClientMapping>> added) {
+            final Map<String, List<ClientMapping>> addedNodes = new HashMap<String, List<ClientMapping>>();
+            for (final Map.Entry<String, List<ClientMapping>> entry : added.entrySet()) {
+                if (this.knownNodes.add(entry.getKey())) {
+                    addedNodes.put(entry.getKey(), entry.getValue());
+                }
+            }
+            if (addedNodes.isEmpty()) {
+                return;
+            }
             try {
-                this.sendClusterNodesAdded(added);
+                this.sendClusterNodesAdded(addedNodes);
             } catch (IOException ioe) {
                 EjbLogger.EJB3_LOGGER.failedToSendClusterNodeAdditionMessageToClient(ioe, channelAssociation.getChannel());
             }
@@ -391,9 +418,18 @@ public class VersionOneProtocolChannelReceiver implements Channel.Receiver, Depl
         }
 
         @Override
-        public void removedEntries(Set<String> removed) {
+        public synchronized void removedEntries(Set<String> removed) {
+            final Set<String> removedNodes = new HashSet<String>();
+            for (final String node : removed) {
+                if (this.knownNodes.remove(node)) {
+                    removedNodes.add(node);
+                }
+            }
+            if (removedNodes.isEmpty()) {
+                return;
+            }
             try {
-                this.sendClusterNodesRemoved(removed);
+                this.sendClusterNodesRemoved(removedNodes);
             } catch (IOException ioe) {
                 EjbLogger.EJB3_LOGGER.failedToSendClusterNodeRemovalMessageToClient(ioe, channelAssociation.getChannel());
             }
@@ -414,7 +450,7 @@ public class VersionOneProtocolChannelReceiver implements Channel.Receiver, Depl
             outputStream = new DataOutputStream(messageOutputStream);
             final ClusterTopologyWriter clusterTopologyWriter = new ClusterTopologyWriter();
             try {
-                EjbLogger.ROOT_LOGGER.debug(removedNodes.size() + " nodes removed from cluster " + clusterName + ", writing a protocol message to channel " + this.channelReceiver.channelAssociation.getChannel());
+                EjbLogger.ROOT_LOGGER.debug(removedNodes.size() + " nodes removed from cluster " + clusterName + " (topology version " + this.cluster.getSnapshot().getVersion() + "), writing a protocol message to channel " + this.channelReceiver.channelAssociation.getChannel());
                 clusterTopologyWriter.writeNodesRemoved(outputStream, clusterName, removedNodes);
             } finally {
                 channelAssociation.releaseChannelMessageOutputStream(messageOutputStream);
@@ -433,7 +469,7 @@ public class VersionOneProtocolChannelReceiver implements Channel.Receiver, Depl
             outputStream = new DataOutputStream(messageOutputStream);
             final ClusterTopologyWriter clusterTopologyWriter = new ClusterTopologyWriter();
             try {
-                EjbLogger.ROOT_LOGGER.debug(addedNodes.size() + " nodes added to cluster " + clusterName + ", writing a protocol message to channel " + this.channelReceiver.channelAssociation.getChannel());
+                EjbLogger.ROOT_LOGGER.debug(addedNodes.size() + " nodes added to cluster " + clusterName + " (topology version " + this.cluster.getSnapshot().getVersion() + "), writing a protocol message to channel " + this.channelReceiver.channelAssociation.getChannel());
                 clusterTopologyWriter.writeNewNodesAdded(outputStream, clusterName, addedNodes);
             } finally {
                 channelAssociation.releaseChannelMessageOutputStream(messageOutputStream);
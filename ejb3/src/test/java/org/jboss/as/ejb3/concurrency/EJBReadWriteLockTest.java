@@ -28,8 +28,16 @@ import org.junit.Test;
 
 import javax.ejb.ConcurrentAccessTimeoutException;
 import javax.ejb.IllegalLoopbackException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 
 /**
@@ -45,15 +53,21 @@ public class EJBReadWriteLockTest {
      */
     private EJBReadWriteLock ejbReadWriteLock;
 
+    /**
+     * Runs the lock operations which have to happen on other threads
+     */
+    private ExecutorService executor;
+
     @Before
     public void beforeTest() {
         this.ejbReadWriteLock = new EJBReadWriteLock();
-
+        this.executor = Executors.newCachedThreadPool();
     }
 
     @After
     public void afterTest() {
         this.ejbReadWriteLock = null;
+        this.executor.shutdownNow();
     }
 
     /**
@@ -162,6 +176,237 @@ public class EJBReadWriteLockTest {
 
     }
 
+    /**
+     * Tests that read locks held by different threads do not exclude each other
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testReadersShareLock() throws Exception {
+        final Lock readLock = this.ejbReadWriteLock.readLock();
+        readLock.lock();
+        try {
+            Assert.assertTrue("Could not obtain a read lock while another thread held one", tryLockAndUnlock(readLock, 2000));
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Tests that a write lock excludes readers of other threads until it is released
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testWriterExcludesReaders() throws Exception {
+        final Lock writeLock = this.ejbReadWriteLock.writeLock();
+        final Lock readLock = this.ejbReadWriteLock.readLock();
+        writeLock.lock();
+        try {
+            Assert.assertFalse("Unexpected obtained a read lock while a write lock was held", tryLockAndUnlock(readLock, 100));
+        } finally {
+            writeLock.unlock();
+        }
+        Assert.assertTrue("Could not obtain a read lock after the write lock was released", tryLockAndUnlock(readLock, 2000));
+    }
+
+    /**
+     * Tests that a read lock excludes writers of other threads until it is released, and that a writer which
+     * timed out does not keep later readers off the fast path
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testReaderExcludesWriter() throws Exception {
+        final Lock writeLock = this.ejbReadWriteLock.writeLock();
+        final Lock readLock = this.ejbReadWriteLock.readLock();
+        readLock.lock();
+        try {
+            Assert.assertFalse("Unexpected obtained a write lock while a read lock was held", tryLockAndUnlock(writeLock, 100));
+            Assert.assertFalse("Unexpected obtained a write lock while a read lock was held", executor.submit(new Callable<Boolean>() {
+                @Override
+                public Boolean call() {
+                    final boolean locked = writeLock.tryLock();
+                    if (locked) {
+                        writeLock.unlock();
+                    }
+                    return locked;
+                }
+            }).get());
+            Assert.assertTrue("Could not obtain a read lock after a writer timed out", tryLockAndUnlock(readLock, 100));
+        } finally {
+            readLock.unlock();
+        }
+        Assert.assertTrue("Could not obtain a write lock after the read lock was released", tryLockAndUnlock(writeLock, 2000));
+    }
+
+    /**
+     * Tests that the read lock is reentrant, that it is only released by the last unlock and that unlocking a read
+     * lock which is not held fails
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testReentrantReadLock() throws Exception {
+        final Lock writeLock = this.ejbReadWriteLock.writeLock();
+        final Lock readLock = this.ejbReadWriteLock.readLock();
+        readLock.lock();
+        readLock.lock();
+        Assert.assertTrue(readLock.tryLock());
+        readLock.unlock();
+        readLock.unlock();
+        Assert.assertFalse("Unexpected obtained a write lock while a read lock was held", tryLockAndUnlock(writeLock, 100));
+        readLock.unlock();
+        Assert.assertTrue("Could not obtain a write lock after the read locks were released", tryLockAndUnlock(writeLock, 2000));
+        try {
+            readLock.unlock();
+            Assert.fail("Unexpected released a read lock which was not held");
+        } catch (IllegalMonitorStateException expected) {
+            // expected
+        }
+    }
+
+    /**
+     * Tests that the write lock is reentrant and that it is only released by the last unlock
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testReentrantWriteLock() throws Exception {
+        final Lock writeLock = this.ejbReadWriteLock.writeLock();
+        final Lock readLock = this.ejbReadWriteLock.readLock();
+        writeLock.lock();
+        try {
+            Assert.assertTrue(writeLock.tryLock(1, TimeUnit.SECONDS));
+            writeLock.unlock();
+            Assert.assertFalse("Unexpected obtained a read lock while a write lock was held", tryLockAndUnlock(readLock, 100));
+        } finally {
+            writeLock.unlock();
+        }
+        Assert.assertTrue("Could not obtain a read lock after the write lock was released", tryLockAndUnlock(readLock, 2000));
+    }
+
+    /**
+     * Tests that a thread which holds a read lock can take it again while a writer is waiting, and that new readers
+     * queue behind the waiting writer instead of starving it
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testReentrantReadLockWhileWriterWaits() throws Exception {
+        final Lock writeLock = this.ejbReadWriteLock.writeLock();
+        final Lock readLock = this.ejbReadWriteLock.readLock();
+        readLock.lock();
+        final CountDownLatch writerLocked = new CountDownLatch(1);
+        final CountDownLatch releaseWriter = new CountDownLatch(1);
+        final Future<?> writer = executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                writeLock.lock();
+                try {
+                    writerLocked.countDown();
+                    releaseWriter.await();
+                } finally {
+                    writeLock.unlock();
+                }
+                return null;
+            }
+        });
+        try {
+            awaitQueuedWriter();
+            // must not deadlock with the waiting writer
+            Assert.assertTrue("Could not take a reentrant read lock while a writer was waiting", readLock.tryLock(2, TimeUnit.SECONDS));
+            readLock.unlock();
+            Assert.assertFalse("A new reader overtook the waiting writer", tryLockAndUnlock(readLock, 100));
+        } finally {
+            readLock.unlock();
+        }
+        Assert.assertTrue("The writer did not obtain the lock after the readers drained", writerLocked.await(2, TimeUnit.SECONDS));
+        final Future<Boolean> reader = tryLockAndUnlockAsync(readLock, 5000);
+        Assert.assertFalse(reader.isDone());
+        releaseWriter.countDown();
+        writer.get(2, TimeUnit.SECONDS);
+        Assert.assertTrue("Could not obtain a read lock after the writer released the lock", reader.get(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Tests that a writer obtains the lock while other threads keep taking and releasing read locks
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testWriterNotStarvedByReaders() throws Exception {
+        final Lock writeLock = this.ejbReadWriteLock.writeLock();
+        final Lock readLock = this.ejbReadWriteLock.readLock();
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final AtomicInteger activeReaders = new AtomicInteger();
+        final AtomicBoolean overlapped = new AtomicBoolean();
+        final List<Future<?>> readers = new ArrayList<Future<?>>();
+        for (int i = 0; i < 4; i++) {
+            readers.add(executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    while (running.get()) {
+                        readLock.lock();
+                        try {
+                            activeReaders.incrementAndGet();
+                            Thread.yield();
+                            activeReaders.decrementAndGet();
+                        } finally {
+                            readLock.unlock();
+                        }
+                    }
+                }
+            }));
+        }
+        try {
+            for (int i = 0; i < 20; i++) {
+                Assert.assertTrue("The writer was starved by the readers", writeLock.tryLock(5, TimeUnit.SECONDS));
+                try {
+                    overlapped.compareAndSet(false, activeReaders.get() != 0);
+                } finally {
+                    writeLock.unlock();
+                }
+            }
+        } finally {
+            running.set(false);
+        }
+        for (Future<?> reader : readers) {
+            reader.get(5, TimeUnit.SECONDS);
+        }
+        Assert.assertFalse("A reader held the lock together with the writer", overlapped.get());
+    }
+
+    /**
+     * Waits until another thread has queued for the write lock
+     */
+    private void awaitQueuedWriter() throws InterruptedException {
+        // the lock does not expose its waiters, so give the writer time to raise its pending flag
+        Thread.sleep(200);
+    }
+
+    /**
+     * Tries to take the lock on another thread, and releases it again if it was taken
+     *
+     * @return true if the lock could be taken within the timeout
+     */
+    private boolean tryLockAndUnlock(final Lock lock, final long timeoutMillis) throws Exception {
+        return tryLockAndUnlockAsync(lock, timeoutMillis).get();
+    }
+
+    private Future<Boolean> tryLockAndUnlockAsync(final Lock lock, final long timeoutMillis) {
+        return executor.submit(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                final boolean locked = lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS);
+                if (locked) {
+                    lock.unlock();
+                }
+                return locked;
+            }
+        });
+    }
+
     /**
      * An implementation of {@link Runnable} which in its {@link #run()} method
      * will first obtain a lock and then will go to sleep for the specified amount
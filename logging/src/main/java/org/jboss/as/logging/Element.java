@@ -70,6 +70,8 @@ enum Element {
     PROPERTY("property"),
     QUEUE_LENGTH(AsyncHandlerResourceDefinition.QUEUE_LENGTH),
     REPLACE(CommonAttributes.REPLACE),
+    RING_BUFFER_ASYNC_HANDLER(RingBufferAsyncHandlerResourceDefinition.RING_BUFFER_ASYNC_HANDLER),
+    RING_SIZE(RingBufferAsyncHandlerResourceDefinition.RING_SIZE),
     ROOT_LOGGER(RootLoggerResourceDefinition.ROOT_LOGGER_PATH_NAME),
     ROTATE_SIZE(SizeRotatingHandlerResourceDefinition.ROTATE_SIZE),
     SERVER_ADDRESS(SyslogHandlerResourceDefinition.SERVER_ADDRESS),
@@ -78,7 +80,8 @@ enum Element {
     SUFFIX(PeriodicHandlerResourceDefinition.SUFFIX),
     SYSLOG_FORMATTER(SyslogHandlerResourceDefinition.SYSLOG_FORMATTER),
     SYSLOG_HANDLER(SyslogHandlerResourceDefinition.SYSLOG_HANDLER),
-    TARGET(ConsoleHandlerResourceDefinition.TARGET),;
+    TARGET(ConsoleHandlerResourceDefinition.TARGET),
+    WAIT_STRATEGY(RingBufferAsyncHandlerResourceDefinition.WAIT_STRATEGY),;
 
     private final String name;
     private final AttributeDefinition definition;
@@ -134,13 +134,14 @@ public class LoggingExtension implements Extension {
         } else {
             resolvePathHandler = null;
         }
+        final boolean registerRuntimeOnly = context.isRuntimeOnlyRegistrationValid();
         // Register root sub-models
-        registerSubModels(registration, resolvePathHandler, true);
+        registerSubModels(registration, resolvePathHandler, true, registerRuntimeOnly);
         // Register logging profile sub-models
         registerSubModels(registration.registerSubModel(new SimpleResourceDefinition(LOGGING_PROFILE_PATH,
                 getResourceDescriptionResolver(),
                 LoggingProfileOperations.ADD_PROFILE,
-                LoggingProfileOperations.REMOVE_PROFILE)), resolvePathHandler, false);
+                LoggingProfileOperations.REMOVE_PROFILE)), resolvePathHandler, false, registerRuntimeOnly);
 
         if (context.isRegisterTransformers()) {
             registerTransformers(subsystem);
@@ -167,6 +168,7 @@ public class LoggingExtension implements Extension {
         SizeRotatingHandlerResourceDefinition.addTransformers(subsystemBuilder, loggingProfileBuilder);
         CustomHandlerResourceDefinition.addTransformers(subsystemBuilder, loggingProfileBuilder);
         SyslogHandlerResourceDefinition.addTransformers(subsystemBuilder, loggingProfileBuilder);
+        RingBufferAsyncHandlerResourceDefinition.addTransformers(subsystemBuilder, loggingProfileBuilder);
 
         // Register the transformers
         TransformationDescription.Tools.register(subsystemBuilder.build(), subsystem, ModelVersion.create(1, 1, 0));
@@ -180,7 +182,8 @@ public class LoggingExtension implements Extension {
         }
     }
 
-    private void registerSubModels(final ManagementResourceRegistration registration, final ResolvePathHandler resolvePathHandler, final boolean includeLegacyAttributes) {
+    private void registerSubModels(final ManagementResourceRegistration registration, final ResolvePathHandler resolvePathHandler,
+                                   final boolean includeLegacyAttributes, final boolean registerRuntimeOnly) {
         registration.registerSubModel(new RootLoggerResourceDefinition(includeLegacyAttributes));
         registration.registerSubModel(new LoggerResourceDefinition(includeLegacyAttributes));
         registration.registerSubModel(new AsyncHandlerResourceDefinition(includeLegacyAttributes));
@@ -190,6 +193,7 @@ public class LoggingExtension implements Extension {
         registration.registerSubModel(new SizeRotatingHandlerResourceDefinition(resolvePathHandler, includeLegacyAttributes));
         registration.registerSubModel(new CustomHandlerResourceDefinition(includeLegacyAttributes));
         registration.registerSubModel(SyslogHandlerResourceDefinition.INSTANCE);
+        registration.registerSubModel(new RingBufferAsyncHandlerResourceDefinition(resolvePathHandler, registerRuntimeOnly));
     }
 
     private static class LoggingResourceDescriptionResolver extends StandardResourceDescriptionResolver {
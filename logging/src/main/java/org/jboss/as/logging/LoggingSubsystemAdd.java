@@ -96,6 +96,7 @@ class LoggingSubsystemAdd extends AbstractAddStepHandler {
         configuredHandlerNames.removeAll(resource.getChildrenNames(FileHandlerResourceDefinition.FILE_HANDLER));
         configuredHandlerNames.removeAll(resource.getChildrenNames(PeriodicHandlerResourceDefinition.PERIODIC_ROTATING_FILE_HANDLER));
         configuredHandlerNames.removeAll(resource.getChildrenNames(SizeRotatingHandlerResourceDefinition.SIZE_ROTATING_FILE_HANDLER));
+        configuredHandlerNames.removeAll(resource.getChildrenNames(RingBufferAsyncHandlerResourceDefinition.RING_BUFFER_ASYNC_HANDLER));
         for (String name : configuredHandlerNames) {
             LoggingLogger.ROOT_LOGGER.tracef("Removing handler configuration for '%s'", name);
             logContextConfiguration.removeHandlerConfiguration(name);
@@ -69,6 +69,8 @@ import static org.jboss.as.logging.CustomHandlerResourceDefinition.PROPERTIES;
 import static org.jboss.as.logging.AsyncHandlerResourceDefinition.QUEUE_LENGTH;
 import static org.jboss.as.logging.CommonAttributes.REPLACEMENT;
 import static org.jboss.as.logging.CommonAttributes.REPLACE_ALL;
+import static org.jboss.as.logging.RingBufferAsyncHandlerResourceDefinition.RING_BUFFER_ASYNC_HANDLER;
+import static org.jboss.as.logging.RingBufferAsyncHandlerResourceDefinition.RING_SIZE;
 import static org.jboss.as.logging.RootLoggerResourceDefinition.ROOT_LOGGER_PATH_NAME;
 import static org.jboss.as.logging.RootLoggerResourceDefinition.ROOT_LOGGER_ATTRIBUTE_NAME;
 import static org.jboss.as.logging.SizeRotatingHandlerResourceDefinition.ROTATE_SIZE;
@@ -77,6 +79,7 @@ import static org.jboss.as.logging.AsyncHandlerResourceDefinition.SUBHANDLERS;
 import static org.jboss.as.logging.PeriodicHandlerResourceDefinition.SUFFIX;
 import static org.jboss.as.logging.ConsoleHandlerResourceDefinition.TARGET;
 import static org.jboss.as.logging.LoggerResourceDefinition.USE_PARENT_HANDLERS;
+import static org.jboss.as.logging.RingBufferAsyncHandlerResourceDefinition.WAIT_STRATEGY;
 import static org.jboss.as.logging.LoggingMessages.MESSAGES;
 import static org.jboss.as.logging.SyslogHandlerResourceDefinition.APP_NAME;
 import static org.jboss.as.logging.SyslogHandlerResourceDefinition.FACILITY;
@@ -191,6 +194,12 @@ public class LoggingSubsystemParser implements XMLStreamConstants, XMLElementRea
                             parseSyslogHandler(reader, address, otherOperations, handlerNames);
                             break;
                         }
+                        case RING_BUFFER_ASYNC_HANDLER: {
+                            if (namespace == Namespace.LOGGING_1_0 || namespace == Namespace.LOGGING_1_1)
+                                throw unexpectedElement(reader);
+                            parseRingBufferAsyncHandlerElement(reader, address, otherOperations, handlerNames);
+                            break;
+                        }
                         case LOGGING_PROFILES:
                             if (namespace == Namespace.LOGGING_1_0 || namespace == Namespace.LOGGING_1_1)
                                 throw unexpectedElement(reader);
@@ -584,6 +593,98 @@ public class LoggingSubsystemParser implements XMLStreamConstants, XMLElementRea
         list.add(node);
     }
 
+    static void parseRingBufferAsyncHandlerElement(final XMLExtendedStreamReader reader, final PathAddress address, final List<ModelNode> list, final Set<String> names) throws XMLStreamException {
+        final ModelNode node = new ModelNode();
+        // Attributes
+        String name = null;
+        final EnumSet<Attribute> required = EnumSet.of(Attribute.NAME);
+        final int count = reader.getAttributeCount();
+        for (int i = 0; i < count; i++) {
+            requireNoNamespaceAttribute(reader, i);
+            final String value = reader.getAttributeValue(i);
+            final Attribute attribute = Attribute.forName(reader.getAttributeLocalName(i));
+            required.remove(attribute);
+            switch (attribute) {
+                case NAME: {
+                    name = value;
+                    break;
+                }
+                case ENABLED:
+                    ENABLED.parseAndSetParameter(value, node, reader);
+                    break;
+                default:
+                    throw unexpectedAttribute(reader, i);
+            }
+        }
+        if (!required.isEmpty()) {
+            throw missingRequired(reader, required);
+        }
+        if (!names.add(name)) {
+            throw duplicateNamedElement(reader, name);
+        }
+
+        // Setup the operation
+        node.get(OP).set(ADD);
+        node.get(OP_ADDR).set(address.toModelNode()).add(RING_BUFFER_ASYNC_HANDLER, name);
+
+        // Elements
+        final Namespace namespace = Namespace.forUri(reader.getNamespaceURI());
+        final EnumSet<Element> requiredElem = EnumSet.of(Element.FILE);
+        final EnumSet<Element> encountered = EnumSet.noneOf(Element.class);
+        while (reader.nextTag() != END_ELEMENT) {
+            final Element element = Element.forName(reader.getLocalName());
+            if (!encountered.add(element)) {
+                throw unexpectedElement(reader);
+            }
+            requiredElem.remove(element);
+            switch (element) {
+                case LEVEL: {
+                    LEVEL.parseAndSetParameter(readStringAttributeElement(reader, "name"), node, reader);
+                    break;
+                }
+                case ENCODING: {
+                    ENCODING.parseAndSetParameter(readStringAttributeElement(reader, "value"), node, reader);
+                    break;
+                }
+                case FILTER_SPEC: {
+                    parseFilter(namespace, node, reader);
+                    break;
+                }
+                case FORMATTER: {
+                    FORMATTER.parseAndSetParameter(parseFormatterElement(reader), node, reader);
+                    break;
+                }
+                case FILE: {
+                    parseFileElement(node.get(FILE.getName()), reader);
+                    break;
+                }
+                case APPEND: {
+                    APPEND.parseAndSetParameter(readStringAttributeElement(reader, "value"), node, reader);
+                    break;
+                }
+                case RING_SIZE: {
+                    RING_SIZE.parseAndSetParameter(readStringAttributeElement(reader, "value"), node, reader);
+                    break;
+                }
+                case WAIT_STRATEGY: {
+                    WAIT_STRATEGY.parseAndSetParameter(readStringAttributeElement(reader, "value").toUpperCase(Locale.US), node, reader);
+                    break;
+                }
+                case OVERFLOW_ACTION: {
+                    OVERFLOW_ACTION.parseAndSetParameter(readStringAttributeElement(reader, "value").toUpperCase(Locale.US), node, reader);
+                    break;
+                }
+                default: {
+                    throw unexpectedElement(reader);
+                }
+            }
+        }
+        if (!requiredElem.isEmpty()) {
+            throw missingRequired(reader, requiredElem);
+        }
+        list.add(node);
+    }
+
     static void parseCustomHandlerElement(final XMLExtendedStreamReader reader, final PathAddress address, final List<ModelNode> list, final Set<String> names) throws XMLStreamException {
         final ModelNode node = new ModelNode();
         final Namespace namespace = Namespace.forUri(reader.getNamespaceURI());
@@ -1184,6 +1285,10 @@ public class LoggingSubsystemParser implements XMLStreamConstants, XMLElementRea
                     parseSyslogHandler(reader, profileAddress, otherOperations, handlerNames);
                     break;
                 }
+                case RING_BUFFER_ASYNC_HANDLER: {
+                    parseRingBufferAsyncHandlerElement(reader, profileAddress, otherOperations, handlerNames);
+                    break;
+                }
                 default: {
                     reader.handleAny(list);
                     break;
@@ -1433,6 +1538,17 @@ public class LoggingSubsystemParser implements XMLStreamConstants, XMLElementRea
                 }
             }
         }
+        if (node.hasDefined(RING_BUFFER_ASYNC_HANDLER)) {
+            final ModelNode handlers = node.get(RING_BUFFER_ASYNC_HANDLER);
+
+            for (Property handlerProp : handlers.asPropertyList()) {
+                final String name = handlerProp.getName();
+                final ModelNode handler = handlerProp.getValue();
+                if (handler.isDefined()) {
+                    writeRingBufferAsyncHandler(writer, handler, name);
+                }
+            }
+        }
         if (node.hasDefined(LOGGER)) {
             for (String name : node.get(LOGGER).keys()) {
                 writeLogger(writer, name, node.get(LOGGER, name));
@@ -1548,6 +1664,20 @@ public class LoggingSubsystemParser implements XMLStreamConstants, XMLElementRea
         writer.writeEndElement();
     }
 
+    private void writeRingBufferAsyncHandler(final XMLExtendedStreamWriter writer, final ModelNode node, final String name) throws XMLStreamException {
+        writer.writeStartElement(Element.RING_BUFFER_ASYNC_HANDLER.getLocalName());
+        writer.writeAttribute(HANDLER_NAME.getXmlName(), name);
+        ENABLED.marshallAsAttribute(node, false, writer);
+        writeCommonHandler(writer, node);
+        FILE.marshallAsElement(node, writer);
+        APPEND.marshallAsElement(node, writer);
+        RING_SIZE.marshallAsElement(node, writer);
+        WAIT_STRATEGY.marshallAsElement(node, writer);
+        OVERFLOW_ACTION.marshallAsElement(node, writer);
+
+        writer.writeEndElement();
+    }
+
     private void writeLogger(final XMLExtendedStreamWriter writer, String name, final ModelNode node) throws XMLStreamException {
         writer.writeStartElement(Element.LOGGER.getLocalName());
         writer.writeAttribute(CATEGORY.getXmlName(), name);
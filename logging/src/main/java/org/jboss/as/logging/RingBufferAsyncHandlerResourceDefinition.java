@@ -0,0 +1,254 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging;
+
+import static org.jboss.as.logging.CommonAttributes.APPEND;
+import static org.jboss.as.logging.CommonAttributes.ENABLED;
+import static org.jboss.as.logging.CommonAttributes.ENCODING;
+import static org.jboss.as.logging.CommonAttributes.FILE;
+import static org.jboss.as.logging.CommonAttributes.FILTER_SPEC;
+import static org.jboss.as.logging.CommonAttributes.FORMATTER;
+import static org.jboss.as.logging.CommonAttributes.LEVEL;
+
+import java.util.Locale;
+import java.util.logging.Handler;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.DefaultAttributeMarshaller;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.operations.validation.EnumValidator;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.services.path.ResolvePathHandler;
+import org.jboss.as.controller.transform.description.RejectTransformationDescriptionBuilder;
+import org.jboss.as.controller.transform.description.ResourceTransformationDescriptionBuilder;
+import org.jboss.as.logging.HandlerOperations.HandlerAddOperationStepHandler;
+import org.jboss.as.logging.HandlerOperations.LogHandlerWriteAttributeHandler;
+import org.jboss.as.logging.logmanager.ConfigurationPersistence;
+import org.jboss.as.logging.logmanager.RingBufferAsyncHandler;
+import org.jboss.as.logging.logmanager.RingBufferAsyncHandler.WaitStrategy;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.logmanager.ExtHandler;
+import org.jboss.logmanager.LogContext;
+import org.jboss.logmanager.config.HandlerConfiguration;
+import org.jboss.logmanager.config.LogContextConfiguration;
+
+/**
+ * An asynchronous handler which writes to a file. Unlike the {@link AsyncHandlerResourceDefinition async handler} the
+ * records are handed off through a pre-allocated ring buffer and formatted and written in batches on the writer thread.
+ */
+class RingBufferAsyncHandlerResourceDefinition extends SimpleResourceDefinition {
+
+    static final String RING_BUFFER_ASYNC_HANDLER = "ring-buffer-async-handler";
+    static final PathElement RING_BUFFER_ASYNC_HANDLER_PATH = PathElement.pathElement(RING_BUFFER_ASYNC_HANDLER);
+
+    /**
+     * The handler is part of this subsystem rather than the log manager so it must be loaded from this module.
+     */
+    private static final String HANDLER_MODULE = "org.jboss.as.logging";
+
+    static final PropertyAttributeDefinition RING_SIZE = PropertyAttributeDefinition.Builder.of("ring-size", ModelType.INT, true)
+            .setAllowExpression(true)
+            .setAttributeMarshaller(ElementAttributeMarshaller.VALUE_ATTRIBUTE_MARSHALLER)
+            .setDefaultValue(new ModelNode(RingBufferAsyncHandler.DEFAULT_RING_SIZE))
+            .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+            .setPropertyName("ringSize")
+            .setValidator(new IntRangeValidator(1, true, true))
+            .build();
+
+    static final PropertyAttributeDefinition WAIT_STRATEGY = PropertyAttributeDefinition.Builder.of("wait-strategy", ModelType.STRING, true)
+            .setAllowExpression(true)
+            .setAttributeMarshaller(new DefaultAttributeMarshaller() {
+                @Override
+                public void marshallAsElement(final AttributeDefinition attribute, final ModelNode resourceModel, final boolean marshallDefault, final XMLStreamWriter writer) throws XMLStreamException {
+                    if (isMarshallable(attribute, resourceModel, marshallDefault)) {
+                        writer.writeStartElement(attribute.getXmlName());
+                        String content = resourceModel.get(attribute.getName()).asString().toLowerCase(Locale.ENGLISH);
+                        writer.writeAttribute("value", content);
+                        writer.writeEndElement();
+                    }
+                }
+            })
+            .setDefaultValue(new ModelNode(WaitStrategy.BLOCKING.name()))
+            .setPropertyName("waitStrategy")
+            .setValidator(EnumValidator.create(WaitStrategy.class, true, true))
+            .build();
+
+    static final SimpleAttributeDefinition RING_OCCUPANCY = SimpleAttributeDefinitionBuilder.create("ring-occupancy", ModelType.INT)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition DROPPED_COUNT = SimpleAttributeDefinitionBuilder.create("dropped-count", ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    // APPEND must be set before FILE as it only applies when the file is opened
+    static final AttributeDefinition[] ATTRIBUTES = {
+            LEVEL,
+            ENABLED,
+            ENCODING,
+            FORMATTER,
+            FILTER_SPEC,
+            APPEND,
+            FILE,
+            RING_SIZE,
+            WAIT_STRATEGY,
+            AsyncHandlerResourceDefinition.OVERFLOW_ACTION,
+    };
+
+    static final HandlerAddOperationStepHandler ADD_HANDLER = new RingBufferAsyncHandlerAddOperationStepHandler();
+    static final LogHandlerWriteAttributeHandler WRITE_HANDLER = new LogHandlerWriteAttributeHandler(ATTRIBUTES);
+
+    private final ResolvePathHandler resolvePathHandler;
+    private final boolean registerRuntimeOnly;
+
+    public RingBufferAsyncHandlerResourceDefinition(final ResolvePathHandler resolvePathHandler, final boolean registerRuntimeOnly) {
+        super(RING_BUFFER_ASYNC_HANDLER_PATH,
+                LoggingExtension.getResourceDescriptionResolver(RING_BUFFER_ASYNC_HANDLER),
+                ADD_HANDLER,
+                HandlerOperations.REMOVE_HANDLER);
+        this.resolvePathHandler = resolvePathHandler;
+        this.registerRuntimeOnly = registerRuntimeOnly;
+    }
+
+    @Override
+    public void registerAttributes(final ManagementResourceRegistration resourceRegistration) {
+        for (AttributeDefinition def : ATTRIBUTES) {
+            resourceRegistration.registerReadWriteAttribute(def, null, WRITE_HANDLER);
+        }
+        if (registerRuntimeOnly) {
+            resourceRegistration.registerMetric(RING_OCCUPANCY, MetricsHandler.INSTANCE);
+            resourceRegistration.registerMetric(DROPPED_COUNT, MetricsHandler.INSTANCE);
+        }
+    }
+
+    @Override
+    public void registerOperations(final ManagementResourceRegistration registration) {
+        super.registerOperations(registration);
+        if (resolvePathHandler != null)
+            registration.registerOperationHandler(resolvePathHandler.getOperationDefinition(), resolvePathHandler);
+    }
+
+    /**
+     * Add the transformers for the ring buffer async handler.
+     *
+     * @param subsystemBuilder      the default subsystem builder
+     * @param loggingProfileBuilder the logging profile builder
+     *
+     * @return the builder created for the resource
+     */
+    static RejectTransformationDescriptionBuilder addTransformers(final ResourceTransformationDescriptionBuilder subsystemBuilder,
+                                                                  final ResourceTransformationDescriptionBuilder loggingProfileBuilder) {
+        loggingProfileBuilder.rejectChildResource(RING_BUFFER_ASYNC_HANDLER_PATH);
+        return subsystemBuilder.rejectChildResource(RING_BUFFER_ASYNC_HANDLER_PATH);
+    }
+
+    /**
+     * Finds the handler instance for the name by walking the handlers of the configured loggers.
+     *
+     * @param logContext the log context the handler was configured on
+     * @param name       the name of the handler
+     *
+     * @return the handler or {@code null} if it is not attached to any logger
+     */
+    static RingBufferAsyncHandler findHandler(final LogContext logContext, final String name) {
+        final ConfigurationPersistence configuration = ConfigurationPersistence.getConfigurationPersistence(logContext);
+        if (configuration == null) {
+            return null;
+        }
+        for (String loggerName : configuration.getLoggerNames()) {
+            final RingBufferAsyncHandler result = findHandler(logContext.getLogger(loggerName).getHandlers(), name);
+            if (result != null) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    private static RingBufferAsyncHandler findHandler(final Handler[] handlers, final String name) {
+        for (Handler handler : handlers) {
+            if (handler instanceof RingBufferAsyncHandler && name.equals(((RingBufferAsyncHandler) handler).getHandlerName())) {
+                return (RingBufferAsyncHandler) handler;
+            }
+            if (handler instanceof ExtHandler) {
+                final RingBufferAsyncHandler result = findHandler(((ExtHandler) handler).getHandlers(), name);
+                if (result != null) {
+                    return result;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static class RingBufferAsyncHandlerAddOperationStepHandler extends HandlerAddOperationStepHandler {
+
+        RingBufferAsyncHandlerAddOperationStepHandler() {
+            super(RingBufferAsyncHandler.class, ATTRIBUTES, RING_SIZE);
+        }
+
+        @Override
+        protected HandlerConfiguration createHandlerConfiguration(final OperationContext context, final ModelNode model, final String name,
+                                                                  final LogContextConfiguration logContextConfiguration) throws OperationFailedException {
+            final HandlerConfiguration configuration = logContextConfiguration.addHandlerConfiguration(HANDLER_MODULE,
+                    RingBufferAsyncHandler.class.getName(), name, RING_SIZE.getPropertyName());
+            // Lets the metrics find the handler instance
+            configuration.setPropertyValueString("handlerName", name);
+            return configuration;
+        }
+    }
+
+    private static class MetricsHandler extends AbstractRuntimeOnlyHandler {
+        static final MetricsHandler INSTANCE = new MetricsHandler();
+
+        @Override
+        protected void executeRuntimeStep(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+            final PathAddress address = LoggingOperations.getAddress(operation);
+            final String attributeName = operation.require(ModelDescriptionConstants.NAME).asString();
+            final LogContext logContext;
+            if (LoggingProfileOperations.isLoggingProfileAddress(address)) {
+                logContext = LoggingProfileContextSelector.getInstance().getOrCreate(LoggingProfileOperations.getLoggingProfileName(address));
+            } else {
+                logContext = LogContext.getLogContext();
+            }
+            final RingBufferAsyncHandler handler = findHandler(logContext, address.getLastElement().getValue());
+            if (RING_OCCUPANCY.getName().equals(attributeName)) {
+                context.getResult().set(handler == null ? 0 : handler.getRingOccupancy());
+            } else if (DROPPED_COUNT.getName().equals(attributeName)) {
+                context.getResult().set(handler == null ? 0L : handler.getDroppedCount());
+            }
+            context.stepCompleted();
+        }
+    }
+}
@@ -0,0 +1,672 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging.logmanager;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.ErrorManager;
+import java.util.logging.Formatter;
+
+import org.jboss.logmanager.ExtHandler;
+import org.jboss.logmanager.ExtLogRecord;
+import org.jboss.logmanager.handlers.AsyncHandler.OverflowAction;
+
+/**
+ * An asynchronous handler which hands records to a single writer thread through a pre-allocated ring buffer.
+ * <p/>
+ * Any number of threads may publish records. Each publisher claims a slot with a single compare-and-set and publishes
+ * the record by writing the slot's sequence number, so publishing never takes a lock. The writer thread drains every
+ * published record, formats and encodes the batch, and writes it to the file with a single channel write.
+ */
+public class RingBufferAsyncHandler extends ExtHandler {
+
+    /**
+     * The default number of slots in the ring.
+     */
+    public static final int DEFAULT_RING_SIZE = 1024;
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+    private static final long SLEEP_NANOS = TimeUnit.MICROSECONDS.toNanos(100L);
+    private static final long BLOCKING_TIMEOUT_NANOS = TimeUnit.MILLISECONDS.toNanos(100L);
+
+    private static final int STATE_NEW = 0;
+    private static final int STATE_RUNNING = 1;
+    private static final int STATE_CLOSED = 2;
+
+    /**
+     * How the writer thread waits for records and how publishers wait for free slots when the ring is full and the
+     * overflow action is {@link OverflowAction#BLOCK block}.
+     */
+    public enum WaitStrategy {
+        /**
+         * Wait on a condition, costing a lock acquisition on the publishing side only while the other side waits.
+         */
+        BLOCKING,
+        /**
+         * Park for a short period between checks.
+         */
+        SLEEPING,
+        /**
+         * Yield the processor between checks.
+         */
+        YIELDING,
+        /**
+         * Spin without giving up the processor. Only useful when a core can be dedicated to the writer thread.
+         */
+        BUSY_SPIN,
+    }
+
+    private final int ringSize;
+    private final int mask;
+    private final ExtLogRecord[] entries;
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long consumed;
+    private volatile long written;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Condition drained = lock.newCondition();
+    private volatile boolean consumerWaiting;
+    private volatile boolean producerWaiting;
+    private volatile int flushWaiters;
+
+    private final AtomicInteger state = new AtomicInteger(STATE_NEW);
+    private volatile Thread consumer;
+
+    private final Object outputLock = new Object();
+    private volatile WaitStrategy waitStrategy = WaitStrategy.BLOCKING;
+    private volatile OverflowAction overflowAction = OverflowAction.BLOCK;
+    private volatile String handlerName;
+    private volatile boolean append = true;
+    private FileChannel channel;
+
+    /**
+     * Construct a new instance with the {@link #DEFAULT_RING_SIZE default ring size}.
+     */
+    public RingBufferAsyncHandler() {
+        this(DEFAULT_RING_SIZE);
+    }
+
+    /**
+     * Construct a new instance.
+     *
+     * @param ringSize the number of slots in the ring, rounded up to the next power of two
+     */
+    public RingBufferAsyncHandler(final int ringSize) {
+        if (ringSize < 1) {
+            throw new IllegalArgumentException("ringSize must be at least 1");
+        }
+        int size = 1;
+        while (size < ringSize) {
+            size <<= 1;
+        }
+        this.ringSize = size;
+        mask = size - 1;
+        entries = new ExtLogRecord[size];
+        published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1L);
+        }
+    }
+
+    /**
+     * Get the number of slots in the ring.
+     *
+     * @return the ring size
+     */
+    public int getRingSize() {
+        return ringSize;
+    }
+
+    /**
+     * Get the number of records published but not yet taken by the writer thread.
+     *
+     * @return the ring occupancy
+     */
+    public int getRingOccupancy() {
+        final long occupancy = claimed.get() - consumed;
+        return (int) Math.max(0L, Math.min(occupancy, ringSize));
+    }
+
+    /**
+     * Get the number of records discarded because the ring was full.
+     *
+     * @return the dropped record count
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Get the name the handler was configured with, used to find the handler when reading its metrics.
+     *
+     * @return the handler name or {@code null} if not set
+     */
+    public String getHandlerName() {
+        return handlerName;
+    }
+
+    /**
+     * Set the name the handler was configured with.
+     *
+     * @param handlerName the handler name
+     */
+    public void setHandlerName(final String handlerName) {
+        checkAccess(this);
+        this.handlerName = handlerName;
+    }
+
+    /**
+     * Get the wait strategy.
+     *
+     * @return the wait strategy
+     */
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    /**
+     * Set the wait strategy.
+     *
+     * @param waitStrategy the wait strategy
+     */
+    public void setWaitStrategy(final WaitStrategy waitStrategy) {
+        checkAccess(this);
+        this.waitStrategy = waitStrategy == null ? WaitStrategy.BLOCKING : waitStrategy;
+        // Wake any thread waiting under the previous strategy
+        signal(notEmpty);
+        signal(notFull);
+    }
+
+    /**
+     * Get the overflow action.
+     *
+     * @return the overflow action
+     */
+    public OverflowAction getOverflowAction() {
+        return overflowAction;
+    }
+
+    /**
+     * Set the action to take when the ring is full.
+     *
+     * @param overflowAction the overflow action
+     */
+    public void setOverflowAction(final OverflowAction overflowAction) {
+        checkAccess(this);
+        this.overflowAction = overflowAction == null ? OverflowAction.BLOCK : overflowAction;
+        signal(notFull);
+    }
+
+    /**
+     * Set whether the file is appended to when it is opened. Takes effect the next time a file is set.
+     *
+     * @param append {@code true} to append, {@code false} to truncate
+     */
+    public void setAppend(final boolean append) {
+        checkAccess(this);
+        this.append = append;
+    }
+
+    /**
+     * Set the file to write to.
+     *
+     * @param fileName the absolute path of the file or {@code null} to stop writing
+     *
+     * @throws FileNotFoundException if the file could not be opened
+     */
+    public void setFileName(final String fileName) throws FileNotFoundException {
+        setFile(fileName == null ? null : new File(fileName));
+    }
+
+    /**
+     * Set the file to write to.
+     *
+     * @param file the file or {@code null} to stop writing
+     *
+     * @throws FileNotFoundException if the file could not be opened
+     */
+    public void setFile(final File file) throws FileNotFoundException {
+        checkAccess(this);
+        FileChannel newChannel = null;
+        if (file != null) {
+            final File parent = file.getParentFile();
+            if (parent != null) {
+                parent.mkdirs();
+            }
+            newChannel = new FileOutputStream(file, append).getChannel();
+        }
+        synchronized (outputLock) {
+            final FileChannel oldChannel = channel;
+            if (oldChannel != null) {
+                writeTail(oldChannel);
+                safeClose(oldChannel);
+            }
+            channel = newChannel;
+            if (newChannel != null) {
+                writeHead(newChannel);
+            }
+        }
+    }
+
+    @Override
+    protected void doPublish(final ExtLogRecord record) {
+        if (state.get() != STATE_RUNNING && !start()) {
+            return;
+        }
+        // The record is formatted on the writer thread, so anything lazily computed must be captured now
+        record.copyAll();
+        final long sequence = claim();
+        if (sequence < 0L) {
+            dropped.incrementAndGet();
+            return;
+        }
+        final int index = (int) sequence & mask;
+        entries[index] = record;
+        published.set(index, sequence);
+        if (consumerWaiting) {
+            signal(notEmpty);
+        }
+    }
+
+    /**
+     * Waits until every record published before the call has been written, then forces the file to the storage
+     * device. Calling from the writer thread itself only forces the file.
+     */
+    @Override
+    public void flush() {
+        final long target = claimed.get();
+        if (Thread.currentThread() != consumer) {
+            awaitWritten(target);
+        }
+        synchronized (outputLock) {
+            final FileChannel channel = this.channel;
+            if (channel != null) {
+                try {
+                    channel.force(false);
+                } catch (Exception e) {
+                    reportError("Error flushing the file", e, ErrorManager.FLUSH_FAILURE);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws SecurityException {
+        checkAccess(this);
+        final int previous = state.getAndSet(STATE_CLOSED);
+        if (previous == STATE_CLOSED) {
+            return;
+        }
+        signal(notEmpty);
+        signal(notFull);
+        final Thread consumer = this.consumer;
+        if (consumer != null) {
+            boolean interrupted = false;
+            while (consumer.isAlive()) {
+                try {
+                    consumer.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (outputLock) {
+            final FileChannel channel = this.channel;
+            this.channel = null;
+            if (channel != null) {
+                writeTail(channel);
+                safeClose(channel);
+            }
+        }
+    }
+
+    private boolean start() {
+        if (state.compareAndSet(STATE_NEW, STATE_RUNNING)) {
+            final Thread thread = new Thread(new Consumer(), "RingBufferAsyncHandler-" + (handlerName == null ? Integer.toHexString(System.identityHashCode(this)) : handlerName));
+            thread.setDaemon(true);
+            consumer = thread;
+            thread.start();
+            return true;
+        }
+        return state.get() == STATE_RUNNING;
+    }
+
+    /**
+     * Claims the next sequence, waiting for a free slot if the ring is full and the overflow action is to block.
+     * <p/>
+     * A full ring is never waited on from the writer thread, which could only free a slot by returning, or once the
+     * writer thread has died.
+     *
+     * @return the claimed sequence or {@code -1} if the record should be dropped
+     */
+    private long claim() {
+        int attempts = 0;
+        for (;;) {
+            final long current = claimed.get();
+            if (current - consumed >= ringSize) {
+                if (overflowAction == OverflowAction.DISCARD || state.get() == STATE_CLOSED
+                        || Thread.currentThread() == consumer || isConsumerDead()) {
+                    return -1L;
+                }
+                waitFor(notFull, true, attempts++);
+                continue;
+            }
+            if (claimed.compareAndSet(current, current + 1L)) {
+                return current;
+            }
+        }
+    }
+
+    /**
+     * Waits with the current strategy. The blocking strategy re-checks the condition after announcing the wait so a
+     * signal sent between the caller's check and the wait cannot be lost.
+     */
+    private void waitFor(final Condition condition, final boolean producer, final int attempts) {
+        switch (waitStrategy) {
+            case BUSY_SPIN:
+                break;
+            case YIELDING:
+                Thread.yield();
+                break;
+            case SLEEPING:
+                // Spin and yield briefly before parking
+                if (attempts < 100) {
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(this, SLEEP_NANOS);
+                }
+                break;
+            default: {
+                lock.lock();
+                try {
+                    if (producer) {
+                        producerWaiting = true;
+                        if (claimed.get() - consumed >= ringSize && state.get() != STATE_CLOSED) {
+                            condition.awaitNanos(BLOCKING_TIMEOUT_NANOS);
+                        }
+                    } else {
+                        consumerWaiting = true;
+                        if (published.get((int) consumed & mask) != consumed && state.get() != STATE_CLOSED) {
+                            condition.awaitNanos(BLOCKING_TIMEOUT_NANOS);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    if (producer) {
+                        producerWaiting = false;
+                    } else {
+                        consumerWaiting = false;
+                    }
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    private boolean isConsumerDead() {
+        final Thread consumer = this.consumer;
+        return consumer != null && !consumer.isAlive();
+    }
+
+    /**
+     * Waits for the writer thread to write every record up to, but not including, the target sequence. Gives up if
+     * the writer thread dies or the calling thread is interrupted.
+     */
+    private void awaitWritten(final long target) {
+        lock.lock();
+        try {
+            flushWaiters++;
+            while (written < target && !isConsumerDead()) {
+                drained.awaitNanos(BLOCKING_TIMEOUT_NANOS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            flushWaiters--;
+            lock.unlock();
+        }
+    }
+
+    private void signal(final Condition condition) {
+        lock.lock();
+        try {
+            condition.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void writeHead(final FileChannel channel) {
+        final Formatter formatter = getFormatter();
+        if (formatter != null) {
+            writeString(channel, formatter.getHead(this));
+        }
+    }
+
+    private void writeTail(final FileChannel channel) {
+        final Formatter formatter = getFormatter();
+        if (formatter != null) {
+            writeString(channel, formatter.getTail(this));
+        }
+    }
+
+    private void writeString(final FileChannel channel, final String value) {
+        if (value == null || value.length() == 0) {
+            return;
+        }
+        try {
+            write(channel, ByteBuffer.wrap(value.getBytes(charset())));
+        } catch (Exception e) {
+            reportError("Error writing to the file", e, ErrorManager.WRITE_FAILURE);
+        }
+    }
+
+    private Charset charset() {
+        final String encoding = getEncoding();
+        try {
+            return encoding == null ? Charset.defaultCharset() : Charset.forName(encoding);
+        } catch (IllegalArgumentException e) {
+            return Charset.defaultCharset();
+        }
+    }
+
+    private static void write(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private void safeClose(final FileChannel channel) {
+        try {
+            channel.close();
+        } catch (Exception e) {
+            reportError("Error closing the file", e, ErrorManager.CLOSE_FAILURE);
+        }
+    }
+
+    private static Exception asException(final Throwable t) {
+        return t instanceof Exception ? (Exception) t : new RuntimeException(t);
+    }
+
+    /**
+     * The writer thread. Only this thread advances {@link #consumed} and {@link #written}.
+     */
+    private final class Consumer implements Runnable {
+        private ByteBuffer buffer = ByteBuffer.allocate(DEFAULT_BUFFER_SIZE);
+        private CharsetEncoder encoder;
+        private long next;
+
+        @Override
+        public void run() {
+            next = consumed;
+            int attempts = 0;
+            for (;;) {
+                final int count;
+                try {
+                    count = drain();
+                } catch (Throwable t) {
+                    // The thread must survive, publishers waiting on a full ring and flushing threads depend on it
+                    release();
+                    reportError("Error writing log records", asException(t), ErrorManager.GENERIC_FAILURE);
+                    continue;
+                }
+                if (count > 0) {
+                    attempts = 0;
+                    continue;
+                }
+                // Publishers which claimed a slot before the handler was closed still need to be written
+                if (state.get() == STATE_CLOSED && claimed.get() == next) {
+                    return;
+                }
+                waitFor(notEmpty, false, attempts++);
+            }
+        }
+
+        /**
+         * Takes every published record, formats the batch and writes it with a single channel write.
+         *
+         * @return the number of records taken
+         */
+        private int drain() {
+            final CharsetEncoder encoder = encoder();
+            final Formatter formatter = getFormatter();
+            buffer.clear();
+            int count = 0;
+            while (count < ringSize) {
+                final int index = (int) next & mask;
+                if (published.get(index) != next) {
+                    break;
+                }
+                final ExtLogRecord record = entries[index];
+                entries[index] = null;
+                next++;
+                count++;
+                encode(formatter, encoder, record);
+            }
+            if (count > 0) {
+                // Free the slots before writing so publishers are not held up by the file system
+                consumed = next;
+                if (producerWaiting) {
+                    signal(notFull);
+                }
+                buffer.flip();
+                if (buffer.hasRemaining()) {
+                    synchronized (outputLock) {
+                        final FileChannel channel = RingBufferAsyncHandler.this.channel;
+                        if (channel != null) {
+                            try {
+                                write(channel, buffer);
+                            } catch (Throwable t) {
+                                reportError("Error writing to the file", asException(t), ErrorManager.WRITE_FAILURE);
+                            }
+                        }
+                    }
+                }
+                written = next;
+                if (flushWaiters > 0) {
+                    signal(drained);
+                }
+                // Don't let an oversized batch pin a large buffer for the life of the handler
+                if (buffer.capacity() > DEFAULT_BUFFER_SIZE * 16) {
+                    buffer = ByteBuffer.allocate(DEFAULT_BUFFER_SIZE);
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Gives up on the batch being drained after an unexpected failure, releasing the records already taken.
+         */
+        private void release() {
+            buffer = ByteBuffer.allocate(DEFAULT_BUFFER_SIZE);
+            consumed = next;
+            written = next;
+            signal(notFull);
+            signal(drained);
+        }
+
+        private CharsetEncoder encoder() {
+            final Charset charset = charset();
+            CharsetEncoder encoder = this.encoder;
+            if (encoder == null || !encoder.charset().equals(charset)) {
+                encoder = charset.newEncoder()
+                        .onMalformedInput(CodingErrorAction.REPLACE)
+                        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+                this.encoder = encoder;
+            }
+            return encoder;
+        }
+
+        private void encode(final Formatter formatter, final CharsetEncoder encoder, final ExtLogRecord record) {
+            final String formatted;
+            try {
+                formatted = formatter.format(record);
+            } catch (Throwable t) {
+                reportError("Formatting error", asException(t), ErrorManager.FORMAT_FAILURE);
+                return;
+            }
+            if (formatted == null || formatted.length() == 0) {
+                return;
+            }
+            final CharBuffer chars = CharBuffer.wrap(formatted);
+            encoder.reset();
+            while (encoder.encode(chars, buffer, true).isOverflow()) {
+                grow((int) (chars.remaining() * encoder.maxBytesPerChar()));
+            }
+            while (encoder.flush(buffer).isOverflow()) {
+                grow(16);
+            }
+        }
+
+        private void grow(final int required) {
+            final ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() << 1, buffer.position() + required));
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+    }
+}
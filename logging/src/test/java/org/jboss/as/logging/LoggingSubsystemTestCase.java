@@ -71,6 +71,11 @@ public class LoggingSubsystemTestCase extends AbstractLoggingSubsystemTest {
         standardSubsystemTest("/expressions.xml");
     }
 
+    @Test
+    public void testRingBufferAsyncHandler() throws Exception {
+        standardSubsystemTest("/ring-buffer-logging.xml");
+    }
+
     @Test
     public void testConfiguration() throws Exception {
         final KernelServices kernelServices = boot();
@@ -107,6 +112,16 @@ public class LoggingSubsystemTestCase extends AbstractLoggingSubsystemTest {
         testRejectExpressions1_1_0("org.jboss.as:jboss-as-logging:7.1.3.Final");
     }
 
+    @Test
+    public void testRejectRingBufferAsyncHandler712() throws Exception {
+        testRejectRingBufferAsyncHandler1_1_0("org.jboss.as:jboss-as-logging:7.1.2.Final");
+    }
+
+    @Test
+    public void testRejectRingBufferAsyncHandler713() throws Exception {
+        testRejectRingBufferAsyncHandler1_1_0("org.jboss.as:jboss-as-logging:7.1.3.Final");
+    }
+
     private void testTransformer1_1_0(final String gav) throws Exception {
         final String subsystemXml = getSubsystemXml();
         final ModelVersion modelVersion = ModelVersion.create(1, 1, 0);
@@ -174,6 +189,35 @@ public class LoggingSubsystemTestCase extends AbstractLoggingSubsystemTest {
         );
     }
 
+    private void testRejectRingBufferAsyncHandler1_1_0(final String gav) throws Exception {
+        final ModelVersion modelVersion = ModelVersion.create(1, 1, 0);
+        final KernelServicesBuilder builder = createKernelServicesBuilder(LoggingTestEnvironment.getManagementInstance());
+
+        // Create the legacy kernel
+        builder.createLegacyKernelServicesBuilder(LoggingTestEnvironment.getManagementInstance(), modelVersion)
+                .addMavenResourceURL(gav);
+
+        KernelServices mainServices = builder.build();
+        KernelServices legacyServices = mainServices.getLegacyServices(modelVersion);
+
+        Assert.assertNotNull(legacyServices);
+        Assert.assertTrue("main services did not boot", mainServices.isSuccessfulBoot());
+        Assert.assertTrue(legacyServices.isSuccessfulBoot());
+
+        final List<ModelNode> ops = builder.parseXmlResource("/ring-buffer-logging.xml");
+        ModelTestUtils.checkFailedTransformedBootOperations(mainServices, modelVersion, ops,
+                new FailedOperationTransformationConfig()
+                        .addFailedAttribute(SUBSYSTEM_ADDRESS.append(RingBufferAsyncHandlerResourceDefinition.RING_BUFFER_ASYNC_HANDLER_PATH),
+                                FailedOperationTransformationConfig.REJECTED_RESOURCE)
+                        .addFailedAttribute(SUBSYSTEM_ADDRESS.append(CommonAttributes.LOGGING_PROFILE),
+                                FailedOperationTransformationConfig.REJECTED_RESOURCE)
+                        .addFailedAttribute(SUBSYSTEM_ADDRESS.append(CommonAttributes.LOGGING_PROFILE).append(RingBufferAsyncHandlerResourceDefinition.RING_BUFFER_ASYNC_HANDLER_PATH),
+                                FailedOperationTransformationConfig.REJECTED_RESOURCE)
+                        .addFailedAttribute(SUBSYSTEM_ADDRESS.append(CommonAttributes.LOGGING_PROFILE).append(RootLoggerResourceDefinition.ROOT_LOGGER_PATH),
+                                FailedOperationTransformationConfig.REJECTED_RESOURCE)
+        );
+    }
+
     private void testTransformOperations(final KernelServices mainServices, final ModelVersion modelVersion, final ModelNode legacyModel) throws Exception {
 
         final PathAddress consoleAddress = createConsoleHandlerAddress("CONSOLE");
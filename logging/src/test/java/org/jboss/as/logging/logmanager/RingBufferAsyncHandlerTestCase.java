@@ -0,0 +1,229 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging.logmanager;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.ErrorManager;
+import java.util.logging.Level;
+
+import org.jboss.as.logging.logmanager.RingBufferAsyncHandler.WaitStrategy;
+import org.jboss.logmanager.ExtLogRecord;
+import org.jboss.logmanager.formatters.PatternFormatter;
+import org.jboss.logmanager.handlers.AsyncHandler.OverflowAction;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RingBufferAsyncHandlerTestCase {
+
+    private static final String CATEGORY = RingBufferAsyncHandlerTestCase.class.getName();
+
+    private File file;
+
+    @Before
+    public void setUp() throws Exception {
+        file = File.createTempFile("ring-buffer-async-handler", ".log");
+        file.deleteOnExit();
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void testRingSize() throws Exception {
+        Assert.assertEquals(RingBufferAsyncHandler.DEFAULT_RING_SIZE, new RingBufferAsyncHandler().getRingSize());
+        Assert.assertEquals(1, new RingBufferAsyncHandler(1).getRingSize());
+        Assert.assertEquals(512, new RingBufferAsyncHandler(300).getRingSize());
+    }
+
+    @Test
+    public void testBlockingWrites() throws Exception {
+        // Busy spinning needs a core to itself, which a build machine can't be relied on to have
+        for (WaitStrategy waitStrategy : EnumSet.complementOf(EnumSet.of(WaitStrategy.BUSY_SPIN))) {
+            final RingBufferAsyncHandler handler = createHandler(8, waitStrategy, OverflowAction.BLOCK);
+            publishConcurrently(handler, 4, 250);
+            handler.close();
+            final List<String> lines = readLines();
+            Assert.assertEquals(waitStrategy.name(), 1000, lines.size());
+            Assert.assertEquals(0L, handler.getDroppedCount());
+            Assert.assertEquals(0, handler.getRingOccupancy());
+        }
+    }
+
+    @Test
+    public void testPerThreadOrder() throws Exception {
+        final RingBufferAsyncHandler handler = createHandler(4, WaitStrategy.SLEEPING, OverflowAction.BLOCK);
+        publishConcurrently(handler, 3, 200);
+        handler.close();
+        final int[] expected = new int[3];
+        for (String line : readLines()) {
+            final String[] parts = line.split(":");
+            final int thread = Integer.parseInt(parts[0]);
+            Assert.assertEquals(expected[thread]++, Integer.parseInt(parts[1]));
+        }
+    }
+
+    @Test
+    public void testDiscard() throws Exception {
+        final RingBufferAsyncHandler handler = createHandler(2, WaitStrategy.BLOCKING, OverflowAction.DISCARD);
+        publishConcurrently(handler, 4, 500);
+        handler.close();
+        final List<String> lines = readLines();
+        Assert.assertEquals(2000L, lines.size() + handler.getDroppedCount());
+    }
+
+    @Test
+    public void testFlushWaitsForWrites() throws Exception {
+        final RingBufferAsyncHandler handler = createHandler(16, WaitStrategy.BLOCKING, OverflowAction.BLOCK);
+        // A slow formatter keeps records in the ring long enough for flush to have something to wait for
+        handler.setFormatter(new PatternFormatter("%s%n") {
+            @Override
+            public String format(final ExtLogRecord record) {
+                try {
+                    Thread.sleep(1L);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.format(record);
+            }
+        });
+        try {
+            for (int i = 0; i < 100; i++) {
+                handler.publish(createRecord("0:" + i));
+            }
+            handler.flush();
+            Assert.assertEquals(100, readLines().size());
+            Assert.assertEquals(0, handler.getRingOccupancy());
+        } finally {
+            handler.close();
+        }
+    }
+
+    @Test
+    public void testConsumerSurvivesErrors() throws Exception {
+        final RingBufferAsyncHandler handler = createHandler(2, WaitStrategy.BLOCKING, OverflowAction.BLOCK);
+        final AtomicInteger errors = new AtomicInteger();
+        handler.setErrorManager(new ErrorManager() {
+            @Override
+            public synchronized void error(final String msg, final Exception ex, final int code) {
+                errors.incrementAndGet();
+            }
+        });
+        handler.setFormatter(new PatternFormatter("%s%n") {
+            @Override
+            public String format(final ExtLogRecord record) {
+                if ("fail".equals(record.getMessage())) {
+                    throw new AssertionError("formatter failure");
+                }
+                return super.format(record);
+            }
+        });
+        try {
+            // More records than slots after the failure, so publishing would block forever if the writer died
+            handler.publish(createRecord("before"));
+            handler.publish(createRecord("fail"));
+            for (int i = 0; i < 10; i++) {
+                handler.publish(createRecord("after" + i));
+            }
+            handler.flush();
+            final List<String> lines = readLines();
+            Assert.assertEquals(11, lines.size());
+            Assert.assertEquals("before", lines.get(0));
+            Assert.assertEquals("after9", lines.get(10));
+            Assert.assertEquals(1, errors.get());
+            Assert.assertEquals(0L, handler.getDroppedCount());
+        } finally {
+            handler.close();
+        }
+    }
+
+    private static ExtLogRecord createRecord(final String msg) {
+        final ExtLogRecord record = new ExtLogRecord(Level.INFO, msg, CATEGORY);
+        record.setLoggerName(CATEGORY);
+        return record;
+    }
+
+    private RingBufferAsyncHandler createHandler(final int ringSize, final WaitStrategy waitStrategy, final OverflowAction overflowAction) throws Exception {
+        final RingBufferAsyncHandler handler = new RingBufferAsyncHandler(ringSize);
+        handler.setFormatter(new PatternFormatter("%s%n"));
+        handler.setLevel(Level.ALL);
+        handler.setWaitStrategy(waitStrategy);
+        handler.setOverflowAction(overflowAction);
+        handler.setAppend(false);
+        handler.setFileName(file.getAbsolutePath());
+        return handler;
+    }
+
+    private static void publishConcurrently(final RingBufferAsyncHandler handler, final int threads, final int records) throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Thread> publishers = new ArrayList<Thread>();
+        for (int i = 0; i < threads; i++) {
+            final int id = i;
+            final Thread publisher = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int j = 0; j < records; j++) {
+                        handler.publish(createRecord(id + ":" + j));
+                    }
+                }
+            });
+            publisher.start();
+            publishers.add(publisher);
+        }
+        start.countDown();
+        for (Thread publisher : publishers) {
+            publisher.join();
+        }
+    }
+
+    private List<String> readLines() throws IOException {
+        final List<String> lines = new ArrayList<String>();
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        } finally {
+            reader.close();
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.modcluster;
+
+import org.jboss.as.connector.subsystems.datasources.AbstractDataSourceService;
+import org.jboss.jca.core.api.management.DataSource;
+import org.jboss.jca.core.spi.statistics.StatisticsPlugin;
+import org.jboss.jca.deployers.common.CommonDeployment;
+import org.jboss.modcluster.container.Engine;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Load metric reporting the time spent by threads waiting for a connection from any datasource pool,
+ * per millisecond elapsed since the previous sample, i.e. the average number of threads blocked on a datasource pool.
+ * Requires the statistics of the datasources to be enabled.
+ */
+public class DataSourceWaitLoadMetric extends ServiceTrackingLoadMetric<AbstractDataSourceService> {
+
+    private static final String TOTAL_BLOCKING_TIME = "TotalBlockingTime";
+
+    // Guarded by DecayingLoadMetric.getLoad(...)
+    private long lastBlockingTime = -1;
+    private long lastTime;
+
+    @Override
+    protected AbstractDataSourceService resolve(ServiceController<?> controller) {
+        if (AbstractDataSourceService.SERVICE_NAME_BASE.equals(controller.getName().getParent()) && (controller.getService() instanceof AbstractDataSourceService)) {
+            return (AbstractDataSourceService) controller.getService();
+        }
+        return null;
+    }
+
+    @Override
+    protected double sample(Engine engine) {
+        long time = System.currentTimeMillis();
+        long blockingTime = 0;
+        for (AbstractDataSourceService service: this.getServices()) {
+            blockingTime += getBlockingTime(service.getDeploymentMD());
+        }
+        long lastBlockingTime = this.lastBlockingTime;
+        long elapsed = time - this.lastTime;
+        this.lastBlockingTime = blockingTime;
+        this.lastTime = time;
+        // Blocking time decreases if a datasource was removed
+        return ((lastBlockingTime < 0) || (elapsed <= 0)) ? 0 : (double) Math.max(blockingTime - lastBlockingTime, 0) / elapsed;
+    }
+
+    private static long getBlockingTime(CommonDeployment deployment) {
+        long blockingTime = 0;
+        if ((deployment != null) && (deployment.getDataSources() != null)) {
+            for (DataSource dataSource: deployment.getDataSources()) {
+                StatisticsPlugin statistics = (dataSource.getPool() != null) ? dataSource.getPool().getStatistics() : null;
+                Object value = (statistics != null) ? statistics.getValue(TOTAL_BLOCKING_TIME) : null;
+                if (value instanceof Number) {
+                    blockingTime += ((Number) value).longValue();
+                }
+            }
+        }
+        return blockingTime;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.modcluster;
+
+import org.jboss.modcluster.container.Engine;
+import org.jboss.modcluster.load.metric.impl.AbstractLoadMetric;
+
+/**
+ * Base class for load metrics whose load is an exponentially decaying average of periodic samples,
+ * which limits the jitter of metrics sampled from pools whose usage fluctuates between requests.
+ */
+public abstract class DecayingLoadMetric extends AbstractLoadMetric {
+
+    public static final int DEFAULT_DECAY_FACTOR = 2;
+
+    private volatile int decayFactor = DEFAULT_DECAY_FACTOR;
+    // Guarded by this
+    private double average = Double.NaN;
+
+    public int getDecayFactor() {
+        return this.decayFactor;
+    }
+
+    /**
+     * Sets the factor by which the weight of the previous average is divided, relative to the current sample.
+     * @param decayFactor a factor greater than or equal to 1, where 1 disables averaging
+     */
+    public void setDecayFactor(int decayFactor) {
+        this.decayFactor = Math.max(decayFactor, 1);
+    }
+
+    @Override
+    public synchronized double getLoad(Engine engine) throws Exception {
+        double sample = this.sample(engine);
+        this.average = Double.isNaN(this.average) ? sample : this.average + ((sample - this.average) / this.decayFactor);
+        return this.average;
+    }
+
+    /**
+     * Samples the current, non-averaged, load of this metric.
+     * @param engine the engine for which to sample the load
+     * @return the current load
+     * @throws Exception if the load could not be sampled
+     */
+    protected abstract double sample(Engine engine) throws Exception;
+}
@@ -0,0 +1,70 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.modcluster;
+
+import org.jboss.as.ejb3.component.pool.PooledComponent;
+import org.jboss.as.ejb3.pool.Pool;
+import org.jboss.modcluster.container.Engine;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
+
+/**
+ * Load metric reporting the saturation of the most saturated EJB instance pool of any deployment,
+ * i.e. the fraction of the pool's maximum size that is currently in use.
+ */
+public class EjbPoolLoadMetric extends ServiceTrackingLoadMetric<PooledComponent<?>> {
+
+    // Component start services are named <deployment-unit>.component.<component-name>.START
+    private static final String COMPONENT = "component";
+    private static final String START = "START";
+
+    @Override
+    protected PooledComponent<?> resolve(ServiceController<?> controller) {
+        ServiceName name = controller.getName();
+        if (START.equals(name.getSimpleName()) && isComponent(name.getParent())) {
+            Object component = controller.getValue();
+            if (component instanceof PooledComponent) {
+                return (PooledComponent<?>) component;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    protected double sample(Engine engine) {
+        double load = 0;
+        for (PooledComponent<?> component: this.getServices()) {
+            Pool<?> pool = component.getPool();
+            int maxSize = (pool != null) ? pool.getMaxSize() : 0;
+            if (maxSize > 0) {
+                load = Math.max(load, (double) (maxSize - pool.getAvailableCount()) / maxSize);
+            }
+        }
+        return load;
+    }
+
+    private static boolean isComponent(ServiceName name) {
+        ServiceName parent = (name != null) ? name.getParent() : null;
+        return (parent != null) && COMPONENT.equals(parent.getSimpleName());
+    }
+}
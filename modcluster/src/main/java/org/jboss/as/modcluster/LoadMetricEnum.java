@@ -45,22 +45,52 @@ public enum LoadMetricEnum {
     RECEIVE_TRAFFIC("receive-traffic", ReceiveTrafficLoadMetric.class),
     SEND_TRAFFIC("send-traffic", SendTrafficLoadMetric.class),
     REQUEST_COUNT("requests", RequestCountLoadMetric.class),
-    BUSY_CONNECTORS("busyness", BusyConnectorsLoadMetric.class),;
+    BUSY_CONNECTORS("busyness", BusyConnectorsLoadMetric.class),
+    // Sample optional subsystems, so their classes are only loaded if these subsystems are available
+    EJB_POOL("ejb-pool", "org.jboss.as.modcluster.EjbPoolLoadMetric", "org.jboss.as.ejb3.component.pool.PooledComponent"),
+    DATASOURCE_WAIT("datasource-wait", "org.jboss.as.modcluster.DataSourceWaitLoadMetric", "org.jboss.as.connector.subsystems.datasources.AbstractDataSourceService"),
+    SESSION_PASSIVATION("session-passivation", SessionPassivationLoadMetric.class),;
 
     private final String type;
     private final Class<? extends LoadMetric> loadMetricClass;
+    private final String loadMetricClassName;
+    private final String requiredClassName;
 
     private LoadMetricEnum(String type, Class<? extends LoadMetric> loadMetricClass) {
         this.type = type;
         this.loadMetricClass = loadMetricClass;
+        this.loadMetricClassName = loadMetricClass.getName();
+        this.requiredClassName = null;
+    }
+
+    private LoadMetricEnum(String type, String loadMetricClassName, String requiredClassName) {
+        this.type = type;
+        this.loadMetricClass = null;
+        this.loadMetricClassName = loadMetricClassName;
+        this.requiredClassName = requiredClassName;
     }
 
     public String getType() {
         return this.type;
     }
 
+    /**
+     * Returns the class of this load metric.
+     * @return a load metric class, or null if the subsystem sampled by this metric is not available
+     */
     public Class<? extends LoadMetric> getLoadMetricClass() {
-        return this.loadMetricClass;
+        if (this.loadMetricClass != null) {
+            return this.loadMetricClass;
+        }
+        ClassLoader loader = LoadMetricEnum.class.getClassLoader();
+        try {
+            loader.loadClass(this.requiredClassName);
+            return loader.loadClass(this.loadMetricClassName).asSubclass(LoadMetric.class);
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (LinkageError e) {
+            return null;
+        }
     }
 
     public static LoadMetricEnum forType(String type) {
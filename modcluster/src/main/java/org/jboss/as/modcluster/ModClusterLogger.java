@@ -31,6 +31,7 @@ import org.jboss.logging.annotations.MessageLogger;
 
 import static org.jboss.logging.Logger.Level.ERROR;
 import static org.jboss.logging.Logger.Level.INFO;
+import static org.jboss.logging.Logger.Level.WARN;
 
 /**
  * Date: 17.06.2011
@@ -86,4 +87,13 @@ interface ModClusterLogger extends BasicLogger {
     @LogMessage(level = INFO)
     @Message(id = 11704, value = "Mod_cluster uses default load balancer provider")
     void useDefaultLoadBalancer();
+
+    /**
+     * Logs a warning message indicating a load metric is ignored because the module it samples is not available.
+     *
+     * @param type the type of the load metric.
+     */
+    @LogMessage(level = WARN)
+    @Message(id = 11705, value = "Load metric %s is ignored because the subsystem it samples is not available")
+    void loadMetricNotAvailable(String type);
 }
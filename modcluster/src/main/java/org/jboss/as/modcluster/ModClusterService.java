@@ -44,6 +44,7 @@ import org.jboss.modcluster.container.catalina.ServiceLoaderCatalinaFactory;
 import org.jboss.modcluster.container.catalina.SimpleProxyConnectorProvider;
 import org.jboss.modcluster.container.catalina.SimpleServerProvider;
 import org.jboss.modcluster.load.LoadBalanceFactorProvider;
+import org.jboss.modcluster.load.metric.LoadMetric;
 import org.jboss.msc.inject.Injector;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceName;
@@ -63,6 +64,7 @@ class ModClusterService implements Service<ModCluster>, ModCluster {
     private CatalinaEventHandlerAdapter adapter;
     private LoadBalanceFactorProvider load;
     private ModClusterConfig config;
+    private final Collection<LoadMetric> metrics;
 
     private final InjectedValue<WebServer> webServer = new InjectedValue<WebServer>();
     private final InjectedValue<SocketBindingManager> bindingManager = new InjectedValue<SocketBindingManager>();
@@ -72,9 +74,10 @@ class ModClusterService implements Service<ModCluster>, ModCluster {
     /* Depending on configuration we use one of the other */
     private org.jboss.modcluster.ModClusterService service;
 
-    ModClusterService(ModClusterConfig config, LoadBalanceFactorProvider load) {
+    ModClusterService(ModClusterConfig config, LoadBalanceFactorProvider load, Collection<LoadMetric> metrics) {
         this.config = config;
         this.load = load;
+        this.metrics = metrics;
     }
 
     @Override
@@ -101,6 +104,13 @@ class ModClusterService implements Service<ModCluster>, ModCluster {
             }
         }
 
+        // Metrics sampling services of other subsystems
+        for (LoadMetric metric : this.metrics) {
+            if (metric instanceof ServiceTrackingLoadMetric) {
+                ((ServiceTrackingLoadMetric<?>) metric).start(context.getController().getServiceContainer());
+            }
+        }
+
         service = new org.jboss.modcluster.ModClusterService(config, load);
 
         WebServer webServer = this.webServer.getValue();
@@ -135,6 +145,11 @@ class ModClusterService implements Service<ModCluster>, ModCluster {
             adapter.stop();
             adapter = null;
         }
+        for (LoadMetric metric : this.metrics) {
+            if (metric instanceof ServiceTrackingLoadMetric) {
+                ((ServiceTrackingLoadMetric<?>) metric).stop();
+            }
+        }
     }
 
     @Override
@@ -83,10 +83,11 @@ class ModClusterSubsystemAdd extends AbstractAddStepHandler {
         final ModelNode fullModel = Resource.Tools.readModel(context.readResource(PathAddress.EMPTY_ADDRESS));
         final ModelNode modelConfig = fullModel.get(ModClusterExtension.CONFIGURATION_PATH.getKeyValuePair());
         final ModClusterConfig config = getModClusterConfig(context, modelConfig);
-        final LoadBalanceFactorProvider loadProvider = getModClusterLoadProvider(context, modelConfig);
+        final Set<LoadMetric> metrics = new HashSet<LoadMetric>();
+        final LoadBalanceFactorProvider loadProvider = getModClusterLoadProvider(context, modelConfig, metrics);
         final String connector = CONNECTOR.resolveModelAttribute(context, modelConfig).asString();
         // Add mod_cluster service
-        final ModClusterService service = new ModClusterService(config, loadProvider);
+        final ModClusterService service = new ModClusterService(config, loadProvider, metrics);
         final ServiceBuilder<ModCluster> builder = AsynchronousService.addService(context.getServiceTarget(), ModClusterService.NAME, service, true, true)
                 .addDependency(WebSubsystemServices.JBOSS_WEB, WebServer.class, service.getWebServer())
                 .addDependency(SocketBindingManager.SOCKET_BINDING_MANAGER, SocketBindingManager.class, service.getBindingManager())
@@ -99,6 +100,12 @@ class ModClusterSubsystemAdd extends AbstractAddStepHandler {
         if (bindingRef != null) {
             builder.addDependency(SocketBinding.JBOSS_BINDING_NAME.append(bindingRef), SocketBinding.class, service.getBinding());
         }
+        // Metrics sampling the web server
+        for (LoadMetric metric : metrics) {
+            if (metric instanceof SessionPassivationLoadMetric) {
+                builder.addDependency(WebSubsystemServices.JBOSS_WEB, WebServer.class, ((SessionPassivationLoadMetric) metric).getWebServerInjector());
+            }
+        }
         newControllers.add(builder.install());
     }
 
@@ -192,7 +199,7 @@ class ModClusterSubsystemAdd extends AbstractAddStepHandler {
         return config;
     }
 
-    private LoadBalanceFactorProvider getModClusterLoadProvider(final OperationContext context, ModelNode model) throws OperationFailedException {
+    private LoadBalanceFactorProvider getModClusterLoadProvider(final OperationContext context, ModelNode model, Set<LoadMetric> metrics) throws OperationFailedException {
         LoadBalanceFactorProvider load = null;
         if (model.hasDefined(CommonAttributes.SIMPLE_LOAD_PROVIDER_FACTOR)) {
             // TODO it seems we don't support that stuff.
@@ -202,7 +209,6 @@ class ModClusterSubsystemAdd extends AbstractAddStepHandler {
             load = myload;
         }
 
-        Set<LoadMetric> metrics = new HashSet<LoadMetric>();
         if (model.get(ModClusterExtension.DYNAMIC_LOAD_PROVIDER_PATH.getKeyValuePair()).isDefined()) {
             final ModelNode node = model.get(ModClusterExtension.DYNAMIC_LOAD_PROVIDER_PATH.getKeyValuePair());
             int decayFactor = DynamicLoadProviderDefinition.DECAY.resolveModelAttribute(context, model).asInt();
@@ -241,6 +247,9 @@ class ModClusterSubsystemAdd extends AbstractAddStepHandler {
                 String type = TYPE.resolveModelAttribute(context, node).asString();
                 LoadMetricEnum metric = LoadMetricEnum.forType(type);
                 loadMetricClass = (metric != null) ? metric.getLoadMetricClass() : null;
+                if ((metric != null) && (loadMetricClass == null)) {
+                    ROOT_LOGGER.loadMetricNotAvailable(type);
+                }
             } else {
                 String className = CustomLoadMetricDefinition.CLASS.resolveModelAttribute(context, node).asString();
                 try {
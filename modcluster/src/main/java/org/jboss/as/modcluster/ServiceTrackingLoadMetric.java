@@ -0,0 +1,110 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.modcluster;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jboss.msc.service.AbstractServiceListener;
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceListener;
+import org.jboss.msc.service.ServiceName;
+
+/**
+ * Base class for load metrics that sample services of other subsystems.
+ * Each service is resolved once, when it comes up, via a listener on the service container,
+ * instead of scanning every service name of the container on each poll.
+ *
+ * @param <T> the type of the tracked services
+ */
+public abstract class ServiceTrackingLoadMetric<T> extends DecayingLoadMetric {
+
+    private final ConcurrentMap<ServiceName, T> services = new ConcurrentHashMap<ServiceName, T>();
+    private final ServiceListener<Object> listener = new AbstractServiceListener<Object>() {
+        @Override
+        public void transition(ServiceController<?> controller, ServiceController.Transition transition) {
+            if (transition.getAfter() == ServiceController.Substate.UP) {
+                ServiceTrackingLoadMetric.this.track(controller);
+            } else if (transition.getBefore() == ServiceController.Substate.UP) {
+                ServiceTrackingLoadMetric.this.services.remove(controller.getName());
+            }
+        }
+    };
+    private volatile ServiceContainer container;
+
+    /**
+     * Starts tracking the services of the specified container.
+     * @param container a service container
+     */
+    void start(ServiceContainer container) {
+        this.container = container;
+        container.addListener(this.listener);
+        // Services that came up before tracking started
+        for (ServiceName name: container.getServiceNames()) {
+            ServiceController<?> controller = container.getService(name);
+            if ((controller != null) && (controller.getState() == ServiceController.State.UP)) {
+                this.track(controller);
+                if (controller.getState() != ServiceController.State.UP) {
+                    this.services.remove(name);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops tracking services.
+     */
+    void stop() {
+        ServiceContainer container = this.container;
+        if (container != null) {
+            this.container = null;
+            container.removeListener(this.listener);
+        }
+        this.services.clear();
+    }
+
+    /**
+     * Returns the services that are currently up.
+     * @return a collection of services
+     */
+    protected Collection<T> getServices() {
+        return this.services.values();
+    }
+
+    private void track(ServiceController<?> controller) {
+        if (this.container == null) return;
+        T service = this.resolve(controller);
+        if (service != null) {
+            this.services.put(controller.getName(), service);
+        }
+    }
+
+    /**
+     * Resolves the service sampled by this metric from the specified controller, which is up.
+     * @param controller a service controller
+     * @return the service to sample, or null if this metric does not sample the service of this controller
+     */
+    protected abstract T resolve(ServiceController<?> controller);
+}
@@ -0,0 +1,67 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.modcluster;
+
+import org.apache.catalina.Container;
+import org.apache.catalina.Context;
+import org.apache.catalina.Manager;
+import org.apache.catalina.Service;
+import org.jboss.as.web.WebServer;
+import org.jboss.as.web.session.SessionManagerMBean;
+import org.jboss.modcluster.container.Engine;
+import org.jboss.msc.inject.Injector;
+import org.jboss.msc.value.InjectedValue;
+
+/**
+ * Load metric reporting the session pressure of the most loaded web application that limits its number of active sessions,
+ * i.e. its active session count relative to its max-active-sessions.
+ * A value greater than 1 indicates a backlog of sessions that must be passivated, or will be rejected.
+ */
+public class SessionPassivationLoadMetric extends DecayingLoadMetric {
+
+    private final InjectedValue<WebServer> server = new InjectedValue<WebServer>();
+
+    public Injector<WebServer> getWebServerInjector() {
+        return this.server;
+    }
+
+    @Override
+    protected double sample(Engine engine) {
+        double load = 0;
+        for (Service service: this.server.getValue().getServer().findServices()) {
+            for (Container host: service.getContainer().findChildren()) {
+                for (Container context: host.findChildren()) {
+                    Manager manager = ((Context) context).getManager();
+                    if (manager instanceof SessionManagerMBean) {
+                        SessionManagerMBean sessionManager = (SessionManagerMBean) manager;
+                        int maxActiveAllowed = sessionManager.getMaxActiveAllowed();
+                        if (maxActiveAllowed > 0) {
+                            load = Math.max(load, (double) sessionManager.getActiveSessionCount() / maxActiveAllowed);
+                        }
+                    }
+                }
+            }
+        }
+        return load;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.modcluster;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import org.jboss.modcluster.container.Engine;
+import org.junit.Test;
+
+public class DecayingLoadMetricTestCase {
+
+    private static final double DELTA = 0.0001;
+
+    @Test
+    public void firstSample() throws Exception {
+        DecayingLoadMetric metric = new SampleLoadMetric(0.4);
+        assertEquals(0.4, metric.getLoad(null), DELTA);
+    }
+
+    @Test
+    public void decay() throws Exception {
+        DecayingLoadMetric metric = new SampleLoadMetric(0.0, 1.0, 1.0, 0.0);
+        assertEquals(DecayingLoadMetric.DEFAULT_DECAY_FACTOR, metric.getDecayFactor());
+        assertEquals(0, metric.getLoad(null), DELTA);
+        assertEquals(0.5, metric.getLoad(null), DELTA);
+        assertEquals(0.75, metric.getLoad(null), DELTA);
+        assertEquals(0.375, metric.getLoad(null), DELTA);
+    }
+
+    @Test
+    public void decayFactor() throws Exception {
+        DecayingLoadMetric metric = new SampleLoadMetric(0.0, 1.0, 1.0);
+        metric.setDecayFactor(4);
+        assertEquals(0, metric.getLoad(null), DELTA);
+        assertEquals(0.25, metric.getLoad(null), DELTA);
+        assertEquals(0.4375, metric.getLoad(null), DELTA);
+    }
+
+    @Test
+    public void noDecay() throws Exception {
+        DecayingLoadMetric metric = new SampleLoadMetric(0.2, 0.8, 0.1);
+        metric.setDecayFactor(1);
+        assertEquals(0.2, metric.getLoad(null), DELTA);
+        assertEquals(0.8, metric.getLoad(null), DELTA);
+        assertEquals(0.1, metric.getLoad(null), DELTA);
+    }
+
+    @Test
+    public void invalidDecayFactor() {
+        DecayingLoadMetric metric = new SampleLoadMetric();
+        metric.setDecayFactor(0);
+        assertEquals(1, metric.getDecayFactor());
+        metric.setDecayFactor(-3);
+        assertEquals(1, metric.getDecayFactor());
+    }
+
+    private static class SampleLoadMetric extends DecayingLoadMetric {
+        private final Iterator<Double> samples;
+
+        SampleLoadMetric(Double... samples) {
+            this.samples = Arrays.asList(samples).iterator();
+        }
+
+        @Override
+        protected double sample(Engine engine) {
+            return this.samples.next();
+        }
+    }
+}
@@ -22,6 +22,7 @@
 
 package org.jboss.as.server;
 
+import java.io.File;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 
@@ -151,6 +152,11 @@ public interface Bootstrap {
                         QName rootElement = new QName(Namespace.CURRENT.getUriString(), "server");
                         StandaloneXml parser = new StandaloneXml(Module.getBootModuleLoader(), executorService, extensionRegistry);
                         BackupXmlConfigurationPersister persister = new BackupXmlConfigurationPersister(configurationFile, rootElement, parser, parser);
+                        // Skip parsing of an unchanged configuration file on subsequent boots
+                        if (Boolean.parseBoolean(SecurityActions.getSystemProperty(ServerEnvironment.JBOSS_SERVER_BOOT_CACHE, "true"))) {
+                            File bootOperationCacheDir = new File(serverEnvironment.getServerDataDir(), "boot-cache");
+                            persister.setBootOperationCache(new File(bootOperationCacheDir, configurationFile.getBootFile().getName() + ".dmr"));
+                        }
                         for (Namespace namespace : Namespace.domainValues()) {
                             if (!namespace.equals(Namespace.CURRENT)) {
                                 persister.registerAdditionalRootElement(new QName(namespace.getUriString(), "server"), parser);
@@ -255,6 +255,12 @@ public class ServerEnvironment extends ProcessEnvironment implements Serializabl
     @Deprecated
     public static final String JBOSS_PERSIST_SERVER_CONFIG = "jboss.server.persist.config";
 
+    /**
+     * The system property used to enable or disable the caching of the boot operations parsed from the server
+     * configuration file in the server data directory. Defaults to {@code true}.
+     */
+    public static final String JBOSS_SERVER_BOOT_CACHE = "jboss.server.boot.cache";
+
     protected static final String DOMAIN_BASE_DIR = "jboss.domain.base.dir";
     protected static final String DOMAIN_CONFIG_DIR = "jboss.domain.config.dir";
 
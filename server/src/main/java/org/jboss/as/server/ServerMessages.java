@@ -23,6 +23,7 @@
 package org.jboss.as.server;
 
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InvalidObjectException;
@@ -672,4 +673,10 @@ public interface ServerMessages {
     @Message(id = 18784, value = "Null '%s'")
     OperationFailedException nullParameter(String name);
 
+    @Message(id = 18785, value = "Archive %s cannot be mapped; it is larger than 2GB, a zip64 archive or not a zip archive")
+    IOException cannotMapArchive(File file);
+
+    @Message(id = 18786, value = "%s is not a file in the mapped archive")
+    FileNotFoundException notAMappedArchiveFile(String path);
+
 }
@@ -97,6 +97,8 @@ public interface DeploymentMountProvider {
                         return VFS.mountZipExpanded(contents, mountPoint, tempFileProvider);
                     case REAL:
                         return VFS.mountReal(contents.getPhysicalFile(), mountPoint);
+                    case MAPPED:
+                        return MappedArchiveFileSystem.mount(contents, mountPoint, tempFileProvider);
                     default:
                         throw ServerMessages.MESSAGES.unknownMountType(type);
                 }
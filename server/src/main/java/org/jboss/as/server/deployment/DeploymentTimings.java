@@ -0,0 +1,197 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * The time spent deploying a single deployment unit, broken down by phase and by processor.
+ * <p>
+ * What is recorded is controlled by the {@value #MODE_PROPERTY} system property: {@code off} records nothing,
+ * {@code wall} (the default) records elapsed times only, which costs two clock reads per processor, and {@code full}
+ * also records the CPU time of each processor.
+ */
+final class DeploymentTimings {
+
+    static final String MODE_PROPERTY = "org.jboss.as.server.deployment.timings";
+
+    static final AttachmentKey<DeploymentTimings> ATTACHMENT_KEY = AttachmentKey.create(DeploymentTimings.class);
+
+    enum Mode {
+        OFF,
+        WALL,
+        FULL,
+    }
+
+    static final Mode MODE = getMode();
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_TIME = MODE == Mode.FULL && THREADS.isCurrentThreadCpuTimeSupported();
+
+    private final Map<Phase, PhaseTimings> phases = new EnumMap<Phase, PhaseTimings>(Phase.class);
+
+    private static Mode getMode() {
+        final String value = SecurityActions.getSystemProperty(MODE_PROPERTY, null);
+        if (value != null) {
+            for (Mode mode : Mode.values()) {
+                if (mode.name().equalsIgnoreCase(value.trim())) {
+                    return mode;
+                }
+            }
+        }
+        return Mode.WALL;
+    }
+
+    /**
+     * Get the timings of a deployment unit, creating them on its first phase.
+     *
+     * @param deploymentUnit the deployment unit
+     * @return the timings, or {@code null} if timings are not recorded
+     */
+    static DeploymentTimings getTimings(final DeploymentUnit deploymentUnit) {
+        if (MODE == Mode.OFF) {
+            return null;
+        }
+        DeploymentTimings timings = deploymentUnit.getAttachment(ATTACHMENT_KEY);
+        if (timings == null) {
+            timings = new DeploymentTimings();
+            deploymentUnit.putAttachment(ATTACHMENT_KEY, timings);
+        }
+        return timings;
+    }
+
+    /**
+     * Get the current thread's CPU time, if it is recorded.
+     *
+     * @return the CPU time in nanoseconds, or {@code -1} if CPU time is not recorded
+     */
+    static long currentCpuTime() {
+        return CPU_TIME ? THREADS.getCurrentThreadCpuTime() : -1L;
+    }
+
+    /**
+     * Start recording a phase, replacing any timings of an earlier run of the same phase.
+     *
+     * @param phase the phase
+     * @param waitTime the time the phase waited for its dependencies, in nanoseconds
+     * @return the phase timings
+     */
+    synchronized PhaseTimings startPhase(final Phase phase, final long waitTime) {
+        final PhaseTimings timings = new PhaseTimings(waitTime);
+        phases.put(phase, timings);
+        return timings;
+    }
+
+    synchronized ModelNode toModelNode() {
+        final ModelNode result = new ModelNode();
+        result.setEmptyList();
+        for (Map.Entry<Phase, PhaseTimings> entry : phases.entrySet()) {
+            final ModelNode phase = entry.getValue().toModelNode();
+            phase.get("phase").set(entry.getKey().name());
+            result.add(phase);
+        }
+        return result;
+    }
+
+    static final class PhaseTimings {
+        private final long waitTime;
+        private final long cpuStart = currentCpuTime();
+        private final List<ProcessorTimings> processors = new ArrayList<ProcessorTimings>();
+        private long wallTime = -1L;
+        private long cpuTime = -1L;
+
+        PhaseTimings(final long waitTime) {
+            this.waitTime = waitTime;
+        }
+
+        synchronized void processorCompleted(final RegisteredDeploymentUnitProcessor processor, final long wallTime, final long cpuTime) {
+            processors.add(new ProcessorTimings(processor, wallTime, cpuTime));
+        }
+
+        /**
+         * Record the end of the phase.  The CPU time of the phase is that of the thread which ran it.
+         */
+        synchronized void phaseCompleted(final long wallTime) {
+            this.wallTime = wallTime;
+            if (cpuStart >= 0L) {
+                cpuTime = currentCpuTime() - cpuStart;
+            }
+        }
+
+        synchronized ModelNode toModelNode() {
+            final ModelNode result = new ModelNode();
+            result.get("wait-time").set(toMicros(waitTime));
+            result.get("wall-time").set(toMicros(wallTime));
+            if (cpuTime >= 0L) {
+                result.get("cpu-time").set(toMicros(cpuTime));
+            }
+            final ModelNode processors = result.get("processors").setEmptyList();
+            for (ProcessorTimings timings : this.processors) {
+                processors.add(timings.toModelNode());
+            }
+            return result;
+        }
+    }
+
+    private static final class ProcessorTimings {
+        private final String processor;
+        private final String subsystem;
+        private final int priority;
+        private final long wallTime;
+        private final long cpuTime;
+
+        ProcessorTimings(final RegisteredDeploymentUnitProcessor processor, final long wallTime, final long cpuTime) {
+            this.processor = processor.getProcessor().getClass().getName();
+            this.subsystem = processor.getSubsystemName();
+            this.priority = processor.getPriority();
+            this.wallTime = wallTime;
+            this.cpuTime = cpuTime;
+        }
+
+        ModelNode toModelNode() {
+            final ModelNode result = new ModelNode();
+            result.get("processor").set(processor);
+            if (subsystem != null) {
+                result.get("subsystem").set(subsystem);
+            }
+            result.get("priority").set(priority);
+            result.get("wall-time").set(toMicros(wallTime));
+            if (cpuTime >= 0L) {
+                result.get("cpu-time").set(toMicros(cpuTime));
+            }
+            return result;
+        }
+    }
+
+    private static long toMicros(final long nanos) {
+        return nanos < 0L ? -1L : TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.SimpleOperationDefinition;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.server.controller.resources.DeploymentAttributes;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Handler reporting the time spent in each phase and processor while deploying a deployment and its subdeployments.
+ */
+public class DeploymentTimingsHandler implements OperationStepHandler {
+
+    private static final String OPERATION_NAME = "read-deployment-timings";
+    public static final SimpleOperationDefinition DEFINITION = new SimpleOperationDefinitionBuilder(OPERATION_NAME, DeploymentAttributes.DEPLOYMENT_RESOLVER)
+            .setRuntimeOnly()
+            .setReadOnly()
+            .setReplyType(ModelType.OBJECT)
+            .allowReturnNull()
+            .build();
+    public static final DeploymentTimingsHandler INSTANCE = new DeploymentTimingsHandler();
+
+    private DeploymentTimingsHandler() {
+    }
+
+    @Override
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final String name = PathAddress.pathAddress(operation.get(OP_ADDR)).getLastElement().getValue();
+        context.addStep(new OperationStepHandler() {
+            @Override
+            public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+                final ServiceController<?> controller = context.getServiceRegistry(false).getService(Services.deploymentUnitName(name));
+                if (controller != null && controller.getState() == ServiceController.State.UP) {
+                    final DeploymentUnit deploymentUnit = (DeploymentUnit) controller.getValue();
+                    if (deploymentUnit != null) {
+                        final ModelNode result = context.getResult();
+                        result.get("phases").set(getTimings(deploymentUnit));
+                        final ModelNode subdeployments = result.get("subdeployments").setEmptyObject();
+                        for (DeploymentUnit subdeployment : deploymentUnit.getAttachmentList(Attachments.SUB_DEPLOYMENTS)) {
+                            subdeployments.get(subdeployment.getName(), "phases").set(getTimings(subdeployment));
+                        }
+                    }
+                }
+                context.stepCompleted();
+            }
+        }, OperationContext.Stage.RUNTIME);
+        context.stepCompleted();
+    }
+
+    private static ModelNode getTimings(final DeploymentUnit deploymentUnit) {
+        final DeploymentTimings timings = deploymentUnit.getAttachment(DeploymentTimings.ATTACHMENT_KEY);
+        return timings == null ? new ModelNode().setEmptyList() : timings.toModelNode();
+    }
+}
@@ -59,6 +59,7 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
     private final Phase phase;
     private final AttachmentKey<T> valueKey;
     private final List<AttachedDependency> injectedAttachedDependencies = new ArrayList<AttachedDependency>();
+    private volatile long installTime = -1L;
 
     private DeploymentUnitPhaseService(final DeploymentUnit deploymentUnit, final Phase phase, final AttachmentKey<T> valueKey) {
         this.deploymentUnit = deploymentUnit;
@@ -76,10 +77,12 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
 
     @SuppressWarnings("unchecked")
     public synchronized void start(final StartContext context) throws StartException {
+        final long startTime = System.nanoTime();
         final DeployerChains chains = deployerChainsInjector.getValue();
         final DeploymentUnit deploymentUnit = this.deploymentUnit;
+        final DeploymentTimings timings = DeploymentTimings.getTimings(deploymentUnit);
+        final DeploymentTimings.PhaseTimings phaseTimings = timings == null ? null : timings.startPhase(phase, installTime < 0L ? -1L : startTime - installTime);
         final List<RegisteredDeploymentUnitProcessor> list = chains.getChain(phase);
-        final ListIterator<RegisteredDeploymentUnitProcessor> iterator = list.listIterator();
         final ServiceContainer container = context.getController().getServiceContainer();
         final ServiceTarget serviceTarget = context.getChildTarget().subTarget();
         final Phase nextPhase = phase.next();
@@ -113,13 +116,15 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
             }
         }
 
+        final ListIterator<RegisteredDeploymentUnitProcessor> iterator = list.listIterator();
         while (iterator.hasNext()) {
             final RegisteredDeploymentUnitProcessor processor = iterator.next();
             try {
-                if (shouldRun(deploymentUnit, processor)) {
-                    processor.getProcessor().deploy(processorContext);
-                }
+                deploy(deploymentUnit, processorContext, processor, phaseTimings);
             } catch (Throwable e) {
+                if (phaseTimings != null) {
+                    phaseTimings.phaseCompleted(System.nanoTime() - startTime);
+                }
                 while (iterator.hasPrevious()) {
                     final RegisteredDeploymentUnitProcessor prev = iterator.previous();
                     safeUndeploy(deploymentUnit, phase, prev);
@@ -127,6 +132,9 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
                 throw ServerMessages.MESSAGES.deploymentPhaseFailed(phase, deploymentUnit, e);
             }
         }
+        if (phaseTimings != null) {
+            phaseTimings.phaseCompleted(System.nanoTime() - startTime);
+        }
         if (nextPhase != null) {
             phaseServiceBuilder.addDependency(Services.JBOSS_DEPLOYMENT_CHAINS, DeployerChains.class, phaseService.getDeployerChainsInjector());
             phaseServiceBuilder.addDependency(context.getController().getName());
@@ -166,6 +174,7 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
                 }
             }
 
+            phaseService.setInstallTime(System.nanoTime());
             phaseServiceBuilder.install();
         }
     }
@@ -181,6 +190,23 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
         }
     }
 
+    private static void deploy(final DeploymentUnit deploymentUnit, final DeploymentPhaseContext processorContext, final RegisteredDeploymentUnitProcessor processor, final DeploymentTimings.PhaseTimings phaseTimings) throws DeploymentUnitProcessingException {
+        if (shouldRun(deploymentUnit, processor)) {
+            if (phaseTimings == null) {
+                processor.getProcessor().deploy(processorContext);
+                return;
+            }
+            final long cpuStart = DeploymentTimings.currentCpuTime();
+            final long start = System.nanoTime();
+            try {
+                processor.getProcessor().deploy(processorContext);
+            } finally {
+                final long wallTime = System.nanoTime() - start;
+                phaseTimings.processorCompleted(processor, wallTime, cpuStart < 0L ? -1L : DeploymentTimings.currentCpuTime() - cpuStart);
+            }
+        }
+    }
+
     private Mode getDeferableInitialMode(final DeploymentUnit deploymentUnit, List<String> deferredModules) {
         // Make the deferred module NEVER
         if (deferredModules.contains(deploymentUnit.getName())) {
@@ -234,6 +260,13 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
         return deployerChainsInjector;
     }
 
+    /**
+     * Record when this phase was installed, so that the time it then spends waiting for its dependencies is known.
+     */
+    void setInstallTime(final long installTime) {
+        this.installTime = installTime;
+    }
+
     private static boolean shouldRun(final DeploymentUnit unit, final RegisteredDeploymentUnitProcessor deployer) {
         Set<String> shouldNotRun = unit.getAttachment(Attachments.EXCLUDED_SUBSYSTEMS);
         if (shouldNotRun == null) {
@@ -0,0 +1,629 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.security.CodeSigner;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+import org.jboss.as.server.ServerLogger;
+import org.jboss.as.server.ServerMessages;
+import org.jboss.vfs.TempDir;
+import org.jboss.vfs.TempFileProvider;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+import org.jboss.vfs.spi.FileSystem;
+
+/**
+ * A read-only {@link FileSystem} over a memory-mapped zip archive.
+ * <p>
+ * The central directory of the archive is indexed when the file system is created, and entries are read straight from
+ * the mapping.  Entries named like archives ({@code .jar}, {@code .war}, {@code .rar}, {@code .sar} and {@code .ear})
+ * which are stored uncompressed and hold a valid zip archive are presented as directories, and indexed in place, so
+ * such nested archives need not be mounted separately.  A compressed nested archive is presented as a file, which is
+ * mounted like any other archive.  Temporary files are only written when a caller asks for the physical file of an
+ * entry.
+ * <p>
+ * The mapping is released when the file system is closed.  Every read of the mapping holds a read lock, so closing
+ * waits for the reads in progress, and reads fail once the file system is closed.
+ * <p>
+ * Zip64 archives and archives larger than 2GB are not supported.
+ */
+final class MappedArchiveFileSystem implements FileSystem {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final String[] ARCHIVE_SUFFIXES = {".jar", ".war", ".rar", ".sar", ".ear"};
+
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int END_HEADER_SIGNATURE = 0x06054b50;
+    private static final int END_HEADER_LENGTH = 22;
+
+    private final File archiveFile;
+    private final TempFileProvider tempFileProvider;
+    private final Archive archive;
+    private final ReadWriteLock mappingLock = new ReentrantReadWriteLock();
+    private volatile TempDir tempDir;
+    private volatile boolean closed;
+
+    MappedArchiveFileSystem(final File archiveFile, final TempFileProvider tempFileProvider) throws IOException {
+        this.archiveFile = archiveFile;
+        this.tempFileProvider = tempFileProvider;
+        final RandomAccessFile file = new RandomAccessFile(archiveFile, "r");
+        try {
+            final FileChannel channel = file.getChannel();
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw ServerMessages.MESSAGES.cannotMapArchive(archiveFile);
+            }
+            // the mapping stays valid once the channel is closed
+            archive = Archive.create(this, channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size()), archiveFile.lastModified());
+        } finally {
+            VFSUtils.safeClose(file);
+        }
+        if (archive == null) {
+            throw ServerMessages.MESSAGES.cannotMapArchive(archiveFile);
+        }
+    }
+
+    /**
+     * Mount an archive through a mapped file system, or through a regular zip mount if the archive cannot be mapped.
+     *
+     * @param contents the archive
+     * @param mountPoint the mount point
+     * @param tempFileProvider the provider of the temporary files of the mount
+     * @return the mount handle
+     * @throws IOException if the archive could not be mounted
+     */
+    static Closeable mount(final VirtualFile contents, final VirtualFile mountPoint, final TempFileProvider tempFileProvider) throws IOException {
+        final MappedArchiveFileSystem fileSystem;
+        try {
+            fileSystem = new MappedArchiveFileSystem(contents.getPhysicalFile(), tempFileProvider);
+        } catch (IOException e) {
+            ServerLogger.ROOT_LOGGER.debugf(e, "Mounting %s as a regular zip archive", contents);
+            return VFS.mountZip(contents, mountPoint, tempFileProvider);
+        }
+        return VFS.mount(mountPoint, fileSystem);
+    }
+
+    private Node getNode(final VirtualFile mountPoint, final VirtualFile target) {
+        if (closed) {
+            return null;
+        }
+        Node node = archive.root;
+        if (mountPoint.equals(target)) {
+            return node;
+        }
+        for (String name : target.getPathNameRelativeTo(mountPoint).split("/")) {
+            if (name.length() == 0) {
+                continue;
+            }
+            if (node.children == null) {
+                final Archive nested = node.getNestedArchive();
+                if (nested == null) {
+                    return null;
+                }
+                node = nested.root;
+            }
+            node = node.children.get(name);
+            if (node == null) {
+                return null;
+            }
+        }
+        return node;
+    }
+
+    private Node getExistingNode(final VirtualFile mountPoint, final VirtualFile target) throws IOException {
+        final Node node = getNode(mountPoint, target);
+        if (node == null) {
+            throw ServerMessages.MESSAGES.notAMappedArchiveFile(target.getPathName());
+        }
+        return node;
+    }
+
+    @Override
+    public File getFile(final VirtualFile mountPoint, final VirtualFile target) throws IOException {
+        final Node node = getExistingNode(mountPoint, target);
+        synchronized (node) {
+            if (node.file == null) {
+                TempDir tempDir = this.tempDir;
+                if (tempDir == null) {
+                    synchronized (this) {
+                        tempDir = this.tempDir;
+                        if (tempDir == null) {
+                            this.tempDir = tempDir = tempFileProvider.createTempDir(archiveFile.getName());
+                        }
+                    }
+                }
+                final String path = mountPoint.equals(target) ? "contents" : "contents/" + target.getPathNameRelativeTo(mountPoint);
+                final File file = tempDir.getFile(path);
+                // like a zip mount, a nested archive is copied as is rather than exploded
+                if (node.children != null) {
+                    file.mkdirs();
+                } else {
+                    file.getParentFile().mkdirs();
+                    final InputStream in = node.openStream();
+                    try {
+                        final OutputStream out = new FileOutputStream(file);
+                        try {
+                            VFSUtils.copyStream(in, out);
+                        } finally {
+                            VFSUtils.safeClose(out);
+                        }
+                    } finally {
+                        VFSUtils.safeClose(in);
+                    }
+                }
+                node.file = file;
+            }
+            return node.file;
+        }
+    }
+
+    @Override
+    public InputStream openInputStream(final VirtualFile mountPoint, final VirtualFile target) throws IOException {
+        final Node node = getExistingNode(mountPoint, target);
+        if (node == archive.root) {
+            return new FileInputStream(archiveFile);
+        }
+        if (node.children != null) {
+            throw ServerMessages.MESSAGES.notAMappedArchiveFile(target.getPathName());
+        }
+        return node.openStream();
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public boolean delete(final VirtualFile mountPoint, final VirtualFile target) {
+        return false;
+    }
+
+    @Override
+    public long getSize(final VirtualFile mountPoint, final VirtualFile target) {
+        final Node node = getNode(mountPoint, target);
+        if (node == archive.root) {
+            return archiveFile.length();
+        }
+        return node == null || node.children != null ? 0L : node.size;
+    }
+
+    @Override
+    public long getLastModified(final VirtualFile mountPoint, final VirtualFile target) {
+        final Node node = getNode(mountPoint, target);
+        return node == null ? 0L : node.lastModified;
+    }
+
+    @Override
+    public boolean exists(final VirtualFile mountPoint, final VirtualFile target) {
+        return getNode(mountPoint, target) != null;
+    }
+
+    @Override
+    public boolean isFile(final VirtualFile mountPoint, final VirtualFile target) {
+        final Node node = getNode(mountPoint, target);
+        return node != null && !node.isDirectory();
+    }
+
+    @Override
+    public boolean isDirectory(final VirtualFile mountPoint, final VirtualFile target) {
+        final Node node = getNode(mountPoint, target);
+        return node != null && node.isDirectory();
+    }
+
+    @Override
+    public List<String> getDirectoryEntries(final VirtualFile mountPoint, final VirtualFile target) {
+        Node node = getNode(mountPoint, target);
+        if (node == null) {
+            return Collections.emptyList();
+        }
+        if (node.children == null) {
+            final Archive nested = node.getNestedArchive();
+            if (nested == null) {
+                return Collections.emptyList();
+            }
+            node = nested.root;
+        }
+        return new ArrayList<String>(node.children.keySet());
+    }
+
+    @Override
+    public CodeSigner[] getCodeSigners(final VirtualFile mountPoint, final VirtualFile target) {
+        // signatures are not verified when reading straight from the mapping
+        return null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        // wait for the reads in progress, later ones see the file system is closed
+        final Lock lock = mappingLock.writeLock();
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            lock.unlock();
+        }
+        VFSUtils.safeClose(tempDir);
+        unmap(archive.buffer);
+    }
+
+    /**
+     * Prevent the mapping from being released until {@link #unlockMapping()} is called.
+     *
+     * @return {@code false}, in which case nothing is locked, if the file system is closed
+     */
+    boolean lockMapping() {
+        final Lock lock = mappingLock.readLock();
+        lock.lock();
+        if (closed) {
+            lock.unlock();
+            return false;
+        }
+        return true;
+    }
+
+    void unlockMapping() {
+        mappingLock.readLock().unlock();
+    }
+
+    /**
+     * Release the mapping now rather than when the buffer is garbage collected, which would keep the content file
+     * open and, on some platforms, prevent it from being deleted.
+     */
+    private static void unmap(final ByteBuffer buffer) {
+        if (buffer.isDirect()) {
+            try {
+                final Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                final Object cleaner = cleanerMethod.invoke(buffer);
+                if (cleaner != null) {
+                    cleaner.getClass().getMethod("clean").invoke(cleaner);
+                }
+            } catch (Exception e) {
+                // not supported by this VM, the mapping is released once the buffer is collected
+                ServerLogger.ROOT_LOGGER.tracef(e, "Could not unmap %s", buffer);
+            }
+        }
+    }
+
+    @Override
+    public File getMountSource() {
+        return archiveFile;
+    }
+
+    @Override
+    public URI getRootURI() throws URISyntaxException {
+        return new URI("jar", archiveFile.toURI().toString() + "!/", null);
+    }
+
+    /**
+     * The index of one zip archive, either the mapped file itself or an archive nested in it.
+     */
+    private static final class Archive {
+        private final MappedArchiveFileSystem fileSystem;
+        private final ByteBuffer buffer;
+        private final Node root;
+
+        private Archive(final MappedArchiveFileSystem fileSystem, final ByteBuffer buffer, final long lastModified) {
+            this.fileSystem = fileSystem;
+            this.buffer = buffer;
+            this.root = new Node(this, "", true, lastModified);
+        }
+
+        /**
+         * Index an archive.
+         *
+         * @return the archive, or {@code null} if the buffer does not hold a zip archive this file system can read
+         */
+        static Archive create(final MappedArchiveFileSystem fileSystem, final ByteBuffer buffer, final long lastModified) {
+            final Archive archive = new Archive(fileSystem, buffer, lastModified);
+            return archive.index() ? archive : null;
+        }
+
+        private boolean index() {
+            final int limit = buffer.limit();
+            int end = -1;
+            for (int pos = limit - END_HEADER_LENGTH; pos >= 0 && pos >= limit - END_HEADER_LENGTH - 0xffff; pos--) {
+                if (u32(pos) == END_HEADER_SIGNATURE) {
+                    end = pos;
+                    break;
+                }
+            }
+            if (end < 0) {
+                return false;
+            }
+            final int count = u16(end + 10);
+            final long offset = u32(end + 16);
+            if (count == 0xffff || offset == 0xffffffffL || offset >= end) {
+                // zip64, or not an archive we understand
+                return false;
+            }
+            int pos = (int) offset;
+            for (int i = 0; i < count; i++) {
+                if (pos + 46 > end || u32(pos) != CENTRAL_HEADER_SIGNATURE) {
+                    return false;
+                }
+                final int nameLength = u16(pos + 28);
+                final int extraLength = u16(pos + 30);
+                final int commentLength = u16(pos + 32);
+                final String name = string(pos + 46, nameLength);
+                final Node node = getOrCreate(name);
+                if (node != null && node.children == null) {
+                    node.method = u16(pos + 10);
+                    node.lastModified = dosToJavaTime(u32(pos + 12));
+                    node.compressedSize = u32(pos + 20);
+                    node.size = u32(pos + 24);
+                    node.headerOffset = (int) u32(pos + 42);
+                    if (node.headerOffset + 30 > end || u32(node.headerOffset) != LOCAL_HEADER_SIGNATURE) {
+                        return false;
+                    }
+                }
+                pos += 46 + nameLength + extraLength + commentLength;
+            }
+            return true;
+        }
+
+        /**
+         * Get the node of an entry, creating it and its parent directories as needed.
+         *
+         * @return the node, or {@code null} if a parent of the entry is a file
+         */
+        private Node getOrCreate(final String name) {
+            final boolean directory = name.endsWith("/");
+            Node node = root;
+            final String[] names = name.split("/");
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].length() == 0) {
+                    continue;
+                }
+                if (node.children == null) {
+                    return null;
+                }
+                Node child = node.children.get(names[i]);
+                if (child == null) {
+                    child = new Node(this, names[i], directory || i < names.length - 1, root.lastModified);
+                    node.children.put(names[i], child);
+                }
+                node = child;
+            }
+            return node;
+        }
+
+        ByteBuffer slice(final int offset, final int length) {
+            final ByteBuffer duplicate = buffer.duplicate();
+            duplicate.position(offset);
+            duplicate.limit(offset + length);
+            return duplicate.slice();
+        }
+
+        int u16(final int pos) {
+            return (buffer.get(pos) & 0xff) | (buffer.get(pos + 1) & 0xff) << 8;
+        }
+
+        long u32(final int pos) {
+            return (u16(pos) | (long) u16(pos + 2) << 16) & 0xffffffffL;
+        }
+
+        private String string(final int pos, final int length) {
+            final byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = buffer.get(pos + i);
+            }
+            return new String(bytes, UTF_8);
+        }
+    }
+
+    /**
+     * A directory or a file of an archive.
+     */
+    private static final class Node {
+        private final Archive owner;
+        private final String name;
+        private final Map<String, Node> children;
+        private int method;
+        private long lastModified;
+        private long compressedSize;
+        private long size;
+        private int headerOffset;
+        private File file;
+        private boolean nestedArchiveChecked;
+        private Archive nestedArchive;
+
+        Node(final Archive owner, final String name, final boolean directory, final long lastModified) {
+            this.owner = owner;
+            this.name = name;
+            this.children = directory ? new TreeMap<String, Node>() : null;
+            this.lastModified = lastModified;
+        }
+
+        boolean isDirectory() {
+            return children != null || getNestedArchive() != null;
+        }
+
+        synchronized Archive getNestedArchive() {
+            if (!nestedArchiveChecked) {
+                // a compressed archive would have to be inflated to be indexed, so it is left as a file
+                if (children == null && method == ZipEntry.STORED && isArchiveName()) {
+                    final MappedArchiveFileSystem fileSystem = owner.fileSystem;
+                    if (!fileSystem.lockMapping()) {
+                        return null;
+                    }
+                    try {
+                        nestedArchive = Archive.create(fileSystem, data(0), lastModified);
+                    } finally {
+                        fileSystem.unlockMapping();
+                    }
+                }
+                nestedArchiveChecked = true;
+            }
+            return nestedArchive;
+        }
+
+        private boolean isArchiveName() {
+            for (String suffix : ARCHIVE_SUFFIXES) {
+                if (name.endsWith(suffix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Get the raw data of this entry, plus {@code extra} bytes after it when the archive has them.
+         */
+        private ByteBuffer data(final int extra) {
+            final int offset = headerOffset + 30 + owner.u16(headerOffset + 26) + owner.u16(headerOffset + 28);
+            final int length = (int) compressedSize;
+            return owner.slice(offset, Math.min(length + extra, owner.buffer.limit() - offset));
+        }
+
+        InputStream openStream() throws IOException {
+            if (method != ZipEntry.STORED && method != ZipEntry.DEFLATED) {
+                throw new ZipException("Unsupported compression method " + method);
+            }
+            final MappedArchiveFileSystem fileSystem = owner.fileSystem;
+            if (!fileSystem.lockMapping()) {
+                throw ServerMessages.MESSAGES.notAMappedArchiveFile(name);
+            }
+            final ByteBuffer data;
+            try {
+                // raw inflation may need one byte past the compressed data
+                data = data(method == ZipEntry.STORED ? 0 : 1);
+            } finally {
+                fileSystem.unlockMapping();
+            }
+            if (method == ZipEntry.STORED) {
+                return new ByteBufferInputStream(fileSystem, data);
+            }
+            final Inflater inflater = new Inflater(true);
+            return new InflaterInputStream(new ByteBufferInputStream(fileSystem, data), inflater) {
+                private boolean closed;
+
+                @Override
+                public void close() throws IOException {
+                    if (!closed) {
+                        closed = true;
+                        inflater.end();
+                        super.close();
+                    }
+                }
+            };
+        }
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+        private final MappedArchiveFileSystem fileSystem;
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(final MappedArchiveFileSystem fileSystem, final ByteBuffer buffer) {
+            this.fileSystem = fileSystem;
+            this.buffer = buffer;
+        }
+
+        // reading an unmapped buffer would crash the VM
+        private void lockMapping() throws IOException {
+            if (!fileSystem.lockMapping()) {
+                throw ServerMessages.MESSAGES.notAMappedArchiveFile(fileSystem.archiveFile.getPath());
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            lockMapping();
+            try {
+                return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+            } finally {
+                fileSystem.unlockMapping();
+            }
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            lockMapping();
+            try {
+                if (!buffer.hasRemaining()) {
+                    return -1;
+                }
+                final int n = Math.min(length, buffer.remaining());
+                buffer.get(bytes, offset, n);
+                return n;
+            } finally {
+                fileSystem.unlockMapping();
+            }
+        }
+
+        @Override
+        public long skip(final long n) {
+            final int skipped = (int) Math.max(0L, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+
+    private static long dosToJavaTime(final long time) {
+        final Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set((int) ((time >> 25) & 0x7f) + 1980, (int) ((time >> 21) & 0x0f) - 1, (int) ((time >> 16) & 0x1f),
+                (int) ((time >> 11) & 0x1f), (int) ((time >> 5) & 0x3f), (int) ((time << 1) & 0x3e));
+        return calendar.getTimeInMillis();
+    }
+}
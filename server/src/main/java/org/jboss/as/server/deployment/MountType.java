@@ -28,5 +28,9 @@ package org.jboss.as.server.deployment;
 public enum MountType {
     ZIP,
     EXPANDED,
-    REAL;
+    REAL,
+    /**
+     * Read the archive, and any archive nested in it, straight from the memory-mapped content file.
+     */
+    MAPPED;
 }
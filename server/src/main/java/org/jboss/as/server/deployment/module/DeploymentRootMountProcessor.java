@@ -45,6 +45,12 @@ import org.jboss.vfs.VirtualFile;
  */
 public class DeploymentRootMountProcessor implements DeploymentUnitProcessor {
 
+    /**
+     * Whether deployment archives are read straight from their memory-mapped content file rather than through a
+     * regular zip mount, which copies nested archives to temporary files.
+     */
+    private static final boolean MAPPED_ARCHIVES = Boolean.parseBoolean(SecurityActions.getSystemProperty("org.jboss.as.server.deployment.mapped-archives"));
+
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
         if(deploymentUnit.getAttachment(Attachments.DEPLOYMENT_ROOT) != null) {
@@ -82,6 +88,8 @@ public class DeploymentRootMountProcessor implements DeploymentUnitProcessor {
                     type = MountType.EXPANDED;
                 } else if (deploymentName.endsWith(".xml")) {
                     type = MountType.REAL;
+                } else if (MAPPED_ARCHIVES) {
+                    type = MountType.MAPPED;
                 } else {
                     type = MountType.ZIP;
                 }
@@ -22,6 +22,7 @@
 
 package org.jboss.as.server.deployment.reflect;
 
+import org.jboss.as.server.ServerMessages;
 import org.jboss.invocation.proxy.MethodIdentifier;
 
 import java.lang.reflect.Constructor;
@@ -44,47 +45,115 @@ import java.util.Map;
  */
 public final class ClassReflectionIndex<T> {
     private final Class<T> indexedClass;
-    private final Map<String, Field> fields;
-    private final Map<ParamList, Constructor<T>> constructors;
-    private final Map<ParamNameList, Constructor<T>> constructorsByTypeName;
-    private final Map<String, Map<ParamList, Map<Class<?>, Method>>> methods;
-    private final Map<String, Map<ParamNameList, Map<String, Method>>> methodsByTypeName;
+    private volatile Map<String, Field> fields;
+    private volatile Map<ParamList, Constructor<T>> constructors;
+    private volatile Map<ParamNameList, Constructor<T>> constructorsByTypeName;
+    private volatile Map<String, Map<ParamList, Map<Class<?>, Method>>> methods;
+    private volatile Map<String, Map<ParamNameList, Map<String, Method>>> methodsByTypeName;
 
-    @SuppressWarnings({"unchecked"})
     ClassReflectionIndex(final Class<T> indexedClass, final DeploymentReflectionIndex deploymentReflectionIndex) {
         this.indexedClass = indexedClass;
-        // -- fields --
-        final Field[] declaredFields = indexedClass.getDeclaredFields();
-        final Map<String, Field> fields = new HashMap<String, Field>();
-        for (Field field : declaredFields) {
-            field.setAccessible(true);
-            fields.put(field.getName(), field);
-        }
-        this.fields = fields;
-        // -- methods --
-        final Method[] declaredMethods = indexedClass.getDeclaredMethods();
-        final Map<String, Map<ParamList, Map<Class<?>, Method>>> methods = new HashMap<String, Map<ParamList, Map<Class<?>, Method>>>();
-        final Map<String, Map<ParamNameList, Map<String, Method>>> methodsByTypeName = new HashMap<String, Map<ParamNameList, Map<String, Method>>>();
-        for (Method method : declaredMethods) {
-            method.setAccessible(true);
-            addMethod(methods, method);
-            addMethodByTypeName(methodsByTypeName, method);
-        }
-
-        this.methods = methods;
-        this.methodsByTypeName = methodsByTypeName;
-        // -- constructors --
-        final Constructor<T>[] declaredConstructors = (Constructor<T>[]) indexedClass.getDeclaredConstructors();
-        final Map<ParamNameList, Constructor<T>> constructorsByTypeName = new HashMap<ParamNameList, Constructor<T>>();
-        final Map<ParamList, Constructor<T>> constructors = new HashMap<ParamList, Constructor<T>>();
-        for (Constructor<T> constructor : declaredConstructors) {
-            constructor.setAccessible(true);
-            Class<?>[] parameterTypes = constructor.getParameterTypes();
-            constructors.put(createParamList(parameterTypes), constructor);
-            constructorsByTypeName.put(createParamNameList(parameterTypes), constructor);
-        }
-        this.constructorsByTypeName = constructorsByTypeName;
-        this.constructors = constructors;
+    }
+
+    // The member tables are built on first use; once published they are only ever read, so lookups need no locking.
+
+    private Map<String, Field> fields() {
+        Map<String, Field> fields = this.fields;
+        if (fields == null) {
+            synchronized (this) {
+                fields = this.fields;
+                if (fields == null) {
+                    try {
+                        final Field[] declaredFields = indexedClass.getDeclaredFields();
+                        fields = new HashMap<String, Field>();
+                        for (Field field : declaredFields) {
+                            field.setAccessible(true);
+                            fields.put(field.getName(), field);
+                        }
+                    } catch (Throwable e) {
+                        throw errorGettingReflectiveInformation(e);
+                    }
+                    this.fields = fields;
+                }
+            }
+        }
+        return fields;
+    }
+
+    private Map<String, Map<ParamList, Map<Class<?>, Method>>> methods() {
+        Map<String, Map<ParamList, Map<Class<?>, Method>>> methods = this.methods;
+        if (methods == null) {
+            synchronized (this) {
+                methods = this.methods;
+                if (methods == null) {
+                    final Map<String, Map<ParamNameList, Map<String, Method>>> methodsByTypeName = new HashMap<String, Map<ParamNameList, Map<String, Method>>>();
+                    try {
+                        final Method[] declaredMethods = indexedClass.getDeclaredMethods();
+                        methods = new HashMap<String, Map<ParamList, Map<Class<?>, Method>>>();
+                        for (Method method : declaredMethods) {
+                            method.setAccessible(true);
+                            addMethod(methods, method);
+                            addMethodByTypeName(methodsByTypeName, method);
+                        }
+                    } catch (Throwable e) {
+                        throw errorGettingReflectiveInformation(e);
+                    }
+                    this.methodsByTypeName = methodsByTypeName;
+                    this.methods = methods;
+                }
+            }
+        }
+        return methods;
+    }
+
+    private Map<String, Map<ParamNameList, Map<String, Method>>> methodsByTypeName() {
+        Map<String, Map<ParamNameList, Map<String, Method>>> methodsByTypeName = this.methodsByTypeName;
+        if (methodsByTypeName == null) {
+            methods();
+            methodsByTypeName = this.methodsByTypeName;
+        }
+        return methodsByTypeName;
+    }
+
+    @SuppressWarnings({"unchecked"})
+    private Map<ParamList, Constructor<T>> constructors() {
+        Map<ParamList, Constructor<T>> constructors = this.constructors;
+        if (constructors == null) {
+            synchronized (this) {
+                constructors = this.constructors;
+                if (constructors == null) {
+                    final Map<ParamNameList, Constructor<T>> constructorsByTypeName = new HashMap<ParamNameList, Constructor<T>>();
+                    try {
+                        final Constructor<T>[] declaredConstructors = (Constructor<T>[]) indexedClass.getDeclaredConstructors();
+                        constructors = new HashMap<ParamList, Constructor<T>>();
+                        for (Constructor<T> constructor : declaredConstructors) {
+                            constructor.setAccessible(true);
+                            Class<?>[] parameterTypes = constructor.getParameterTypes();
+                            constructors.put(createParamList(parameterTypes), constructor);
+                            constructorsByTypeName.put(createParamNameList(parameterTypes), constructor);
+                        }
+                    } catch (Throwable e) {
+                        throw errorGettingReflectiveInformation(e);
+                    }
+                    this.constructorsByTypeName = constructorsByTypeName;
+                    this.constructors = constructors;
+                }
+            }
+        }
+        return constructors;
+    }
+
+    private Map<ParamNameList, Constructor<T>> constructorsByTypeName() {
+        Map<ParamNameList, Constructor<T>> constructorsByTypeName = this.constructorsByTypeName;
+        if (constructorsByTypeName == null) {
+            constructors();
+            constructorsByTypeName = this.constructorsByTypeName;
+        }
+        return constructorsByTypeName;
+    }
+
+    private RuntimeException errorGettingReflectiveInformation(final Throwable cause) {
+        return ServerMessages.MESSAGES.errorGettingReflectiveInformation(indexedClass, indexedClass.getClassLoader(), cause);
     }
 
     private static final ParamList EMPTY = new ParamList(new Class<?>[0]);
@@ -162,7 +231,7 @@ public final class ClassReflectionIndex<T> {
      * @return the field, or {@code null} if no field of that name exists
      */
     public Field getField(String name) {
-        return fields.get(name);
+        return fields().get(name);
     }
 
     /**
@@ -171,7 +240,7 @@ public final class ClassReflectionIndex<T> {
      * @return The (possibly empty) collection of all declared fields on this object
      */
     public Collection<Field> getFields() {
-        return Collections.unmodifiableCollection(fields.values());
+        return Collections.unmodifiableCollection(fields().values());
     }
 
     /**
@@ -183,7 +252,7 @@ public final class ClassReflectionIndex<T> {
      * @return the method, or {@code null} if no method of that description exists
      */
     public Method getMethod(Class<?> returnType, String name, Class<?>... paramTypes) {
-        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods.get(name);
+        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods().get(name);
         if (nameMap == null) {
             return null;
         }
@@ -213,7 +282,7 @@ public final class ClassReflectionIndex<T> {
      * @return the method, or {@code null} if no method of that description exists
      */
     public Method getMethod(String returnType, String name, String... paramTypeNames) {
-        final Map<ParamNameList, Map<String, Method>> nameMap = methodsByTypeName.get(name);
+        final Map<ParamNameList, Map<String, Method>> nameMap = methodsByTypeName().get(name);
         if (nameMap == null) {
             return null;
         }
@@ -231,7 +300,7 @@ public final class ClassReflectionIndex<T> {
      * @return the method, or {@code null} if no method of that description exists
      */
     public Method getMethod(MethodIdentifier methodIdentifier) {
-        final Map<ParamNameList, Map<String, Method>> nameMap = methodsByTypeName.get(methodIdentifier.getName());
+        final Map<ParamNameList, Map<String, Method>> nameMap = methodsByTypeName().get(methodIdentifier.getName());
         if (nameMap == null) {
             return null;
         }
@@ -250,7 +319,7 @@ public final class ClassReflectionIndex<T> {
      * @return the (possibly empty) collection of methods matching the description
      */
     public Collection<Method> getMethods(String name, Class<?>... paramTypes) {
-        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods.get(name);
+        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods().get(name);
         if (nameMap == null) {
             return Collections.emptySet();
         }
@@ -269,7 +338,7 @@ public final class ClassReflectionIndex<T> {
      * @return the (possibly empty) collection of methods matching the description
      */
     public Collection<Method> getMethods(String name, String... paramTypeNames) {
-        final Map<ParamNameList, Map<String, Method>> nameMap = methodsByTypeName.get(name);
+        final Map<ParamNameList, Map<String, Method>> nameMap = methodsByTypeName().get(name);
         if (nameMap == null) {
             return Collections.emptySet();
         }
@@ -287,7 +356,7 @@ public final class ClassReflectionIndex<T> {
      * @return the (possibly empty) collection of methods with the given name
      */
     public Collection<Method> getAllMethods(String name) {
-        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods.get(name);
+        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods().get(name);
         if (nameMap == null) {
             return Collections.emptySet();
         }
@@ -306,7 +375,7 @@ public final class ClassReflectionIndex<T> {
      * @return the (possibly empty) collection of methods with the given name and parameter count
      */
     public Collection<Method> getAllMethods(String name, int paramCount) {
-        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods.get(name);
+        final Map<ParamList, Map<Class<?>, Method>> nameMap = methods().get(name);
         if (nameMap == null) {
             return Collections.emptySet();
         }
@@ -328,7 +397,7 @@ public final class ClassReflectionIndex<T> {
      */
     public Collection<Method> getMethods() {
         final Collection<Method> methods = new ArrayList<Method>();
-        for (Map.Entry<String, Map<ParamList, Map<Class<?>, Method>>> entry : this.methods.entrySet()) {
+        for (Map.Entry<String, Map<ParamList, Map<Class<?>, Method>>> entry : methods().entrySet()) {
             final Map<ParamList, Map<Class<?>, Method>> nameMap = entry.getValue();
             for (Map<Class<?>, Method> map : nameMap.values()) {
                 methods.addAll(map.values());
@@ -343,7 +412,7 @@ public final class ClassReflectionIndex<T> {
      * @return the constructors
      */
     public Collection<Constructor<T>> getConstructors() {
-        return Collections.unmodifiableCollection(constructors.values());
+        return Collections.unmodifiableCollection(constructors().values());
     }
 
     /**
@@ -353,7 +422,7 @@ public final class ClassReflectionIndex<T> {
      * @return the constructor, or {@code null} of no such constructor exists
      */
     public Constructor<T> getConstructor(Class<?>... paramTypes) {
-        return constructors.get(createParamList(paramTypes));
+        return constructors().get(createParamList(paramTypes));
     }
 
     /**
@@ -363,7 +432,7 @@ public final class ClassReflectionIndex<T> {
      * @return the constructor, or {@code null} of no such constructor exists
      */
     public Constructor<T> getConstructor(String... paramTypeNames) {
-        return constructorsByTypeName.get(createParamNameList(paramTypeNames));
+        return constructorsByTypeName().get(createParamNameList(paramTypeNames));
     }
 
     private static final class ParamList {
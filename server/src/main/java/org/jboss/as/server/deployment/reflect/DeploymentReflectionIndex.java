@@ -23,10 +23,8 @@
 package org.jboss.as.server.deployment.reflect;
 
 import java.security.Permission;
-import java.util.HashMap;
-import java.util.Map;
-
-import org.jboss.as.server.ServerMessages;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * A reflection index for a deployment.
@@ -34,7 +32,7 @@ import org.jboss.as.server.ServerMessages;
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
 public final class DeploymentReflectionIndex {
-    private final Map<Class<?>, ClassReflectionIndex<?>> classes = new HashMap<Class<?>, ClassReflectionIndex<?>>();
+    private final ConcurrentMap<Class<?>, ClassReflectionIndex<?>> classes = new ConcurrentHashMap<Class<?>, ClassReflectionIndex<?>>();
 
     DeploymentReflectionIndex() {
     }
@@ -61,15 +59,15 @@ public final class DeploymentReflectionIndex {
      * @return the index
      */
     @SuppressWarnings({"unchecked"})
-    public synchronized <T> ClassReflectionIndex<T> getClassIndex(Class<T> clazz) {
-        try {
-            ClassReflectionIndex<T> index = (ClassReflectionIndex<T>) classes.get(clazz);
-            if (index == null) {
-                classes.put(clazz, index = new ClassReflectionIndex<T>(clazz, this));
+    public <T> ClassReflectionIndex<T> getClassIndex(Class<T> clazz) {
+        ClassReflectionIndex<T> index = (ClassReflectionIndex<T>) classes.get(clazz);
+        if (index == null) {
+            index = new ClassReflectionIndex<T>(clazz, this);
+            final ClassReflectionIndex<T> existing = (ClassReflectionIndex<T>) classes.putIfAbsent(clazz, index);
+            if (existing != null) {
+                index = existing;
             }
-            return index;
-        } catch (Throwable e) {
-            throw ServerMessages.MESSAGES.errorGettingReflectiveInformation(clazz, clazz.getClassLoader(), e);
         }
+        return index;
     }
 }
@@ -0,0 +1,279 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.jboss.vfs.TempFileProvider;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MappedArchiveFileSystemTestCase {
+
+    private static final byte[] TEXT = "Text that compresses rather well, well, well, well, well.".getBytes();
+
+    private ScheduledExecutorService executor;
+    private TempFileProvider tempFileProvider;
+    private File dir;
+    private final List<Closeable> handles = new ArrayList<Closeable>();
+
+    @Before
+    public void setUp() throws Exception {
+        this.executor = Executors.newSingleThreadScheduledExecutor();
+        this.tempFileProvider = TempFileProvider.create("mapped-test", this.executor);
+        this.dir = new File("target", "mapped-archive-test");
+        this.dir.mkdirs();
+    }
+
+    @After
+    public void tearDown() {
+        Collections.reverse(this.handles);
+        for (Closeable handle : this.handles) {
+            VFSUtils.safeClose(handle);
+        }
+        VFSUtils.safeClose(this.tempFileProvider);
+        this.executor.shutdownNow();
+        for (File file : this.dir.listFiles()) {
+            file.delete();
+        }
+        this.dir.delete();
+    }
+
+    @Test
+    public void storedAndDeflatedEntries() throws Exception {
+        File file = this.write("entries.jar", new ZipContent().add("stored.txt", TEXT, ZipEntry.STORED).add("deflated.txt", TEXT, ZipEntry.DEFLATED));
+        VirtualFile root = this.mount(file);
+
+        for (String name : new String[] { "stored.txt", "deflated.txt" }) {
+            VirtualFile entry = root.getChild(name);
+            assertTrue(name, entry.isFile());
+            assertFalse(name, entry.isDirectory());
+            assertEquals(name, TEXT.length, entry.getSize());
+            assertArrayEquals(name, TEXT, read(entry));
+        }
+        assertFalse(root.getChild("missing.txt").exists());
+        assertEquals(file.length(), root.getSize());
+    }
+
+    @Test
+    public void implicitDirectories() throws Exception {
+        File file = this.write("implicit.jar", new ZipContent().add("META-INF/a/b.txt", TEXT, ZipEntry.DEFLATED).add("META-INF/c.txt", TEXT, ZipEntry.STORED));
+        VirtualFile root = this.mount(file);
+
+        VirtualFile metaInf = root.getChild("META-INF");
+        assertTrue(metaInf.isDirectory());
+        assertEquals(2, metaInf.getChildren().size());
+        assertTrue(root.getChild("META-INF/a").isDirectory());
+        assertArrayEquals(TEXT, read(root.getChild("META-INF/a/b.txt")));
+        assertTrue(root.getChild("META-INF/a").getPhysicalFile().isDirectory());
+    }
+
+    @Test
+    public void nestedArchives() throws Exception {
+        byte[] nested = new ZipContent().add("WEB-INF/c.txt", TEXT, ZipEntry.DEFLATED).toByteArray();
+        File file = this.write("outer.ear", new ZipContent().add("lib/stored.jar", nested, ZipEntry.STORED).add("lib/deflated.war", nested, ZipEntry.DEFLATED).add("lib/notes.txt", TEXT, ZipEntry.DEFLATED));
+        VirtualFile root = this.mount(file);
+
+        VirtualFile stored = root.getChild("lib/stored.jar");
+        assertTrue(stored.isDirectory());
+        assertTrue(stored.getChild("WEB-INF").isDirectory());
+        assertArrayEquals(TEXT, read(stored.getChild("WEB-INF/c.txt")));
+
+        // A compressed nested archive is not inflated, but left to be mounted like any other archive
+        VirtualFile deflated = root.getChild("lib/deflated.war");
+        assertTrue(deflated.isFile());
+        assertFalse(deflated.getChild("WEB-INF").exists());
+        assertArrayEquals(nested, read(deflated));
+
+        for (String name : new String[] { "lib/stored.jar", "lib/deflated.war" }) {
+            VirtualFile archive = root.getChild(name);
+            // Like a zip mount, the physical file of a nested archive is the archive itself
+            File physical = archive.getPhysicalFile();
+            assertTrue(name, physical.isFile());
+            ZipFile zip = new ZipFile(physical);
+            try {
+                assertNotNull(name, zip.getEntry("WEB-INF/c.txt"));
+            } finally {
+                zip.close();
+            }
+        }
+        assertTrue(root.getChild("lib/notes.txt").isFile());
+    }
+
+    @Test
+    public void close() throws Exception {
+        File file = this.write("closed.jar", new ZipContent().add("a.txt", TEXT, ZipEntry.STORED));
+        VirtualFile mountPoint = VFS.getChild("/mapped/" + file.getName());
+        Closeable handle = VFS.mount(mountPoint, new MappedArchiveFileSystem(file, this.tempFileProvider));
+        InputStream input = mountPoint.getChild("a.txt").openStream();
+        handle.close();
+        try {
+            input.read();
+            fail("Read from a closed mapped archive");
+        } catch (IOException e) {
+            // Expected
+        } finally {
+            input.close();
+        }
+        // The mapping is released, so the archive can be deleted
+        assertTrue(file.delete());
+    }
+
+    @Test
+    public void closeWaitsForReads() throws Exception {
+        File file = this.write("reading.jar", new ZipContent().add("a.txt", TEXT, ZipEntry.STORED));
+        final MappedArchiveFileSystem fileSystem = new MappedArchiveFileSystem(file, this.tempFileProvider);
+        // Hold the mapping as a read in progress would
+        assertTrue(fileSystem.lockMapping());
+        Thread closer = new Thread() {
+            @Override
+            public void run() {
+                VFSUtils.safeClose(fileSystem);
+            }
+        };
+        closer.start();
+        closer.join(200);
+        assertTrue("Closed during a read", closer.isAlive());
+        fileSystem.unlockMapping();
+        closer.join(5000);
+        assertFalse(closer.isAlive());
+        assertFalse(fileSystem.lockMapping());
+    }
+
+    @Test
+    public void zip64Fallback() throws Exception {
+        // More entries than a zip end header can count
+        ZipContent content = new ZipContent();
+        for (int i = 0; i <= 0xffff; ++i) {
+            content.add(Integer.toString(i), new byte[0], ZipEntry.STORED);
+        }
+        File file = this.write("zip64.jar", content);
+        try {
+            new MappedArchiveFileSystem(file, this.tempFileProvider);
+            fail("Mapped a zip64 archive");
+        } catch (IOException e) {
+            // Expected
+        }
+        VirtualFile mountPoint = VFS.getChild("/mapped/" + file.getName());
+        this.handles.add(MappedArchiveFileSystem.mount(VFS.getChild(file.getAbsolutePath()), mountPoint, this.tempFileProvider));
+        assertTrue(mountPoint.getChild("65535").isFile());
+    }
+
+    @Test
+    public void largeArchiveFallback() throws Exception {
+        File file = new File(this.dir, "large.jar");
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            // Sparse, so no disk space is used
+            raf.setLength(Integer.MAX_VALUE + 1L);
+        } finally {
+            raf.close();
+        }
+        try {
+            new MappedArchiveFileSystem(file, this.tempFileProvider);
+            fail("Mapped an archive larger than 2GB");
+        } catch (IOException e) {
+            // Expected
+        }
+    }
+
+    private VirtualFile mount(File file) throws IOException {
+        VirtualFile mountPoint = VFS.getChild("/mapped/" + file.getName());
+        this.handles.add(VFS.mount(mountPoint, new MappedArchiveFileSystem(file, this.tempFileProvider)));
+        return mountPoint;
+    }
+
+    private File write(String name, ZipContent content) throws IOException {
+        File file = new File(this.dir, name);
+        FileOutputStream output = new FileOutputStream(file);
+        try {
+            output.write(content.toByteArray());
+        } finally {
+            output.close();
+        }
+        return file;
+    }
+
+    private static byte[] read(VirtualFile file) throws IOException {
+        InputStream input = file.openStream();
+        try {
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            VFSUtils.copyStream(input, output);
+            return output.toByteArray();
+        } finally {
+            input.close();
+        }
+    }
+
+    private static class ZipContent {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final ZipOutputStream output = new ZipOutputStream(this.bytes);
+
+        ZipContent add(String name, byte[] data, int method) throws IOException {
+            ZipEntry entry = new ZipEntry(name);
+            entry.setMethod(method);
+            if (method == ZipEntry.STORED) {
+                CRC32 crc = new CRC32();
+                crc.update(data);
+                entry.setCrc(crc.getValue());
+                entry.setSize(data.length);
+                entry.setCompressedSize(data.length);
+            }
+            this.output.putNextEntry(entry);
+            this.output.write(data);
+            this.output.closeEntry();
+            return this;
+        }
+
+        byte[] toByteArray() throws IOException {
+            this.output.close();
+            return this.bytes.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.reflect;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.jboss.invocation.proxy.MethodIdentifier;
+import org.junit.Test;
+
+public class DeploymentReflectionIndexTestCase {
+
+    @Test
+    public void classIndex() {
+        DeploymentReflectionIndex index = DeploymentReflectionIndex.create();
+        ClassReflectionIndex<Bean> classIndex = index.getClassIndex(Bean.class);
+        assertSame(Bean.class, classIndex.getIndexedClass());
+        assertSame(classIndex, index.getClassIndex(Bean.class));
+        // Indexes are not shared between deployments
+        assertTrue(classIndex != DeploymentReflectionIndex.create().getClassIndex(Bean.class));
+    }
+
+    @Test
+    public void fields() {
+        ClassReflectionIndex<Bean> index = DeploymentReflectionIndex.create().getClassIndex(Bean.class);
+        Field field = index.getField("name");
+        assertNotNull(field);
+        assertTrue(field.isAccessible());
+        assertNull(index.getField("missing"));
+        assertEquals(2, index.getFields().size());
+    }
+
+    @Test
+    public void methods() throws Exception {
+        ClassReflectionIndex<Bean> index = DeploymentReflectionIndex.create().getClassIndex(Bean.class);
+        Method method = index.getMethod(void.class, "setName", String.class);
+        assertEquals(Bean.class.getDeclaredMethod("setName", String.class), method);
+        assertTrue(method.isAccessible());
+        assertSame(method, index.getMethod("void", "setName", "java.lang.String"));
+        assertSame(method, index.getMethod(MethodIdentifier.getIdentifierForMethod(method)));
+        assertSame(method, index.getMethod(Bean.class.getDeclaredMethod("setName", String.class)));
+        assertNull(index.getMethod(void.class, "setName", Object.class));
+        assertEquals(2, index.getAllMethods("setName").size());
+        assertEquals(1, index.getAllMethods("setName", 2).size());
+        assertEquals(1, index.getMethods("setName", String.class).size());
+        assertEquals(1, index.getMethods("setName", "java.lang.String", "int").size());
+        assertEquals(0, index.getMethods("missing", String.class).size());
+        assertEquals(3, index.getMethods().size());
+    }
+
+    @Test
+    public void constructors() {
+        ClassReflectionIndex<Bean> index = DeploymentReflectionIndex.create().getClassIndex(Bean.class);
+        assertEquals(2, index.getConstructors().size());
+        Constructor<Bean> constructor = index.getConstructor(String.class);
+        assertNotNull(constructor);
+        assertTrue(constructor.isAccessible());
+        assertSame(constructor, index.getConstructor("java.lang.String"));
+        assertNotNull(index.getConstructor(new Class<?>[0]));
+        assertNull(index.getConstructor(Object.class));
+    }
+
+    @Test
+    public void concurrentAccess() throws Exception {
+        final DeploymentReflectionIndex index = DeploymentReflectionIndex.create();
+        final int threads = 8;
+        final CountDownLatch latch = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Method>> futures = new ArrayList<Future<Method>>(threads);
+            for (int i = 0; i < threads; ++i) {
+                futures.add(executor.submit(new Callable<Method>() {
+                    @Override
+                    public Method call() throws Exception {
+                        latch.await();
+                        return index.getClassIndex(Bean.class).getMethod(String.class, "getName");
+                    }
+                }));
+            }
+            latch.countDown();
+            Method method = futures.get(0).get();
+            assertNotNull(method);
+            for (Future<Method> future : futures) {
+                assertSame(method, future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void errorGettingReflectiveInformation() throws Exception {
+        // Defines Bean in a class loader that cannot see the type of one of its fields
+        Class<?> beanClass = new IsolatingClassLoader().loadClass(Bean.class.getName());
+        ClassReflectionIndex<?> index = DeploymentReflectionIndex.create().getClassIndex(beanClass);
+        try {
+            index.getFields();
+            fail("Fields of a class with an unresolvable field type were indexed");
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof NoClassDefFoundError);
+            assertTrue(e.getMessage(), e.getMessage().contains(Bean.class.getName()));
+        }
+    }
+
+    static class Dependency {
+    }
+
+    static class Bean {
+        private String name;
+        Dependency dependency;
+
+        Bean() {
+        }
+
+        Bean(String name) {
+            this.name = name;
+        }
+
+        String getName() {
+            return this.name;
+        }
+
+        void setName(String name) {
+            this.name = name;
+        }
+
+        void setName(String name, int index) {
+            this.name = name + index;
+        }
+    }
+
+    static class IsolatingClassLoader extends ClassLoader {
+        IsolatingClassLoader() {
+            super(IsolatingClassLoader.class.getClassLoader());
+        }
+
+        @Override
+        protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (name.equals(Dependency.class.getName())) {
+                throw new ClassNotFoundException(name);
+            }
+            if (name.equals(Bean.class.getName())) {
+                Class<?> loaded = this.findLoadedClass(name);
+                if (loaded == null) {
+                    byte[] bytes = this.read(name.replace('.', '/') + ".class");
+                    loaded = this.defineClass(name, bytes, 0, bytes.length);
+                }
+                return loaded;
+            }
+            return super.loadClass(name, resolve);
+        }
+
+        private byte[] read(String resource) throws ClassNotFoundException {
+            InputStream input = this.getParent().getResourceAsStream(resource);
+            if (input == null) {
+                throw new ClassNotFoundException(resource);
+            }
+            try {
+                try {
+                    ByteArrayOutputStream output = new ByteArrayOutputStream();
+                    byte[] buffer = new byte[4096];
+                    int count = input.read(buffer);
+                    while (count >= 0) {
+                        output.write(buffer, 0, count);
+                        count = input.read(buffer);
+                    }
+                    return output.toByteArray();
+                } finally {
+                    input.close();
+                }
+            } catch (IOException e) {
+                throw new ClassNotFoundException(resource, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.test.benchmark;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.jboss.dmr.ModelNode;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+
+/**
+ * Compares benchmark results with the scores of an earlier run, read from the JSON result file JMH writes.
+ */
+final class BaselineComparison {
+
+    private final Map<String, ModelNode> baseline;
+    private final double threshold;
+
+    private BaselineComparison(Map<String, ModelNode> baseline, double threshold) {
+        this.baseline = baseline;
+        this.threshold = threshold;
+    }
+
+    static BaselineComparison load(File file, double threshold) throws IOException {
+        final StringBuilder json = new StringBuilder();
+        final Reader reader = new InputStreamReader(new FileInputStream(file), "UTF-8");
+        try {
+            final char[] buffer = new char[8192];
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                json.append(buffer, 0, read);
+            }
+        } finally {
+            reader.close();
+        }
+
+        final Map<String, ModelNode> baseline = new HashMap<String, ModelNode>();
+        for (ModelNode run : ModelNode.fromJSONString(json.toString()).asList()) {
+            // JMH only writes the params of parameterized benchmarks
+            final SortedMap<String, String> params = new TreeMap<String, String>();
+            if (run.hasDefined("params")) {
+                for (String name : run.get("params").keys()) {
+                    params.put(name, run.get("params", name).asString());
+                }
+            }
+            baseline.put(key(run.get("benchmark").asString(), run.get("mode").asString(), params), run.get("primaryMetric"));
+        }
+        return new BaselineComparison(baseline, threshold);
+    }
+
+    /**
+     * Prints the difference to the baseline for every benchmark.
+     *
+     * @param results the results of the current run
+     * @param out where to print the comparison
+     * @return {@code true} if any benchmark regressed by more than the threshold
+     */
+    boolean compare(Collection<RunResult> results, PrintStream out) {
+        boolean regressed = false;
+        out.println();
+        out.println(String.format("%-90s %14s %14s %9s", "Benchmark", "Baseline", "Current", "Change"));
+        for (RunResult run : results) {
+            final String mode = run.getParams().getMode().shortLabel();
+            final SortedMap<String, String> params = new TreeMap<String, String>();
+            for (String name : run.getParams().getParamsKeys()) {
+                params.put(name, run.getParams().getParam(name));
+            }
+            final String benchmark = params.isEmpty() ? run.getParams().getBenchmark() : run.getParams().getBenchmark() + ':' + params;
+            final Result<?> current = run.getPrimaryResult();
+            final ModelNode previous = baseline.get(key(run.getParams().getBenchmark(), mode, params));
+            if (previous == null) {
+                out.println(String.format("%-90s %14s %14.3f %9s", benchmark, "-", current.getScore(), "new"));
+                continue;
+            }
+
+            final double before = previous.get("score").asDouble();
+            final double change = before == 0 ? 0 : (current.getScore() - before) * 100 / before;
+            // throughput should not drop, all the other modes measure time which should not grow
+            final double regression = "thrpt".equals(mode) ? -change : change;
+            final boolean failed = regression > threshold;
+            regressed |= failed;
+            out.println(String.format("%-90s %14.3f %14.3f %+8.1f%% %s", benchmark, before, current.getScore(), change,
+                    failed ? "REGRESSION" : ""));
+        }
+        return regressed;
+    }
+
+    private static String key(String benchmark, String mode, SortedMap<String, String> params) {
+        return benchmark + '#' + mode + params;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.test.benchmark;
+
+import java.io.File;
+import java.util.Collection;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks of this module and optionally compares the results against a baseline produced by
+ * an earlier run. Everything runs in-process from the benchmarks jar, so no server or network is needed.
+ * <p/>
+ * Supported system properties:
+ * <ul>
+ * <li>{@code benchmark.include} - regular expression selecting the benchmarks to run, all by default</li>
+ * <li>{@code benchmark.result} - the JSON file the results are written to, {@code benchmark-results.json} by default</li>
+ * <li>{@code benchmark.baseline} - a JSON result file of an earlier run to compare with</li>
+ * <li>{@code benchmark.threshold} - the allowed regression in percent, 10 by default</li>
+ * </ul>
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        final String include = System.getProperty("benchmark.include", "org\\.jboss\\.as\\.test\\.benchmark\\..*");
+        final String result = System.getProperty("benchmark.result", "benchmark-results.json");
+        final String baseline = System.getProperty("benchmark.baseline");
+        final double threshold = Double.parseDouble(System.getProperty("benchmark.threshold", "10"));
+
+        final ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(include)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result);
+        final Collection<RunResult> results = new Runner(options.build()).run();
+
+        if (baseline != null) {
+            final BaselineComparison comparison = BaselineComparison.load(new File(baseline), threshold);
+            final boolean regressed = comparison.compare(results, System.out);
+            if (regressed) {
+                System.exit(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.test.benchmark.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RECURSIVE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WRITE_ATTRIBUTE_OPERATION;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.AbstractControllerService;
+import org.jboss.as.controller.ControlledProcessState;
+import org.jboss.as.controller.ExpressionResolver;
+import org.jboss.as.controller.ModelController;
+import org.jboss.as.controller.ModelOnlyWriteAttributeHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.ProcessType;
+import org.jboss.as.controller.ResourceBuilder;
+import org.jboss.as.controller.RunningMode;
+import org.jboss.as.controller.RunningModeControl;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
+import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
+import org.jboss.as.controller.persistence.NullConfigurationPersister;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures management operations executed through {@code ModelControllerImpl}: attribute reads and writes
+ * on a single resource and a recursive read of a model with a few hundred resources.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelControllerBenchmark {
+
+    private static final int CHILDREN = 200;
+
+    private static final SimpleAttributeDefinition ATTRIBUTE = new SimpleAttributeDefinitionBuilder("attribute", ModelType.INT, true).build();
+
+    private ServiceContainer container;
+    private ModelController controller;
+    private ModelNode readAttribute;
+    private ModelNode writeAttribute;
+    private ModelNode readResource;
+    private int value;
+
+    @Setup
+    public void setup() throws Exception {
+        container = ServiceContainer.Factory.create("benchmark");
+        final BenchmarkControllerService service = new BenchmarkControllerService();
+        container.subTarget().addService(ServiceName.of("benchmark", "controller"), service).install();
+        service.awaitStartup();
+        controller = service.getValue();
+
+        final ModelNode address = PathAddress.pathAddress(PathElement.pathElement("child", "child" + (CHILDREN / 2))).toModelNode();
+        readAttribute = new ModelNode();
+        readAttribute.get(OP).set(READ_ATTRIBUTE_OPERATION);
+        readAttribute.get(OP_ADDR).set(address);
+        readAttribute.get(NAME).set(ATTRIBUTE.getName());
+
+        writeAttribute = new ModelNode();
+        writeAttribute.get(OP).set(WRITE_ATTRIBUTE_OPERATION);
+        writeAttribute.get(OP_ADDR).set(address);
+        writeAttribute.get(NAME).set(ATTRIBUTE.getName());
+
+        readResource = new ModelNode();
+        readResource.get(OP).set(READ_RESOURCE_OPERATION);
+        readResource.get(OP_ADDR).setEmptyList();
+        readResource.get(RECURSIVE).set(true);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        container.shutdown();
+        container.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public ModelNode readAttribute() {
+        return controller.execute(readAttribute, null, null, null);
+    }
+
+    @Benchmark
+    public ModelNode writeAttribute() {
+        final ModelNode operation = writeAttribute.clone();
+        operation.get(VALUE).set(++value);
+        return controller.execute(operation, null, null, null);
+    }
+
+    @Benchmark
+    public ModelNode readResourceRecursive() {
+        return controller.execute(readResource, null, null, null);
+    }
+
+    private static final class BenchmarkControllerService extends AbstractControllerService {
+
+        private final CountDownLatch latch = new CountDownLatch(2);
+
+        BenchmarkControllerService() {
+            super(ProcessType.EMBEDDED_SERVER, new RunningModeControl(RunningMode.NORMAL), new NullConfigurationPersister(),
+                    new ControlledProcessState(true),
+                    ResourceBuilder.Factory.create(PathElement.pathElement("root"), new NonResolvingResourceDescriptionResolver()).build(),
+                    null, ExpressionResolver.TEST_RESOLVER);
+        }
+
+        void awaitStartup() throws InterruptedException {
+            if (!latch.await(30, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Controller did not boot");
+            }
+        }
+
+        @Override
+        public void start(StartContext context) throws StartException {
+            super.start(context);
+            latch.countDown();
+        }
+
+        @Override
+        protected void bootThreadDone() {
+            super.bootThreadDone();
+            latch.countDown();
+        }
+
+        @Override
+        protected void initModel(Resource rootResource, ManagementResourceRegistration rootRegistration) {
+            GlobalOperationHandlers.registerGlobalOperations(rootRegistration, ProcessType.EMBEDDED_SERVER);
+            final ManagementResourceRegistration child = rootRegistration.registerSubModel(
+                    new SimpleResourceDefinition(PathElement.pathElement("child"), new NonResolvingResourceDescriptionResolver()));
+            child.registerReadWriteAttribute(ATTRIBUTE, null, new ModelOnlyWriteAttributeHandler(ATTRIBUTE));
+
+            for (int i = 0; i < CHILDREN; ++i) {
+                final Resource resource = Resource.Factory.create();
+                resource.getModel().get(ATTRIBUTE.getName()).set(i);
+                rootResource.registerChild(PathElement.pathElement("child", "child" + i), resource);
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.test.benchmark.ee;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.ee.component.ProxyInvocationHandler;
+import org.jboss.invocation.ImmediateInterceptorFactory;
+import org.jboss.invocation.Interceptor;
+import org.jboss.invocation.InterceptorContext;
+import org.jboss.invocation.InterceptorFactory;
+import org.jboss.invocation.Interceptors;
+import org.jboss.invocation.SimpleInterceptorFactoryContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the per-call cost of a local component view invocation: the client side
+ * {@link ProxyInvocationHandler} creating the invocation context and running an interceptor chain of
+ * the given length in front of a trivial terminal interceptor, as for a local SLSB or managed bean call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComponentViewInvocationBenchmark {
+
+    public interface LocalView {
+        Object echo(Object value);
+    }
+
+    @Param({"0", "8"})
+    private int interceptors;
+
+    private ProxyInvocationHandler handler;
+    private Method method;
+    private Object[] args;
+
+    @Setup
+    public void setup() throws Exception {
+        method = LocalView.class.getMethod("echo", Object.class);
+        args = new Object[] { "value" };
+
+        final List<InterceptorFactory> factories = new ArrayList<InterceptorFactory>();
+        for (int i = 0; i < interceptors; ++i) {
+            factories.add(new ImmediateInterceptorFactory(new PassThroughInterceptor()));
+        }
+        factories.add(new ImmediateInterceptorFactory(new EchoInterceptor()));
+        final Interceptor chain = Interceptors.getChainedInterceptorFactory(factories).create(new SimpleInterceptorFactoryContext());
+
+        final Map<Method, Interceptor> entryPoints = new IdentityHashMap<Method, Interceptor>();
+        entryPoints.put(method, chain);
+        handler = new ProxyInvocationHandler(entryPoints, null, null);
+    }
+
+    @Benchmark
+    public Object invoke() throws Throwable {
+        return handler.invoke(this, method, args);
+    }
+
+    private static final class PassThroughInterceptor implements Interceptor {
+        public Object processInvocation(final InterceptorContext context) throws Exception {
+            return context.proceed();
+        }
+    }
+
+    private static final class EchoInterceptor implements Interceptor {
+        public Object processInvocation(final InterceptorContext context) throws Exception {
+            return context.getParameters()[0];
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.test.benchmark.ejb3;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.ejb3.pool.StatelessObjectFactory;
+import org.jboss.as.ejb3.pool.strictmax.StrictMaxPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a get/release cycle on the {@link StrictMaxPool} used for stateless session beans,
+ * uncontended and with several threads sharing a pool that is large enough for all of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StrictMaxPoolBenchmark {
+
+    private StrictMaxPool<Object> pool;
+
+    @Setup
+    public void setup() {
+        pool = new StrictMaxPool<Object>(new StatelessObjectFactory<Object>() {
+            public Object create() {
+                return new Object();
+            }
+
+            public void destroy(Object obj) {
+            }
+        }, 20, 5, TimeUnit.MINUTES);
+        pool.start();
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.stop();
+    }
+
+    @Benchmark
+    public Object getRelease() {
+        final Object instance = pool.get();
+        pool.release(instance);
+        return instance;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object getReleaseContended() {
+        final Object instance = pool.get();
+        pool.release(instance);
+        return instance;
+    }
+}
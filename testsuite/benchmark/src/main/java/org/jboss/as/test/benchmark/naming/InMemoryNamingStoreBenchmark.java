@@ -0,0 +1,95 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.test.benchmark.naming;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.naming.CompositeName;
+import javax.naming.Name;
+
+import org.jboss.as.naming.InMemoryNamingStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures lookups in an {@link InMemoryNamingStore} populated like a deployment's java:comp/env
+ * with a few hundred bindings spread over nested contexts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InMemoryNamingStoreBenchmark {
+
+    private static final int CONTEXTS = 10;
+    private static final int BINDINGS = 50;
+
+    private InMemoryNamingStore store;
+    private Name shallow;
+    private Name deep;
+
+    @Setup
+    public void setup() throws Exception {
+        store = new InMemoryNamingStore();
+        for (int i = 0; i < CONTEXTS; ++i) {
+            for (int j = 0; j < BINDINGS; ++j) {
+                store.bind(new CompositeName("app/module" + i + "/env/jdbc/binding" + j), new Object(), Object.class);
+            }
+        }
+        store.bind(new CompositeName("binding"), new Object(), Object.class);
+        shallow = new CompositeName("binding");
+        deep = new CompositeName("app/module" + (CONTEXTS / 2) + "/env/jdbc/binding" + (BINDINGS / 2));
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        store.close();
+    }
+
+    @Benchmark
+    public Object lookupShallow() throws Exception {
+        return store.lookup(shallow);
+    }
+
+    @Benchmark
+    public Object lookupDeep() throws Exception {
+        return store.lookup(deep);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object lookupDeepContended() throws Exception {
+        return store.lookup(deep);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.test.benchmark.server;
+
+import java.io.Closeable;
+import java.io.File;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.naming.InMemoryNamingStore;
+import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.annotation.ResourceRootIndexer;
+import org.jboss.as.server.deployment.module.ResourceRoot;
+import org.jboss.jandex.Index;
+import org.jboss.vfs.TempFileProvider;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures Jandex indexing of a resource root through {@link ResourceRootIndexer}. The indexed root is the
+ * {@code org/jboss/as/naming} package of the archive the benchmarks are run from, mounted through VFS
+ * the same way deployment archives are.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResourceRootIndexerBenchmark {
+
+    private ScheduledExecutorService executor;
+    private TempFileProvider tempFileProvider;
+    private Closeable mount;
+    private VirtualFile root;
+
+    @Setup
+    public void setup() throws Exception {
+        final File source = new File(InMemoryNamingStore.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        final VirtualFile sourceRoot = VFS.getChild(source.getAbsolutePath());
+        if (source.isFile()) {
+            executor = Executors.newSingleThreadScheduledExecutor();
+            tempFileProvider = TempFileProvider.create("benchmark", executor);
+            mount = VFS.mountZip(source, sourceRoot, tempFileProvider);
+        }
+        root = sourceRoot.getChild("org/jboss/as/naming");
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        VFSUtils.safeClose(mount);
+        VFSUtils.safeClose(tempFileProvider);
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Benchmark
+    public Index index() throws Exception {
+        final ResourceRoot resourceRoot = new ResourceRoot(root, null);
+        ResourceRootIndexer.indexResourceRoot(resourceRoot);
+        return resourceRoot.getAttachment(Attachments.ANNOTATION_INDEX);
+    }
+}
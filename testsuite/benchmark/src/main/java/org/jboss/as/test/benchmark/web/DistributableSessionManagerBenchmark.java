@@ -0,0 +1,96 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2012, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.test.benchmark.web;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.catalina.Session;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.jboss.as.web.session.DistributableSessionManager;
+import org.jboss.as.web.session.SessionTestUtil;
+import org.jboss.metadata.web.jboss.JBossWebMetaData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures session creation and lookup in a {@link DistributableSessionManager} backed by a local
+ * (non clustered) Infinispan cache, which isolates the manager's own overhead from replication.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DistributableSessionManagerBenchmark {
+
+    private static final int SESSIONS = 1000;
+
+    private EmbeddedCacheManager cacheContainer;
+    private DistributableSessionManager<?> manager;
+    private final Random random = new Random();
+    private String[] ids;
+    private int next;
+
+    @Setup
+    public void setup() throws Exception {
+        final JBossWebMetaData metaData = SessionTestUtil.createWebMetaData(-1);
+        cacheContainer = SessionTestUtil.createCacheContainer(true, null, false, false);
+        cacheContainer.start();
+        manager = SessionTestUtil.createManager(metaData, "benchmark", 1800, cacheContainer, "benchmark");
+        manager.start();
+
+        ids = new String[SESSIONS];
+        for (int i = 0; i < SESSIONS; ++i) {
+            ids[i] = manager.createSession(null, random).getIdInternal();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        manager.stop();
+        cacheContainer.stop();
+    }
+
+    @Benchmark
+    public Session createAndRemove() {
+        final Session session = manager.createSession(null, random);
+        manager.remove(session);
+        return session;
+    }
+
+    @Benchmark
+    public Session find() {
+        next = (next + 1) % SESSIONS;
+        return manager.findSession(ids[next]);
+    }
+}
@@ -46,6 +46,7 @@ public class MyServiceActivator implements ServiceActivator {
         MyService service = new MyService();
         SingletonService<Environment> singleton = new SingletonService<Environment>(service, MyService.SERVICE_NAME);
         singleton.setElectionPolicy(new PreferredSingletonElectionPolicy(new SimpleSingletonElectionPolicy(), new NamePreference(PREFERRED_NODE + "/" + SingletonService.DEFAULT_CONTAINER)));
+        singleton.setHotStandby(true);
         singleton.build(context.getServiceTarget())
             .addDependency(ServerEnvironmentService.SERVICE_NAME, ServerEnvironment.class, service.getEnvInjector())
             .setInitialMode(ServiceController.Mode.ACTIVE)
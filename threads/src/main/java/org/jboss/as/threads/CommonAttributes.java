@@ -35,9 +35,13 @@ public interface CommonAttributes {
     String CORE_THREADS = "core-threads";
     String COUNT = "count";
     String CURRENT_THREAD_COUNT = "current-thread-count";
+    String EXECUTION_TIME_50TH_PERCENTILE = "execution-time-50th-percentile";
+    String EXECUTION_TIME_90TH_PERCENTILE = "execution-time-90th-percentile";
+    String EXECUTION_TIME_99TH_PERCENTILE = "execution-time-99th-percentile";
     String PER_CPU = "per-cpu";
     String HANDOFF_EXECUTOR = "handoff-executor";
     String LARGEST_THREAD_COUNT = "largest-thread-count";
+    String LATENCY_STATISTICS_ENABLED = "latency-statistics-enabled";
     String NAME = "name";
     String GROUP_NAME = "group-name";
     String KEEPALIVE_TIME = "keepalive-time";
@@ -48,8 +52,12 @@ public interface CommonAttributes {
     String QUEUELESS_THREAD_POOL = "queueless-thread-pool";
     String QUEUE_LENGTH = "queue-length";
     String QUEUE_SIZE = "queue-size";
+    String QUEUE_WAIT_TIME_50TH_PERCENTILE = "queue-wait-time-50th-percentile";
+    String QUEUE_WAIT_TIME_90TH_PERCENTILE = "queue-wait-time-90th-percentile";
+    String QUEUE_WAIT_TIME_99TH_PERCENTILE = "queue-wait-time-99th-percentile";
     String REJECTED_COUNT = "rejected-count";
     String SCHEDULED_THREAD_POOL = "scheduled-thread-pool";
+    String STEAL_COUNT = "steal-count";
     String TASK_COUNT = "task-count";
     String THREADS = "threads";
     String TIME = "time";
@@ -58,4 +66,5 @@ public interface CommonAttributes {
     String UNBOUNDED_QUEUE_THREAD_POOL = "unbounded-queue-thread-pool";
     String UNIT = "unit";
     String VALUE = "value";
+    String WORK_STEALING_THREAD_POOL = "work-stealing-thread-pool";
 }
@@ -0,0 +1,139 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of {@code long} values whose counts are halved every half-life, so that percentiles follow recent
+ * values rather than everything recorded since the histogram was created.
+ * <p>
+ * Each power of two is split into eight buckets, which bounds the error of a reported percentile to 12.5%.
+ * Recording a value is one atomic increment; the decay is applied by whichever thread first notices that a
+ * half-life has passed.
+ */
+final class DecayingHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) << SUB_BUCKET_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final long halfLifeNanos;
+    private final AtomicLong nextDecay;
+
+    DecayingHistogram(final long halfLife, final TimeUnit unit) {
+        this(halfLife, unit, System.nanoTime());
+    }
+
+    DecayingHistogram(final long halfLife, final TimeUnit unit, final long now) {
+        halfLifeNanos = unit.toNanos(halfLife);
+        nextDecay = new AtomicLong(now + halfLifeNanos);
+    }
+
+    /**
+     * Record a value.
+     *
+     * @param value the value; negative values are recorded as zero
+     * @param now the current {@link System#nanoTime()}
+     */
+    void record(final long value, final long now) {
+        decay(now);
+        counts.incrementAndGet(index(value < 0L ? 0L : value));
+    }
+
+    /**
+     * Get an upper bound of the value at the given percentile.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the upper bound of the bucket holding the percentile, or {@code 0} if nothing has been recorded
+     */
+    long getPercentile(final double percentile) {
+        return getPercentile(percentile, System.nanoTime());
+    }
+
+    long getPercentile(final double percentile, final long now) {
+        decay(now);
+        final long[] snapshot = new long[BUCKETS];
+        long total = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += snapshot[i] = counts.get(i);
+        }
+        if (total == 0L) {
+            return 0L;
+        }
+        final long rank = Math.max(1L, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0L;
+        int last = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            if (snapshot[i] != 0L) {
+                seen += snapshot[i];
+                last = i;
+                if (seen >= rank) {
+                    break;
+                }
+            }
+        }
+        return highestValue(last);
+    }
+
+    private void decay(final long now) {
+        final long next = nextDecay.get();
+        if (now - next < 0L) {
+            return;
+        }
+        final long halvings = (now - next) / halfLifeNanos + 1L;
+        if (!nextDecay.compareAndSet(next, next + halvings * halfLifeNanos)) {
+            // another thread is decaying
+            return;
+        }
+        final int shift = (int) Math.min(halvings, 63L);
+        for (int i = 0; i < BUCKETS; i++) {
+            long count;
+            do {
+                count = counts.get(i);
+            } while (count != 0L && !counts.compareAndSet(i, count, count >>> shift));
+        }
+    }
+
+    static int index(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        return ((exponent - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS)
+                + (int) ((value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+    }
+
+    static long highestValue(final int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int exponent = (index >>> SUB_BUCKET_BITS) + SUB_BUCKET_BITS - 1;
+        final long subBucket = SUB_BUCKETS + (index & (SUB_BUCKETS - 1));
+        // wraps to Long.MAX_VALUE for the last bucket
+        return ((subBucket + 1L) << (exponent - SUB_BUCKET_BITS)) - 1L;
+    }
+}
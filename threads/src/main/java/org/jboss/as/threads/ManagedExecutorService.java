@@ -41,6 +41,7 @@ import org.jboss.threads.JBossExecutors;
 public abstract class ManagedExecutorService implements ExecutorService {
 
     private final ExecutorService executor;
+    private volatile TaskLatencyRecorder latencyRecorder;
 
     public ManagedExecutorService(ExecutorService executor) {
         if(executor == null) {
@@ -55,13 +56,52 @@ public abstract class ManagedExecutorService implements ExecutorService {
 
     abstract void internalShutdown();
 
+    boolean isLatencyStatisticsEnabled() {
+        return latencyRecorder != null;
+    }
+
+    /**
+     * Enable or disable recording of task queue wait and execution times. Enabling the statistics again starts from
+     * empty histograms.
+     *
+     * @param enabled {@code true} to record latencies of tasks submitted from now on
+     */
+    synchronized void setLatencyStatisticsEnabled(boolean enabled) {
+        if (enabled != isLatencyStatisticsEnabled()) {
+            latencyRecorder = enabled ? new TaskLatencyRecorder() : null;
+        }
+    }
+
+    TaskLatencyRecorder getLatencyRecorder() {
+        return latencyRecorder;
+    }
+
+    Runnable timed(Runnable task) {
+        return timed(task, 0L, 0L);
+    }
+
+    Runnable timed(Runnable task, long delayNanos, long periodNanos) {
+        final TaskLatencyRecorder recorder = latencyRecorder;
+        return recorder == null || task == null ? task : recorder.wrap(task, delayNanos, periodNanos);
+    }
+
+    <T> Callable<T> timed(Callable<T> task, long delayNanos) {
+        final TaskLatencyRecorder recorder = latencyRecorder;
+        return recorder == null || task == null ? task : recorder.wrap(task, delayNanos);
+    }
+
+    <T> Collection<? extends Callable<T>> timed(Collection<? extends Callable<T>> tasks) {
+        final TaskLatencyRecorder recorder = latencyRecorder;
+        return recorder == null || tasks == null ? tasks : recorder.wrap(tasks);
+    }
+
     /**
      * {@inheritDoc}
      * @see java.util.concurrent.Executor#execute(java.lang.Runnable)
      */
     @Override
     public void execute(Runnable command) {
-        this.executor.execute(command);
+        this.executor.execute(timed(command));
     }
 
     /**
@@ -116,7 +156,7 @@ public abstract class ManagedExecutorService implements ExecutorService {
      */
     @Override
     public <T> Future<T> submit(Callable<T> task) {
-        return this.executor.submit(task);
+        return this.executor.submit(timed(task, 0L));
     }
 
     /**
@@ -125,7 +165,7 @@ public abstract class ManagedExecutorService implements ExecutorService {
      */
     @Override
     public <T> Future<T> submit(Runnable task, T result) {
-        return this.executor.submit(task, result);
+        return this.executor.submit(timed(task), result);
     }
 
     /**
@@ -134,7 +174,7 @@ public abstract class ManagedExecutorService implements ExecutorService {
      */
     @Override
     public Future<?> submit(Runnable task) {
-        return this.executor.submit(task);
+        return this.executor.submit(timed(task));
     }
 
     /**
@@ -143,7 +183,7 @@ public abstract class ManagedExecutorService implements ExecutorService {
      */
     @Override
     public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
-        return this.executor.invokeAll(tasks);
+        return this.executor.invokeAll(timed(tasks));
     }
 
     /**
@@ -152,7 +192,7 @@ public abstract class ManagedExecutorService implements ExecutorService {
      */
     @Override
     public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) throws InterruptedException {
-        return this.executor.invokeAll(tasks, timeout, unit);
+        return this.executor.invokeAll(timed(tasks), timeout, unit);
     }
 
     /**
@@ -161,7 +201,7 @@ public abstract class ManagedExecutorService implements ExecutorService {
      */
     @Override
     public <T> T invokeAny(Collection<? extends Callable<T>> tasks) throws InterruptedException, ExecutionException {
-        return this.executor.invokeAny(tasks);
+        return this.executor.invokeAny(timed(tasks));
     }
 
     /**
@@ -170,6 +210,6 @@ public abstract class ManagedExecutorService implements ExecutorService {
      */
     @Override
     public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
-        return this.executor.invokeAny(tasks, timeout, unit);
+        return this.executor.invokeAny(timed(tasks), timeout, unit);
     }
 }
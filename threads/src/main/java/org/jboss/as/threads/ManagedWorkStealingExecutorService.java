@@ -0,0 +1,90 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+/**
+ * {@link ManagedExecutorService} wrapping a {@link WorkStealingExecutor}.
+ */
+public class ManagedWorkStealingExecutorService extends ManagedExecutorService {
+
+    private final WorkStealingExecutor executor;
+
+    public ManagedWorkStealingExecutorService(WorkStealingExecutor executor) {
+        super(executor);
+        this.executor = executor;
+    }
+
+    @Override
+    void internalShutdown() {
+        executor.shutdown();
+    }
+
+    public int getMaxThreads() {
+        return executor.getMaxThreads();
+    }
+
+    // Package protected for subsys write-attribute handlers
+    void setMaxThreads(int maxThreads) {
+        executor.setMaxThreads(maxThreads);
+    }
+
+    public long getKeepAlive() {
+        return executor.getKeepAliveTime();
+    }
+
+    void setKeepAlive(TimeSpec keepAlive) {
+        executor.setKeepAliveTime(keepAlive.getDuration(), keepAlive.getUnit());
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public long getCompletedTaskCount() {
+        return executor.getCompletedTaskCount();
+    }
+
+    public int getCurrentThreadCount() {
+        return executor.getCurrentThreadCount();
+    }
+
+    public int getLargestThreadCount() {
+        return executor.getLargestThreadCount();
+    }
+
+    public int getRejectedCount() {
+        return executor.getRejectedCount();
+    }
+
+    public long getTaskCount() {
+        return executor.getTaskCount();
+    }
+
+    public int getQueueSize() {
+        return executor.getQueueSize();
+    }
+
+    public long getStealCount() {
+        return executor.getStealCount();
+    }
+}
@@ -75,6 +75,11 @@ public interface PoolAttributeDefinitions {
     SimpleAttributeDefinition PRIORITY = new SimpleAttributeDefinition(CommonAttributes.PRIORITY, CommonAttributes.PRIORITY, null,
             ModelType.INT, true, true, MeasurementUnit.NONE, new IntRangeValidator(Thread.MIN_PRIORITY, Thread.MAX_PRIORITY, true, true));
 
+    SimpleAttributeDefinition LATENCY_STATISTICS_ENABLED = new SimpleAttributeDefinitionBuilder(CommonAttributes.LATENCY_STATISTICS_ENABLED, ModelType.BOOLEAN, true)
+            .setDefaultValue(new ModelNode(false))
+            .setStorageRuntime()
+            .build();
+
     // Metrics
 
     AttributeDefinition CURRENT_THREAD_COUNT = new SimpleAttributeDefinition(CommonAttributes.CURRENT_THREAD_COUNT, ModelType.INT, false);
@@ -84,4 +89,17 @@ public interface PoolAttributeDefinitions {
     AttributeDefinition COMPLETED_TASK_COUNT = new SimpleAttributeDefinition(CommonAttributes.COMPLETED_TASK_COUNT, ModelType.INT, false);
     AttributeDefinition TASK_COUNT = new SimpleAttributeDefinition(CommonAttributes.TASK_COUNT, ModelType.INT, false);
     AttributeDefinition QUEUE_SIZE = new SimpleAttributeDefinition(CommonAttributes.QUEUE_SIZE, ModelType.INT, false);
+    AttributeDefinition STEAL_COUNT = new SimpleAttributeDefinition(CommonAttributes.STEAL_COUNT, ModelType.LONG, false);
+    AttributeDefinition QUEUE_WAIT_TIME_50TH_PERCENTILE = new SimpleAttributeDefinitionBuilder(CommonAttributes.QUEUE_WAIT_TIME_50TH_PERCENTILE, ModelType.LONG, true)
+            .setMeasurementUnit(MeasurementUnit.NANOSECONDS).setStorageRuntime().build();
+    AttributeDefinition QUEUE_WAIT_TIME_90TH_PERCENTILE = new SimpleAttributeDefinitionBuilder(CommonAttributes.QUEUE_WAIT_TIME_90TH_PERCENTILE, ModelType.LONG, true)
+            .setMeasurementUnit(MeasurementUnit.NANOSECONDS).setStorageRuntime().build();
+    AttributeDefinition QUEUE_WAIT_TIME_99TH_PERCENTILE = new SimpleAttributeDefinitionBuilder(CommonAttributes.QUEUE_WAIT_TIME_99TH_PERCENTILE, ModelType.LONG, true)
+            .setMeasurementUnit(MeasurementUnit.NANOSECONDS).setStorageRuntime().build();
+    AttributeDefinition EXECUTION_TIME_50TH_PERCENTILE = new SimpleAttributeDefinitionBuilder(CommonAttributes.EXECUTION_TIME_50TH_PERCENTILE, ModelType.LONG, true)
+            .setMeasurementUnit(MeasurementUnit.NANOSECONDS).setStorageRuntime().build();
+    AttributeDefinition EXECUTION_TIME_90TH_PERCENTILE = new SimpleAttributeDefinitionBuilder(CommonAttributes.EXECUTION_TIME_90TH_PERCENTILE, ModelType.LONG, true)
+            .setMeasurementUnit(MeasurementUnit.NANOSECONDS).setStorageRuntime().build();
+    AttributeDefinition EXECUTION_TIME_99TH_PERCENTILE = new SimpleAttributeDefinitionBuilder(CommonAttributes.EXECUTION_TIME_99TH_PERCENTILE, ModelType.LONG, true)
+            .setMeasurementUnit(MeasurementUnit.NANOSECONDS).setStorageRuntime().build();
 }
@@ -0,0 +1,148 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long the tasks of a {@link ManagedExecutorService} wait before they start and how long they run.
+ * <p>
+ * Tasks are wrapped when they are submitted. The wait is measured from submission, or for scheduled tasks from the
+ * time the task was due, to the start of the task.
+ */
+final class TaskLatencyRecorder {
+
+    private static final long HALF_LIFE_SECONDS = 60L;
+
+    private final DecayingHistogram queueWaitTimes = new DecayingHistogram(HALF_LIFE_SECONDS, TimeUnit.SECONDS);
+    private final DecayingHistogram executionTimes = new DecayingHistogram(HALF_LIFE_SECONDS, TimeUnit.SECONDS);
+
+    DecayingHistogram getQueueWaitTimes() {
+        return queueWaitTimes;
+    }
+
+    DecayingHistogram getExecutionTimes() {
+        return executionTimes;
+    }
+
+    /**
+     * Wrap a task.
+     *
+     * @param task the task
+     * @param delayNanos the time until the task is due
+     * @param periodNanos the period of a fixed rate task if positive, the delay of a fixed delay task if negative,
+     *                    or {@code 0} for a task which runs once
+     * @return the wrapped task
+     */
+    Runnable wrap(final Runnable task, final long delayNanos, final long periodNanos) {
+        return new TimedRunnable(task, System.nanoTime() + delayNanos, periodNanos);
+    }
+
+    <T> Callable<T> wrap(final Callable<T> task, final long delayNanos) {
+        return new TimedCallable<T>(task, System.nanoTime() + delayNanos);
+    }
+
+    <T> List<Callable<T>> wrap(final Collection<? extends Callable<T>> tasks) {
+        final long now = System.nanoTime();
+        final List<Callable<T>> wrapped = new ArrayList<Callable<T>>(tasks.size());
+        for (Callable<T> task : tasks) {
+            wrapped.add(task == null ? null : new TimedCallable<T>(task, now));
+        }
+        return wrapped;
+    }
+
+    private long started(final long due) {
+        final long now = System.nanoTime();
+        queueWaitTimes.record(now - due, now);
+        return now;
+    }
+
+    private long finished(final long start) {
+        final long now = System.nanoTime();
+        executionTimes.record(now - start, now);
+        return now;
+    }
+
+    final class TimedRunnable implements Runnable {
+        private final Runnable task;
+        private final long period;
+        // runs of a periodic task never overlap
+        private long due;
+
+        TimedRunnable(final Runnable task, final long due, final long period) {
+            this.task = task;
+            this.due = due;
+            this.period = period;
+        }
+
+        public void run() {
+            final long start = started(due);
+            long end = start;
+            try {
+                task.run();
+            } finally {
+                end = finished(start);
+                if (period > 0L) {
+                    due += period;
+                } else if (period < 0L) {
+                    due = end - period;
+                }
+            }
+        }
+
+        long getDue() {
+            return due;
+        }
+
+        public String toString() {
+            return task.toString();
+        }
+    }
+
+    private final class TimedCallable<T> implements Callable<T> {
+        private final Callable<T> task;
+        private final long due;
+
+        TimedCallable(final Callable<T> task, final long due) {
+            this.task = task;
+            this.due = due;
+        }
+
+        public T call() throws Exception {
+            final long start = started(due);
+            try {
+                return task.call();
+            } finally {
+                finished(start);
+            }
+        }
+
+        public String toString() {
+            return task.toString();
+        }
+    }
+}
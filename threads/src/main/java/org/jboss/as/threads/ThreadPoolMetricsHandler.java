@@ -21,9 +21,15 @@
  */
 package org.jboss.as.threads;
 
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WRITE_ATTRIBUTE_OPERATION;
 
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
 import org.jboss.as.controller.AttributeDefinition;
@@ -40,11 +46,26 @@ import org.jboss.msc.service.ServiceName;
 
 /**
  * Base class for operation step handlers that expose thread pool resource metrics.
+ * <p>
+ * Besides the metrics of the specific pool type, this handler manages the runtime {@code latency-statistics-enabled}
+ * attribute and the queue wait and execution time percentiles recorded while it is {@code true}.
  *
  * @author Alexey Loubyansky
  */
 public abstract class ThreadPoolMetricsHandler extends AbstractRuntimeOnlyHandler {
 
+    private static final List<AttributeDefinition> LATENCY_METRICS = Arrays.asList(
+            PoolAttributeDefinitions.QUEUE_WAIT_TIME_50TH_PERCENTILE, PoolAttributeDefinitions.QUEUE_WAIT_TIME_90TH_PERCENTILE,
+            PoolAttributeDefinitions.QUEUE_WAIT_TIME_99TH_PERCENTILE, PoolAttributeDefinitions.EXECUTION_TIME_50TH_PERCENTILE,
+            PoolAttributeDefinitions.EXECUTION_TIME_90TH_PERCENTILE, PoolAttributeDefinitions.EXECUTION_TIME_99TH_PERCENTILE);
+    private static final Set<String> LATENCY_METRIC_NAMES = new HashSet<String>();
+
+    static {
+        for (AttributeDefinition metric : LATENCY_METRICS) {
+            LATENCY_METRIC_NAMES.add(metric.getName());
+        }
+    }
+
     private final List<AttributeDefinition> metrics;
     private final ServiceName serviceNameBase;
 
@@ -57,25 +78,76 @@ public abstract class ThreadPoolMetricsHandler extends AbstractRuntimeOnlyHandle
         for (AttributeDefinition metric : metrics) {
             registration.registerMetric(metric, this);
         }
+        registration.registerReadWriteAttribute(PoolAttributeDefinitions.LATENCY_STATISTICS_ENABLED, this, this);
+        for (AttributeDefinition metric : LATENCY_METRICS) {
+            registration.registerMetric(metric, this);
+        }
     }
 
     @Override
     protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
         final String attributeName = operation.require(ModelDescriptionConstants.NAME).asString();
-        ServiceController<?> serviceController = getService(context, operation);
-        final Service<?> service = serviceController.getService();
+        final boolean write = WRITE_ATTRIBUTE_OPERATION.equals(operation.require(OP).asString());
+        // A write changes the runtime state of the pool, so the registry must be obtained for modification
+        ServiceController<?> serviceController = getService(context, operation, write);
 
-        setResult(context, attributeName, service);
+        if (attributeName.equals(CommonAttributes.LATENCY_STATISTICS_ENABLED)) {
+            final ManagedExecutorService executor = (ManagedExecutorService) serviceController.getValue();
+            if (write) {
+                final ModelNode model = new ModelNode();
+                model.get(attributeName).set(operation.get(VALUE));
+                final boolean enabled = PoolAttributeDefinitions.LATENCY_STATISTICS_ENABLED.resolveModelAttribute(context, model).asBoolean();
+                final boolean previous = executor.isLatencyStatisticsEnabled();
+                executor.setLatencyStatisticsEnabled(enabled);
+                context.completeStep(new OperationContext.RollbackHandler() {
+                    @Override
+                    public void handleRollback(OperationContext context, ModelNode operation) {
+                        executor.setLatencyStatisticsEnabled(previous);
+                    }
+                });
+                return;
+            }
+            context.getResult().set(executor.isLatencyStatisticsEnabled());
+        } else if (LATENCY_METRIC_NAMES.contains(attributeName)) {
+            final TaskLatencyRecorder recorder = ((ManagedExecutorService) serviceController.getValue()).getLatencyRecorder();
+            // left undefined while latency statistics are disabled
+            if (recorder != null) {
+                setLatencyResult(context, attributeName, recorder);
+            }
+        } else {
+            setResult(context, attributeName, serviceController.getService());
+        }
 
         context.completeStep(OperationContext.RollbackHandler.NOOP_ROLLBACK_HANDLER);
     }
 
+    private static void setLatencyResult(OperationContext context, String attributeName, TaskLatencyRecorder recorder) {
+        if (attributeName.equals(CommonAttributes.QUEUE_WAIT_TIME_50TH_PERCENTILE)) {
+            context.getResult().set(recorder.getQueueWaitTimes().getPercentile(50));
+        } else if (attributeName.equals(CommonAttributes.QUEUE_WAIT_TIME_90TH_PERCENTILE)) {
+            context.getResult().set(recorder.getQueueWaitTimes().getPercentile(90));
+        } else if (attributeName.equals(CommonAttributes.QUEUE_WAIT_TIME_99TH_PERCENTILE)) {
+            context.getResult().set(recorder.getQueueWaitTimes().getPercentile(99));
+        } else if (attributeName.equals(CommonAttributes.EXECUTION_TIME_50TH_PERCENTILE)) {
+            context.getResult().set(recorder.getExecutionTimes().getPercentile(50));
+        } else if (attributeName.equals(CommonAttributes.EXECUTION_TIME_90TH_PERCENTILE)) {
+            context.getResult().set(recorder.getExecutionTimes().getPercentile(90));
+        } else {
+            context.getResult().set(recorder.getExecutionTimes().getPercentile(99));
+        }
+    }
+
     protected abstract void setResult(OperationContext context, String attributeName, Service<?> service) throws OperationFailedException;
 
     protected ServiceController<?> getService(final OperationContext context, final ModelNode operation)
             throws OperationFailedException {
+        return getService(context, operation, false);
+    }
+
+    private ServiceController<?> getService(final OperationContext context, final ModelNode operation, final boolean modify)
+            throws OperationFailedException {
         final String name = Util.getNameFromAddress(operation.require(OP_ADDR));
-        ServiceController<?> controller = context.getServiceRegistry(false).getService(serviceNameBase.append(name));
+        ServiceController<?> controller = context.getServiceRegistry(modify).getService(serviceNameBase.append(name));
         if (controller == null) {
             throw ThreadsMessages.MESSAGES.threadPoolServiceNotFoundForMetrics(serviceNameBase.append(name));
         }
@@ -49,7 +49,10 @@ class ThreadPoolResourceDescriptionResolver extends StandardResourceDescriptionR
                 PoolAttributeDefinitions.THREAD_FACTORY.getName(), PoolAttributeDefinitions.ACTIVE_COUNT.getName(),
                 PoolAttributeDefinitions.COMPLETED_TASK_COUNT.getName(), PoolAttributeDefinitions.CURRENT_THREAD_COUNT.getName(),
                 PoolAttributeDefinitions.LARGEST_THREAD_COUNT.getName(), PoolAttributeDefinitions.TASK_COUNT.getName(),
-                PoolAttributeDefinitions.QUEUE_SIZE.getName()));
+                PoolAttributeDefinitions.QUEUE_SIZE.getName(), PoolAttributeDefinitions.LATENCY_STATISTICS_ENABLED.getName(),
+                PoolAttributeDefinitions.QUEUE_WAIT_TIME_50TH_PERCENTILE.getName(), PoolAttributeDefinitions.QUEUE_WAIT_TIME_90TH_PERCENTILE.getName(),
+                PoolAttributeDefinitions.QUEUE_WAIT_TIME_99TH_PERCENTILE.getName(), PoolAttributeDefinitions.EXECUTION_TIME_50TH_PERCENTILE.getName(),
+                PoolAttributeDefinitions.EXECUTION_TIME_90TH_PERCENTILE.getName(), PoolAttributeDefinitions.EXECUTION_TIME_99TH_PERCENTILE.getName()));
 
         // note we don't include REJECTED_COUNT as it has a different definition in different resources
     }
@@ -100,6 +100,7 @@ public class ThreadsExtension implements Extension {
         ScheduledThreadPoolResourceDefinition.registerTransformers1_0(builder);
         UnboundedQueueThreadPoolResourceDefinition.registerTransformers1_0(builder);
         ThreadFactoryResourceDefinition.registerTransformers1_0(builder);
+        WorkStealingThreadPoolResourceDefinition.registerTransformers(builder);
         TransformationDescription.Tools.register(builder.build(), subsystem, ModelVersion.create(1, 0, 0));
 
     }
@@ -24,6 +24,7 @@ package org.jboss.as.threads;
 
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import javax.xml.stream.Location;
@@ -142,4 +143,22 @@ interface ThreadsMessages {
 
     @Message(id = 12479, value = "unit is null")
     IllegalArgumentException nullUnit();
+
+    @Message(id = 12480, value = "Unsupported attribute '%s'")
+    IllegalStateException unsupportedWorkStealingThreadPoolMetric(String attributeName);
+
+    @Message(id = 12481, value = "Unsupported attribute '%s'")
+    IllegalStateException unsupportedWorkStealingThreadPoolAttribute(String attributeName);
+
+    @Message(id = 12482, value = "The executor service hasn't been initialized.")
+    IllegalStateException workStealingThreadPoolExecutorUninitialized();
+
+    @Message(id = 12483, value = "Service '%s' not found.")
+    OperationFailedException workStealingThreadPoolServiceNotFound(ServiceName serviceName);
+
+    @Message(id = 12484, value = "Executor has been shut down")
+    RejectedExecutionException executorShutDown();
+
+    @Message(id = 12485, value = "Thread factory did not create a worker thread")
+    RejectedExecutionException noWorkerThread();
 }
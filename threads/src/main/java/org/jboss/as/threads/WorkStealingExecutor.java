@@ -0,0 +1,549 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An executor which gives each worker thread its own task deque rather than sharing one queue between all
+ * workers.
+ * <p>
+ * A task submitted from a pool thread is pushed onto the head of that thread's deque and is taken back from the
+ * head, so fine-grained fan-out stays with the worker which produced it. Tasks submitted from other threads are
+ * spread over the deques round-robin. A worker which runs out of tasks steals from the tail of the other deques
+ * before it parks. Every deque has its own lock, so threads only contend when they touch the same deque.
+ * <p>
+ * Workers are created lazily, at most one per deque, and exit after being idle for the keep-alive time.
+ */
+public class WorkStealingExecutor extends AbstractExecutorService {
+
+    private static final int RUNNING = 0;
+    private static final int SHUTDOWN = 1;
+    private static final int STOP = 2;
+    private static final int TERMINATED = 3;
+
+    private final ThreadFactory threadFactory;
+    private final ThreadLocal<Slot> currentSlot = new ThreadLocal<Slot>();
+    private final AtomicInteger nextSlot = new AtomicInteger();
+    // bumped after every submission; a worker only parks if it has not moved since the worker last scanned
+    private final AtomicLong submissions = new AtomicLong();
+    private final AtomicInteger liveWorkers = new AtomicInteger();
+    private final AtomicInteger largestThreadCount = new AtomicInteger();
+    private final AtomicInteger rejectedCount = new AtomicInteger();
+    private final Object lifecycleLock = new Object();
+
+    private volatile Slot[] slots;
+    private volatile int parallelism;
+    private volatile long keepAliveNanos;
+    private volatile int state = RUNNING;
+
+    /**
+     * Create a new instance.
+     *
+     * @param parallelism the maximum number of worker threads, which is also the number of deques
+     * @param keepAliveTime the time an idle worker waits for a task before exiting, or {@link Long#MAX_VALUE} to
+     *                      keep idle workers until shutdown
+     * @param unit the unit of {@code keepAliveTime}
+     * @param threadFactory the factory used to create worker threads
+     */
+    public WorkStealingExecutor(final int parallelism, final long keepAliveTime, final TimeUnit unit, final ThreadFactory threadFactory) {
+        if (threadFactory == null) {
+            throw new IllegalArgumentException("threadFactory is null");
+        }
+        this.threadFactory = threadFactory;
+        final int size = Math.max(1, parallelism);
+        final Slot[] slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot(i);
+        }
+        this.slots = slots;
+        this.parallelism = size;
+        setKeepAliveTime(keepAliveTime, unit);
+    }
+
+    @Override
+    public void execute(final Runnable task) {
+        if (task == null) {
+            throw new NullPointerException("task is null");
+        }
+        Slot slot = currentSlot.get();
+        final boolean local = slot != null;
+        if (!local) {
+            slot = slots[(nextSlot.getAndIncrement() & Integer.MAX_VALUE) % parallelism];
+        }
+        final Lock lock = slot.lock;
+        lock.lock();
+        try {
+            if (state != RUNNING) {
+                rejectedCount.incrementAndGet();
+                throw ThreadsMessages.MESSAGES.executorShutDown();
+            }
+            if (slot.thread == null) {
+                startWorker(slot);
+            }
+            if (local) {
+                slot.tasks.addFirst(task);
+            } else {
+                slot.tasks.addLast(task);
+            }
+            slot.size++;
+            slot.submitted++;
+        } finally {
+            lock.unlock();
+        }
+        submissions.incrementAndGet();
+        signalWork(slot, local);
+    }
+
+    // Called with the slot's lock held
+    private void startWorker(final Slot slot) {
+        final Thread thread = threadFactory.newThread(new Worker(slot));
+        if (thread == null) {
+            rejectedCount.incrementAndGet();
+            throw ThreadsMessages.MESSAGES.noWorkerThread();
+        }
+        startWorker(slot, thread);
+    }
+
+    // Called with the slot's lock held
+    private void startWorker(final Slot slot, final Thread thread) {
+        slot.thread = thread;
+        final int live = liveWorkers.incrementAndGet();
+        int largest;
+        while (live > (largest = largestThreadCount.get()) && !largestThreadCount.compareAndSet(largest, live)) {
+            // retry
+        }
+        thread.start();
+    }
+
+    /**
+     * Make sure a worker will pick up a task just pushed onto {@code target}. A task pushed by a pool thread sits
+     * behind the task that pushed it, so unless a parked worker can be woken a helper is started on a deque which
+     * has no worker yet, so that it can steal the task.
+     */
+    private void signalWork(final Slot target, final boolean local) {
+        if (target.waiting) {
+            target.signal();
+            return;
+        }
+        final Slot[] slots = this.slots;
+        final int parallelism = Math.min(this.parallelism, slots.length);
+        Slot idle = null;
+        for (int i = 0; i < parallelism; i++) {
+            final Slot slot = slots[i];
+            if (slot.waiting) {
+                slot.signal();
+                return;
+            }
+            if (idle == null && slot.thread == null) {
+                idle = slot;
+            }
+        }
+        if (local && idle != null) {
+            startHelper(idle);
+        }
+    }
+
+    private void startHelper(final Slot slot) {
+        final Lock lock = slot.lock;
+        lock.lock();
+        try {
+            if (state == RUNNING && slot.thread == null && slot.index < parallelism) {
+                // The task is already queued, so a factory which refuses to create a helper is not an error
+                final Thread thread = threadFactory.newThread(new Worker(slot));
+                if (thread != null) {
+                    startWorker(slot, thread);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        synchronized (lifecycleLock) {
+            if (state == RUNNING) {
+                state = SHUTDOWN;
+            }
+            // taking every lock makes sure no submitter which saw RUNNING is still on its way in
+            for (Slot slot : slots) {
+                slot.signalAll();
+            }
+        }
+        tryTerminate();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        final List<Runnable> pending = new ArrayList<Runnable>();
+        synchronized (lifecycleLock) {
+            if (state < STOP) {
+                state = STOP;
+            }
+            for (Slot slot : slots) {
+                slot.lock.lock();
+                try {
+                    pending.addAll(slot.tasks);
+                    slot.tasks.clear();
+                    slot.size = 0;
+                    if (slot.thread != null) {
+                        slot.thread.interrupt();
+                    }
+                    slot.available.signalAll();
+                } finally {
+                    slot.lock.unlock();
+                }
+            }
+        }
+        tryTerminate();
+        return pending;
+    }
+
+    private void tryTerminate() {
+        synchronized (lifecycleLock) {
+            if (state == RUNNING || state == TERMINATED || liveWorkers.get() != 0) {
+                return;
+            }
+            state = TERMINATED;
+            lifecycleLock.notifyAll();
+        }
+        terminated();
+    }
+
+    /**
+     * Called once, after the executor has been shut down and the last worker has exited.
+     */
+    protected void terminated() {
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return state != RUNNING;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return state == TERMINATED;
+    }
+
+    @Override
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        final long deadline = System.nanoTime() + remaining;
+        synchronized (lifecycleLock) {
+            while (state != TERMINATED) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(lifecycleLock, remaining);
+                remaining = deadline - System.nanoTime();
+            }
+            return true;
+        }
+    }
+
+    public int getMaxThreads() {
+        return parallelism;
+    }
+
+    /**
+     * Change the number of deques, and so the maximum number of workers. Workers of deques beyond the new size
+     * drain their deque and exit.
+     *
+     * @param maxThreads the new maximum number of worker threads
+     */
+    public void setMaxThreads(final int maxThreads) {
+        final int size = Math.max(1, maxThreads);
+        synchronized (lifecycleLock) {
+            final Slot[] current = slots;
+            if (size > current.length) {
+                final Slot[] grown = Arrays.copyOf(current, size);
+                for (int i = current.length; i < size; i++) {
+                    grown[i] = new Slot(i);
+                }
+                slots = grown;
+            }
+            parallelism = size;
+            final Slot[] all = slots;
+            for (int i = size; i < all.length; i++) {
+                all[i].signal();
+            }
+        }
+    }
+
+    public long getKeepAliveTime() {
+        return keepAliveNanos;
+    }
+
+    public void setKeepAliveTime(final long keepAliveTime, final TimeUnit unit) {
+        keepAliveNanos = keepAliveTime == Long.MAX_VALUE ? Long.MAX_VALUE : unit.toNanos(keepAliveTime);
+        for (Slot slot : slots) {
+            if (slot.waiting) {
+                slot.signal();
+            }
+        }
+    }
+
+    public int getActiveCount() {
+        int count = 0;
+        for (Slot slot : slots) {
+            if (slot.active) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public long getCompletedTaskCount() {
+        long count = 0;
+        for (Slot slot : slots) {
+            count += slot.completed;
+        }
+        return count;
+    }
+
+    public int getCurrentThreadCount() {
+        return liveWorkers.get();
+    }
+
+    public int getLargestThreadCount() {
+        return largestThreadCount.get();
+    }
+
+    public int getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    public long getTaskCount() {
+        long count = 0;
+        for (Slot slot : slots) {
+            count += slot.submitted;
+        }
+        return count;
+    }
+
+    public int getQueueSize() {
+        int size = 0;
+        for (Slot slot : slots) {
+            size += slot.size;
+        }
+        return size;
+    }
+
+    /**
+     * Get the number of tasks which workers have taken from another worker's deque.
+     *
+     * @return the steal count
+     */
+    public long getStealCount() {
+        long count = 0;
+        for (Slot slot : slots) {
+            count += slot.steals;
+        }
+        return count;
+    }
+
+    private static final class Slot {
+        final int index;
+        final Lock lock = new ReentrantLock();
+        final Condition available = lock.newCondition();
+        // guarded by lock
+        final ArrayDeque<Runnable> tasks = new ArrayDeque<Runnable>();
+        // written under lock, read without it
+        volatile Thread thread;
+        volatile int size;
+        volatile long submitted;
+        // written by the slot's worker only
+        volatile long completed;
+        volatile long steals;
+        volatile boolean active;
+        volatile boolean waiting;
+
+        Slot(final int index) {
+            this.index = index;
+        }
+
+        Runnable pollFirst() {
+            lock.lock();
+            try {
+                final Runnable task = tasks.pollFirst();
+                if (task != null) {
+                    size--;
+                }
+                return task;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        Runnable pollLast() {
+            lock.lock();
+            try {
+                final Runnable task = tasks.pollLast();
+                if (task != null) {
+                    size--;
+                }
+                return task;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void signal() {
+            lock.lock();
+            try {
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void signalAll() {
+            lock.lock();
+            try {
+                available.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private final class Worker implements Runnable {
+        private final Slot slot;
+
+        Worker(final Slot slot) {
+            this.slot = slot;
+        }
+
+        public void run() {
+            currentSlot.set(slot);
+            try {
+                for (;;) {
+                    final long seen = submissions.get();
+                    Runnable task = slot.pollFirst();
+                    if (task == null) {
+                        task = steal();
+                    }
+                    if (task != null) {
+                        runTask(task);
+                    } else if (!await(seen)) {
+                        return;
+                    }
+                }
+            } finally {
+                currentSlot.remove();
+                if (liveWorkers.decrementAndGet() == 0 && state != RUNNING) {
+                    tryTerminate();
+                }
+            }
+        }
+
+        private Runnable steal() {
+            final Slot[] slots = WorkStealingExecutor.this.slots;
+            final int length = slots.length;
+            for (int i = 1; i < length; i++) {
+                final Slot victim = slots[(slot.index + i) % length];
+                if (victim.size > 0) {
+                    final Runnable task = victim.pollLast();
+                    if (task != null) {
+                        slot.steals++;
+                        return task;
+                    }
+                }
+            }
+            return null;
+        }
+
+        private void runTask(final Runnable task) {
+            if (state < STOP) {
+                // clear an interrupt left over from the previous task
+                Thread.interrupted();
+            }
+            slot.active = true;
+            try {
+                task.run();
+            } catch (Throwable t) {
+                final Thread thread = Thread.currentThread();
+                final Thread.UncaughtExceptionHandler handler = thread.getUncaughtExceptionHandler();
+                if (handler != null) {
+                    handler.uncaughtException(thread, t);
+                }
+            } finally {
+                slot.active = false;
+                slot.completed++;
+            }
+        }
+
+        /**
+         * Park until a task may be available.
+         *
+         * @param seen the submission count read before the last scan
+         * @return {@code false} if this worker has given up its deque and must exit
+         */
+        private boolean await(final long seen) {
+            final Lock lock = slot.lock;
+            lock.lock();
+            try {
+                if (!slot.tasks.isEmpty()) {
+                    return true;
+                }
+                if (state != RUNNING || slot.index >= parallelism) {
+                    slot.thread = null;
+                    return false;
+                }
+                slot.waiting = true;
+                try {
+                    if (submissions.get() != seen) {
+                        return true;
+                    }
+                    final long nanos = keepAliveNanos;
+                    if (nanos == Long.MAX_VALUE) {
+                        slot.available.await();
+                    } else if (slot.available.awaitNanos(nanos) <= 0 && slot.tasks.isEmpty() && submissions.get() == seen) {
+                        slot.thread = null;
+                        return false;
+                    }
+                } catch (InterruptedException e) {
+                    // shutdownNow(); the state is checked on the next pass
+                } finally {
+                    slot.waiting = false;
+                }
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
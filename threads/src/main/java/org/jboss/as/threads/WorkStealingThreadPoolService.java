@@ -0,0 +1,152 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.threads;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.msc.inject.Injector;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.InjectedValue;
+
+/**
+ * Service responsible for creating, starting and stopping a work stealing thread pool executor.
+ */
+public class WorkStealingThreadPoolService implements Service<ManagedWorkStealingExecutorService> {
+    private final InjectedValue<ThreadFactory> threadFactoryValue = new InjectedValue<ThreadFactory>();
+
+    private ManagedWorkStealingExecutorService executor;
+    private StopContext context;
+
+    private int maxThreads;
+    private TimeSpec keepAlive;
+
+    public WorkStealingThreadPoolService(int maxThreads, TimeSpec keepAlive) {
+        this.maxThreads = maxThreads;
+        this.keepAlive = keepAlive;
+    }
+
+    public synchronized void start(final StartContext context) throws StartException {
+        final TimeSpec keepAliveSpec = keepAlive;
+        long keepAliveTime = keepAliveSpec == null ? Long.MAX_VALUE : keepAliveSpec.getUnit().toNanos(keepAliveSpec.getDuration());
+        executor = new ManagedWorkStealingExecutorService(new ExecutorImpl(maxThreads, keepAliveTime, threadFactoryValue.getValue()));
+    }
+
+    public synchronized void stop(final StopContext context) {
+        final ManagedWorkStealingExecutorService executor = getValue();
+        this.context = context;
+        context.asynchronous();
+        executor.internalShutdown();
+        this.executor = null;
+    }
+
+    public synchronized ManagedWorkStealingExecutorService getValue() throws IllegalStateException {
+        final ManagedWorkStealingExecutorService value = this.executor;
+        if (value == null) {
+            throw ThreadsMessages.MESSAGES.workStealingThreadPoolExecutorUninitialized();
+        }
+        return value;
+    }
+
+    public Injector<ThreadFactory> getThreadFactoryInjector() {
+        return threadFactoryValue;
+    }
+
+    public synchronized void setMaxThreads(final int maxThreads) {
+        this.maxThreads = maxThreads;
+        final ManagedWorkStealingExecutorService executor = this.executor;
+        if(executor != null) {
+            executor.setMaxThreads(maxThreads);
+        }
+    }
+
+    public synchronized void setKeepAlive(final TimeSpec keepAlive) {
+        this.keepAlive = keepAlive;
+        final ManagedWorkStealingExecutorService executor = this.executor;
+        if(executor != null) {
+            executor.setKeepAlive(keepAlive);
+        }
+    }
+
+    public int getActiveCount() {
+        final ManagedWorkStealingExecutorService executor = getValue();
+        return executor.getActiveCount();
+    }
+
+    public long getCompletedTaskCount() {
+        final ManagedWorkStealingExecutorService executor = getValue();
+        return executor.getCompletedTaskCount();
+    }
+
+    public int getCurrentThreadCount() {
+        final ManagedWorkStealingExecutorService executor = getValue();
+        return executor.getCurrentThreadCount();
+    }
+
+    public int getLargestThreadCount() {
+        final ManagedWorkStealingExecutorService executor = getValue();
+        return executor.getLargestThreadCount();
+    }
+
+    public int getRejectedCount() {
+        final ManagedWorkStealingExecutorService executor = getValue();
+        return executor.getRejectedCount();
+    }
+
+    public long getTaskCount() {
+        final ManagedWorkStealingExecutorService executor = getValue();
+        return executor.getTaskCount();
+    }
+
+    public int getQueueSize() {
+        final ManagedWorkStealingExecutorService executor = getValue();
+        return executor.getQueueSize();
+    }
+
+    public long getStealCount() {
+        final ManagedWorkStealingExecutorService executor = getValue();
+        return executor.getStealCount();
+    }
+
+    TimeUnit getKeepAliveUnit() {
+        return keepAlive == null ? TimeSpec.DEFAULT_KEEPALIVE.getUnit() : keepAlive.getUnit();
+    }
+
+    private class ExecutorImpl extends WorkStealingExecutor {
+
+        ExecutorImpl(final int maxThreads, final long keepAliveTime, final ThreadFactory threadFactory) {
+            super(maxThreads, keepAliveTime, TimeUnit.NANOSECONDS, threadFactory);
+        }
+
+        protected void terminated() {
+            synchronized (WorkStealingThreadPoolService.this) {
+                super.terminated();
+                context.complete();
+                context = null;
+            }
+        }
+    }
+}
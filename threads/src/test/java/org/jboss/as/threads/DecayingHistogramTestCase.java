@@ -0,0 +1,114 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.threads;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DecayingHistogramTestCase {
+
+    private static final long HALF_LIFE = TimeUnit.SECONDS.toNanos(60L);
+
+    @Test
+    public void testBucketBoundaries() {
+        // Below eight every value has its own bucket
+        for (int i = 0; i < 8; i++) {
+            Assert.assertEquals(i, DecayingHistogram.index(i));
+            Assert.assertEquals(i, DecayingHistogram.highestValue(i));
+        }
+        Assert.assertEquals(8, DecayingHistogram.index(8L));
+        Assert.assertEquals(15, DecayingHistogram.index(15L));
+        Assert.assertEquals(16, DecayingHistogram.index(16L));
+        Assert.assertEquals(16, DecayingHistogram.index(17L));
+        Assert.assertEquals(17, DecayingHistogram.index(18L));
+        Assert.assertEquals(17L, DecayingHistogram.highestValue(16));
+
+        // Every value falls in a bucket whose upper bound is at most 12.5% above it, and above the previous bucket
+        for (long value = 1L; value > 0L && value < Long.MAX_VALUE / 3L; value = value * 3L + 1L) {
+            for (long v = value; v < value + 16L; v++) {
+                final int index = DecayingHistogram.index(v);
+                final long highest = DecayingHistogram.highestValue(index);
+                Assert.assertTrue(v + " above its bucket", highest >= v);
+                Assert.assertTrue(v + " below the previous bucket", index == 0 || DecayingHistogram.highestValue(index - 1) < v);
+                Assert.assertTrue(v + " bucket too wide", highest - v <= v / 8L);
+            }
+        }
+
+        final int last = DecayingHistogram.index(Long.MAX_VALUE);
+        Assert.assertEquals((64 - 3) * 8 - 1, last);
+        Assert.assertEquals(Long.MAX_VALUE, DecayingHistogram.highestValue(last));
+    }
+
+    @Test
+    public void testPercentileRank() {
+        final long now = System.nanoTime();
+        final DecayingHistogram histogram = new DecayingHistogram(60L, TimeUnit.SECONDS, now);
+        Assert.assertEquals(0L, histogram.getPercentile(50, now));
+
+        record(histogram, 1L, 90, now);
+        record(histogram, 5L, 9, now);
+        record(histogram, 7L, 1, now);
+        Assert.assertEquals(1L, histogram.getPercentile(0, now));
+        Assert.assertEquals(1L, histogram.getPercentile(50, now));
+        Assert.assertEquals(1L, histogram.getPercentile(90, now));
+        Assert.assertEquals(5L, histogram.getPercentile(90.5, now));
+        Assert.assertEquals(5L, histogram.getPercentile(99, now));
+        Assert.assertEquals(7L, histogram.getPercentile(100, now));
+
+        // Negative values count as zero
+        histogram.record(-10L, now);
+        Assert.assertEquals(0L, histogram.getPercentile(0, now));
+    }
+
+    @Test
+    public void testHalving() {
+        final long start = System.nanoTime();
+        final DecayingHistogram histogram = new DecayingHistogram(60L, TimeUnit.SECONDS, start);
+        record(histogram, 1L, 3, start);
+        record(histogram, 7L, 2, start + HALF_LIFE - 1L);
+        // Nothing has decayed yet, three of the five values are 1
+        Assert.assertEquals(1L, histogram.getPercentile(50, start + HALF_LIFE - 1L));
+
+        // One half-life later the counts are 1 and 1
+        Assert.assertEquals(1L, histogram.getPercentile(50, start + HALF_LIFE));
+        Assert.assertEquals(7L, histogram.getPercentile(100, start + HALF_LIFE));
+
+        // A new value now outweighs the decayed ones
+        record(histogram, 5L, 2, start + HALF_LIFE);
+        Assert.assertEquals(5L, histogram.getPercentile(50, start + HALF_LIFE));
+
+        // Several half-lives at once shift by the number that passed, clearing everything
+        Assert.assertEquals(0L, histogram.getPercentile(50, start + 4L * HALF_LIFE));
+        record(histogram, 3L, 1, start + 4L * HALF_LIFE);
+        Assert.assertEquals(3L, histogram.getPercentile(100, start + 4L * HALF_LIFE));
+    }
+
+    private static void record(final DecayingHistogram histogram, final long value, final int times, final long now) {
+        for (int i = 0; i < times; i++) {
+            histogram.record(value, now);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.threads;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.threads.TaskLatencyRecorder.TimedRunnable;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TaskLatencyRecorderTestCase {
+
+    private static final long PERIOD = TimeUnit.MILLISECONDS.toNanos(250L);
+
+    @Test
+    public void testFixedRateDue() {
+        final TaskLatencyRecorder recorder = new TaskLatencyRecorder();
+        final AtomicInteger runs = new AtomicInteger();
+        final TimedRunnable task = (TimedRunnable) recorder.wrap(new CountingTask(runs), PERIOD, PERIOD);
+        final long due = task.getDue();
+        task.run();
+        // A fixed rate task is due a whole period after it was last due, however long it ran
+        Assert.assertEquals(due + PERIOD, task.getDue());
+        task.run();
+        Assert.assertEquals(due + 2L * PERIOD, task.getDue());
+        Assert.assertEquals(2, runs.get());
+    }
+
+    @Test
+    public void testFixedDelayDue() {
+        final TaskLatencyRecorder recorder = new TaskLatencyRecorder();
+        final TimedRunnable task = (TimedRunnable) recorder.wrap(new CountingTask(new AtomicInteger()), PERIOD, -PERIOD);
+        for (int i = 0; i < 2; i++) {
+            final long before = System.nanoTime();
+            task.run();
+            final long after = System.nanoTime();
+            // A fixed delay task is due a delay after its last run ended
+            Assert.assertTrue(task.getDue() - (before + PERIOD) >= 0L);
+            Assert.assertTrue(task.getDue() - (after + PERIOD) <= 0L);
+        }
+    }
+
+    @Test
+    public void testOneShotDue() {
+        final TaskLatencyRecorder recorder = new TaskLatencyRecorder();
+        final TimedRunnable task = (TimedRunnable) recorder.wrap(new CountingTask(new AtomicInteger()), PERIOD, 0L);
+        final long due = task.getDue();
+        task.run();
+        Assert.assertEquals(due, task.getDue());
+    }
+
+    @Test
+    public void testFailedRunAdvancesDue() {
+        final TaskLatencyRecorder recorder = new TaskLatencyRecorder();
+        final TimedRunnable task = (TimedRunnable) recorder.wrap(new Runnable() {
+            public void run() {
+                throw new IllegalStateException("expected");
+            }
+        }, 0L, PERIOD);
+        final long due = task.getDue();
+        try {
+            task.run();
+            Assert.fail("The failure should have been rethrown");
+        } catch (IllegalStateException expected) {
+        }
+        Assert.assertEquals(due + PERIOD, task.getDue());
+        Assert.assertTrue(recorder.getExecutionTimes().getPercentile(100) >= 0L);
+    }
+
+    @Test
+    public void testQueueWaitIsMeasuredFromDue() {
+        final TaskLatencyRecorder recorder = new TaskLatencyRecorder();
+        final long overdue = TimeUnit.SECONDS.toNanos(1L);
+        // Due a second ago, so the recorded wait is at least that
+        recorder.wrap(new CountingTask(new AtomicInteger()), -overdue, 0L).run();
+        final long wait = recorder.getQueueWaitTimes().getPercentile(100);
+        Assert.assertTrue(wait >= overdue);
+        Assert.assertTrue(wait <= overdue + overdue / 4L);
+
+        // A task run before it is due records no wait
+        final TaskLatencyRecorder early = new TaskLatencyRecorder();
+        early.wrap(new CountingTask(new AtomicInteger()), TimeUnit.HOURS.toNanos(1L), 0L).run();
+        Assert.assertEquals(0L, early.getQueueWaitTimes().getPercentile(100));
+    }
+
+    private static final class CountingTask implements Runnable {
+        private final AtomicInteger runs;
+
+        CountingTask(final AtomicInteger runs) {
+            this.runs = runs;
+        }
+
+        public void run() {
+            runs.incrementAndGet();
+        }
+    }
+}
@@ -62,6 +62,7 @@ import static org.jboss.as.threads.CommonAttributes.THREAD_NAME_PATTERN;
 import static org.jboss.as.threads.CommonAttributes.TIME;
 import static org.jboss.as.threads.CommonAttributes.UNBOUNDED_QUEUE_THREAD_POOL;
 import static org.jboss.as.threads.CommonAttributes.UNIT;
+import static org.jboss.as.threads.CommonAttributes.WORK_STEALING_THREAD_POOL;
 
 import java.util.List;
 import javax.xml.stream.XMLStreamException;
@@ -237,6 +238,17 @@ public class ThreadsSubsystemParsingTestCase extends AbstractSubsystemTest {
                 unboundedThreadPoolDesc.require(ATTRIBUTES).require(KEEPALIVE_TIME).require(VALUE_TYPE).require(UNIT)
                         .require(TYPE).asType());
 
+        ModelNode workStealingThreadPoolDesc = threadsDescription.get(CHILDREN, WORK_STEALING_THREAD_POOL, MODEL_DESCRIPTION, "*");
+        assertEquals(ModelType.STRING, workStealingThreadPoolDesc.require(ATTRIBUTES).require(NAME).require(TYPE).asType());
+        assertEquals(ModelType.STRING, workStealingThreadPoolDesc.require(ATTRIBUTES).require(THREAD_FACTORY).require(TYPE)
+                .asType());
+        assertEquals(ModelType.INT, workStealingThreadPoolDesc.require(ATTRIBUTES).require(MAX_THREADS).require(TYPE).asType());
+        assertEquals(ModelType.LONG, workStealingThreadPoolDesc.require(ATTRIBUTES).require(KEEPALIVE_TIME).require(VALUE_TYPE)
+                .require(TIME).require(TYPE).asType());
+        assertEquals(ModelType.STRING,
+                workStealingThreadPoolDesc.require(ATTRIBUTES).require(KEEPALIVE_TIME).require(VALUE_TYPE).require(UNIT)
+                        .require(TYPE).asType());
+
     }
 
     @Test
@@ -426,6 +438,56 @@ public class ThreadsSubsystemParsingTestCase extends AbstractSubsystemTest {
         assertEquals(2, threadFactory.keys().size());
     }
 
+    @Test
+    public void testSimpleWorkStealingThreadPool() throws Exception {
+        List<ModelNode> updates = createSubSystem("<work-stealing-thread-pool name=\"test-pool\"><max-threads count=\"1\"/></work-stealing-thread-pool>");
+        assertEquals(2, updates.size());
+        for (ModelNode update : updates) {
+            try {
+                executeForResult(update);
+            } catch (OperationFailedException e) {
+                throw new RuntimeException(e.getFailureDescription().toString());
+            }
+        }
+
+        ModelNode subsystem = model.require("subsystem").require("threads");
+        ModelNode threadPool = subsystem.require("work-stealing-thread-pool");
+        assertEquals(1, threadPool.keys().size());
+    }
+
+    @Test
+    public void testFullWorkStealingThreadPool() throws Exception {
+        List<ModelNode> updates = createSubSystem(
+                "<thread-factory name=\"test-factory\"/>" +
+                        "<work-stealing-thread-pool name=\"test-pool\">" +
+                        "   <max-threads count=\"100\"/>" +
+                        "   <keepalive-time time=\"1000\" unit=\"MILLISECONDS\"/>" +
+                        "   <thread-factory name=\"test-factory\"/>" +
+                        "</work-stealing-thread-pool>");
+
+        executeForResult(updates.get(0));
+        executeForResult(updates.get(1));
+        executeForResult(updates.get(2));
+
+        ModelNode subsystem = model.require("subsystem").require("threads");
+        ModelNode threadPool = subsystem.require("work-stealing-thread-pool");
+        assertEquals(1, threadPool.keys().size());
+        assertEquals(100, threadPool.require("test-pool").require(MAX_THREADS).asInt());
+        assertEquals(1000L, threadPool.require("test-pool").require(KEEPALIVE_TIME).require(TIME).asLong());
+        assertEquals("MILLISECONDS", threadPool.require("test-pool").require(KEEPALIVE_TIME).require(UNIT).asString());
+        assertEquals("test-factory", threadPool.require("test-pool").require(THREAD_FACTORY).asString());
+    }
+
+    @Test
+    public void testWorkStealingThreadPool1_0() throws Exception {
+        try {
+            createSubSystem("<work-stealing-thread-pool name=\"test-pool\"><max-threads count=\"1\"/></work-stealing-thread-pool>",
+                    Namespace.THREADS_1_0);
+            fail("Expected failure for work-stealing-thread-pool in the 1.0 namespace");
+        } catch (XMLStreamException e) {
+        }
+    }
+
     @Test
     public void testSimpleScheduledThreadPool() throws Exception {
         List<ModelNode> updates = createSubSystem("<scheduled-thread-pool name=\"test-pool\"><max-threads count=\"1\"/></scheduled-thread-pool>");
@@ -121,6 +121,38 @@ public class ThreadsSubsystemTestCase extends AbstractSubsystemBaseTest {
         ModelTestUtils.checkFailedTransformedBootOperations(mainServices, version_1_0_0, xmlOps, getConfig());
     }
 
+    @Test
+    public void testRejectWorkStealingThreadPoolAS712() throws Exception {
+        testRejectWorkStealingThreadPool_1_0_0("7.1.2.Final");
+    }
+
+    @Test
+    public void testRejectWorkStealingThreadPoolAS713() throws Exception {
+        testRejectWorkStealingThreadPool_1_0_0("7.1.3.Final");
+    }
+
+    private void testRejectWorkStealingThreadPool_1_0_0(String mavenVersion) throws Exception {
+        KernelServicesBuilder builder = createKernelServicesBuilder(createAdditionalInitialization());
+
+        ModelVersion version_1_0_0 = ModelVersion.create(1, 0, 0);
+        builder.createLegacyKernelServicesBuilder(null, version_1_0_0)
+                .addMavenResourceURL("org.jboss.as:jboss-as-threads:" + mavenVersion);
+
+        KernelServices mainServices = builder.build();
+        KernelServices legacyServices = mainServices.getLegacyServices(version_1_0_0);
+
+        Assert.assertNotNull(legacyServices);
+        Assert.assertTrue("main services did not boot", mainServices.isSuccessfulBoot());
+        Assert.assertTrue(legacyServices.isSuccessfulBoot());
+
+        List<ModelNode> xmlOps = builder.parseXmlResource("threads-work-stealing.xml");
+
+        ModelTestUtils.checkFailedTransformedBootOperations(mainServices, version_1_0_0, xmlOps,
+                new FailedOperationTransformationConfig()
+                        .addFailedAttribute(PathAddress.pathAddress(ThreadsExtension.SUBSYSTEM_PATH, PathElement.pathElement(CommonAttributes.WORK_STEALING_THREAD_POOL)),
+                                FailedOperationTransformationConfig.REJECTED_RESOURCE));
+    }
+
     private FailedOperationTransformationConfig getConfig() {
         PathAddress subsystemAddress = PathAddress.pathAddress(ThreadsExtension.SUBSYSTEM_PATH);
         FailedOperationTransformationConfig.RejectExpressionsConfig keepaliveOnly =
@@ -0,0 +1,264 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.threads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class WorkStealingExecutorTestCase {
+
+    private static final long TIMEOUT_SECONDS = 10L;
+
+    private WorkStealingExecutor executor;
+
+    @After
+    public void tearDown() throws Exception {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor.awaitTermination(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testFanOut() throws Exception {
+        executor = create(4, 60L, TimeUnit.SECONDS);
+        final int children = 100;
+        final CountDownLatch done = new CountDownLatch(children);
+        executor.execute(new Runnable() {
+            public void run() {
+                // Pushed onto this worker's own deque, the other workers have to steal them
+                for (int i = 0; i < children; i++) {
+                    executor.execute(new Runnable() {
+                        public void run() {
+                            sleep(5L);
+                            done.countDown();
+                        }
+                    });
+                }
+            }
+        });
+        Assert.assertTrue(done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        Assert.assertTrue("helper workers were not started", executor.getLargestThreadCount() > 1);
+        Assert.assertTrue("no tasks were stolen", executor.getStealCount() > 0);
+        Assert.assertEquals(children + 1, executor.getTaskCount());
+    }
+
+    @Test
+    public void testBlockedParentJoin() throws Exception {
+        executor = create(2, 60L, TimeUnit.SECONDS);
+        final Future<Integer> parent = executor.submit(new Callable<Integer>() {
+            public Integer call() throws Exception {
+                final List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+                for (int i = 0; i < 4; i++) {
+                    final int value = i;
+                    futures.add(executor.submit(new Callable<Integer>() {
+                        public Integer call() {
+                            return value;
+                        }
+                    }));
+                }
+                // The children sit behind this task on its deque, only a helper can run them
+                int sum = 0;
+                for (Future<Integer> future : futures) {
+                    sum += future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                }
+                return sum;
+            }
+        });
+        Assert.assertEquals(Integer.valueOf(6), parent.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testShutdownRunsQueuedTasks() throws Exception {
+        executor = create(1, 60L, TimeUnit.SECONDS);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger ran = new AtomicInteger();
+        executor.execute(new Runnable() {
+            public void run() {
+                awaitQuietly(release);
+            }
+        });
+        for (int i = 0; i < 10; i++) {
+            executor.execute(new Runnable() {
+                public void run() {
+                    ran.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        Assert.assertTrue(executor.isShutdown());
+        try {
+            executor.execute(new Runnable() {
+                public void run() {
+                }
+            });
+            Assert.fail("Expected the task to be rejected after shutdown");
+        } catch (RejectedExecutionException expected) {
+        }
+        Assert.assertEquals(1, executor.getRejectedCount());
+        Assert.assertFalse(executor.isTerminated());
+
+        release.countDown();
+        Assert.assertTrue(executor.awaitTermination(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        Assert.assertEquals(10, ran.get());
+        Assert.assertEquals(0, executor.getCurrentThreadCount());
+        Assert.assertEquals(0, executor.getQueueSize());
+    }
+
+    @Test
+    public void testShutdownNowReturnsQueuedTasks() throws Exception {
+        executor = create(1, 60L, TimeUnit.SECONDS);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final AtomicInteger ran = new AtomicInteger();
+        executor.execute(new Runnable() {
+            public void run() {
+                started.countDown();
+                try {
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+            }
+        });
+        Assert.assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        for (int i = 0; i < 10; i++) {
+            executor.execute(new Runnable() {
+                public void run() {
+                    ran.incrementAndGet();
+                }
+            });
+        }
+        final List<Runnable> pending = executor.shutdownNow();
+        Assert.assertEquals(10, pending.size());
+        Assert.assertTrue(interrupted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        Assert.assertTrue(executor.awaitTermination(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        Assert.assertEquals(0, ran.get());
+        Assert.assertEquals(0, executor.getQueueSize());
+    }
+
+    @Test
+    public void testShrinkMaxThreads() throws Exception {
+        executor = create(4, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        final CyclicBarrier barrier = new CyclicBarrier(5);
+        // Tasks from outside the pool are spread over the deques, so every deque gets a worker
+        for (int i = 0; i < 4; i++) {
+            executor.execute(new Runnable() {
+                public void run() {
+                    try {
+                        barrier.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            });
+        }
+        barrier.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        Assert.assertEquals(4, executor.getCurrentThreadCount());
+
+        executor.setMaxThreads(1);
+        Assert.assertEquals(1, executor.getMaxThreads());
+        awaitThreadCount(1);
+
+        // The remaining worker still takes new tasks
+        final CountDownLatch done = new CountDownLatch(5);
+        for (int i = 0; i < 5; i++) {
+            executor.execute(new Runnable() {
+                public void run() {
+                    done.countDown();
+                }
+            });
+        }
+        Assert.assertTrue(done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        Assert.assertEquals(1, executor.getCurrentThreadCount());
+    }
+
+    @Test
+    public void testKeepAliveExit() throws Exception {
+        executor = create(2, 50L, TimeUnit.MILLISECONDS);
+        final CountDownLatch done = new CountDownLatch(2);
+        for (int i = 0; i < 2; i++) {
+            executor.execute(new Runnable() {
+                public void run() {
+                    done.countDown();
+                }
+            });
+        }
+        Assert.assertTrue(done.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        Assert.assertEquals(2, executor.getLargestThreadCount());
+        awaitThreadCount(0);
+
+        // Workers are started again on demand
+        final CountDownLatch again = new CountDownLatch(1);
+        executor.execute(new Runnable() {
+            public void run() {
+                again.countDown();
+            }
+        });
+        Assert.assertTrue(again.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        Assert.assertFalse(executor.isShutdown());
+    }
+
+    private static WorkStealingExecutor create(final int parallelism, final long keepAliveTime, final TimeUnit unit) {
+        return new WorkStealingExecutor(parallelism, keepAliveTime, unit, Executors.defaultThreadFactory());
+    }
+
+    private void awaitThreadCount(final int expected) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (executor.getCurrentThreadCount() != expected) {
+            if (System.nanoTime() - deadline > 0) {
+                Assert.fail("Expected " + expected + " worker threads but found " + executor.getCurrentThreadCount());
+            }
+            Thread.sleep(10L);
+        }
+    }
+
+    private static void awaitQuietly(final CountDownLatch latch) {
+        try {
+            latch.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
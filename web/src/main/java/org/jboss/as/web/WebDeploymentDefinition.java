@@ -36,6 +36,7 @@ import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.web.session.DistributableSessionManager;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.jboss.msc.service.ServiceController;
@@ -133,6 +134,9 @@ public class WebDeploymentDefinition extends SimpleResourceDefinition {
                     case REJECTED_SESSIONS:
                         result.set(sm.getRejectedSessions());
                         break;
+                    case KNOWN_SESSION_VERSION_HIT_RATIO:
+                        result.set((sm instanceof DistributableSessionManager) ? ((DistributableSessionManager<?>) sm).getDistributedCacheManager().getKnownSessionVersionHitRatio() : 0);
+                        break;
                     default:
                         throw new IllegalStateException(WebMessages.MESSAGES.unknownMetric(stat));
                 }
@@ -152,7 +156,8 @@ public class WebDeploymentDefinition extends SimpleResourceDefinition {
         SESSION_AVG_ALIVE_TIME(new SimpleAttributeDefinition("session-avg-alive-time", ModelType.INT, false)),
         SESSION_MAX_ALIVE_TIME(new SimpleAttributeDefinition("session-max-alive-time", ModelType.INT, false)),
         REJECTED_SESSIONS(new SimpleAttributeDefinition("rejected-sessions", ModelType.INT, false)),
-        MAX_ACTIVE_SESSIONS(new SimpleAttributeDefinition("max-active-sessions", ModelType.INT, false));
+        MAX_ACTIVE_SESSIONS(new SimpleAttributeDefinition("max-active-sessions", ModelType.INT, false)),
+        KNOWN_SESSION_VERSION_HIT_RATIO(new SimpleAttributeDefinition("known-session-version-hit-ratio", ModelType.DOUBLE, false));
 
         private static final Map<String, SessionStat> MAP = new HashMap<String, SessionStat>();
 
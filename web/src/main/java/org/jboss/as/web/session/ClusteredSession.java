@@ -521,10 +521,14 @@ public abstract class ClusteredSession<O extends OutgoingDistributableSessionDat
 
                 try {
                     if (support.acquireSessionOwnership(this.realId, needNewLock()) == SessionOwnershipSupport.LockResult.ACQUIRED_FROM_CLUSTER) {
-                        IncomingDistributableSessionData data = this.distributedCacheManager.getSessionData(this.realId, false);
-                        if (data != null) {
-                            // We may be out of date re: the distributed cache
-                            update(data);
+                        // Skip the lookup if our version is known to be current
+                        Integer knownVersion = this.distributedCacheManager.getKnownSessionVersion(this.realId);
+                        if ((knownVersion == null) || (knownVersion.intValue() != this.getVersion())) {
+                            IncomingDistributableSessionData data = this.distributedCacheManager.getSessionData(this.realId, false);
+                            if (data != null) {
+                                // We may be out of date re: the distributed cache
+                                update(data);
+                            }
                         }
                     }
                 } finally {
@@ -71,6 +71,14 @@ public class MockDistributedCacheManager implements DistributedCacheManager<Outg
         return null;
     }
 
+    public Integer getKnownSessionVersion(String realId) {
+        return null;
+    }
+
+    public double getKnownSessionVersionHitRatio() {
+        return 0;
+    }
+
     public Map<String, String> getSessionIds() {
         return Collections.emptyMap();
     }
@@ -67,4 +67,21 @@ final class SecurityActions {
         }
     }
 
+    /**
+     * Gets a system property.
+     *
+     * @param key the property name
+     * @return the property value, or {@code null} if it is not set
+     */
+    static String getSystemProperty(final String key) {
+        if (System.getSecurityManager() == null) {
+            return System.getProperty(key);
+        } else {
+            return AccessController.doPrivileged(new PrivilegedAction<String>() {
+                public String run() {
+                    return System.getProperty(key);
+                }
+            });
+        }
+    }
 }
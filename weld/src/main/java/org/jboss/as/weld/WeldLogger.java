@@ -22,6 +22,7 @@
 
 package org.jboss.as.weld;
 
+import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Member;
 import java.net.URL;
@@ -123,4 +124,8 @@ public interface WeldLogger extends BasicLogger {
     @LogMessage(level = Logger.Level.WARN)
     @Message(value = "URL scanner does not understand the URL protocol %s, CDI beans will not be scanned.", id = 16016)
     void doNotUnderstandProtocol(URL url);
+
+    @LogMessage(level = Logger.Level.WARN)
+    @Message(value = "Could not write external bean archive cache file %s", id = 16017)
+    void couldNotWriteExternalBeanArchiveCache(File file, @Cause IOException e);
 }
@@ -22,6 +22,7 @@
 
 package org.jboss.as.weld;
 
+import java.io.File;
 import java.util.List;
 
 import org.jboss.as.controller.AbstractBoottimeAddStepHandler;
@@ -29,8 +30,10 @@ import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.ServiceVerificationHandler;
 import org.jboss.as.server.AbstractDeploymentChainStep;
 import org.jboss.as.server.DeploymentProcessorTarget;
+import org.jboss.as.server.ServerEnvironment;
 import org.jboss.as.server.deployment.Phase;
 import org.jboss.as.weld.deployment.CdiAnnotationProcessor;
+import org.jboss.as.weld.deployment.ExternalBeanArchiveCache;
 import org.jboss.as.weld.deployment.processors.BeanArchiveProcessor;
 import org.jboss.as.weld.deployment.processors.BeansXmlProcessor;
 import org.jboss.as.weld.deployment.processors.ExternalBeanArchiveProcessor;
@@ -55,6 +58,8 @@ class WeldSubsystemAdd extends AbstractBoottimeAddStepHandler {
 
     static final WeldSubsystemAdd INSTANCE = new WeldSubsystemAdd();
 
+    private static final String EXTERNAL_BEAN_ARCHIVE_CACHE = "org.jboss.as.weld.external-bean-archive-cache";
+
     protected void populateModel(ModelNode operation, ModelNode model) {
         model.setEmptyObject();
     }
@@ -67,7 +72,7 @@ class WeldSubsystemAdd extends AbstractBoottimeAddStepHandler {
                 processorTarget.addDeploymentProcessor(WeldExtension.SUBSYSTEM_NAME, Phase.DEPENDENCIES, Phase.DEPENDENCIES_WELD, new WeldDependencyProcessor());
                 processorTarget.addDeploymentProcessor(WeldExtension.SUBSYSTEM_NAME, Phase.POST_MODULE, Phase.POST_MODULE_WELD_WEB_INTEGRATION, new WebIntegrationProcessor());
                 processorTarget.addDeploymentProcessor(WeldExtension.SUBSYSTEM_NAME, Phase.POST_MODULE, Phase.POST_MODULE_WELD_BEAN_ARCHIVE, new BeanArchiveProcessor());
-                processorTarget.addDeploymentProcessor(WeldExtension.SUBSYSTEM_NAME, Phase.POST_MODULE, Phase.POST_MODULE_WELD_EXTERNAL_BEAN_ARCHIVE, new ExternalBeanArchiveProcessor());
+                processorTarget.addDeploymentProcessor(WeldExtension.SUBSYSTEM_NAME, Phase.POST_MODULE, Phase.POST_MODULE_WELD_EXTERNAL_BEAN_ARCHIVE, new ExternalBeanArchiveProcessor(new ExternalBeanArchiveCache(getExternalBeanArchiveCacheDirectory())));
                 processorTarget.addDeploymentProcessor(WeldExtension.SUBSYSTEM_NAME, Phase.POST_MODULE, Phase.POST_MODULE_WELD_PORTABLE_EXTENSIONS, new WeldPortableExtensionProcessor());
                 processorTarget.addDeploymentProcessor(WeldExtension.SUBSYSTEM_NAME, Phase.POST_MODULE, Phase.POST_MODULE_WELD_COMPONENT_INTEGRATION, new WeldComponentIntegrationProcessor());
                 processorTarget.addDeploymentProcessor(WeldExtension.SUBSYSTEM_NAME, Phase.INSTALL, Phase.INSTALL_WELD_DEPLOYMENT, new WeldDeploymentProcessor());
@@ -80,6 +85,17 @@ class WeldSubsystemAdd extends AbstractBoottimeAddStepHandler {
                 Mode.ON_DEMAND).install());
     }
 
+    /**
+     * The on-disk cache of external bean archives is kept in the server data directory, when enabled.
+     */
+    private static File getExternalBeanArchiveCacheDirectory() {
+        final String dataDir = SecurityActions.getSystemProperty(ServerEnvironment.SERVER_DATA_DIR);
+        if (dataDir == null || !Boolean.parseBoolean(SecurityActions.getSystemProperty(EXTERNAL_BEAN_ARCHIVE_CACHE))) {
+            return null;
+        }
+        return new File(dataDir, "weld" + File.separator + "external-bean-archives");
+    }
+
     protected boolean requiresRuntimeVerification() {
         return false;
     }
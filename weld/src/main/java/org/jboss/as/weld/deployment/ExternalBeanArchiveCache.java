@@ -0,0 +1,220 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.weld.deployment;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.math.BigInteger;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jboss.as.weld.WeldLogger;
+
+/**
+ * Cache of the classes discovered in external bean archives, so that the jars of static modules which contain a
+ * {@code META-INF/beans.xml} are scanned once rather than on every deployment that can see them.
+ * <p>
+ * Only archives read from jar files are cached. An entry is keyed on the jar file and is discarded as soon as the
+ * modification time or size of the jar changes. If a cache directory is given, discovered classes are also kept there
+ * so that they survive a restart.
+ */
+public class ExternalBeanArchiveCache {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final ConcurrentMap<File, CachedArchive> archives = new ConcurrentHashMap<File, CachedArchive>();
+    private final File cacheDirectory;
+
+    /**
+     * @param cacheDirectory the directory holding the on-disk cache, or {@code null} to keep the cache in memory only
+     */
+    public ExternalBeanArchiveCache(final File cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    /**
+     * Get the classes of the bean archive of a {@code beans.xml} file, scanning the archive if it is not cached.
+     *
+     * @param beansXml the URL of the {@code beans.xml} file
+     * @return the names of the classes of the archive, or {@code null} if the archive could not be scanned
+     */
+    public Set<String> getDiscoveredClasses(final URL beansXml) {
+        final File archive = getArchiveFile(beansXml);
+        if (archive == null || !archive.isFile()) {
+            return scan(beansXml);
+        }
+        final long lastModified = archive.lastModified();
+        final long length = archive.length();
+        final CachedArchive cached = archives.get(archive);
+        if (cached != null && cached.matches(lastModified, length)) {
+            return cached.classes;
+        }
+        final File cacheFile = getCacheFile(archive);
+        Set<String> classes = cacheFile == null ? null : read(cacheFile, archive, lastModified, length);
+        if (classes == null) {
+            classes = scan(beansXml);
+            if (classes == null) {
+                return null;
+            }
+            if (cacheFile != null) {
+                write(cacheFile, archive, lastModified, length, classes);
+            }
+        }
+        archives.put(archive, new CachedArchive(lastModified, length, classes));
+        return classes;
+    }
+
+    private static Set<String> scan(final URL beansXml) {
+        final List<String> discoveredClasses = new ArrayList<String>();
+        if (!new UrlScanner().handleBeansXml(beansXml, discoveredClasses)) {
+            return null;
+        }
+        return Collections.unmodifiableSet(new HashSet<String>(discoveredClasses));
+    }
+
+    /**
+     * Get the jar file holding a {@code beans.xml} file.
+     *
+     * @return the jar file, or {@code null} if the {@code beans.xml} file is not read from a jar file
+     */
+    private static File getArchiveFile(final URL beansXml) {
+        if (!"jar".equals(beansXml.getProtocol())) {
+            return null;
+        }
+        String path = beansXml.getPath();
+        final int separator = path.indexOf("!/");
+        if (!path.startsWith("file:") || separator < 0) {
+            return null;
+        }
+        path = path.substring(5, separator);
+        try {
+            return new File(URLDecoder.decode(path, "UTF-8"));
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private File getCacheFile(final File archive) {
+        if (cacheDirectory == null) {
+            return null;
+        }
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            final byte[] hash = digest.digest(archive.getAbsolutePath().getBytes("UTF-8"));
+            return new File(cacheDirectory, String.format("%040x", new BigInteger(1, hash)) + ".classes");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Set<String> read(final File cacheFile, final File archive, final long lastModified, final long length) {
+        if (!cacheFile.isFile()) {
+            return null;
+        }
+        try {
+            final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)));
+            try {
+                if (in.readInt() != FORMAT_VERSION || !in.readUTF().equals(archive.getAbsolutePath()) || in.readLong() != lastModified || in.readLong() != length) {
+                    return null;
+                }
+                final int count = in.readInt();
+                final Set<String> classes = new HashSet<String>(count);
+                for (int i = 0; i < count; i++) {
+                    classes.add(in.readUTF());
+                }
+                return Collections.unmodifiableSet(classes);
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            WeldLogger.DEPLOYMENT_LOGGER.debugf(e, "Ignoring unreadable external bean archive cache file %s", cacheFile);
+            return null;
+        }
+    }
+
+    private static void write(final File cacheFile, final File archive, final long lastModified, final long length, final Set<String> classes) {
+        File tempFile = null;
+        try {
+            cacheFile.getParentFile().mkdirs();
+            tempFile = File.createTempFile(cacheFile.getName(), ".tmp", cacheFile.getParentFile());
+            final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+            try {
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(archive.getAbsolutePath());
+                out.writeLong(lastModified);
+                out.writeLong(length);
+                out.writeInt(classes.size());
+                for (String className : classes) {
+                    out.writeUTF(className);
+                }
+            } finally {
+                out.close();
+            }
+            if (!tempFile.renameTo(cacheFile)) {
+                cacheFile.delete();
+                if (!tempFile.renameTo(cacheFile)) {
+                    throw new IOException(tempFile.getAbsolutePath());
+                }
+            }
+        } catch (IOException e) {
+            if (tempFile != null) {
+                tempFile.delete();
+            }
+            WeldLogger.DEPLOYMENT_LOGGER.couldNotWriteExternalBeanArchiveCache(cacheFile, e);
+        }
+    }
+
+    private static final class CachedArchive {
+        private final long lastModified;
+        private final long length;
+        private final Set<String> classes;
+
+        CachedArchive(final long lastModified, final long length, final Set<String> classes) {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.classes = classes;
+        }
+
+        boolean matches(final long lastModified, final long length) {
+            return this.lastModified == lastModified && this.length == length;
+        }
+    }
+}
@@ -31,6 +31,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.jboss.as.ee.structure.SpecDescriptorPropertyReplacement;
 import org.jboss.as.server.deployment.Attachments;
@@ -46,7 +47,7 @@ import org.jboss.as.weld.deployment.BeanArchiveMetadata;
 import org.jboss.as.weld.deployment.BeanDeploymentArchiveImpl;
 import org.jboss.as.weld.deployment.BeanDeploymentModule;
 import org.jboss.as.weld.deployment.BeansXmlParser;
-import org.jboss.as.weld.deployment.UrlScanner;
+import org.jboss.as.weld.deployment.ExternalBeanArchiveCache;
 import org.jboss.as.weld.deployment.WeldAttachments;
 import org.jboss.as.weld.deployment.WeldDeploymentMetadata;
 import org.jboss.as.weld.services.bootstrap.WeldJpaInjectionServices;
@@ -69,6 +70,12 @@ public class ExternalBeanArchiveProcessor implements DeploymentUnitProcessor {
 
     private static final String META_INF_BEANS_XML = "META-INF/beans.xml";
 
+    private final ExternalBeanArchiveCache cache;
+
+    public ExternalBeanArchiveProcessor(final ExternalBeanArchiveCache cache) {
+        this.cache = cache;
+    }
+
     @Override
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
@@ -150,9 +157,8 @@ public class ExternalBeanArchiveProcessor implements DeploymentUnitProcessor {
             final Module module = entry.getValue().get(0).getAttachment(Attachments.MODULE);
             final BeansXml beansXml = parseBeansXml(entry.getKey(), parser, deploymentUnit);
 
-            final UrlScanner urlScanner = new UrlScanner();
-            final List<String> discoveredClasses = new ArrayList<String>();
-            if(!urlScanner.handleBeansXml(entry.getKey(), discoveredClasses)) {
+            final Set<String> discoveredClasses = cache.getDiscoveredClasses(entry.getKey());
+            if (discoveredClasses == null) {
                 continue;
             }
 
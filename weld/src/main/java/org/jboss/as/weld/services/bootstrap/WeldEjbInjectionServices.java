@@ -21,10 +21,13 @@
  */
 package org.jboss.as.weld.services.bootstrap;
 
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.ejb.EJB;
 import javax.enterprise.inject.spi.InjectionPoint;
@@ -36,7 +39,7 @@ import org.jboss.as.ee.component.ViewDescription;
 import org.jboss.as.naming.ManagedReferenceFactory;
 import org.jboss.as.naming.deployment.ContextNames;
 import org.jboss.as.weld.WeldMessages;
-import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.ServiceRegistry;
 import org.jboss.vfs.VirtualFile;
 import org.jboss.weld.injection.spi.EjbInjectionServices;
@@ -56,6 +59,7 @@ public class WeldEjbInjectionServices implements EjbInjectionServices {
 
     private final VirtualFile deploymentRoot;
 
+    private final ConcurrentMap<Member, ServiceName> resolvedTargets = new ConcurrentHashMap<Member, ServiceName>();
 
     public WeldEjbInjectionServices(ServiceRegistry serviceRegistry, EEModuleDescription moduleDescription, final EEApplicationDescription applicationDescription, final VirtualFile deploymentRoot) {
         if (serviceRegistry == null) {
@@ -79,7 +83,29 @@ public class WeldEjbInjectionServices implements EjbInjectionServices {
 
     @Override
     public Object resolveEjb(InjectionPoint injectionPoint) {
-        //TODO: some of this stuff should be cached
+        // the name of the service behind an injection point does not change for the life of the deployment, so it is
+        // resolved once; the service itself is looked up each time, as it may be restarted
+        ServiceName serviceName = resolvedTargets.get(injectionPoint.getMember());
+        if (serviceName == null) {
+            serviceName = resolveTarget(injectionPoint);
+            resolvedTargets.putIfAbsent(injectionPoint.getMember(), serviceName);
+        }
+        final Object value = serviceRegistry.getRequiredService(serviceName).getValue();
+        if (value instanceof ManagedReferenceFactory) {
+            return ((ManagedReferenceFactory) value).getReference().getInstance();
+        }
+        try {
+            return ((ComponentView) value).createInstance().getInstance();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Resolve the name of the service providing the target of an injection point, either the binder of an
+     * {@code @EJB(lookup)} name or the service of the matching EJB view.
+     */
+    private ServiceName resolveTarget(InjectionPoint injectionPoint) {
         EJB ejb = injectionPoint.getAnnotated().getAnnotation(EJB.class);
         if (ejb == null) {
             throw WeldMessages.MESSAGES.annotationNotFound(EJB.class, injectionPoint.getMember());
@@ -89,9 +115,7 @@ public class WeldEjbInjectionServices implements EjbInjectionServices {
         }
         if (!ejb.lookup().equals("")) {
             final ContextNames.BindInfo ejbBindInfo = ContextNames.bindInfoFor(moduleDescription.getApplicationName(), moduleDescription.getModuleName(), moduleDescription.getModuleName(), ejb.lookup());
-            ServiceController<?> controller = serviceRegistry.getRequiredService(ejbBindInfo.getBinderServiceName());
-            ManagedReferenceFactory factory = (ManagedReferenceFactory) controller.getValue();
-            return factory.getReference().getInstance();
+            return ejbBindInfo.getBinderServiceName();
         } else {
             final Set<ViewDescription> viewService;
             if (ejb.beanName().isEmpty()) {
@@ -113,19 +137,13 @@ public class WeldEjbInjectionServices implements EjbInjectionServices {
                 throw WeldMessages.MESSAGES.moreThanOneEjbResolved(ejb, injectionPoint.getMember(), viewService);
             }
             final ViewDescription viewDescription = viewService.iterator().next();
-            final ServiceController<?> controller = serviceRegistry.getRequiredService(viewDescription.getServiceName());
-            final ComponentView view = (ComponentView) controller.getValue();
-            try {
-                return view.createInstance().getInstance();
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
+            return viewDescription.getServiceName();
         }
     }
 
     @Override
     public void cleanup() {
-
+        resolvedTargets.clear();
     }
 
     private static Class<?> getType(Type type) {
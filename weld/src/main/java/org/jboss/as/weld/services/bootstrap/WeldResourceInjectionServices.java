@@ -30,6 +30,10 @@ import org.jboss.msc.service.StopContext;
 import org.jboss.weld.injection.spi.ResourceInjectionServices;
 import org.jboss.weld.injection.spi.helpers.AbstractResourceServices;
 
+import java.lang.reflect.Member;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import javax.annotation.Resource;
 import javax.ejb.TimerService;
 import javax.ejb.spi.HandleDelegate;
@@ -51,6 +55,12 @@ public class WeldResourceInjectionServices extends AbstractResourceServices impl
 
     private final Context context;
 
+    /**
+     * The JNDI names of the injection points resolved so far. The looked up values are not cached, as names relative to
+     * {@code java:comp} resolve against the namespace of the component performing the injection.
+     */
+    private final ConcurrentMap<Member, String> resourceNames = new ConcurrentHashMap<Member, String>();
+
     @Override
     public void start(StartContext context) throws StartException {
     }
@@ -99,6 +109,16 @@ public class WeldResourceInjectionServices extends AbstractResourceServices impl
 
     @Override
     protected String getResourceName(InjectionPoint injectionPoint) {
+        final Member member = injectionPoint.getMember();
+        String name = resourceNames.get(member);
+        if (name == null) {
+            name = computeResourceName(injectionPoint);
+            resourceNames.put(member, name);
+        }
+        return name;
+    }
+
+    private String computeResourceName(InjectionPoint injectionPoint) {
         Resource resource = injectionPoint.getAnnotated().getAnnotation(Resource.class);
         String mappedName = resource.mappedName();
         String lookup = resource.lookup();
@@ -114,6 +134,7 @@ public class WeldResourceInjectionServices extends AbstractResourceServices impl
 
     @Override
     public void cleanup() {
+        resourceNames.clear();
     }
 
 }
@@ -0,0 +1,163 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.weld.deployment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ExternalBeanArchiveCacheTestCase {
+
+    private static final long LAST_MODIFIED = 1356998400000L;
+
+    private File dir;
+    private File cacheDir;
+    private File jar;
+
+    @Before
+    public void setUp() {
+        this.dir = new File("target", "external-bean-archive-cache-test");
+        this.cacheDir = new File(this.dir, "cache");
+        this.jar = new File(this.dir, "module.jar");
+        this.dir.mkdirs();
+    }
+
+    @After
+    public void tearDown() {
+        delete(this.dir);
+    }
+
+    @Test
+    public void cacheHit() throws Exception {
+        this.writeJar("org/test/Bean.class");
+        ExternalBeanArchiveCache cache = new ExternalBeanArchiveCache(null);
+
+        Set<String> classes = cache.getDiscoveredClasses(this.beansXml());
+        assertEquals(classes("org.test.Bean"), classes);
+        assertSame(classes, cache.getDiscoveredClasses(this.beansXml()));
+        // Nothing is written without a cache directory
+        assertTrue(!this.cacheDir.exists());
+    }
+
+    @Test
+    public void invalidation() throws Exception {
+        this.writeJar("org/test/Bean.class");
+        ExternalBeanArchiveCache cache = new ExternalBeanArchiveCache(null);
+        Set<String> classes = cache.getDiscoveredClasses(this.beansXml());
+        assertEquals(classes("org.test.Bean"), classes);
+
+        // Different size, same modification time
+        this.writeJar("org/test/Bean.class", "org/test/OtherBean.class");
+        Set<String> changed = cache.getDiscoveredClasses(this.beansXml());
+        assertEquals(classes("org.test.Bean", "org.test.OtherBean"), changed);
+
+        // Same size, different modification time
+        this.writeJar("org/test/Bean.class", "org/test/OtherBeen.class");
+        this.jar.setLastModified(LAST_MODIFIED + 2000);
+        assertEquals(classes("org.test.Bean", "org.test.OtherBeen"), cache.getDiscoveredClasses(this.beansXml()));
+    }
+
+    @Test
+    public void diskCache() throws Exception {
+        this.writeJar("org/test/Bean.class");
+        Set<String> classes = new ExternalBeanArchiveCache(this.cacheDir).getDiscoveredClasses(this.beansXml());
+        assertEquals(classes("org.test.Bean"), classes);
+        assertEquals(1, this.cacheDir.listFiles().length);
+
+        // A jar of the same size and modification time is taken to be unchanged, so a new cache must read the classes from disk
+        this.writeJar("org/test/Been.class");
+        ExternalBeanArchiveCache cache = new ExternalBeanArchiveCache(this.cacheDir);
+        assertEquals(classes("org.test.Bean"), cache.getDiscoveredClasses(this.beansXml()));
+
+        // A changed jar is scanned again, and its cache file replaced
+        this.jar.setLastModified(LAST_MODIFIED + 2000);
+        assertEquals(classes("org.test.Been"), cache.getDiscoveredClasses(this.beansXml()));
+        assertEquals(1, this.cacheDir.listFiles().length);
+        assertEquals(classes("org.test.Been"), new ExternalBeanArchiveCache(this.cacheDir).getDiscoveredClasses(this.beansXml()));
+    }
+
+    @Test
+    public void directory() throws Exception {
+        // Archives not read from a jar file are scanned every time
+        File root = new File(this.dir, "exploded");
+        new File(root, "META-INF").mkdirs();
+        new File(root, "META-INF/beans.xml").createNewFile();
+        new File(root, "org/test").mkdirs();
+        new File(root, "org/test/Bean.class").createNewFile();
+        URL beansXml = new File(root, "META-INF/beans.xml").toURI().toURL();
+        ExternalBeanArchiveCache cache = new ExternalBeanArchiveCache(this.cacheDir);
+
+        Set<String> classes = cache.getDiscoveredClasses(beansXml);
+        assertEquals(classes("org.test.Bean"), classes);
+        assertNotSame(classes, cache.getDiscoveredClasses(beansXml));
+        assertTrue(!this.cacheDir.exists());
+    }
+
+    private URL beansXml() throws IOException {
+        return new URL("jar:" + this.jar.toURI().toURL().toExternalForm() + "!/META-INF/beans.xml");
+    }
+
+    private void writeJar(String... classFiles) throws IOException {
+        ZipOutputStream output = new ZipOutputStream(new FileOutputStream(this.jar));
+        try {
+            output.putNextEntry(new ZipEntry("META-INF/beans.xml"));
+            output.closeEntry();
+            for (String classFile : classFiles) {
+                output.putNextEntry(new ZipEntry(classFile));
+                output.closeEntry();
+            }
+        } finally {
+            output.close();
+        }
+        this.jar.setLastModified(LAST_MODIFIED);
+    }
+
+    private static Set<String> classes(String... classes) {
+        return new HashSet<String>(Arrays.asList(classes));
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
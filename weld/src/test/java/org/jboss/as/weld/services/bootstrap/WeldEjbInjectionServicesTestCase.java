@@ -0,0 +1,98 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.weld.services.bootstrap;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+
+import java.lang.reflect.Field;
+
+import javax.ejb.EJB;
+import javax.enterprise.inject.spi.Annotated;
+import javax.enterprise.inject.spi.InjectionPoint;
+
+import org.jboss.as.ee.component.EEApplicationDescription;
+import org.jboss.as.ee.component.EEModuleDescription;
+import org.jboss.as.naming.ManagedReference;
+import org.jboss.as.naming.ManagedReferenceFactory;
+import org.jboss.as.naming.deployment.ContextNames;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.ServiceRegistry;
+import org.jboss.vfs.VFS;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the caching of the service names resolved by {@link WeldEjbInjectionServices}.
+ */
+public class WeldEjbInjectionServicesTestCase {
+    private static final String LOOKUP = "java:global/app/module/bean";
+
+    private final ServiceRegistry registry = mock(ServiceRegistry.class);
+    private final InjectionPoint injectionPoint = mock(InjectionPoint.class);
+    private final Annotated annotated = mock(Annotated.class);
+    private final ServiceName binderName = ContextNames.bindInfoFor(LOOKUP).getBinderServiceName();
+    private WeldEjbInjectionServices services;
+
+    Object bean;
+
+    @Before
+    public void setUp() throws Exception {
+        EEModuleDescription module = new EEModuleDescription("app", "module", null, false);
+        this.services = new WeldEjbInjectionServices(this.registry, module, new EEApplicationDescription(), VFS.getChild("module.jar"));
+
+        Field field = this.getClass().getDeclaredField("bean");
+        EJB ejb = mock(EJB.class);
+        when(ejb.lookup()).thenReturn(LOOKUP);
+        when(this.annotated.getAnnotation(EJB.class)).thenReturn(ejb);
+        when(this.injectionPoint.getAnnotated()).thenReturn(this.annotated);
+        when(this.injectionPoint.getMember()).thenReturn(field);
+
+        ManagedReference reference = mock(ManagedReference.class);
+        when(reference.getInstance()).thenReturn("bean");
+        ManagedReferenceFactory factory = mock(ManagedReferenceFactory.class);
+        when(factory.getReference()).thenReturn(reference);
+        ServiceController<?> controller = mock(ServiceController.class);
+        doReturn(factory).when(controller).getValue();
+        doReturn(controller).when(this.registry).getRequiredService(this.binderName);
+    }
+
+    @Test
+    public void resolveOnce() {
+        assertEquals("bean", this.services.resolveEjb(this.injectionPoint));
+        assertEquals("bean", this.services.resolveEjb(this.injectionPoint));
+
+        // The target is resolved once, but the service is looked up on each injection, as it may be restarted
+        verify(this.annotated, times(1)).getAnnotation(EJB.class);
+        verify(this.registry, times(2)).getRequiredService(this.binderName);
+    }
+
+    @Test
+    public void cleanup() {
+        this.services.resolveEjb(this.injectionPoint);
+        this.services.cleanup();
+        this.services.resolveEjb(this.injectionPoint);
+
+        verify(this.annotated, times(2)).getAnnotation(EJB.class);
+    }
+}
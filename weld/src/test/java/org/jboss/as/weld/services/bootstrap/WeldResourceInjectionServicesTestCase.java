@@ -0,0 +1,75 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2013, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.weld.services.bootstrap;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+
+import java.lang.reflect.Field;
+
+import javax.annotation.Resource;
+import javax.enterprise.inject.spi.Annotated;
+import javax.enterprise.inject.spi.InjectionPoint;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the caching of the JNDI names resolved by {@link WeldResourceInjectionServices}.
+ */
+public class WeldResourceInjectionServicesTestCase {
+    private static final String LOOKUP = "java:jboss/datasources/ExampleDS";
+
+    private final InjectionPoint injectionPoint = mock(InjectionPoint.class);
+    private final Annotated annotated = mock(Annotated.class);
+    private final WeldResourceInjectionServices services = new WeldResourceInjectionServices();
+
+    Object resource;
+
+    @Before
+    public void setUp() throws Exception {
+        Field field = this.getClass().getDeclaredField("resource");
+        Resource resource = mock(Resource.class);
+        when(resource.lookup()).thenReturn(LOOKUP);
+        when(resource.mappedName()).thenReturn("");
+        when(this.annotated.getAnnotation(Resource.class)).thenReturn(resource);
+        when(this.injectionPoint.getAnnotated()).thenReturn(this.annotated);
+        when(this.injectionPoint.getMember()).thenReturn(field);
+    }
+
+    @Test
+    public void resolveOnce() {
+        assertEquals(LOOKUP, this.services.getResourceName(this.injectionPoint));
+        assertEquals(LOOKUP, this.services.getResourceName(this.injectionPoint));
+
+        verify(this.annotated, times(1)).getAnnotation(Resource.class);
+    }
+
+    @Test
+    public void cleanup() {
+        this.services.getResourceName(this.injectionPoint);
+        this.services.cleanup();
+        assertEquals(LOOKUP, this.services.getResourceName(this.injectionPoint));
+
+        verify(this.annotated, times(2)).getAnnotation(Resource.class);
+    }
+}